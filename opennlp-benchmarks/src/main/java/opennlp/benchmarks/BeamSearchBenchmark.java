@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import opennlp.tools.postag.DefaultPOSContextGenerator;
+import opennlp.tools.util.BeamSearch;
+import opennlp.tools.util.Sequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the {@link BeamSearch} with the part-of-speech model and context
+ * generator, an operation is the search of the best sequence of one sentence.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class BeamSearchBenchmark {
+
+  @Param({"3", "10"})
+  public int beamSize;
+
+  private BeamSearch<String> beamSearch;
+
+  private String[][] sentences;
+
+  private int index;
+
+  @Setup
+  public void setup() throws IOException {
+    beamSearch = new BeamSearch<String>(beamSize, new DefaultPOSContextGenerator(null),
+        SyntheticModels.posModel().getPosModel());
+    sentences = SyntheticCorpus.testCorpus().getSentences();
+  }
+
+  @Benchmark
+  public Sequence bestSequence() {
+    String[] sentence = sentences[index];
+    index = (index + 1) % sentences.length;
+    return beamSearch.bestSequence(sentence, null);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks whose names match one of the specified regular
+ * expressions, or all benchmarks if none are specified.
+ * <p>
+ * The GC profiler is always enabled, it reports the allocation rate and the
+ * bytes allocated per operation next to the throughput. All other options of
+ * JMH are available with the <code>org.openjdk.jmh.Main</code> class, which is
+ * also in the benchmarks jar.
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws RunnerException {
+    ChainedOptionsBuilder options = new OptionsBuilder()
+        .addProfiler(GCProfiler.class)
+        .warmupIterations(5)
+        .measurementIterations(5)
+        .forks(1);
+
+    if (args.length == 0) {
+      options.include(".*");
+    }
+    else {
+      for (String include : args) {
+        options.include(include);
+      }
+    }
+
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import opennlp.tools.chunker.ChunkSample;
+import opennlp.tools.chunker.ChunkerME;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link ChunkerME#chunk(String[], String[])}, an operation is the
+ * chunking of one tagged sentence.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ChunkerMEBenchmark {
+
+  private ChunkerME chunker;
+
+  private String[][] sentences;
+
+  private String[][] tags;
+
+  private int index;
+
+  @Setup
+  public void setup() throws IOException {
+    chunker = new ChunkerME(SyntheticModels.chunkerModel());
+
+    List<ChunkSample> samples = SyntheticCorpus.testCorpus().getChunkSamples();
+    sentences = new String[samples.size()][];
+    tags = new String[samples.size()][];
+    for (int i = 0; i < sentences.length; i++) {
+      sentences[i] = samples.get(i).getSentence();
+      tags[i] = samples.get(i).getTags();
+    }
+  }
+
+  @Benchmark
+  public String[] chunk() {
+    int i = index;
+    index = (index + 1) % sentences.length;
+    return chunker.chunk(sentences[i], tags[i]);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import opennlp.maxent.GIS;
+import opennlp.model.AbstractModel;
+import opennlp.model.DataIndexer;
+import opennlp.model.ListEventStream;
+import opennlp.model.OnePassDataIndexer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the GIS training iterations on the events of the training corpus,
+ * an operation is a training with the specified number of iterations. The
+ * events are indexed once, the indexing is not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GISTrainerBenchmark {
+
+  @Param({"10"})
+  public int iterations;
+
+  @Param({"1", "4"})
+  public int threads;
+
+  private DataIndexer indexer;
+
+  @Setup
+  public void setup() throws IOException {
+    indexer = new OnePassDataIndexer(new ListEventStream(
+        SyntheticCorpus.trainingCorpus().getEvents()), 1);
+  }
+
+  @Benchmark
+  public AbstractModel train() {
+    return GIS.trainModel(iterations, indexer, false, false, null, 0, threads);
+  }
+}
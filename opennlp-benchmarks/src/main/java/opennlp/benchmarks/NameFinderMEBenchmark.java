@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.util.Span;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link NameFinderME#find(String[])}, an operation is the search
+ * for the names of one sentence. The adaptive data is cleared after each
+ * pass over the corpus.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class NameFinderMEBenchmark {
+
+  private NameFinderME nameFinder;
+
+  private String[][] sentences;
+
+  private int index;
+
+  @Setup
+  public void setup() throws IOException {
+    nameFinder = new NameFinderME(SyntheticModels.nameFinderModel());
+    sentences = SyntheticCorpus.testCorpus().getSentences();
+  }
+
+  @Benchmark
+  public Span[] find() {
+    String[] sentence = sentences[index];
+    index = (index + 1) % sentences.length;
+    if (index == 0) {
+      nameFinder.clearAdaptiveData();
+    }
+    return nameFinder.find(sentence);
+  }
+}
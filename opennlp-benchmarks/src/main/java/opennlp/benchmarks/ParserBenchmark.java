@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import opennlp.tools.cmdline.parser.ParserTool;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.Parser;
+import opennlp.tools.parser.ParserFactory;
+import opennlp.tools.parser.ParserType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the chunking and the tree insert parser, an operation is the
+ * parsing of one tokenized sentence.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+  @Param({"CHUNKING", "TREEINSERT"})
+  public ParserType type;
+
+  private Parser parser;
+
+  private String[] sentences;
+
+  private int index;
+
+  @Setup
+  public void setup() throws IOException {
+    parser = ParserFactory.create(SyntheticModels.parserModel(type));
+
+    String[][] tokens = SyntheticCorpus.testCorpus().getSentences();
+    sentences = new String[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      StringBuilder sentence = new StringBuilder();
+      for (String token : tokens[i]) {
+        if (sentence.length() > 0) {
+          sentence.append(' ');
+        }
+        sentence.append(token);
+      }
+      sentences[i] = sentence.toString();
+    }
+  }
+
+  @Benchmark
+  public Parse[] parse() {
+    String sentence = sentences[index];
+    index = (index + 1) % sentences.length;
+    return ParserTool.parseLine(sentence, parser, 1);
+  }
+}
@@ -0,0 +1,441 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import opennlp.model.Event;
+import opennlp.tools.chunker.ChunkSample;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.ChunkSampleStream;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.ParseSampleStream;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.sentdetect.SentenceSample;
+import opennlp.tools.tokenize.TokenSample;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Span;
+
+/**
+ * Generates a corpus of random English-like sentences from a small grammar
+ * over a generated vocabulary, and derives the samples of every component from it.
+ * <p>
+ * The sentences are created from the parse trees, the tokens and tags are
+ * taken from the tag nodes, two adjacent proper nouns are a person name and
+ * the punctuation is attached to the previous token in the text. Names may
+ * start with a title which ends with a period, the sentence detector learns
+ * from them that not every period ends a sentence. The same seed
+ * always generates the same corpus.
+ */
+public class SyntheticCorpus {
+
+  /** The seed of the corpus the models are trained on. */
+  public static final long TRAINING_SEED = 0x4F4E4C50L;
+
+  /** The seed of the corpus the benchmarks process. */
+  public static final long TEST_SEED = 0x54455354L;
+
+  /** The head rules of the generated constituents. */
+  public static final String HEAD_RULES =
+      "3 TOP 1 S\n" +
+      "4 S 1 VP S\n" +
+      "4 VP 1 VBD VP\n" +
+      "4 PP 1 IN PP\n";
+
+  public static final String NAME_TYPE = "person";
+
+  private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "sa", "to",
+      "vi", "der", "gan", "bor", "tel", "mun", "pra", "sti", "que"};
+
+  private static final String[] DETERMINERS = {"the", "a", "this", "every", "some"};
+
+  private static final String[] PREPOSITIONS = {"in", "on", "with", "from", "near", "after"};
+
+  private static final String[] CONJUNCTIONS = {"and", "but"};
+
+  private static final String[] TITLES = {"Mr.", "Mrs.", "Dr.", "Prof."};
+
+  /** A node of a generated parse tree, either a constituent or a tag with a word. */
+  private static class Node {
+    private final String label;
+    private String word;
+    private final List<Node> children = new ArrayList<Node>();
+
+    Node(String label) {
+      this.label = label;
+    }
+
+    Node(String label, String word) {
+      this.label = label;
+      this.word = word;
+    }
+
+    Node add(Node child) {
+      children.add(child);
+      return this;
+    }
+
+    Node firstLeaf() {
+      return word != null ? this : children.get(0).firstLeaf();
+    }
+
+    void write(StringBuilder parse) {
+      parse.append('(').append(label).append(' ');
+      if (word != null) {
+        parse.append(word);
+      }
+      else {
+        for (Node child : children) {
+          child.write(parse);
+        }
+      }
+      parse.append(')');
+    }
+  }
+
+  private final Random random;
+
+  private final String[] nouns;
+  private final String[] adjectives;
+  private final String[] verbs;
+  private final String[] names;
+
+  private final List<String> trees;
+
+  /**
+   * Generates a new corpus.
+   *
+   * @param seed the seed of the generator
+   * @param numSentences the number of sentences
+   */
+  public SyntheticCorpus(long seed, int numSentences) {
+    // the vocabulary is the same for all corpora, only the sentences depend on the seed
+    random = new Random(TRAINING_SEED);
+    nouns = createWords(400, "");
+    adjectives = createWords(120, "ish");
+    verbs = createWords(150, "ed");
+    names = createWords(100, "");
+    for (int i = 0; i < names.length; i++) {
+      names[i] = Character.toUpperCase(names[i].charAt(0)) + names[i].substring(1);
+    }
+
+    random.setSeed(seed);
+    trees = new ArrayList<String>(numSentences);
+    for (int i = 0; i < numSentences; i++) {
+      Node sentence = createSentence();
+
+      Node first = sentence.firstLeaf();
+      first.word = Character.toUpperCase(first.word.charAt(0)) + first.word.substring(1);
+
+      StringBuilder parse = new StringBuilder();
+      new Node("TOP").add(sentence).write(parse);
+      trees.add(parse.toString());
+    }
+  }
+
+  private String[] createWords(int count, String suffix) {
+    String[] words = new String[count];
+    for (int i = 0; i < count; i++) {
+      StringBuilder word = new StringBuilder();
+      int numSyllables = 1 + random.nextInt(3);
+      for (int si = 0; si < numSyllables; si++) {
+        word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+      words[i] = word.append(suffix).toString();
+    }
+    return words;
+  }
+
+  /**
+   * Picks a word, the first words of the list are picked more often
+   * to get a skewed distribution as in natural text.
+   */
+  private String pick(String[] words) {
+    double r = random.nextDouble();
+    return words[(int) (r * r * words.length)];
+  }
+
+  private Node createSentence() {
+    Node sentence = new Node("S");
+    if (random.nextInt(5) == 0) {
+      sentence.add(createClause());
+      sentence.add(new Node(",", ","));
+      sentence.add(new Node("CC", pick(CONJUNCTIONS)));
+      sentence.add(createClause());
+    }
+    else {
+      sentence.add(createNounPhrase());
+      sentence.add(createVerbPhrase());
+    }
+    return sentence.add(new Node(".", "."));
+  }
+
+  private Node createClause() {
+    return new Node("S").add(createNounPhrase()).add(createVerbPhrase());
+  }
+
+  private Node createNounPhrase() {
+    Node np = new Node("NP");
+    if (random.nextInt(5) < 2) {
+      if (random.nextInt(4) == 0) {
+        np.add(new Node("NNP", pick(TITLES)));
+      }
+      np.add(new Node("NNP", pick(names)));
+      np.add(new Node("NNP", pick(names)));
+    }
+    else {
+      np.add(new Node("DT", pick(DETERMINERS)));
+      for (int ai = random.nextInt(3); ai > 0; ai--) {
+        np.add(new Node("JJ", pick(adjectives)));
+      }
+      np.add(new Node("NN", pick(nouns)));
+    }
+    return np;
+  }
+
+  private Node createVerbPhrase() {
+    Node vp = new Node("VP");
+    vp.add(new Node("VBD", pick(verbs)));
+    vp.add(createNounPhrase());
+    if (random.nextBoolean()) {
+      vp.add(new Node("PP").add(new Node("IN", pick(PREPOSITIONS))).add(createNounPhrase()));
+    }
+    return vp;
+  }
+
+  /**
+   * Returns the parse trees of the sentences, the trees are created on
+   * each call because the parser training modifies them.
+   */
+  public List<Parse> getParses() {
+    List<Parse> parses = new ArrayList<Parse>(trees.size());
+    for (String tree : trees) {
+      parses.add(Parse.parseParse(tree));
+    }
+    return parses;
+  }
+
+  /**
+   * Returns a stream over the parse trees of the sentences, the trees are
+   * created while the stream is read, after a reset the stream returns new trees.
+   */
+  public ObjectStream<Parse> createParseStream() {
+    return new ParseSampleStream(new CollectionObjectStream<String>(trees));
+  }
+
+  /**
+   * Returns the tokens of the sentences.
+   */
+  public String[][] getSentences() {
+    List<Parse> parses = getParses();
+    String[][] sentences = new String[parses.size()][];
+    for (int i = 0; i < sentences.length; i++) {
+      sentences[i] = getTokens(parses.get(i));
+    }
+    return sentences;
+  }
+
+  private static String[] getTokens(Parse parse) {
+    Parse[] tagNodes = parse.getTagNodes();
+    String[] tokens = new String[tagNodes.length];
+    for (int ti = 0; ti < tagNodes.length; ti++) {
+      tokens[ti] = tagNodes[ti].toString();
+    }
+    return tokens;
+  }
+
+  private static boolean isPunctuation(String token) {
+    return token.equals(",") || token.equals(".");
+  }
+
+  /**
+   * Returns the text of the sentences, the punctuation is attached to the previous token.
+   */
+  public String[] getTexts() {
+    List<TokenSample> samples = getTokenSamples();
+    String[] texts = new String[samples.size()];
+    for (int i = 0; i < texts.length; i++) {
+      texts[i] = samples.get(i).getText();
+    }
+    return texts;
+  }
+
+  /**
+   * Returns the texts of documents, each document consists of the specified
+   * number of consecutive sentences.
+   */
+  public String[] getDocuments(int sentencesPerDocument) {
+    List<SentenceSample> samples = getSentenceSamples(sentencesPerDocument);
+    String[] documents = new String[samples.size()];
+    for (int i = 0; i < documents.length; i++) {
+      documents[i] = samples.get(i).getDocument();
+    }
+    return documents;
+  }
+
+  public List<TokenSample> getTokenSamples() {
+    List<TokenSample> samples = new ArrayList<TokenSample>(trees.size());
+    for (String[] tokens : getSentences()) {
+      StringBuilder text = new StringBuilder();
+      Span[] spans = new Span[tokens.length];
+      for (int ti = 0; ti < tokens.length; ti++) {
+        if (ti > 0 && !isPunctuation(tokens[ti])) {
+          text.append(' ');
+        }
+        spans[ti] = new Span(text.length(), text.length() + tokens[ti].length());
+        text.append(tokens[ti]);
+      }
+      samples.add(new TokenSample(text.toString(), spans));
+    }
+    return samples;
+  }
+
+  public List<SentenceSample> getSentenceSamples(int sentencesPerDocument) {
+    String[] texts = getTexts();
+    List<SentenceSample> samples = new ArrayList<SentenceSample>();
+    for (int si = 0; si < texts.length; si += sentencesPerDocument) {
+      StringBuilder document = new StringBuilder();
+      List<Span> spans = new ArrayList<Span>();
+      for (int di = si; di < Math.min(si + sentencesPerDocument, texts.length); di++) {
+        if (document.length() > 0) {
+          document.append(' ');
+        }
+        spans.add(new Span(document.length(), document.length() + texts[di].length()));
+        document.append(texts[di]);
+      }
+      samples.add(new SentenceSample(document.toString(), spans.toArray(new Span[spans.size()])));
+    }
+    return samples;
+  }
+
+  public List<POSSample> getPOSSamples() {
+    List<POSSample> samples = new ArrayList<POSSample>(trees.size());
+    for (Parse parse : getParses()) {
+      Parse[] tagNodes = parse.getTagNodes();
+      String[] tags = new String[tagNodes.length];
+      for (int ti = 0; ti < tagNodes.length; ti++) {
+        tags[ti] = tagNodes[ti].getType();
+      }
+      samples.add(new POSSample(getTokens(parse), tags));
+    }
+    return samples;
+  }
+
+  /**
+   * Returns the chunks of the sentences, the chunk tags of the parser
+   * are replaced by the B- and I- tags of the chunker.
+   */
+  public List<ChunkSample> getChunkSamples() {
+    List<ChunkSample> samples = new ArrayList<ChunkSample>(trees.size());
+    try {
+      ObjectStream<ChunkSample> chunks =
+          new ChunkSampleStream(new CollectionObjectStream<Parse>(getParses()));
+      for (ChunkSample sample = chunks.read(); sample != null; sample = chunks.read()) {
+        String[] preds = sample.getPreds();
+        for (int pi = 0; pi < preds.length; pi++) {
+          if (preds[pi].startsWith(AbstractBottomUpParser.START)) {
+            preds[pi] = "B-" + preds[pi].substring(AbstractBottomUpParser.START.length());
+          }
+          else if (preds[pi].startsWith(AbstractBottomUpParser.CONT)) {
+            preds[pi] = "I-" + preds[pi].substring(AbstractBottomUpParser.CONT.length());
+          }
+        }
+        samples.add(new ChunkSample(sample.getSentence(), sample.getTags(), preds));
+      }
+    }
+    catch (IOException e) {
+      // the parses are in memory
+      throw new IllegalStateException(e);
+    }
+    return samples;
+  }
+
+  public List<NameSample> getNameSamples() {
+    List<NameSample> samples = new ArrayList<NameSample>(trees.size());
+    for (POSSample sample : getPOSSamples()) {
+      String[] tags = sample.getTags();
+      List<Span> names = new ArrayList<Span>();
+      for (int ti = 0; ti < tags.length; ti++) {
+        if (tags[ti].equals("NNP")) {
+          int start = ti;
+          while (ti + 1 < tags.length && tags[ti + 1].equals("NNP")) {
+            ti++;
+          }
+          names.add(new Span(start, ti + 1, NAME_TYPE));
+        }
+      }
+      samples.add(new NameSample(sample.getSentence(),
+          names.toArray(new Span[names.size()]), false));
+    }
+    return samples;
+  }
+
+  /**
+   * Returns a tagging event for every token, the context contains the word,
+   * its prefix and suffix and the surrounding words.
+   */
+  public List<Event> getEvents() {
+    List<Event> events = new ArrayList<Event>();
+    for (POSSample sample : getPOSSamples()) {
+      String[] tokens = sample.getSentence();
+      String[] tags = sample.getTags();
+      for (int ti = 0; ti < tokens.length; ti++) {
+        String token = tokens[ti];
+        String[] context = {
+            "w=" + token,
+            "pre=" + token.substring(0, Math.min(2, token.length())),
+            "suf=" + token.substring(Math.max(0, token.length() - 3)),
+            "pw=" + (ti > 0 ? tokens[ti - 1] : "*SB*"),
+            "nw=" + (ti + 1 < tokens.length ? tokens[ti + 1] : "*SE*")
+        };
+        events.add(new Event(tags[ti], context));
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Returns the contexts of the events.
+   */
+  public String[][] getContexts() {
+    List<Event> events = getEvents();
+    String[][] contexts = new String[events.size()][];
+    for (int i = 0; i < contexts.length; i++) {
+      contexts[i] = events.get(i).getContext();
+    }
+    return contexts;
+  }
+
+  /**
+   * Returns the corpus the models are trained on.
+   */
+  public static SyntheticCorpus trainingCorpus() {
+    return new SyntheticCorpus(TRAINING_SEED, 3000);
+  }
+
+  /**
+   * Returns the corpus the benchmarks process, its sentences are not in the training corpus.
+   */
+  public static SyntheticCorpus testCorpus() {
+    return new SyntheticCorpus(TEST_SEED, 500);
+  }
+}
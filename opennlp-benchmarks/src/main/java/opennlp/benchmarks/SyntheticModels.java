@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.Collections;
+
+import opennlp.maxent.GIS;
+import opennlp.model.AbstractModel;
+import opennlp.model.BinaryFileDataReader;
+import opennlp.model.GenericModelReader;
+import opennlp.model.GenericModelWriter;
+import opennlp.model.ListEventStream;
+import opennlp.model.MaxentModel;
+import opennlp.model.TwoPassDataIndexer;
+import opennlp.tools.chunker.ChunkSample;
+import opennlp.tools.chunker.ChunkerME;
+import opennlp.tools.chunker.ChunkerModel;
+import opennlp.tools.chunker.DefaultChunkerContextGenerator;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.ParserModel;
+import opennlp.tools.parser.ParserType;
+import opennlp.tools.parser.lang.en.HeadRules;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.sentdetect.SentenceSample;
+import opennlp.tools.tokenize.TokenSample;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.model.BaseModel;
+import opennlp.tools.util.model.ModelUtil;
+
+/**
+ * Trains the models of the benchmarks on the {@link SyntheticCorpus#trainingCorpus()}.
+ * <p>
+ * The build runs {@link #main(String[])} to write the models into the
+ * classes directory, the benchmarks load them from the class path. If a model
+ * is not on the class path, e.g. when a benchmark is started from an IDE, it
+ * is trained when it is requested.
+ */
+public class SyntheticModels {
+
+  private static final String LANGUAGE = "en";
+
+  private static final int ITERATIONS = 100;
+  private static final int CUTOFF = 1;
+
+  private static final String MODEL_PATH = "opennlp/benchmarks/";
+
+  static final String GIS_MODEL = "gis.bin";
+  static final String TOKENIZER_MODEL = "tokenizer.bin";
+  static final String SENTENCE_MODEL = "sentdetect.bin";
+  static final String NAME_FINDER_MODEL = "namefinder.bin";
+  static final String POS_MODEL = "postagger.bin";
+  static final String CHUNKER_MODEL = "chunker.bin";
+  static final String CHUNKING_PARSER_MODEL = "parser-chunking.bin";
+  static final String TREEINSERT_PARSER_MODEL = "parser-treeinsert.bin";
+
+  private SyntheticModels() {
+  }
+
+  private static TrainingParameters createTrainingParameters() {
+    return ModelUtil.createTrainingParameters(ITERATIONS, CUTOFF);
+  }
+
+  public static AbstractModel trainGISModel(SyntheticCorpus corpus) throws IOException {
+    return GIS.trainModel(ITERATIONS, new TwoPassDataIndexer(
+        new ListEventStream(corpus.getEvents()), CUTOFF), false, false, null, 0);
+  }
+
+  public static TokenizerModel trainTokenizerModel(SyntheticCorpus corpus) throws IOException {
+    return TokenizerME.train(LANGUAGE, new CollectionObjectStream<TokenSample>(
+        corpus.getTokenSamples()), true, createTrainingParameters());
+  }
+
+  public static SentenceModel trainSentenceModel(SyntheticCorpus corpus) throws IOException {
+    return SentenceDetectorME.train(LANGUAGE, new CollectionObjectStream<SentenceSample>(
+        corpus.getSentenceSamples(5)), true, null, createTrainingParameters());
+  }
+
+  public static TokenNameFinderModel trainNameFinderModel(SyntheticCorpus corpus)
+      throws IOException {
+    return NameFinderME.train(LANGUAGE, SyntheticCorpus.NAME_TYPE,
+        new CollectionObjectStream<NameSample>(corpus.getNameSamples()),
+        createTrainingParameters(), (AdaptiveFeatureGenerator) null,
+        Collections.<String, Object>emptyMap());
+  }
+
+  public static POSModel trainPOSModel(SyntheticCorpus corpus) throws IOException {
+    return POSTaggerME.train(LANGUAGE, new CollectionObjectStream<POSSample>(
+        corpus.getPOSSamples()), createTrainingParameters(), null, null);
+  }
+
+  public static ChunkerModel trainChunkerModel(SyntheticCorpus corpus) throws IOException {
+    return ChunkerME.train(LANGUAGE, new CollectionObjectStream<ChunkSample>(
+        corpus.getChunkSamples()), new DefaultChunkerContextGenerator(),
+        createTrainingParameters());
+  }
+
+  public static HeadRules createHeadRules() throws IOException {
+    return new HeadRules(new StringReader(SyntheticCorpus.HEAD_RULES));
+  }
+
+  public static ParserModel trainParserModel(SyntheticCorpus corpus, ParserType type)
+      throws IOException {
+    ObjectStream<Parse> parses = corpus.createParseStream();
+
+    if (ParserType.CHUNKING.equals(type)) {
+      return opennlp.tools.parser.chunking.Parser.train(LANGUAGE, parses,
+          createHeadRules(), ITERATIONS, CUTOFF);
+    }
+    else if (ParserType.TREEINSERT.equals(type)) {
+      return opennlp.tools.parser.treeinsert.Parser.train(LANGUAGE, parses,
+          createHeadRules(), ITERATIONS, CUTOFF);
+    }
+    else {
+      throw new IllegalArgumentException("Unknown parser type: " + type);
+    }
+  }
+
+  private static InputStream open(String name) {
+    InputStream in = SyntheticModels.class.getClassLoader().getResourceAsStream(MODEL_PATH + name);
+    return in != null ? new BufferedInputStream(in) : null;
+  }
+
+  public static MaxentModel gisModel() throws IOException {
+    InputStream in = open(GIS_MODEL);
+    if (in == null) {
+      return trainGISModel(SyntheticCorpus.trainingCorpus());
+    }
+    try {
+      return new GenericModelReader(new BinaryFileDataReader(in)).getModel();
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public static TokenizerModel tokenizerModel() throws IOException {
+    InputStream in = open(TOKENIZER_MODEL);
+    if (in == null) {
+      return trainTokenizerModel(SyntheticCorpus.trainingCorpus());
+    }
+    try {
+      return new TokenizerModel(in);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public static SentenceModel sentenceModel() throws IOException {
+    InputStream in = open(SENTENCE_MODEL);
+    if (in == null) {
+      return trainSentenceModel(SyntheticCorpus.trainingCorpus());
+    }
+    try {
+      return new SentenceModel(in);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public static TokenNameFinderModel nameFinderModel() throws IOException {
+    InputStream in = open(NAME_FINDER_MODEL);
+    if (in == null) {
+      return trainNameFinderModel(SyntheticCorpus.trainingCorpus());
+    }
+    try {
+      return new TokenNameFinderModel(in);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public static POSModel posModel() throws IOException {
+    InputStream in = open(POS_MODEL);
+    if (in == null) {
+      return trainPOSModel(SyntheticCorpus.trainingCorpus());
+    }
+    try {
+      return new POSModel(in);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public static ChunkerModel chunkerModel() throws IOException {
+    InputStream in = open(CHUNKER_MODEL);
+    if (in == null) {
+      return trainChunkerModel(SyntheticCorpus.trainingCorpus());
+    }
+    try {
+      return new ChunkerModel(in);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public static ParserModel parserModel(ParserType type) throws IOException {
+    InputStream in = open(ParserType.CHUNKING.equals(type) ? CHUNKING_PARSER_MODEL
+        : TREEINSERT_PARSER_MODEL);
+    if (in == null) {
+      return trainParserModel(SyntheticCorpus.trainingCorpus(), type);
+    }
+    try {
+      return new ParserModel(in);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  private static void write(BaseModel model, File file) throws IOException {
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+    try {
+      model.serialize(out);
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Trains all models and writes them into the specified directory.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: SyntheticModels output_directory");
+      System.exit(1);
+    }
+
+    File directory = new File(args[0], MODEL_PATH);
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Failed to create the directory: " + directory);
+    }
+
+    SyntheticCorpus corpus = SyntheticCorpus.trainingCorpus();
+
+    DataOutputStream gisOut = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(new File(directory, GIS_MODEL))));
+    try {
+      new GenericModelWriter(trainGISModel(corpus), gisOut).persist();
+    }
+    finally {
+      gisOut.close();
+    }
+
+    write(trainTokenizerModel(corpus), new File(directory, TOKENIZER_MODEL));
+    write(trainSentenceModel(corpus), new File(directory, SENTENCE_MODEL));
+    write(trainNameFinderModel(corpus), new File(directory, NAME_FINDER_MODEL));
+    write(trainPOSModel(corpus), new File(directory, POS_MODEL));
+    write(trainChunkerModel(corpus), new File(directory, CHUNKER_MODEL));
+    write(trainParserModel(corpus, ParserType.CHUNKING),
+        new File(directory, CHUNKING_PARSER_MODEL));
+    write(trainParserModel(corpus, ParserType.TREEINSERT),
+        new File(directory, TREEINSERT_PARSER_MODEL));
+  }
+}
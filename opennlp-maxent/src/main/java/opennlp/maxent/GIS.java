@@ -24,6 +24,7 @@ import java.io.IOException;
 import opennlp.model.DataIndexer;
 import opennlp.model.EventStream;
 import opennlp.model.Prior;
+import opennlp.model.TrainUtil;
 import opennlp.model.UniformPrior;
 
 /**
@@ -246,9 +247,41 @@ public class GIS {
   public static GISModel trainModel(int iterations, DataIndexer indexer,
       boolean printMessagesWhileTraining, boolean smoothing, Prior modelPrior,
       int cutoff, int threads) {
+    return trainModel(iterations, indexer, printMessagesWhileTraining,
+        smoothing, modelPrior, cutoff, threads, TrainUtil.THREAD_SCHEDULING_STATIC_VALUE);
+  }
+  
+  /**
+   * Train a model using the GIS algorithm.
+   * 
+   * @param iterations
+   *          The number of GIS iterations to perform.
+   * @param indexer
+   *          The object which will be used for event compilation.
+   * @param printMessagesWhileTraining
+   *          Determines whether training status messages are written to STDOUT.
+   * @param smoothing
+   *          Defines whether the created trainer will use smoothing while
+   *          training the model.
+   * @param modelPrior
+   *          The prior distribution for the model.
+   * @param cutoff
+   *          The number of times a predicate must occur to be used in a model.
+   * @param threads
+   *          The number of threads used to compute the model expectations.
+   * @param threadScheduling
+   *          Defines how the events are distributed among the threads, one of
+   *          the <code>TrainUtil.THREAD_SCHEDULING_*</code> values.
+   * @return The newly trained model, which can be used immediately or saved to
+   *         disk using an opennlp.maxent.io.GISModelWriter object.
+   */
+  public static GISModel trainModel(int iterations, DataIndexer indexer,
+      boolean printMessagesWhileTraining, boolean smoothing, Prior modelPrior,
+      int cutoff, int threads, String threadScheduling) {
     GISTrainer trainer = new GISTrainer(printMessagesWhileTraining);
     trainer.setSmoothing(smoothing);
     trainer.setSmoothingObservation(SMOOTHING_OBSERVATION);
+    trainer.setThreadScheduling(threadScheduling);
     if (modelPrior == null) {
       modelPrior = new UniformPrior();
     }
@@ -27,6 +27,7 @@ import java.text.DecimalFormat;
 import opennlp.model.AbstractModel;
 import opennlp.model.Context;
 import opennlp.model.EvalParameters;
+import opennlp.model.FlatEvalParameters;
 import opennlp.model.Prior;
 import opennlp.model.UniformPrior;
 
@@ -60,6 +61,9 @@ public final class GISModel extends AbstractModel {
   /**
    * Creates a new model with the specified parameters, outcome names, and
    * predicate/feature labels.
+   * <p>
+   * The parameters are copied into a {@link FlatEvalParameters} store, later
+   * changes to the passed contexts do not affect the model.
    * 
    * @param params
    *          The parameters of the model.
@@ -76,7 +80,44 @@ public final class GISModel extends AbstractModel {
    */
   public GISModel(Context[] params, String[] predLabels, String[] outcomeNames,
       int correctionConstant, double correctionParam, Prior prior) {
-    super(params, predLabels, outcomeNames, correctionConstant, correctionParam);
+    super(new FlatEvalParameters(params, correctionParam, correctionConstant,
+        outcomeNames.length), predLabels, outcomeNames);
+    this.prior = prior;
+    prior.setLabels(outcomeNames, predLabels);
+    modelType = ModelType.Maxent;
+  }
+
+  /**
+   * Creates a new model which evaluates the specified parameters directly,
+   * e.g. parameters which are read from a memory mapped model file.
+   * 
+   * @param params
+   *          The parameters of the model.
+   * @param predLabels
+   *          The names of the predicates used in this model.
+   * @param outcomeNames
+   *          The names of the outcomes this model predicts.
+   */
+  public GISModel(EvalParameters params, String[] predLabels, String[] outcomeNames) {
+    this(params, predLabels, outcomeNames, new UniformPrior());
+  }
+
+  /**
+   * Creates a new model which evaluates the specified parameters directly,
+   * e.g. parameters which are read from a memory mapped model file.
+   * 
+   * @param params
+   *          The parameters of the model.
+   * @param predLabels
+   *          The names of the predicates used in this model.
+   * @param outcomeNames
+   *          The names of the outcomes this model predicts.
+   * @param prior
+   *          The prior to be used with this model.
+   */
+  public GISModel(EvalParameters params, String[] predLabels, String[] outcomeNames,
+      Prior prior) {
+    super(params, predLabels, outcomeNames);
     this.prior = prior;
     prior.setLabels(outcomeNames, predLabels);
     modelType = ModelType.Maxent;
@@ -130,6 +171,32 @@ public final class GISModel extends AbstractModel {
     return GISModel.eval(scontexts, values, outsums, evalParams);
   }
 
+
+  public final double[] eval(int[] context, double[] probs) {
+    prior.logPrior(probs, context);
+    return GISModel.eval(context, null, probs, evalParams);
+  }
+  
+  public final double[][] eval(String[][] contexts, double[][] probs) {
+    int[][] scontexts = lookupContexts(contexts);
+    for (int i = 0; i < scontexts.length; i++) {
+      prior.logPrior(probs[i], scontexts[i]);
+      GISModel.eval(scontexts[i], null, probs[i], evalParams);
+    }
+    return probs;
+  }
+  
+  public final double[] eval(String[][] contexts, double[] probs) {
+    int numOutcomes = evalParams.getNumOutcomes();
+    int[][] scontexts = lookupContexts(contexts);
+    double[] outsums = new double[numOutcomes];
+    for (int i = 0; i < scontexts.length; i++) {
+      prior.logPrior(outsums, scontexts[i]);
+      GISModel.eval(scontexts[i], null, outsums, evalParams);
+      System.arraycopy(outsums, 0, probs, i * numOutcomes, numOutcomes);
+    }
+    return probs;
+  }
     
   /**
    * Use this model to evaluate a context and return an array of the likelihood
@@ -172,26 +239,8 @@ public final class GISModel extends AbstractModel {
    */
   public static double[] eval(int[] context, float[] values, double[] prior,
       EvalParameters model) {
-    Context[] params = model.getParams();
     int numfeats[] = new int[model.getNumOutcomes()];
-    int[] activeOutcomes;
-    double[] activeParameters;
-    double value = 1;
-    for (int ci = 0; ci < context.length; ci++) {
-      if (context[ci] >= 0) {
-        Context predParams = params[context[ci]];
-        activeOutcomes = predParams.getOutcomes();
-        activeParameters = predParams.getParameters();
-        if (values != null) {
-          value = values[ci];
-        }
-        for (int ai = 0; ai < activeOutcomes.length; ai++) {
-          int oid = activeOutcomes[ai];
-          numfeats[oid]++;
-          prior[oid] += activeParameters[ai] * value;
-        }
-      }
-    }
+    model.addParameters(context, values, prior, numfeats);
 
     double normal = 0.0;
     for (int oid = 0; oid < model.getNumOutcomes(); oid++) {
@@ -27,6 +27,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import opennlp.model.DataIndexer;
 import opennlp.model.EvalParameters;
@@ -34,6 +35,7 @@ import opennlp.model.EventStream;
 import opennlp.model.MutableContext;
 import opennlp.model.OnePassDataIndexer;
 import opennlp.model.Prior;
+import opennlp.model.TrainUtil;
 import opennlp.model.UniformPrior;
 
 
@@ -154,6 +156,37 @@ class GISTrainer {
 
   private static final double LLThreshold = 0.0001;
 
+  /**
+   * The number of chunks per thread the events are split into when
+   * the dynamic thread scheduling is used.
+   */
+  private static final int CHUNKS_PER_THREAD = 8;
+
+  /**
+   * Defines how the events are assigned to the training threads, one of
+   * the <code>TrainUtil.THREAD_SCHEDULING_*</code> values.
+   */
+  private String threadScheduling = TrainUtil.THREAD_SCHEDULING_STATIC_VALUE;
+
+  /**
+   * The start index of each event partition, the last element is the number
+   * of unique events. The partitions are computed once and used in every iteration.
+   */
+  private int[] partitions;
+
+  /**
+   * The start index of each predicate range which is merged and updated
+   * by one thread, the last element is the number of predicates.
+   */
+  private int[] predPartitions;
+
+  /**
+   * The thread pool which executes the model expectation computation, it is
+   * created once per training and reused by every iteration. 
+   * Null if only one thread is used.
+   */
+  private ExecutorService executor;
+
   /**
    * Initial probability for all outcomes.
    */
@@ -213,6 +246,36 @@ class GISTrainer {
     sigma = sigmaValue;
   }
 
+  /**
+   * Sets how the events are distributed among the threads during training.
+   * <ul>
+   * <li><code>Static</code> assigns each thread the same number of events,
+   * this is the default.</li>
+   * <li><code>Balanced</code> assigns each thread events with roughly the same
+   * total context size.</li>
+   * <li><code>Dynamic</code> splits the events into many small chunks of similar
+   * context size which are picked up by the threads as soon as they are idle.</li>
+   * </ul>
+   * The static and balanced scheduling produce the same model on every run, the
+   * dynamic scheduling might produce tiny numerical differences from run to run
+   * because the order in which the expectations are summed up is not fixed.
+   * The balanced and dynamic scheduling sum up the expectations in a different
+   * order than the static scheduling, so the trained model can differ slightly
+   * from the model which is trained with the same number of threads and the
+   * static scheduling.
+   * 
+   * @param threadScheduling one of the <code>TrainUtil.THREAD_SCHEDULING_*</code> values
+   */
+  public void setThreadScheduling(String threadScheduling) {
+    
+    if (!(TrainUtil.THREAD_SCHEDULING_STATIC_VALUE.equals(threadScheduling) ||
+        TrainUtil.THREAD_SCHEDULING_BALANCED_VALUE.equals(threadScheduling) ||
+        TrainUtil.THREAD_SCHEDULING_DYNAMIC_VALUE.equals(threadScheduling)))
+      throw new IllegalArgumentException("Unknown thread scheduling: " + threadScheduling);
+    
+    this.threadScheduling = threadScheduling;
+  }
+
   /**
    * Trains a GIS model on the event in the specified event stream, using the specified number
    * of iterations and the specified count cutoff.
@@ -391,7 +454,27 @@ class GISTrainer {
     else
       display("Computing model parameters in " + threads +" threads...\n");
     
-    findParameters(iterations, correctionConstant);
+    if (TrainUtil.THREAD_SCHEDULING_DYNAMIC_VALUE.equals(threadScheduling) && threads > 1)
+      partitions = computePartitions(threads * CHUNKS_PER_THREAD, true);
+    else if (TrainUtil.THREAD_SCHEDULING_BALANCED_VALUE.equals(threadScheduling))
+      partitions = computePartitions(threads, true);
+    else
+      partitions = computePartitions(threads, false);
+    
+    predPartitions = computePredicatePartitions(threads);
+    
+    if (threads > 1)
+      executor = Executors.newFixedThreadPool(threads);
+    
+    try {
+      findParameters(iterations, correctionConstant);
+    }
+    finally {
+      if (executor != null) {
+        executor.shutdown();
+        executor = null;
+      }
+    }
 
     /*************** Create and return the model ******************/
     // To be compatible with old models the correction constant is always 1
@@ -399,6 +482,90 @@ class GISTrainer {
 
   }
 
+  /**
+   * Splits the events into the specified number of consecutive partitions.
+   * 
+   * @param numPartitions the number of partitions
+   * @param balanced if true each partition has roughly the same total context
+   *                 size, otherwise each partition has the same number of events
+   * 
+   * @return the start index of each partition followed by the number of events
+   */
+  private int[] computePartitions(int numPartitions, boolean balanced) {
+    
+    int[] starts = new int[numPartitions + 1];
+    
+    if (balanced) {
+      // the cost of an event is dominated by the number of its predicates,
+      // one is added to account for the per event overhead
+      long totalCost = 0;
+      for (int ei = 0; ei < numUniqueEvents; ei++) {
+        totalCost += contexts[ei].length + 1;
+      }
+      
+      long cost = 0;
+      int pi = 1;
+      for (int ei = 0; ei < numUniqueEvents && pi < numPartitions; ei++) {
+        cost += contexts[ei].length + 1;
+        
+        while (pi < numPartitions && cost >= totalCost * pi / numPartitions) {
+          starts[pi++] = ei + 1;
+        }
+      }
+      
+      while (pi < numPartitions) {
+        starts[pi++] = numUniqueEvents;
+      }
+    }
+    else {
+      int taskSize = numUniqueEvents / numPartitions;
+      
+      for (int pi = 1; pi < numPartitions; pi++) {
+        starts[pi] = pi * taskSize;
+      }
+    }
+    
+    starts[numPartitions] = numUniqueEvents;
+    
+    return starts;
+  }
+  
+  /**
+   * Splits the predicates into consecutive ranges with roughly 
+   * the same number of active outcomes.
+   * 
+   * @param numPartitions the number of ranges
+   * 
+   * @return the start index of each range followed by the number of predicates
+   */
+  private int[] computePredicatePartitions(int numPartitions) {
+    
+    long totalCost = 0;
+    for (int pi = 0; pi < numPreds; pi++) {
+      totalCost += params[pi].getOutcomes().length + 1;
+    }
+    
+    int[] starts = new int[numPartitions + 1];
+    
+    long cost = 0;
+    int partition = 1;
+    for (int pi = 0; pi < numPreds && partition < numPartitions; pi++) {
+      cost += params[pi].getOutcomes().length + 1;
+      
+      while (partition < numPartitions && cost >= totalCost * partition / numPartitions) {
+        starts[partition++] = pi + 1;
+      }
+    }
+    
+    while (partition < numPartitions) {
+      starts[partition++] = numPreds;
+    }
+    
+    starts[numPartitions] = numPreds;
+    
+    return starts;
+  }
+  
   /* Estimate and return the model parameters. */
   private void findParameters(int iterations, double correctionConstant) {
     double prevLL = 0.0;
@@ -456,8 +623,11 @@ class GISTrainer {
   
   private class ModelExpactationComputeTask implements Callable<ModelExpactationComputeTask> {
 
-    private final int startIndex;
-    private final int length; 
+    /**
+     * The next partition to compute, or null if this task 
+     * computes only the partition with its thread index.
+     */
+    private final AtomicInteger nextPartition;
     
     private double loglikelihood = 0;
     
@@ -466,20 +636,33 @@ class GISTrainer {
     
     final private int threadIndex;
 
-    // startIndex to compute, number of events to compute
-    ModelExpactationComputeTask(int threadIndex, int startIndex, int length) {
-      this.startIndex = startIndex;
-      this.length = length;
+    // computes the partition with the thread index, or if nextPartition is not null
+    // all partitions it can get from the counter
+    ModelExpactationComputeTask(int threadIndex, AtomicInteger nextPartition) {
       this.threadIndex = threadIndex;
+      this.nextPartition = nextPartition;
     }
     
     public ModelExpactationComputeTask call() {
       
       final double[] modelDistribution = new double[numOutcomes];
       
+      if (nextPartition == null) {
+        compute(partitions[threadIndex], partitions[threadIndex + 1], modelDistribution);
+      }
+      else {
+        int partition;
+        while ((partition = nextPartition.getAndIncrement()) < partitions.length - 1) {
+          compute(partitions[partition], partitions[partition + 1], modelDistribution);
+        }
+      }
       
-      for (int ei = startIndex; ei < startIndex + length; ei++) {
-        
+      return this;
+    }
+    
+    private void compute(int startIndex, int endIndex, double[] modelDistribution) {
+      
+      for (int ei = startIndex; ei < endIndex; ei++) {
         // TODO: check interruption status here, if interrupted set a poisoned flag and return
         
         if (values != null) {
@@ -524,8 +707,6 @@ class GISTrainer {
         }
         
       }
-      
-      return this;
     }
     
     synchronized int getNumEvents() {
@@ -541,35 +722,91 @@ class GISTrainer {
     }
   }
   
-  /* Compute one iteration of GIS and retutn log-likelihood.*/
-  private double nextIteration(double correctionConstant) {
-    // compute contribution of p(a|b_i) for each feature and the new
-    // correction parameter
-    double loglikelihood = 0.0;
-    int numEvents = 0;
-    int numCorrect = 0;
+  private class ParameterUpdateTask implements Callable<ParameterUpdateTask> {
     
-    int numberOfThreads = modelExpects.length;
+    private final int startPred;
+    private final int endPred;
     
-    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    private final int numEvents;
+    private final double correctionConstant;
     
-    int taskSize = numUniqueEvents / numberOfThreads;
+    // merges and updates the predicates from startPred (inclusive) to endPred (exclusive)
+    ParameterUpdateTask(int startPred, int endPred, int numEvents, double correctionConstant) {
+      this.startPred = startPred;
+      this.endPred = endPred;
+      this.numEvents = numEvents;
+      this.correctionConstant = correctionConstant;
+    }
     
-    int leftOver = numUniqueEvents % numberOfThreads;
+    public ParameterUpdateTask call() {
+      
+      for (int pi = startPred; pi < endPred; pi++) {
+        int[] activeOutcomes = params[pi].getOutcomes();
+        
+        // merge the results of the threads in thread order, 
+        // that produces the same sums as a sequential merge
+        for (int aoi=0;aoi<activeOutcomes.length;aoi++) {
+          for (int i = 1; i < modelExpects.length; i++) {
+            modelExpects[0][pi].updateParameter(aoi, modelExpects[i][pi].getParameters()[aoi]);
+          }
+        }
+        
+        // compute the new parameter values
+        double[] observed = observedExpects[pi].getParameters();
+        double[] model = modelExpects[0][pi].getParameters();
+        for (int aoi=0;aoi<activeOutcomes.length;aoi++) {
+          if (useGaussianSmoothing) {
+            params[pi].updateParameter(aoi,gaussianUpdate(pi,aoi,numEvents,correctionConstant));
+          }
+          else {
+            if (model[aoi] == 0) {
+              System.err.println("Model expects == 0 for "+predLabels[pi]+" "+outcomeLabels[aoi]);
+            }
+            //params[pi].updateParameter(aoi,(Math.log(observed[aoi]) - Math.log(model[aoi])));
+            params[pi].updateParameter(aoi,((Math.log(observed[aoi]) - Math.log(model[aoi]))/correctionConstant));
+          }
+          
+          for (int i = 0; i< modelExpects.length; i++)
+            modelExpects[i][pi].setParameter(aoi,0.0); // re-initialize to 0.0's
+        }
+      }
+      
+      return this;
+    }
+  }
+  
+  /**
+   * Executes the tasks on the thread pool, or in the calling thread
+   * if there is no pool, and waits until all of them are done.
+   */
+  private <T> void execute(List<? extends Callable<T>> tasks) {
     
-    List<Future<?>> futures = new ArrayList<Future<?>>();
+    if (executor == null) {
+      for (Callable<T> task : tasks) {
+        try {
+          task.call();
+        } catch (RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+      
+      return;
+    }
     
-    for (int i = 0; i < numberOfThreads; i++) {
-      if (i != numberOfThreads - 1)
-        futures.add(executor.submit(new ModelExpactationComputeTask(i, i*taskSize, taskSize)));
-      else 
-        futures.add(executor.submit(new ModelExpactationComputeTask(i, i*taskSize, taskSize + leftOver)));
+    List<Future<T>> futures;
+    try {
+      futures = executor.invokeAll(tasks);
+    } catch (InterruptedException e) {
+      // TODO: We got interrupted, but that is currently not really supported!
+      e.printStackTrace();
+      throw new IllegalStateException("Interruption is not supported!", e);
     }
     
-    for (Future<?> future : futures) {
-      ModelExpactationComputeTask finishedTask = null;
+    for (Future<T> future : futures) {
       try {
-        finishedTask = (ModelExpactationComputeTask) future.get();
+        future.get();
       } catch (InterruptedException e) {
         // TODO: We got interrupted, but that is currently not really supported!
         // For now we just print the exception and fail hard. We hopefully soon
@@ -582,52 +819,53 @@ class GISTrainer {
         // which is caused through a bug in our implementation.
         throw new RuntimeException(e.getCause());
       }
-      
-      // When they are done, retrieve the results ...
+    }
+  }
+  
+  /* Compute one iteration of GIS and retutn log-likelihood.*/
+  private double nextIteration(double correctionConstant) {
+    // compute contribution of p(a|b_i) for each feature and the new
+    // correction parameter
+    double loglikelihood = 0.0;
+    int numEvents = 0;
+    int numCorrect = 0;
+    
+    int numberOfThreads = modelExpects.length;
+    
+    AtomicInteger nextPartition = null;
+    if (partitions.length - 1 > numberOfThreads)
+      nextPartition = new AtomicInteger();
+    
+    List<ModelExpactationComputeTask> tasks = new ArrayList<ModelExpactationComputeTask>();
+    
+    for (int i = 0; i < numberOfThreads; i++) {
+      tasks.add(new ModelExpactationComputeTask(i, nextPartition));
+    }
+    
+    execute(tasks);
+    
+    // When they are done, retrieve the results in thread order ...
+    for (ModelExpactationComputeTask finishedTask : tasks) {
       numEvents += finishedTask.getNumEvents();
       numCorrect += finishedTask.getNumCorrect();
       loglikelihood += finishedTask.getLoglikelihood();
     }
-
-    executor.shutdown();
     
     display(".");
 
-    // merge the results of the two computations
-    for (int pi = 0; pi < numPreds; pi++) {
-      int[] activeOutcomes = params[pi].getOutcomes();
-      
-      for (int aoi=0;aoi<activeOutcomes.length;aoi++) {
-        for (int i = 1; i < modelExpects.length; i++) {
-          modelExpects[0][pi].updateParameter(aoi, modelExpects[i][pi].getParameters()[aoi]);
-        }
-      }
+    // merge the results of the threads and compute the new parameter values,
+    // every predicate is independent of the others, therefore the predicates
+    // are split into ranges which are processed in parallel
+    List<ParameterUpdateTask> updateTasks = new ArrayList<ParameterUpdateTask>();
+    
+    for (int i = 0; i < predPartitions.length - 1; i++) {
+      updateTasks.add(new ParameterUpdateTask(predPartitions[i], predPartitions[i + 1],
+          numEvents, correctionConstant));
     }
     
-    display(".");
+    execute(updateTasks);
     
-    // compute the new parameter values
-    for (int pi = 0; pi < numPreds; pi++) {
-      double[] observed = observedExpects[pi].getParameters();
-      double[] model = modelExpects[0][pi].getParameters();
-      int[] activeOutcomes = params[pi].getOutcomes();
-      for (int aoi=0;aoi<activeOutcomes.length;aoi++) {
-        if (useGaussianSmoothing) {
-          params[pi].updateParameter(aoi,gaussianUpdate(pi,aoi,numEvents,correctionConstant));
-        }
-        else {
-          if (model[aoi] == 0) {
-            System.err.println("Model expects == 0 for "+predLabels[pi]+" "+outcomeLabels[aoi]);
-          }
-          //params[pi].updateParameter(aoi,(Math.log(observed[aoi]) - Math.log(model[aoi])));
-          params[pi].updateParameter(aoi,((Math.log(observed[aoi]) - Math.log(model[aoi]))/correctionConstant));
-        }
-        
-        for (int i = 0; i< modelExpects.length; i++)
-          modelExpects[i][pi].setParameter(aoi,0.0); // re-initialize to 0.0's
-
-      }
-    }
+    display(".");
 
     display(". loglikelihood=" + loglikelihood + "\t" + ((double) numCorrect / numEvents) + "\n");
     
@@ -18,6 +18,9 @@
  */
 package opennlp.maxent;
 
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 import opennlp.model.MaxentModel;
 
 /**
@@ -68,11 +71,15 @@ import opennlp.model.MaxentModel;
  *
  *     <pre>
  *	  replacementManager.startUsingModel();
+ *	  try {
  *	    // some code which evaluates the context, e.g.,
  *	    double[] probs = model.eval(someContext);
  *	    // some code which returns a particular outcome
  *	    if (model.getBestOutcome(probs).equals("T") ...
- *	  replacementManager.finishUsingModel();
+ *	  }
+ *	  finally {
+ *	    replacementManager.finishUsingModel();
+ *	  }
  *     </pre>
  *
  * The manager will then make sure that all requests which are currently being
@@ -83,9 +90,11 @@ import opennlp.model.MaxentModel;
 public class ModelReplacementManager {
   private ModelSetter setter;
 
-  private int users = 0;
-  private boolean replacementCanProceed = true;
-  private Thread replacementThread = null;
+  /**
+   * The users of the model share the read lock, the replacement takes the
+   * write lock and waits for them without spinning.
+   */
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
   public ModelReplacementManager(ModelSetter ms) {
     setter = ms;
@@ -93,18 +102,11 @@ public class ModelReplacementManager {
 
   /**
    * Inform the manager that a thread is using the model. If a replacement is
-   * underway, the thread is forced to join the replacement thread and thus wait
-   * until it is finished to begin using the model.
+   * underway, the thread waits until it is finished to begin using the model.
+   * The thread which calls this method must also call {@link #finishUsingModel()}.
    */
   public void startUsingModel() {
-    if (replacementThread != null) {
-      try {
-        replacementThread.join();
-      } catch (InterruptedException e) {
-      }
-    }
-    replacementCanProceed = false;
-    users++;
+    lock.readLock().lock();
   }
 
   /**
@@ -112,9 +114,7 @@ public class ModelReplacementManager {
    * dependending on it being unchanged.
    */
   public void finishUsingModel() {
-    users--;
-    if (users <= 0)
-      replacementCanProceed = true;
+    lock.readLock().unlock();
   }
 
   /**
@@ -124,12 +124,14 @@ public class ModelReplacementManager {
    * @param model
    *          The new model which is being swapped in.
    */
-  public synchronized void replaceModel(MaxentModel model) {
-    replacementThread = Thread.currentThread();
-    while (!replacementCanProceed)
-      Thread.yield();
-    setter.setModel(model);
-    replacementThread = null;
+  public void replaceModel(MaxentModel model) {
+    lock.writeLock().lock();
+    try {
+      setter.setModel(model);
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
   }
     
 }
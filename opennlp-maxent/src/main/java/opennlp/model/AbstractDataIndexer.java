@@ -129,6 +129,13 @@ public abstract class AbstractDataIndexer implements DataIndexer {
   public int getNumEvents() {
     return numEvents;
   }
+
+  /**
+   * Sets the number of events for indexers which do not use {@link #sortAndMerge(List, boolean)}.
+   */
+  protected void setNumEvents(int numEvents) {
+    this.numEvents = numEvents;
+  }
   
   /**
    * Updates the set of predicated and counter with the specified event contexts and cutoff. 
@@ -53,12 +53,38 @@ public abstract class AbstractModel implements MaxentModel {
     this.evalParams = new EvalParameters(params,correctionParam,correctionConstant,outcomeNames.length);
   }
   
+  public AbstractModel(EvalParameters evalParams, String[] predLabels, String[] outcomeNames) {
+    init(predLabels,outcomeNames);
+    this.evalParams = evalParams;
+  }
+  
   private void init(String[] predLabels, String[] outcomeNames){
     this.pmap = new IndexHashTable<String>(predLabels, 0.7d);
     this.outcomeNames =  outcomeNames;
   }
 
 
+  /**
+   * Maps the predicates of the contexts to their integer representation,
+   * unknown predicates are mapped to -1.
+   * 
+   * @param contexts the contexts
+   * 
+   * @return the predicate ids of each context
+   */
+  protected int[][] lookupContexts(String[][] contexts) {
+    int[][] scontexts = new int[contexts.length][];
+    for (int i = 0; i < contexts.length; i++) {
+      String[] context = contexts[i];
+      int[] scontext = new int[context.length];
+      for (int ci = 0; ci < context.length; ci++) {
+        scontext[ci] = pmap.get(context[ci]);
+      }
+      scontexts[i] = scontext;
+    }
+    return scontexts;
+  }
+  
   /**
    * Return the name of the outcome corresponding to the highest likelihood
    * in the parameter ocs.
@@ -131,6 +157,10 @@ public abstract class AbstractModel implements MaxentModel {
       return -1;
   }
 
+  public int getPredicateIndex(String predicate) {
+    return pmap.get(predicate);
+  }
+
   public int getNumOutcomes() {
     return(evalParams.getNumOutcomes());
   }
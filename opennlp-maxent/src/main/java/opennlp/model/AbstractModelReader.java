@@ -36,6 +36,13 @@ public abstract class AbstractModelReader {
   protected DataReader dataReader;
   
   public AbstractModelReader(File f) throws IOException { 
+    this.dataReader = createDataReader(f);
+  }
+
+  /**
+   * Opens a model file, the format is determined by the file name.
+   */
+  protected static DataReader createDataReader(File f) throws IOException {
     String filename = f.getName();
     InputStream input;
     // handle the zipped/not zipped distinction
@@ -49,10 +56,10 @@ public abstract class AbstractModelReader {
 
     // handle the different formats
     if (filename.endsWith(".bin")) {
-      this.dataReader = new BinaryFileDataReader(input);
+      return new BinaryFileDataReader(input);
     }
     else {  // filename ends with ".txt"
-      this.dataReader = new PlainTextFileDataReader(input);
+      return new PlainTextFileDataReader(input);
     }
   }
 
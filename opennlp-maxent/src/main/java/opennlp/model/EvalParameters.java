@@ -72,6 +72,36 @@ public class EvalParameters {
     return numOutcomes;
   }
 
+  /**
+   * Adds the parameters of the specified context to the per outcome sums.
+   * 
+   * @param context the predicate ids, a negative id is ignored
+   * @param values the value of each predicate or null if every value is 1
+   * @param sums the sum for each outcome, the parameters are added to it
+   * @param numfeats the number of active predicates for each outcome, incremented
+   *                 for each added parameter, or null if not needed
+   */
+  public void addParameters(int[] context, float[] values, double[] sums, int[] numfeats) {
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      if (context[ci] >= 0) {
+        Context predParams = params[context[ci]];
+        int[] activeOutcomes = predParams.getOutcomes();
+        double[] activeParameters = predParams.getParameters();
+        if (values != null) {
+          value = values[ci];
+        }
+        for (int ai = 0; ai < activeOutcomes.length; ai++) {
+          int oid = activeOutcomes[ai];
+          if (numfeats != null) {
+            numfeats[oid]++;
+          }
+          sums[oid] += activeParameters[ai] * value;
+        }
+      }
+    }
+  }
+  
   public double getCorrectionConstant() {
     return correctionConstant;
   }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+/**
+ * {@link EvalParameters} which store the outcomes and parameters of all
+ * predicates in a few contiguous primitive arrays instead of one
+ * {@link Context} object per predicate.
+ * <p>
+ * The outcomes and parameters of predicate <code>pi</code> are stored at the
+ * indexes from <code>offsets[pi]</code> (inclusive) to <code>offsets[pi + 1]</code>
+ * (exclusive) of the outcomes and parameters arrays.
+ * <p>
+ * The parameters are copied, later changes to the passed contexts
+ * are not visible through this object.
+ */
+public class FlatEvalParameters extends EvalParameters {
+
+  /** The start index of each predicate, followed by the total number of parameters. */
+  private final int[] offsets;
+
+  /** The outcome of each parameter. */
+  private final int[] outcomes;
+
+  /** The parameter values. */
+  private final double[] parameters;
+
+  /**
+   * Creates a set of parameters which can be evaluated with the eval method.
+   *
+   * @param params The parameters of the model.
+   * @param correctionParam The correction parameter.
+   * @param correctionConstant The correction constant.
+   * @param numOutcomes The number of outcomes.
+   */
+  public FlatEvalParameters(Context[] params, double correctionParam,
+      double correctionConstant, int numOutcomes) {
+    super(null, correctionParam, correctionConstant, numOutcomes);
+
+    offsets = new int[params.length + 1];
+
+    int numParameters = 0;
+    for (int pi = 0; pi < params.length; pi++) {
+      offsets[pi] = numParameters;
+      numParameters += params[pi].getOutcomes().length;
+    }
+    offsets[params.length] = numParameters;
+
+    outcomes = new int[numParameters];
+    parameters = new double[numParameters];
+
+    for (int pi = 0; pi < params.length; pi++) {
+      int length = params[pi].getOutcomes().length;
+      System.arraycopy(params[pi].getOutcomes(), 0, outcomes, offsets[pi], length);
+      System.arraycopy(params[pi].getParameters(), 0, parameters, offsets[pi], length);
+    }
+  }
+
+  public FlatEvalParameters(Context[] params, int numOutcomes) {
+    this(params, 0, 0, numOutcomes);
+  }
+
+  /**
+   * Creates a {@link Context} for each predicate. The returned objects
+   * are copies, they are created on every call and intended to be used
+   * by the model writers.
+   */
+  @Override
+  public Context[] getParams() {
+    Context[] params = new Context[offsets.length - 1];
+
+    for (int pi = 0; pi < params.length; pi++) {
+      int length = offsets[pi + 1] - offsets[pi];
+
+      int[] predOutcomes = new int[length];
+      System.arraycopy(outcomes, offsets[pi], predOutcomes, 0, length);
+
+      double[] predParameters = new double[length];
+      System.arraycopy(parameters, offsets[pi], predParameters, 0, length);
+
+      params[pi] = new Context(predOutcomes, predParameters);
+    }
+
+    return params;
+  }
+
+  @Override
+  public void addParameters(int[] context, float[] values, double[] sums, int[] numfeats) {
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      if (context[ci] >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        int end = offsets[context[ci] + 1];
+        for (int ai = offsets[context[ci]]; ai < end; ai++) {
+          int oid = outcomes[ai];
+          if (numfeats != null) {
+            numfeats[oid]++;
+          }
+          sums[oid] += parameters[ai] * value;
+        }
+      }
+    }
+  }
+
+  /**
+   * Retrieves the start index of each predicate in the outcomes and
+   * parameters arrays. The last element is the total number of parameters.
+   *
+   * @return the offsets, must not be modified
+   */
+  public int[] getOffsets() {
+    return offsets;
+  }
+
+  /**
+   * Retrieves the outcomes of all predicates.
+   *
+   * @return the outcomes, must not be modified
+   */
+  public int[] getOutcomes() {
+    return outcomes;
+  }
+
+  /**
+   * Retrieves the parameters of all predicates.
+   *
+   * @return the parameters, must not be modified
+   */
+  public double[] getParameters() {
+    return parameters;
+  }
+}
@@ -29,8 +29,25 @@ public class GenericModelReader extends AbstractModelReader {
 
   private AbstractModelReader delegateModelReader;
   
+  /**
+   * The reader of a model in the {@link MappedModelWriter} format, or null.
+   */
+  private MappedModelReader mappedModelReader;
+  
+  /**
+   * Reads a model file, a file in the {@link MappedModelWriter}
+   * format is memory mapped.
+   */
   public GenericModelReader (File f) throws IOException {
-    super(f);
+    this(f, MappedModelReader.isMappedModel(f));
+  }
+  
+  private GenericModelReader(File f, boolean isMappedModel) throws IOException {
+    super(isMappedModel ? null : createDataReader(f));
+    
+    if (isMappedModel) {
+      mappedModelReader = new MappedModelReader(f);
+    }
   }
   
   public GenericModelReader(DataReader dataReader) {
@@ -51,6 +68,14 @@ public class GenericModelReader extends AbstractModelReader {
   }
   
 
+  @Override
+  public AbstractModel getModel() throws IOException {
+    if (mappedModelReader != null) {
+      return mappedModelReader.getModel();
+    }
+    return super.getModel();
+  }
+
   public AbstractModel constructModel() throws IOException {
     return delegateModelReader.constructModel();
   }
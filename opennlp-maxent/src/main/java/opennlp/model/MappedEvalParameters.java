@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * {@link EvalParameters} which are evaluated directly from buffers, usually
+ * views of a memory mapped model file which was written by the
+ * {@link MappedModelWriter}. The parameters are never copied onto the heap.
+ * <p>
+ * The layout is the same as the one of the {@link FlatEvalParameters}, the
+ * buffers are only accessed with absolute get methods, therefore
+ * the instance can be shared by multiple threads.
+ */
+public class MappedEvalParameters extends EvalParameters {
+
+  /** The start index of each predicate, followed by the total number of parameters. */
+  private final IntBuffer offsets;
+
+  /** The outcome of each parameter. */
+  private final IntBuffer outcomes;
+
+  /** The parameter values. */
+  private final DoubleBuffer parameters;
+
+  /**
+   * Creates a set of parameters which can be evaluated with the eval method.
+   *
+   * @param offsets the start index of each predicate followed by the number of parameters
+   * @param outcomes the outcome of each parameter
+   * @param parameters the parameter values
+   * @param correctionParam The correction parameter.
+   * @param correctionConstant The correction constant.
+   * @param numOutcomes The number of outcomes.
+   */
+  public MappedEvalParameters(IntBuffer offsets, IntBuffer outcomes, DoubleBuffer parameters,
+      double correctionParam, double correctionConstant, int numOutcomes) {
+    super(null, correctionParam, correctionConstant, numOutcomes);
+    this.offsets = offsets;
+    this.outcomes = outcomes;
+    this.parameters = parameters;
+  }
+
+  /**
+   * Creates a {@link Context} for each predicate. The returned objects
+   * are copied onto the heap, they are created on every call and intended
+   * to be used by the model writers.
+   */
+  @Override
+  public Context[] getParams() {
+    Context[] params = new Context[offsets.limit() - 1];
+
+    for (int pi = 0; pi < params.length; pi++) {
+      int start = offsets.get(pi);
+      int length = offsets.get(pi + 1) - start;
+
+      int[] predOutcomes = new int[length];
+      double[] predParameters = new double[length];
+
+      for (int ai = 0; ai < length; ai++) {
+        predOutcomes[ai] = outcomes.get(start + ai);
+        predParameters[ai] = parameters.get(start + ai);
+      }
+
+      params[pi] = new Context(predOutcomes, predParameters);
+    }
+
+    return params;
+  }
+
+  @Override
+  public void addParameters(int[] context, float[] values, double[] sums, int[] numfeats) {
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      if (context[ci] >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        int end = offsets.get(context[ci] + 1);
+        for (int ai = offsets.get(context[ci]); ai < end; ai++) {
+          int oid = outcomes.get(ai);
+          if (numfeats != null) {
+            numfeats[oid]++;
+          }
+          sums[oid] += parameters.get(ai) * value;
+        }
+      }
+    }
+  }
+}
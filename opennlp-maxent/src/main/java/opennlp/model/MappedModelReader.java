@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import opennlp.maxent.GISModel;
+import opennlp.perceptron.PerceptronModel;
+
+/**
+ * Reads a model which was written by the {@link MappedModelWriter}. The file is
+ * memory mapped and the parameters are evaluated in place, only the outcome and
+ * predicate labels are read onto the heap.
+ * <p>
+ * Since the parameters are not copied the model can be loaded almost instantly
+ * and multiple processes which map the same file share the memory
+ * through the operating system page cache.
+ * <p>
+ * The {@link GenericModelReader} detects the format and maps the file. A model
+ * in this format can also be stored in a model package, then it is read from
+ * a stream into a heap buffer.
+ */
+public class MappedModelReader {
+
+  /**
+   * Reads the header through the {@link DataInputStream} methods, the
+   * position of the buffer is advanced by every read.
+   */
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!buffer.hasRemaining())
+        return -1;
+
+      return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (!buffer.hasRemaining())
+        return -1;
+
+      len = Math.min(len, buffer.remaining());
+      buffer.get(b, off, len);
+      return len;
+    }
+  }
+
+  private final ByteBuffer buffer;
+
+  /**
+   * Maps the specified file into memory.
+   *
+   * @param f the model file
+   *
+   * @throws IOException if the file can not be mapped
+   */
+  public MappedModelReader(File f) throws IOException {
+
+    RandomAccessFile file = new RandomAccessFile(f, "r");
+
+    try {
+      FileChannel channel = file.getChannel();
+
+      if (channel.size() > Integer.MAX_VALUE)
+        throw new IOException("Model file is too large to be mapped: " + f);
+
+      // the mapping stays valid after the file is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    finally {
+      file.close();
+    }
+  }
+
+  /**
+   * Reads a model from a stream. A stream can not be mapped, the model is read
+   * into a heap buffer, but the parameters are still not deserialized.
+   *
+   * @param in the model, the stream is not closed
+   *
+   * @throws IOException if the stream can not be read
+   */
+  public MappedModelReader(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] chunk = new byte[8192];
+    int length;
+    while ((length = in.read(chunk)) != -1) {
+      bytes.write(chunk, 0, length);
+    }
+    buffer = ByteBuffer.wrap(bytes.toByteArray());
+  }
+
+  /**
+   * Checks if a file contains a model in the {@link MappedModelWriter} format.
+   *
+   * @param f the model file
+   *
+   * @return true if the file starts with the magic number of the format
+   *
+   * @throws IOException if the file can not be read
+   */
+  public static boolean isMappedModel(File f) throws IOException {
+    InputStream in = new FileInputStream(f);
+    try {
+      return readMagicNumber(in) == MappedModelWriter.MAGIC_NUMBER;
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Checks if a stream contains a model in the {@link MappedModelWriter} format,
+   * the position of the stream is not changed.
+   *
+   * @param in the stream, it must support mark and reset
+   *
+   * @return true if the stream starts with the magic number of the format
+   *
+   * @throws IOException if the stream can not be read
+   */
+  public static boolean isMappedModel(InputStream in) throws IOException {
+    if (!in.markSupported())
+      throw new IllegalArgumentException("The stream must support mark and reset!");
+
+    in.mark(4);
+    try {
+      return readMagicNumber(in) == MappedModelWriter.MAGIC_NUMBER;
+    }
+    finally {
+      in.reset();
+    }
+  }
+
+  // returns -1 if the data is shorter than the magic number
+  private static int readMagicNumber(InputStream in) throws IOException {
+    int magicNumber = 0;
+    for (int i = 0; i < 4; i++) {
+      int b = in.read();
+      if (b == -1)
+        return -1;
+      magicNumber = (magicNumber << 8) | b;
+    }
+    return magicNumber;
+  }
+
+  /**
+   * Initializes the reader with a buffer which contains the model,
+   * the position of the buffer must point to the start of the model.
+   *
+   * @param buffer the model data
+   */
+  public MappedModelReader(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  public AbstractModel getModel() throws IOException {
+    return getModel(new UniformPrior());
+  }
+
+  /**
+   * Creates the model, the prior is used by a GIS model. The format does not
+   * store the prior, like the other model formats.
+   *
+   * @param prior the prior of a GIS model
+   *
+   * @return the model
+   *
+   * @throws IOException if the data is not a valid model
+   */
+  public AbstractModel getModel(Prior prior) throws IOException {
+
+    ByteBuffer data = buffer.duplicate();
+
+    if (data.getInt() != MappedModelWriter.MAGIC_NUMBER)
+      throw new IOException("The data is not a mapped model!");
+
+    int offsetsPosition = data.getInt();
+
+    DataInputStream header = new DataInputStream(new ByteBufferInputStream(data));
+
+    String modelType = header.readUTF();
+    int correctionConstant = header.readInt();
+    double correctionParam = header.readDouble();
+
+    String[] outcomeLabels = new String[header.readInt()];
+    for (int i = 0; i < outcomeLabels.length; i++)
+      outcomeLabels[i] = header.readUTF();
+
+    String[] predLabels = new String[header.readInt()];
+    for (int i = 0; i < predLabels.length; i++)
+      predLabels[i] = header.readUTF();
+
+    int numParams = header.readInt();
+
+    data.position(offsetsPosition);
+    data.limit(offsetsPosition + 4 * (predLabels.length + 1));
+    IntBuffer offsets = data.slice().asIntBuffer();
+
+    int outcomesPosition = data.limit();
+    data.limit(outcomesPosition + 4 * numParams);
+    data.position(outcomesPosition);
+    IntBuffer outcomes = data.slice().asIntBuffer();
+
+    int parametersPosition = MappedModelWriter.align(data.limit());
+    data.limit(parametersPosition + 8 * numParams);
+    data.position(parametersPosition);
+    DoubleBuffer parameters = data.slice().asDoubleBuffer();
+
+    if (MappedModelWriter.GIS_TYPE.equals(modelType)) {
+      return new GISModel(new MappedEvalParameters(offsets, outcomes, parameters,
+          correctionParam, correctionConstant, outcomeLabels.length), predLabels, outcomeLabels,
+          prior);
+    }
+    else if (MappedModelWriter.PERCEPTRON_TYPE.equals(modelType)) {
+      return new PerceptronModel(new MappedEvalParameters(offsets, outcomes, parameters,
+          correctionParam, correctionConstant, outcomeLabels.length), predLabels, outcomeLabels);
+    }
+    else {
+      throw new IOException("Unknown model format: " + modelType);
+    }
+  }
+}
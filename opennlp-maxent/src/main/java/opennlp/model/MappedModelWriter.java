@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import opennlp.model.AbstractModel.ModelType;
+
+/**
+ * Writes a model in a binary format which can be memory mapped by the
+ * {@link MappedModelReader} and evaluated without deserializing the parameters.
+ * <p>
+ * The file starts with a header which contains the model type, the correction
+ * constant and parameter, the outcome labels and the predicate labels. It is
+ * followed by the parameters in the layout of the {@link FlatEvalParameters}:
+ * the predicate offsets and the outcomes as int arrays and the parameters
+ * as a double array which starts at an eight byte aligned position.
+ * All values are stored in big endian byte order.
+ * <p>
+ * The format can not be compressed, since a compressed file can not be mapped.
+ */
+public class MappedModelWriter extends AbstractModelWriter {
+
+  static final int MAGIC_NUMBER = 0x4F4E4D4D;
+
+  static final String GIS_TYPE = "GIS";
+  static final String PERCEPTRON_TYPE = "Perceptron";
+
+  private final AbstractModel model;
+
+  private final DataOutputStream output;
+
+  public MappedModelWriter(AbstractModel model, File f) throws IOException {
+    this(model, new FileOutputStream(f));
+  }
+
+  public MappedModelWriter(AbstractModel model, OutputStream out) {
+    this.model = model;
+    output = new DataOutputStream(new BufferedOutputStream(out));
+  }
+
+  static int align(int position) {
+    return (position + 7) & ~7;
+  }
+
+  public void writeUTF(String s) throws IOException {
+    output.writeUTF(s);
+  }
+
+  public void writeInt(int i) throws IOException {
+    output.writeInt(i);
+  }
+
+  public void writeDouble(double d) throws IOException {
+    output.writeDouble(d);
+  }
+
+  // writes zeros until the next eight byte aligned position
+  private void pad() throws IOException {
+    while (output.size() != align(output.size())) {
+      output.write(0);
+    }
+  }
+
+  public void close() throws IOException {
+    output.flush();
+    output.close();
+  }
+
+  public void persist() throws IOException {
+
+    Object[] data = model.getDataStructures();
+
+    Context[] params = (Context[]) data[0];
+    @SuppressWarnings("unchecked")
+    IndexHashTable<String> pmap = (IndexHashTable<String>) data[1];
+    String[] outcomeLabels = (String[]) data[2];
+    int correctionConstant = ((Integer) data[3]).intValue();
+    double correctionParam = ((Double) data[4]).doubleValue();
+
+    String[] predLabels = new String[pmap.size()];
+    pmap.toArray(predLabels);
+
+    int numParams = 0;
+    for (int pi = 0; pi < params.length; pi++) {
+      numParams += params[pi].getOutcomes().length;
+    }
+
+    // the header is written into a buffer first, because its
+    // size is needed to compute the position of the parameters
+    ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+    DataOutputStream header = new DataOutputStream(headerBytes);
+
+    if (model.getModelType() == ModelType.Perceptron) {
+      header.writeUTF(PERCEPTRON_TYPE);
+    }
+    else if (model.getModelType() == ModelType.Maxent) {
+      header.writeUTF(GIS_TYPE);
+    }
+    else {
+      throw new IOException("Unsupported model type: " + model.getModelType());
+    }
+
+    header.writeInt(correctionConstant);
+    header.writeDouble(correctionParam);
+
+    header.writeInt(outcomeLabels.length);
+    for (int i = 0; i < outcomeLabels.length; i++)
+      header.writeUTF(outcomeLabels[i]);
+
+    header.writeInt(predLabels.length);
+    for (int i = 0; i < predLabels.length; i++)
+      header.writeUTF(predLabels[i]);
+
+    header.writeInt(numParams);
+    header.close();
+
+    writeInt(MAGIC_NUMBER);
+    // the position of the offsets array
+    writeInt(align(8 + headerBytes.size()));
+    output.write(headerBytes.toByteArray());
+    pad();
+
+    int offset = 0;
+    for (int pi = 0; pi < params.length; pi++) {
+      writeInt(offset);
+      offset += params[pi].getOutcomes().length;
+    }
+    writeInt(offset);
+
+    for (int pi = 0; pi < params.length; pi++) {
+      int[] outcomes = params[pi].getOutcomes();
+      for (int ai = 0; ai < outcomes.length; ai++)
+        writeInt(outcomes[ai]);
+    }
+
+    pad();
+
+    for (int pi = 0; pi < params.length; pi++) {
+      double[] parameters = params[pi].getParameters();
+      for (int ai = 0; ai < parameters.length; ai++)
+        writeDouble(parameters[ai]);
+    }
+
+    close();
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: MappedModelWriter model mappedModel");
+      System.exit(1);
+    }
+    AbstractModel m = new GenericModelReader(new File(args[0])).getModel();
+    new MappedModelWriter(m, new File(args[1])).persist();
+  }
+}
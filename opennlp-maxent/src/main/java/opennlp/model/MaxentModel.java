@@ -55,6 +55,43 @@ public interface MaxentModel {
    */
   public double[] eval(String[] context, float[] values);
 
+  /**
+   * Evaluates a context which is given as predicate ids of this model. 
+   * This avoids the lookup of the predicate strings for callers which
+   * can map their features to ids once and use them many times.
+   * 
+   * @param context The ids of the predicates, as returned by
+   *                {@link #getPredicateIndex(String)}, negative ids are ignored.
+   * @param probs An array which is populated with the probabilities for each of the different
+   *         outcomes, all of which sum to 1.
+   * @return an array of the probabilities for each of the different outcomes, all of which sum to 1.
+   */
+  public double[] eval(int[] context, double[] probs);
+  
+  /**
+   * Evaluates many contexts at once.
+   * 
+   * @param contexts The contexts to evaluate, each a list of String names of the
+   *                 contextual predicates which are to be evaluated together.
+   * @param probs An array which is populated with the probabilities for each
+   *              of the contexts, it must have at least the length of the contexts
+   *              and every element must have the length of the number of outcomes.
+   * @return the passed probs array
+   */
+  public double[][] eval(String[][] contexts, double[][] probs);
+  
+  /**
+   * Evaluates many contexts at once and writes the probabilities into one array.
+   * The probabilities of the i-th context start at index i * getNumOutcomes().
+   * 
+   * @param contexts The contexts to evaluate, each a list of String names of the
+   *                 contextual predicates which are to be evaluated together.
+   * @param probs An array which is populated with the probabilities, it must have
+   *              at least the length of the contexts times the number of outcomes.
+   * @return the passed probs array
+   */
+  public double[] eval(String[][] contexts, double[] probs);
+  
   /**
    * Simple function to return the outcome associated with the index
    * containing the highest probability in the double[].
@@ -101,6 +138,16 @@ public interface MaxentModel {
    **/
   public int getIndex(String outcome);
 
+  /**
+   * Gets the id of the given predicate in this model, the id can be
+   * passed to {@link #eval(int[], double[])}.
+   * 
+   * @param predicate the String name of the predicate
+   * @return the id of the predicate or -1 if the predicate is unknown
+   *         to this model.
+   */
+  public int getPredicateIndex(String predicate);
+
   /**
    * Returns the data structures relevant to storing the model.
    **/
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An in memory indexer like the {@link OnePassDataIndexer} which counts and
+ * indexes the events with multiple threads.
+ * <p>
+ * The events are split into one contiguous partition per thread. Each thread
+ * counts the predicates and outcomes of its partition in its own map, the maps
+ * are merged in the order of the partitions. Predicates and outcomes are numbered
+ * in the order of their first occurrence in the event stream, so the
+ * numbering does not depend on the number of threads.
+ * <p>
+ * The events are read from the stream by the calling thread. Use a parallel
+ * event stream to generate the events with multiple threads.
+ */
+public class ParallelDataIndexer extends AbstractDataIndexer {
+
+  /**
+   * The predicate and outcome counts of one partition,
+   * in the order of their first occurrence.
+   */
+  private static class Counts {
+    final Map<String, int[]> predicates = new LinkedHashMap<String, int[]>();
+    final Map<String, int[]> outcomes = new LinkedHashMap<String, int[]>();
+  }
+
+  private final ExecutorService executor;
+
+  /**
+   * Creates an indexer and indexes the events of the stream.
+   *
+   * @param eventStream the events of the training data.
+   * @param cutoff The minimum number of times a predicate must have been
+   *          observed in order to be included in the model.
+   * @param sort if true, the events are sorted and duplicate events are merged
+   * @param threads the number of threads which count and index the events
+   */
+  public ParallelDataIndexer(EventStream eventStream, int cutoff, boolean sort,
+      int threads) throws IOException {
+
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be at least 1: " + threads);
+
+    System.out.println("Indexing events using cutoff of " + cutoff + " with "
+        + threads + " threads\n");
+
+    System.out.print("\tComputing event counts...  ");
+    List<Event> events = new ArrayList<Event>();
+    while (eventStream.hasNext()) {
+      events.add(eventStream.next());
+    }
+
+    int[] partitions = computePartitions(events.size(), threads);
+
+    executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+
+    try {
+      Map<String, Integer> predicateIndex = computeEventCounts(events, partitions, cutoff);
+      System.out.println("done. " + events.size() + " events");
+
+      System.out.print("\tIndexing...  ");
+      List<ComparableEvent> eventsToCompare = index(events, partitions, predicateIndex);
+      // done with event list
+      events = null;
+      System.out.println("done.");
+
+      System.out.print("Sorting and merging events... ");
+      sortAndMerge(eventsToCompare, sort);
+      System.out.println("Done indexing.");
+    }
+    finally {
+      if (executor != null)
+        executor.shutdown();
+    }
+  }
+
+  /**
+   * Splits the events into contiguous partitions of nearly equal size.
+   *
+   * @return the start of each partition followed by the number of events
+   */
+  private static int[] computePartitions(int numEvents, int threads) {
+    int numPartitions = Math.max(1, Math.min(threads, numEvents));
+
+    int[] partitions = new int[numPartitions + 1];
+    for (int i = 0; i <= numPartitions; i++) {
+      partitions[i] = (int) ((long) numEvents * i / numPartitions);
+    }
+
+    return partitions;
+  }
+
+  private Map<String, Integer> computeEventCounts(final List<Event> events,
+      int[] partitions, int cutoff) {
+
+    List<Callable<Counts>> tasks = new ArrayList<Callable<Counts>>();
+
+    for (int p = 0; p + 1 < partitions.length; p++) {
+      final int start = partitions[p];
+      final int end = partitions[p + 1];
+
+      tasks.add(new Callable<Counts>() {
+        public Counts call() {
+          Counts counts = new Counts();
+
+          for (int i = start; i < end; i++) {
+            Event ev = events.get(i);
+
+            increment(counts.outcomes, ev.getOutcome(), 1);
+
+            String[] ec = ev.getContext();
+            for (int j = 0; j < ec.length; j++) {
+              increment(counts.predicates, ec[j], 1);
+            }
+          }
+
+          return counts;
+        }
+      });
+    }
+
+    Map<String, int[]> predicates = new LinkedHashMap<String, int[]>();
+    Map<String, int[]> outcomes = new LinkedHashMap<String, int[]>();
+
+    // merged in partition order to preserve the order of the first occurrence
+    for (Counts counts : execute(tasks)) {
+      for (Map.Entry<String, int[]> entry : counts.predicates.entrySet()) {
+        increment(predicates, entry.getKey(), entry.getValue()[0]);
+      }
+
+      for (String outcome : counts.outcomes.keySet()) {
+        increment(outcomes, outcome, 1);
+      }
+    }
+
+    int numPredicates = 0;
+    for (int[] count : predicates.values()) {
+      if (count[0] >= cutoff)
+        numPredicates++;
+    }
+
+    Map<String, Integer> predicateIndex = new HashMap<String, Integer>(numPredicates * 2);
+    predLabels = new String[numPredicates];
+    predCounts = new int[numPredicates];
+
+    int index = 0;
+    for (Map.Entry<String, int[]> entry : predicates.entrySet()) {
+      if (entry.getValue()[0] >= cutoff) {
+        predicateIndex.put(entry.getKey(), index);
+        predLabels[index] = entry.getKey();
+        predCounts[index] = entry.getValue()[0];
+        index++;
+      }
+    }
+
+    outcomeLabels = outcomes.keySet().toArray(new String[outcomes.size()]);
+
+    return predicateIndex;
+  }
+
+  private static void increment(Map<String, int[]> counter, String key, int count) {
+    int[] value = counter.get(key);
+
+    if (value == null) {
+      counter.put(key, new int[] {count});
+    }
+    else {
+      value[0] += count;
+    }
+  }
+
+  private List<ComparableEvent> index(final List<Event> events, int[] partitions,
+      final Map<String, Integer> predicateIndex) {
+
+    final Map<String, Integer> omap = new HashMap<String, Integer>();
+    for (int i = 0; i < outcomeLabels.length; i++) {
+      omap.put(outcomeLabels[i], i);
+    }
+
+    final ComparableEvent[] indexedEvents = new ComparableEvent[events.size()];
+
+    List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+
+    for (int p = 0; p + 1 < partitions.length; p++) {
+      final int start = partitions[p];
+      final int end = partitions[p + 1];
+
+      tasks.add(new Callable<Object>() {
+        public Object call() {
+          int[] indexedContext = new int[16];
+
+          for (int i = start; i < end; i++) {
+            Event ev = events.get(i);
+            String[] econtext = ev.getContext();
+
+            if (indexedContext.length < econtext.length)
+              indexedContext = new int[econtext.length];
+
+            int numCons = 0;
+            for (int j = 0; j < econtext.length; j++) {
+              Integer pid = predicateIndex.get(econtext[j]);
+              if (pid != null) {
+                indexedContext[numCons++] = pid;
+              }
+            }
+
+            // drop events with no active features
+            if (numCons > 0) {
+              int[] cons = new int[numCons];
+              System.arraycopy(indexedContext, 0, cons, 0, numCons);
+              indexedEvents[i] = new ComparableEvent(omap.get(ev.getOutcome()), cons);
+            }
+          }
+
+          return null;
+        }
+      });
+    }
+
+    execute(tasks);
+
+    List<ComparableEvent> eventsToCompare = new ArrayList<ComparableEvent>(indexedEvents.length);
+
+    for (int i = 0; i < indexedEvents.length; i++) {
+      if (indexedEvents[i] != null) {
+        eventsToCompare.add(indexedEvents[i]);
+      }
+      else {
+        Event ev = events.get(i);
+        System.err.println("Dropped event " + ev.getOutcome() + ":"
+            + Arrays.asList(ev.getContext()));
+      }
+    }
+
+    return eventsToCompare;
+  }
+
+  /**
+   * Executes the tasks on the thread pool, or in the calling thread
+   * if there is no pool, and returns their results in the order of the tasks.
+   */
+  private <T> List<T> execute(List<? extends Callable<T>> tasks) {
+
+    List<T> results = new ArrayList<T>(tasks.size());
+
+    if (executor == null) {
+      for (Callable<T> task : tasks) {
+        try {
+          results.add(task.call());
+        } catch (RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+
+      return results;
+    }
+
+    try {
+      for (Future<T> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    } catch (ExecutionException e) {
+      // only runtime exceptions are thrown by the tasks
+      throw new RuntimeException(e.getCause());
+    }
+
+    return results;
+  }
+}
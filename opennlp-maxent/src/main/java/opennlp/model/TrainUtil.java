@@ -44,6 +44,22 @@ public class TrainUtil {
   public static final String DATA_INDEXER_PARAM = "DataIndexer";
   public static final String DATA_INDEXER_ONE_PASS_VALUE = "OnePass";
   public static final String DATA_INDEXER_TWO_PASS_VALUE = "TwoPass";
+  public static final String DATA_INDEXER_PARALLEL_VALUE = "Parallel";
+  
+  public static final String THREADS_PARAM = "Threads";
+  private static final int THREADS_DEFAULT = 1;
+  
+  public static final String THREAD_SCHEDULING_PARAM = "ThreadScheduling";
+  public static final String THREAD_SCHEDULING_STATIC_VALUE = "Static";
+  public static final String THREAD_SCHEDULING_BALANCED_VALUE = "Balanced";
+  public static final String THREAD_SCHEDULING_DYNAMIC_VALUE = "Dynamic";
+  
+  public static final String PARALLEL_MODE_PARAM = "ParallelMode";
+  public static final String PARALLEL_MODE_MIXING_VALUE = "Mixing";
+  public static final String PARALLEL_MODE_HOGWILD_VALUE = "Hogwild";
+  
+  public static final String SEQUENCE_BATCH_SIZE_PARAM = "SequenceBatchSize";
+  public static final String CACHE_FEATURES_PARAM = "CacheFeatures";
   
   
   private static String getStringParam(Map<String, String> trainParams, String key,
@@ -111,6 +127,12 @@ public class TrainUtil {
       
       String iterationsString = trainParams.get(ITERATIONS_PARAM);
       if (iterationsString != null) Integer.parseInt(iterationsString);
+      
+      String threadsString = trainParams.get(THREADS_PARAM);
+      if (threadsString != null) Integer.parseInt(threadsString);
+      
+      String batchSizeString = trainParams.get(SEQUENCE_BATCH_SIZE_PARAM);
+      if (batchSizeString != null) Integer.parseInt(batchSizeString);
     }
     catch (NumberFormatException e) {
       return false;
@@ -119,7 +141,28 @@ public class TrainUtil {
     String dataIndexer = trainParams.get(DATA_INDEXER_PARAM);
     
     if (dataIndexer != null) {
-      if (!("OnePass".equals(dataIndexer) || "TwoPass".equals(dataIndexer))) {
+      if (!(DATA_INDEXER_ONE_PASS_VALUE.equals(dataIndexer) ||
+          DATA_INDEXER_TWO_PASS_VALUE.equals(dataIndexer) ||
+          DATA_INDEXER_PARALLEL_VALUE.equals(dataIndexer))) {
+        return false;
+      }
+    }
+    
+    String threadScheduling = trainParams.get(THREAD_SCHEDULING_PARAM);
+    
+    if (threadScheduling != null) {
+      if (!(THREAD_SCHEDULING_STATIC_VALUE.equals(threadScheduling) ||
+          THREAD_SCHEDULING_BALANCED_VALUE.equals(threadScheduling) ||
+          THREAD_SCHEDULING_DYNAMIC_VALUE.equals(threadScheduling))) {
+        return false;
+      }
+    }
+    
+    String parallelMode = trainParams.get(PARALLEL_MODE_PARAM);
+    
+    if (parallelMode != null) {
+      if (!(PARALLEL_MODE_MIXING_VALUE.equals(parallelMode) ||
+          PARALLEL_MODE_HOGWILD_VALUE.equals(parallelMode))) {
         return false;
       }
     }
@@ -170,6 +213,10 @@ public class TrainUtil {
     else if (DATA_INDEXER_TWO_PASS_VALUE.equals(dataIndexerName)) {
       indexer = new TwoPassDataIndexer(hses, cutoff, sortAndMerge);
     }
+    else if (DATA_INDEXER_PARALLEL_VALUE.equals(dataIndexerName)) {
+      int threads = getIntParam(trainParams, THREADS_PARAM, THREADS_DEFAULT, reportMap);
+      indexer = new ParallelDataIndexer(hses, cutoff, sortAndMerge, threads);
+    }
     else {
       throw new IllegalStateException("Unexpected data indexer name: " +  dataIndexerName);
     }
@@ -177,10 +224,13 @@ public class TrainUtil {
     AbstractModel model;
     if (MAXENT_VALUE.equals(algorithmName)) {
       
-      int threads = getIntParam(trainParams, "Threads", 1, reportMap);
+      int threads = getIntParam(trainParams, THREADS_PARAM, THREADS_DEFAULT, reportMap);
+      
+      String threadScheduling = getStringParam(trainParams, THREAD_SCHEDULING_PARAM,
+          THREAD_SCHEDULING_STATIC_VALUE, reportMap);
       
       model = opennlp.maxent.GIS.trainModel(iterations, indexer,
-          true, false, null, 0, threads);
+          true, false, null, 0, threads, threadScheduling);
     }
     else if (PERCEPTRON_VALUE.equals(algorithmName)) {
       boolean useAverage = getBooleanParam(trainParams, "UseAverage", true, reportMap);
@@ -203,6 +253,13 @@ public class TrainUtil {
       
       perceptronTrainer.setTolerance(tolerance);
       
+      int threads = getIntParam(trainParams, THREADS_PARAM, THREADS_DEFAULT, reportMap);
+      perceptronTrainer.setThreads(threads);
+      
+      String parallelMode = getStringParam(trainParams, PARALLEL_MODE_PARAM,
+          PARALLEL_MODE_MIXING_VALUE, reportMap);
+      perceptronTrainer.setHogwild(PARALLEL_MODE_HOGWILD_VALUE.equals(parallelMode));
+      
       model = perceptronTrainer.trainModel(
           iterations, indexer, cutoff, useAverage);
     }
@@ -238,7 +295,12 @@ public class TrainUtil {
     
     boolean useAverage = getBooleanParam(trainParams, "UseAverage", true, reportMap);
     
-    return new SimplePerceptronSequenceTrainer().trainModel(
-        iterations, events, cutoff,useAverage);
+    SimplePerceptronSequenceTrainer trainer = new SimplePerceptronSequenceTrainer();
+    trainer.setThreads(getIntParam(trainParams, THREADS_PARAM, THREADS_DEFAULT, reportMap));
+    trainer.setBatchSize(getIntParam(trainParams, SEQUENCE_BATCH_SIZE_PARAM,
+        SimplePerceptronSequenceTrainer.DEFAULT_BATCH_SIZE, reportMap));
+    trainer.setCacheFeatures(getBooleanParam(trainParams, CACHE_FEATURES_PARAM, false, reportMap));
+    
+    return trainer.trainModel(iterations, events, cutoff,useAverage);
   }
 }
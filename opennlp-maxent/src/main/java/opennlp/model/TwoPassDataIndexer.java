@@ -6,9 +6,9 @@
  * to you under the Apache License, Version 2.0 (the
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
- * 
+ *
  *   http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
@@ -19,32 +19,71 @@
 
 package opennlp.model;
 
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 
 /**
  * Collecting event and context counts by making two passes over the events.  The
  * first pass determines which contexts will be used by the model, and the
- * second pass creates the events in memory containing only the contexts which 
- * will be used.  This greatly reduces the amount of memory required for storing
- * the events.  During the first pass a temporary event file is created which
+ * second pass creates the events containing only the contexts which
+ * will be used.  During the first pass a temporary event file is created which
  * is read during the second pass.
+ * <p>
+ * The events are never held in memory as a whole. The temporary file stores the
+ * outcome and predicate ids of each event as variable length integers. The second
+ * pass sorts the events in bounded chunks which are written to disk as sorted runs,
+ * the runs are then merged and duplicate events are counted. Only the unique events
+ * are kept on the heap. All temporary files are deleted when indexing is done.
+ * <p>
+ * The indexes of the predicates, outcomes and events are the same as they were
+ * before the events were sorted on disk, so the trained models do not change.
  */
 public class TwoPassDataIndexer extends AbstractDataIndexer{
 
+  /** The default number of ints which are sorted in memory before they are written to a run. */
+  public static final int DEFAULT_SORT_BUFFER_SIZE = 1 << 23;
+
+  private static final Comparator<RunReader> RUN_COMPARATOR = new Comparator<RunReader>() {
+    public int compare(RunReader a, RunReader b) {
+      return compareEvents(a.outcome, a.preds, 0, a.length, b.outcome, b.preds, 0, b.length);
+    }
+  };
+
+  private final int sortBufferSize;
+
+  /** The predicates of the temporary file by their id. */
+  private String[] spillPredicates;
+
+  /** Maps the predicate ids of the temporary file to the predicate indexes, -1 if cut off. */
+  private int[] predicateIndex;
+
+  /** The number of ints the events of the temporary file need in the sort buffer. */
+  private long eventDataSize;
+
+  /** The contexts, outcomes and counts of the unique events. */
+  private int[][] uniqueContexts = new int[1024][];
+  private int[] outcomes = new int[1024];
+  private int[] seen = new int[1024];
+  private int numUniqueEvents;
+
   /**
    * One argument constructor for DataIndexer which calls the two argument
    * constructor assuming no cutoff.
@@ -59,6 +98,7 @@ public class TwoPassDataIndexer extends AbstractDataIndexer{
   public TwoPassDataIndexer(EventStream eventStream, int cutoff) throws IOException {
     this(eventStream,cutoff,true);
   }
+
   /**
    * Two argument constructor for DataIndexer.
    *
@@ -68,121 +108,491 @@ public class TwoPassDataIndexer extends AbstractDataIndexer{
    *               observed in order to be included in the model.
    */
   public TwoPassDataIndexer(EventStream eventStream, int cutoff, boolean sort) throws IOException {
-    Map<String,Integer> predicateIndex = new HashMap<String,Integer>();
-    List eventsToCompare;
+    this(eventStream, cutoff, sort, DEFAULT_SORT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a data indexer which sorts at most <code>sortBufferSize</code>
+   * ints of event data in memory at once.
+   *
+   * @param eventStream the events of the training data.
+   * @param cutoff The minimum number of times a predicate must have been
+   *               observed in order to be included in the model.
+   * @param sort if true, the events are sorted and duplicate events are merged
+   * @param sortBufferSize the size of the in memory sort buffer in ints
+   */
+  public TwoPassDataIndexer(EventStream eventStream, int cutoff, boolean sort,
+      int sortBufferSize) throws IOException {
+
+    this.sortBufferSize = sortBufferSize;
 
     System.out.println("Indexing events using cutoff of " + cutoff + "\n");
 
     System.out.print("\tComputing event counts...  ");
+    File tmp = null;
     try {
-      File tmp = File.createTempFile("events", null);
+      tmp = File.createTempFile("events", null);
       tmp.deleteOnExit();
-      Writer osw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp),"UTF8"));
-      int numEvents = computeEventCounts(eventStream, osw, predicateIndex, cutoff);
+      DataOutputStream spill = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tmp)));
+      int numEvents = computeEventCounts(eventStream, spill, cutoff);
       System.out.println("done. " + numEvents + " events");
 
       System.out.print("\tIndexing...  ");
 
-      eventsToCompare = index(numEvents, new FileEventStream(tmp), predicateIndex);
+      DataInputStream in = new DataInputStream(
+          new BufferedInputStream(new FileInputStream(tmp)));
+      try {
+        index(numEvents, in, sort);
+      }
+      finally {
+        in.close();
+      }
       // done with predicates
+      spillPredicates = null;
       predicateIndex = null;
-      tmp.delete();
-      System.out.println("done.");
 
-      if (sort) { 
-        System.out.print("Sorting and merging events... ");
-      }
-      else {
-        System.out.print("Collecting events... ");
-      }
-      sortAndMerge(eventsToCompare,sort);
+      contexts = new int[numUniqueEvents][];
+      System.arraycopy(uniqueContexts, 0, contexts, 0, numUniqueEvents);
+      uniqueContexts = null;
+
+      outcomeList = new int[numUniqueEvents];
+      System.arraycopy(outcomes, 0, outcomeList, 0, numUniqueEvents);
+      numTimesEventsSeen = new int[numUniqueEvents];
+      System.arraycopy(seen, 0, numTimesEventsSeen, 0, numUniqueEvents);
+      outcomes = null;
+      seen = null;
+
       System.out.println("Done indexing.");
     }
     catch(IOException e) {
       System.err.println(e);
     }
+    finally {
+      if (tmp != null) {
+        tmp.delete();
+      }
+    }
   }
 
   /**
-      * Reads events from <tt>eventStream</tt> into a linked list.  The
-      * predicates associated with each event are counted and any which
-      * occur at least <tt>cutoff</tt> times are added to the
-      * <tt>predicatesInOut</tt> map along with a unique integer index.
+      * Reads events from <tt>eventStream</tt> and writes them to the temporary file.
+      * The predicates associated with each event are counted and any which
+      * occur at least <tt>cutoff</tt> times are assigned a unique integer index.
       *
       * @param eventStream an <code>EventStream</code> value
-      * @param eventStore a writer to which the events are written to for later processing.
-      * @param predicatesInOut a <code>TObjectIntHashMap</code> value
+      * @param spill the stream to which the events are written to for later processing.
       * @param cutoff an <code>int</code> value
       */
-  private int computeEventCounts(EventStream eventStream, Writer eventStore, Map<String,Integer> predicatesInOut, int cutoff) throws IOException {
-    Map<String,Integer> counter = new HashMap<String,Integer>();
+  private int computeEventCounts(EventStream eventStream, DataOutputStream spill, int cutoff) throws IOException {
+    // the id in the temporary file and the count of each predicate
+    Map<String,int[]> counter = new HashMap<String,int[]>();
+    List<String> predicates = new ArrayList<String>();
+    Map<String,Integer> omap = new HashMap<String,Integer>();
     int eventCount = 0;
-    Set predicateSet = new HashSet();
+    Set<String> predicateSet = new HashSet<String>();
     while (eventStream.hasNext()) {
       Event ev = eventStream.next();
       eventCount++;
-      eventStore.write(FileEventStream.toLine(ev));
+
+      String oc = ev.getOutcome();
+      Integer ocID = omap.get(oc);
+      if (ocID == null) {
+        ocID = omap.size();
+        omap.put(oc, ocID);
+      }
+
       String[] ec = ev.getContext();
-      update(ec,predicateSet,counter,cutoff);
+      eventDataSize += ec.length + 2;
+      writeVarInt(spill, ocID);
+      writeVarInt(spill, ec.length);
+
+      for (int j = 0; j < ec.length; j++) {
+        int[] entry = counter.get(ec[j]);
+        if (entry == null) {
+          entry = new int[] {predicates.size(), 0};
+          counter.put(ec[j], entry);
+          predicates.add(ec[j]);
+        }
+        entry[1]++;
+        if (!predicateSet.contains(ec[j]) && entry[1] >= cutoff) {
+          predicateSet.add(ec[j]);
+        }
+        writeVarInt(spill, entry[0]);
+      }
     }
+    spill.close();
+
+    spillPredicates = predicates.toArray(new String[predicates.size()]);
+    predicateIndex = new int[spillPredicates.length];
+    Arrays.fill(predicateIndex, -1);
+
     predCounts = new int[predicateSet.size()];
+    predLabels = new String[predicateSet.size()];
     int index = 0;
-    for (Iterator pi=predicateSet.iterator();pi.hasNext();index++) {
-      String predicate = (String) pi.next();
-      predCounts[index] = counter.get(predicate);
-      predicatesInOut.put(predicate,index);
+    for (String predicate : predicateSet) {
+      int[] entry = counter.get(predicate);
+      predCounts[index] = entry[1];
+      predLabels[index] = predicate;
+      predicateIndex[entry[0]] = index;
+      index++;
     }
-    eventStore.close();
+    outcomeLabels = toIndexedStringArray(omap);
     return eventCount;
   }
 
-  private List index(int numEvents, EventStream es, Map<String,Integer> predicateIndex) throws IOException {
-    Map<String,Integer> omap = new HashMap<String,Integer>();
-    int outcomeCount = 0;
-    List eventsToCompare = new ArrayList(numEvents);
-    List<Integer> indexedContext = new ArrayList<Integer>();
-    while (es.hasNext()) {
-      Event ev = es.next();
-      String[] econtext = ev.getContext();
-      ComparableEvent ce;
-
-      int ocID;
-      String oc = ev.getOutcome();
+  private void index(int numEvents, DataInputStream in, boolean sort) throws IOException {
+    List<File> runs = new ArrayList<File>();
+
+    // the sort buffer, each event is stored as outcome, length and predicate indexes,
+    // it is not larger than the events which are sorted
+    int[] buffer = sort ? new int[(int) Math.min(sortBufferSize, eventDataSize)] : null;
+    int bufferSize = 0;
+    int[] starts = new int[1024];
+    int numBuffered = 0;
+
+    int[] spillIds = new int[16];
+    int[] cons = new int[16];
+    int numIndexedEvents = 0;
+
+    try {
+      for (int e = 0; e < numEvents; e++) {
+        int ocID = readVarInt(in);
+        int length = readVarInt(in);
+
+        if (spillIds.length < length) {
+          spillIds = new int[Math.max(length, spillIds.length * 2)];
+          cons = new int[spillIds.length];
+        }
+
+        int numCons = 0;
+        for (int i = 0; i < length; i++) {
+          spillIds[i] = readVarInt(in);
+
+          int pid = predicateIndex[spillIds[i]];
+          if (pid != -1) {
+            cons[numCons++] = pid;
+          }
+        }
+
+        // drop events with no active features
+        if (numCons == 0) {
+          List<String> context = new ArrayList<String>(length);
+          for (int i = 0; i < length; i++) {
+            context.add(spillPredicates[spillIds[i]]);
+          }
+          System.err.println("Dropped event " + outcomeLabels[ocID] + ":" + context);
+          continue;
+        }
+
+        numIndexedEvents++;
+        Arrays.sort(cons, 0, numCons);
+
+        if (!sort) {
+          addUniqueEvent(ocID, 1, cons, numCons);
+          continue;
+        }
+
+        if (bufferSize + numCons + 2 > buffer.length && numBuffered > 0) {
+          runs.add(writeRun(buffer, starts, numBuffered));
+          bufferSize = 0;
+          numBuffered = 0;
+        }
+
+        if (numCons + 2 > buffer.length) {
+          buffer = new int[numCons + 2];
+        }
+
+        if (numBuffered == starts.length) {
+          int[] newStarts = new int[starts.length * 2];
+          System.arraycopy(starts, 0, newStarts, 0, starts.length);
+          starts = newStarts;
+        }
 
-      if (omap.containsKey(oc)) {
-        ocID = omap.get(oc);
+        starts[numBuffered++] = bufferSize;
+        buffer[bufferSize++] = ocID;
+        buffer[bufferSize++] = numCons;
+        System.arraycopy(cons, 0, buffer, bufferSize, numCons);
+        bufferSize += numCons;
+      }
+      System.out.println("done.");
+
+      if (sort) {
+        System.out.print("Sorting and merging events... ");
+
+        if (numBuffered > 0) {
+          runs.add(writeRun(buffer, starts, numBuffered));
+        }
+        buffer = null;
+        starts = null;
+
+        mergeRuns(runs);
+        System.out.println("done. Reduced " + numIndexedEvents + " events to " + numUniqueEvents + ".");
       }
       else {
-        ocID = outcomeCount++;
-        omap.put(oc, ocID);
+        System.out.print("Collecting events... ");
+      }
+    }
+    finally {
+      for (File run : runs) {
+        run.delete();
       }
+    }
+
+    setNumEvents(numIndexedEvents);
+  }
+
+  private void addUniqueEvent(int outcome, int count, int[] context, int length) {
+    if (numUniqueEvents == outcomes.length) {
+      int[][] newContexts = new int[outcomes.length * 2][];
+      System.arraycopy(uniqueContexts, 0, newContexts, 0, outcomes.length);
+      uniqueContexts = newContexts;
+
+      int[] newOutcomes = new int[outcomes.length * 2];
+      System.arraycopy(outcomes, 0, newOutcomes, 0, outcomes.length);
+      outcomes = newOutcomes;
+
+      int[] newSeen = new int[seen.length * 2];
+      System.arraycopy(seen, 0, newSeen, 0, seen.length);
+      seen = newSeen;
+    }
+
+    int[] uniqueContext = new int[length];
+    System.arraycopy(context, 0, uniqueContext, 0, length);
+
+    uniqueContexts[numUniqueEvents] = uniqueContext;
+    outcomes[numUniqueEvents] = outcome;
+    seen[numUniqueEvents] = count;
+    numUniqueEvents++;
+  }
 
-      for (int i = 0; i < econtext.length; i++) {
-        String pred = econtext[i];
-        if (predicateIndex.containsKey(pred)) {
-          indexedContext.add(predicateIndex.get(pred));
+  /**
+   * Compares two events in the order of {@link ComparableEvent#compareTo(Object)}.
+   */
+  private static int compareEvents(int outcomeA, int[] a, int offsetA, int lengthA,
+      int outcomeB, int[] b, int offsetB, int lengthB) {
+
+    if (outcomeA != outcomeB)
+      return outcomeA < outcomeB ? -1 : 1;
+
+    int smallerLength = Math.min(lengthA, lengthB);
+
+    for (int i = 0; i < smallerLength; i++) {
+      int pa = a[offsetA + i];
+      int pb = b[offsetB + i];
+
+      if (pa != pb)
+        return pa < pb ? -1 : 1;
+    }
+
+    if (lengthA != lengthB)
+      return lengthA < lengthB ? -1 : 1;
+
+    return 0;
+  }
+
+  private static int compareBuffered(int[] buffer, int startA, int startB) {
+    return compareEvents(buffer[startA], buffer, startA + 2, buffer[startA + 1],
+        buffer[startB], buffer, startB + 2, buffer[startB + 1]);
+  }
+
+  /**
+   * Sorts the start offsets of the buffered events with a merge sort.
+   */
+  private static void sortStarts(int[] buffer, int[] starts, int[] tmp, int from, int to) {
+    if (to - from < 2)
+      return;
+
+    int mid = (from + to) >>> 1;
+    sortStarts(buffer, starts, tmp, from, mid);
+    sortStarts(buffer, starts, tmp, mid, to);
+
+    if (compareBuffered(buffer, starts[mid - 1], starts[mid]) <= 0)
+      return;
+
+    System.arraycopy(starts, from, tmp, from, to - from);
+
+    for (int i = from, l = from, r = mid; i < to; i++) {
+      if (r >= to || (l < mid && compareBuffered(buffer, tmp[l], tmp[r]) <= 0))
+        starts[i] = tmp[l++];
+      else
+        starts[i] = tmp[r++];
+    }
+  }
+
+  /**
+   * Sorts the buffered events and writes them to a run, duplicate events are
+   * written once with their count.
+   * A run contains the outcome, count, length and the ascending predicate
+   * indexes as differences of each event.
+   */
+  private static File writeRun(int[] buffer, int[] starts, int numBuffered) throws IOException {
+    sortStarts(buffer, starts, new int[numBuffered], 0, numBuffered);
+
+    File run = File.createTempFile("events", ".run");
+    run.deleteOnExit();
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)));
+    try {
+      for (int i = 0; i < numBuffered; ) {
+        int start = starts[i];
+        int count = 1;
+
+        for (i++; i < numBuffered && compareBuffered(buffer, start, starts[i]) == 0; i++) {
+          count++;
         }
+
+        int length = buffer[start + 1];
+        writeVarInt(out, buffer[start]);
+        writeVarInt(out, count);
+        writeVarInt(out, length);
+
+        int prev = 0;
+        for (int j = 0; j < length; j++) {
+          int pid = buffer[start + 2 + j];
+          writeVarInt(out, pid - prev);
+          prev = pid;
+        }
+      }
+    }
+    finally {
+      out.close();
+    }
+
+    return run;
+  }
+
+  /**
+   * Merges the sorted runs and adds the unique events.
+   */
+  private void mergeRuns(List<File> runs) throws IOException {
+    PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(
+        Math.max(1, runs.size()), RUN_COMPARATOR);
+
+    List<RunReader> readers = new ArrayList<RunReader>(runs.size());
+
+    try {
+      for (File run : runs) {
+        RunReader reader = new RunReader(run);
+        readers.add(reader);
+
+        if (reader.next())
+          queue.add(reader);
       }
 
-      // drop events with no active features
-      if (indexedContext.size() > 0) {
-        int[] cons = new int[indexedContext.size()];
-        for (int ci=0;ci<cons.length;ci++) {
-          cons[ci] = indexedContext.get(ci);
+      int[] context = new int[16];
+      int length = 0;
+      int outcome = -1;
+      int count = 0;
+
+      while (!queue.isEmpty()) {
+        RunReader reader = queue.poll();
+
+        if (count > 0 && compareEvents(outcome, context, 0, length,
+            reader.outcome, reader.preds, 0, reader.length) == 0) {
+          count += reader.seen;
+        }
+        else {
+          if (count > 0)
+            addUniqueEvent(outcome, count, context, length);
+
+          if (context.length < reader.length)
+            context = new int[Math.max(reader.length, context.length * 2)];
+
+          System.arraycopy(reader.preds, 0, context, 0, reader.length);
+          length = reader.length;
+          outcome = reader.outcome;
+          count = reader.seen;
         }
-        ce = new ComparableEvent(ocID, cons);
-        eventsToCompare.add(ce);
+
+        if (reader.next())
+          queue.add(reader);
       }
-      else {
-        System.err.println("Dropped event " + ev.getOutcome() + ":" + Arrays.asList(ev.getContext()));
+
+      if (count > 0)
+        addUniqueEvent(outcome, count, context, length);
+    }
+    finally {
+      for (RunReader reader : readers) {
+        reader.close();
       }
-      // recycle the TIntArrayList
-      indexedContext.clear();
     }
-    outcomeLabels = toIndexedStringArray(omap);
-    predLabels = toIndexedStringArray(predicateIndex);
-    return eventsToCompare;
   }
 
-}
+  /**
+   * Reads the events of a run one by one.
+   */
+  private static class RunReader {
+
+    private final DataInputStream in;
+
+    int outcome;
+    int seen;
+    int length;
+    int[] preds = new int[16];
+
+    RunReader(File run) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), 1 << 16));
+    }
+
+    /**
+     * Reads the next event.
+     *
+     * @return false if the run has no more events
+     */
+    boolean next() throws IOException {
+      int first = in.read();
+
+      if (first == -1)
+        return false;
+
+      outcome = readVarInt(in, first);
+      seen = readVarInt(in);
+      length = readVarInt(in);
 
+      if (preds.length < length)
+        preds = new int[Math.max(length, preds.length * 2)];
+
+      int pid = 0;
+      for (int i = 0; i < length; i++) {
+        pid += readVarInt(in);
+        preds[i] = pid;
+      }
+
+      return true;
+    }
+
+    void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /**
+   * Writes a non negative int in 7 bit groups, the low group first.
+   */
+  static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  static int readVarInt(DataInput in) throws IOException {
+    return readVarInt(in, in.readUnsignedByte());
+  }
+
+  private static int readVarInt(DataInput in, int first) throws IOException {
+    int value = first & 0x7F;
+
+    for (int shift = 7, b = first; (b & 0x80) != 0; shift += 7) {
+      if (shift > 28)
+        throw new IOException("Malformed variable length int!");
+
+      b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+    }
+
+    return value;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.perceptron;
+
+import opennlp.model.Context;
+
+/**
+ * The parameters of a predicate for the outcomes it was updated with.
+ * <p>
+ * The averaged parameters are computed lazily. Instead of adding every parameter
+ * to its sum after every step, a parameter is added when it changes, multiplied
+ * by the number of steps since its previous change.
+ */
+class AveragedContext extends Context {
+
+  private static final int[] NO_OUTCOMES = new int[0];
+  private static final double[] NO_PARAMETERS = new double[0];
+
+  /** The sum of the parameter values up to the step of the last change. */
+  private double[] sums = NO_PARAMETERS;
+
+  /** The step of the last change of each parameter. */
+  private int[] steps = NO_OUTCOMES;
+
+  AveragedContext() {
+    super(NO_OUTCOMES, NO_PARAMETERS);
+  }
+
+  /**
+   * Adds the value to the parameter of the outcome.
+   *
+   * @param outcome the outcome
+   * @param value the value to add
+   * @param step the number of steps done so far
+   */
+  void updateParameter(int outcome, double value, int step) {
+    int index = 0;
+    while (index < outcomes.length && outcomes[index] != outcome) {
+      index++;
+    }
+
+    if (index == outcomes.length) {
+      int length = outcomes.length + 1;
+
+      int[] newOutcomes = new int[length];
+      System.arraycopy(outcomes, 0, newOutcomes, 0, index);
+      newOutcomes[index] = outcome;
+
+      double[] newParameters = new double[length];
+      System.arraycopy(parameters, 0, newParameters, 0, index);
+
+      double[] newSums = new double[length];
+      System.arraycopy(sums, 0, newSums, 0, index);
+
+      int[] newSteps = new int[length];
+      System.arraycopy(steps, 0, newSteps, 0, index);
+
+      parameters = newParameters;
+      sums = newSums;
+      steps = newSteps;
+      outcomes = newOutcomes;
+    }
+
+    sums[index] += parameters[index] * (step - steps[index]);
+    steps[index] = step;
+    parameters[index] += value;
+  }
+
+  /**
+   * Creates the context with the averaged parameters.
+   *
+   * @param numSteps the total number of steps
+   */
+  Context getAveragedContext(int numSteps) {
+    double[] averaged = new double[outcomes.length];
+
+    for (int i = 0; i < outcomes.length; i++) {
+      averaged[i] = sums[i] + parameters[i] * (numSteps - steps[i]);
+
+      if (averaged[i] != 0) {
+        averaged[i] /= numSteps;
+      }
+    }
+
+    return new Context(outcomes, averaged);
+  }
+}
@@ -28,6 +28,7 @@ import java.util.Map;
 import opennlp.model.AbstractModel;
 import opennlp.model.Context;
 import opennlp.model.EvalParameters;
+import opennlp.model.FlatEvalParameters;
 import opennlp.model.IndexHashTable;
 
 public class PerceptronModel extends AbstractModel {
@@ -46,7 +47,20 @@ public class PerceptronModel extends AbstractModel {
     modelType = ModelType.Perceptron;
   }
   
+  /**
+   * Creates a new model, the parameters are copied into a {@link FlatEvalParameters}
+   * store, later changes to the passed contexts do not affect the model.
+   */
   public PerceptronModel(Context[] params, String[] predLabels, String[] outcomeNames) {
+    super(new FlatEvalParameters(params,outcomeNames.length),predLabels,outcomeNames);
+    modelType = ModelType.Perceptron;
+  }
+  
+  /**
+   * Creates a new model which evaluates the specified parameters directly,
+   * e.g. parameters which are read from a memory mapped model file.
+   */
+  public PerceptronModel(EvalParameters params, String[] predLabels, String[] outcomeNames) {
     super(params,predLabels,outcomeNames);
     modelType = ModelType.Perceptron;
   }
@@ -73,29 +87,38 @@ public class PerceptronModel extends AbstractModel {
     return eval(scontexts,values,outsums,evalParams,true);
   }
   
+  public double[] eval(int[] context, double[] probs) {
+    java.util.Arrays.fill(probs, 0);
+    return eval(context,null,probs,evalParams,true);
+  }
+  
+  public double[][] eval(String[][] contexts, double[][] probs) {
+    int[][] scontexts = lookupContexts(contexts);
+    for (int i = 0; i < scontexts.length; i++) {
+      java.util.Arrays.fill(probs[i], 0);
+      eval(scontexts[i],null,probs[i],evalParams,true);
+    }
+    return probs;
+  }
+  
+  public double[] eval(String[][] contexts, double[] probs) {
+    int numOutcomes = evalParams.getNumOutcomes();
+    int[][] scontexts = lookupContexts(contexts);
+    double[] outsums = new double[numOutcomes];
+    for (int i = 0; i < scontexts.length; i++) {
+      java.util.Arrays.fill(outsums, 0);
+      eval(scontexts[i],null,outsums,evalParams,true);
+      System.arraycopy(outsums, 0, probs, i * numOutcomes, numOutcomes);
+    }
+    return probs;
+  }
+  
   public static double[] eval(int[] context, double[] prior, EvalParameters model) {
     return eval(context,null,prior,model,true);
   }
   
   public static double[] eval(int[] context, float[] values, double[] prior, EvalParameters model, boolean normalize) {
-    Context[] params = model.getParams();
-    double[] activeParameters;
-    int[] activeOutcomes;
-    double value = 1;
-    for (int ci = 0; ci < context.length; ci++) {
-      if (context[ci] >= 0) {
-        Context predParams = params[context[ci]];
-        activeOutcomes = predParams.getOutcomes();
-        activeParameters = predParams.getParameters();
-        if (values != null) {
-          value = values[ci];
-        }
-        for (int ai = 0; ai < activeOutcomes.length; ai++) {
-          int oid = activeOutcomes[ai];
-          prior[oid] += activeParameters[ai] * value;
-        }
-      }
-    }    
+    model.addParameters(context, values, prior, null);
     if (normalize) {
       int numOutcomes = model.getNumOutcomes();
       
@@ -19,6 +19,15 @@
 
 package opennlp.perceptron;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import opennlp.model.AbstractModel;
 import opennlp.model.DataIndexer;
 import opennlp.model.EvalParameters;
@@ -77,6 +86,10 @@ public class PerceptronTrainer {
   
   private boolean useSkippedlAveraging;
   
+  private int threads = 1;
+  
+  private boolean useHogwild;
+  
   /**
    * Specifies the tolerance. If the change in training set accuracy
    * is less than this, stop iterating.
@@ -126,6 +139,38 @@ public class PerceptronTrainer {
     useSkippedlAveraging = averaging;
   }
   
+  /**
+   * Sets the number of threads which train the model.
+   * <p>
+   * By default the threads use iterative parameter mixing: every iteration
+   * each thread trains a copy of the parameters on its share of the events,
+   * then the copies are averaged. The result does not depend on the
+   * scheduling of the threads. See Distributed Training Strategies for the
+   * Structured Perceptron. Ryan McDonald, Keith Hall and Gideon Mann, NAACL 2010.
+   * 
+   * @param threads the number of threads, one trains on the calling thread
+   */
+  public void setThreads(int threads) {
+    
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be at least 1: " + threads);
+    
+    this.threads = threads;
+  }
+  
+  /**
+   * Enables lock free Hogwild updates if more than one thread is used. The threads
+   * update one shared set of parameters without synchronization, updates can
+   * get lost and the trained model depends on the scheduling of the threads.
+   * Hogwild needs less memory than parameter mixing, because the parameters
+   * are not copied for every thread.
+   * 
+   * @param hogwild
+   */
+  public void setHogwild(boolean hogwild) {
+    useHogwild = hogwild;
+  }
+  
   public AbstractModel trainModel(int iterations, DataIndexer di, int cutoff) {
     return trainModel(iterations,di,cutoff,true);
   }
@@ -153,7 +198,12 @@ public class PerceptronTrainer {
     
     display("Computing model parameters...\n");
 
-    MutableContext[] finalParameters = findParameters(iterations, useAverage);
+    MutableContext[] finalParameters;
+    
+    if (threads > 1)
+      finalParameters = findParametersParallel(iterations, useAverage);
+    else
+      finalParameters = findParameters(iterations, useAverage);
 
     display("...done.\n");
 
@@ -252,21 +302,7 @@ public class PerceptronTrainer {
       if (i < 10 || (i%10) == 0)
         display(". (" + numCorrect + "/" + numEvents+") " + trainingAccuracy + "\n");
           
-      // TODO: Make averaging configurable !!!
-      
-      boolean doAveraging;
-      
-      if (useAverage && useSkippedlAveraging && (i < 20 || isPerfectSquare(i))) {
-        doAveraging = true;
-      }
-      else if (useAverage) {
-        doAveraging = true;
-      }
-      else {
-        doAveraging = false;
-      }
-      
-      if (doAveraging) {
+      if (isAveragingIteration(i, useAverage)) {
         numTimesSummed++;
         for (int pi = 0; pi < numPreds; pi++) 
           for (int aoi=0;aoi<numOutcomes;aoi++)
@@ -308,6 +344,243 @@ public class PerceptronTrainer {
         
   }
   
+  private boolean isAveragingIteration(int i, boolean useAverage) {
+    
+    // TODO: Make averaging configurable !!!
+    
+    boolean doAveraging;
+    
+    if (useAverage && useSkippedlAveraging && (i < 20 || isPerfectSquare(i))) {
+      doAveraging = true;
+    }
+    else if (useAverage) {
+      doAveraging = true;
+    }
+    else {
+      doAveraging = false;
+    }
+    
+    return doAveraging;
+  }
+  
+  /**
+   * Trains the parameters with multiple threads. The parameters are stored
+   * in flat arrays, the parameter of predicate pi and outcome oi is at
+   * index pi * numOutcomes + oi. Thread t trains on every unique event ei
+   * with ei % threads == t, so that every thread sees all outcomes even if
+   * the events are sorted.
+   */
+  private MutableContext[] findParametersParallel(int iterations, boolean useAverage) {
+    
+    display("Performing " + iterations + " iterations with " + threads + " threads" +
+        (useHogwild ? " (hogwild).\n" : ".\n"));
+    
+    final int numParams = numPreds * numOutcomes;
+    
+    final double[] params = new double[numParams];
+    
+    final double[][] shardParams;
+    if (useHogwild) {
+      shardParams = null;
+    }
+    else {
+      shardParams = new double[threads][];
+      for (int t = 0; t < threads; t++)
+        shardParams[t] = new double[numParams];
+    }
+    
+    double[] summedParams = useAverage ? new double[numParams] : null;
+    
+    double prevAccuracy1 = 0.0;
+    double prevAccuracy2 = 0.0;
+    double prevAccuracy3 = 0.0;
+    
+    int numTimesSummed = 0;
+    
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    
+    try {
+      double stepsize = 1;
+      for (int i = 1; i <= iterations; i++) {
+        
+        if (stepSizeDecrease != null)
+          stepsize *= 1 - stepSizeDecrease;
+        
+        displayIteration(i);
+        
+        final double iterationStepsize = stepsize;
+        
+        List<Callable<Integer>> trainTasks = new ArrayList<Callable<Integer>>(threads);
+        for (int t = 0; t < threads; t++) {
+          final int shard = t;
+          
+          trainTasks.add(new Callable<Integer>() {
+            public Integer call() {
+              double[] shardParameters;
+              
+              if (useHogwild) {
+                shardParameters = params;
+              }
+              else {
+                shardParameters = shardParams[shard];
+                System.arraycopy(params, 0, shardParameters, 0, numParams);
+              }
+              
+              return trainShard(shardParameters, shard, iterationStepsize);
+            }
+          });
+        }
+        
+        int numCorrect = 0;
+        for (Integer shardCorrect : execute(executor, trainTasks))
+          numCorrect += shardCorrect;
+        
+        if (!useHogwild) {
+          // mix the parameters, each thread averages a range of them
+          List<Callable<Integer>> mixTasks = new ArrayList<Callable<Integer>>(threads);
+          for (int t = 0; t < threads; t++) {
+            final int start = (int) ((long) numParams * t / threads);
+            final int end = (int) ((long) numParams * (t + 1) / threads);
+            
+            mixTasks.add(new Callable<Integer>() {
+              public Integer call() {
+                for (int pi = start; pi < end; pi++) {
+                  double sum = 0;
+                  for (int s = 0; s < shardParams.length; s++)
+                    sum += shardParams[s][pi];
+                  params[pi] = sum / shardParams.length;
+                }
+                return end - start;
+              }
+            });
+          }
+          
+          execute(executor, mixTasks);
+        }
+        
+        double trainingAccuracy = (double) numCorrect / numEvents;
+        if (i < 10 || (i%10) == 0)
+          display(". (" + numCorrect + "/" + numEvents+") " + trainingAccuracy + "\n");
+        
+        if (isAveragingIteration(i, useAverage)) {
+          numTimesSummed++;
+          for (int pi = 0; pi < numParams; pi++)
+            summedParams[pi] += params[pi];
+        }
+        
+        if (Math.abs(prevAccuracy1-trainingAccuracy) < tolerance
+            && Math.abs(prevAccuracy2-trainingAccuracy) < tolerance
+            && Math.abs(prevAccuracy3-trainingAccuracy) < tolerance) {
+          display("Stopping: change in training set accuracy less than " + tolerance + "\n");
+          break;
+        }
+        
+        prevAccuracy1 = prevAccuracy2;
+        prevAccuracy2 = prevAccuracy3;
+        prevAccuracy3 = trainingAccuracy;
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+    
+    trainingStats(new EvalParameters(toContexts(params, 1), numOutcomes));
+    
+    if (useAverage)
+      return toContexts(summedParams, numTimesSummed);
+    else
+      return toContexts(params, 1);
+  }
+  
+  /**
+   * Trains the parameters on one shard of the events for one iteration.
+   * 
+   * @return the number of correctly classified events
+   */
+  private int trainShard(double[] parameters, int shard, double stepsize) {
+    
+    double[] scores = new double[numOutcomes];
+    int numCorrect = 0;
+    
+    for (int ei = shard; ei < numUniqueEvents; ei += threads) {
+      int targetOutcome = outcomeList[ei];
+      int[] context = contexts[ei];
+      float[] contextValues = values != null ? values[ei] : null;
+      
+      for (int ni = 0; ni < numTimesEventsSeen[ei]; ni++) {
+        
+        Arrays.fill(scores, 0);
+        for (int ci = 0; ci < context.length; ci++) {
+          int offset = context[ci] * numOutcomes;
+          double value = contextValues != null ? contextValues[ci] : 1;
+          
+          for (int oi = 0; oi < numOutcomes; oi++)
+            scores[oi] += parameters[offset + oi] * value;
+        }
+        
+        int maxOutcome = maxIndex(scores);
+        
+        if (maxOutcome != targetOutcome) {
+          for (int ci = 0; ci < context.length; ci++) {
+            int offset = context[ci] * numOutcomes;
+            double update = contextValues != null ? stepsize * contextValues[ci] : stepsize;
+            
+            parameters[offset + targetOutcome] += update;
+            parameters[offset + maxOutcome] -= update;
+          }
+        }
+        else {
+          numCorrect++;
+        }
+      }
+    }
+    
+    return numCorrect;
+  }
+  
+  /**
+   * Creates the parameters of each predicate from the flat parameters.
+   */
+  private MutableContext[] toContexts(double[] parameters, int divisor) {
+    
+    int[] allOutcomesPattern = new int[numOutcomes];
+    for (int oi = 0; oi < numOutcomes; oi++)
+      allOutcomesPattern[oi] = oi;
+    
+    MutableContext[] contexts = new MutableContext[numPreds];
+    for (int pi = 0; pi < numPreds; pi++) {
+      double[] predParameters = new double[numOutcomes];
+      for (int oi = 0; oi < numOutcomes; oi++)
+        predParameters[oi] = parameters[pi * numOutcomes + oi] / divisor;
+      
+      contexts[pi] = new MutableContext(allOutcomesPattern, predParameters);
+    }
+    
+    return contexts;
+  }
+  
+  /**
+   * Executes the tasks on the thread pool and waits until all of them are done.
+   * 
+   * @return the results in the order of the tasks
+   */
+  private static <T> List<T> execute(ExecutorService executor, List<? extends Callable<T>> tasks) {
+    
+    List<T> results = new ArrayList<T>(tasks.size());
+    
+    try {
+      for (Future<T> future : executor.invokeAll(tasks))
+        results.add(future.get());
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    } catch (ExecutionException e) {
+      // only runtime exceptions are thrown during training
+      throw new RuntimeException(e.getCause());
+    }
+    
+    return results;
+  }
+  
   private double trainingStats (EvalParameters evalParams) {
     int numCorrect = 0;
 
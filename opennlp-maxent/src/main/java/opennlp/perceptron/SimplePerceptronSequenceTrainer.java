@@ -20,19 +20,27 @@
 package opennlp.perceptron;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import opennlp.model.AbstractModel;
+import opennlp.model.Context;
 import opennlp.model.DataIndexer;
 import opennlp.model.Event;
 import opennlp.model.IndexHashTable;
-import opennlp.model.MutableContext;
 import opennlp.model.OnePassDataIndexer;
 import opennlp.model.Sequence;
 import opennlp.model.SequenceStream;
 import opennlp.model.SequenceStreamEventStream;
-import opennlp.model.TwoPassDataIndexer;
 
 /**
  * Trains models for sequences using the perceptron algorithm.  Each outcome is represented as
@@ -42,9 +50,26 @@ import opennlp.model.TwoPassDataIndexer;
  * with the Perceptron Algorithm. Michael Collins, EMNLP 2002.
  * Specifically only updates are applied to tokens which were incorrectly tagged by a sequence tagger
  * rather than to all feature across the sequence which differ from the training sequence.
+ * <p>
+ * Parameters are only stored for the outcomes a predicate was updated with, and the
+ * averaged parameters are computed lazily, see {@link AveragedContext}.
+ * <p>
+ * With multiple threads the sequences are decoded in mini-batches. All sequences of
+ * a batch are decoded against the parameters as they were at the start of the batch,
+ * the updates are applied in the order of the sequences after the batch is decoded.
+ * The result differs from the sequential training where every sequence sees the
+ * updates of its predecessors. In this mode
+ * {@link SequenceStream#updateContext(Sequence, AbstractModel)} is called concurrently
+ * and in no particular order, it must be thread safe. The result only does not depend
+ * on the number of threads if the contexts of a sequence do not depend on the sequences
+ * which were decoded before it. This is not the case for the adaptive features of the
+ * name finder, its sequence training always uses one thread.
  */
 public class SimplePerceptronSequenceTrainer {
 
+  /** The default number of sequences which are decoded against the same parameters. */
+  public static final int DEFAULT_BATCH_SIZE = 32;
+
   private boolean printMessages = true;
   private int iterations;
   private SequenceStream sequenceStream;
@@ -60,34 +85,221 @@ public class SimplePerceptronSequenceTrainer {
   
   private String[] outcomeLabels;
 
-  double[] modelDistribution;
-
-  /** Stores the average parameter values of each predicate during iteration. */
-  private MutableContext[] averageParams;
-  
   /** Mapping between context and an integer */ 
   private IndexHashTable<String> pmap;
 
   private Map<String,Integer> omap;
   
   /** Stores the estimated parameter value of each predicate during iteration. */
-  private MutableContext[] params;
+  private AveragedContext[] params;
   private boolean useAverage;
-  private int[][][] updates;
-  private int VALUE = 0;
-  private int ITER = 1;
-  private int EVENT = 2;
   
-  private int[] allOutcomesPattern;
+  /** The model which evaluates the current parameters. */
+  private PerceptronModel model;
+  
+  /** The feature count differences of the current sequence. */
+  private FeatureCounts featureCounts;
+  
   private String[] predLabels;
   int numSequences;
 
+  private int threads = 1;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private boolean cacheFeatures;
+
+  /** The training sequences with their indexed features, if the features are cached. */
+  private TrainingSequence[] cachedSequences;
+
+  private ExecutorService executor;
+
+  /**
+   * A training sequence and, if cached, the predicate index, outcome index and value
+   * of each of its training features in the order of the events.
+   */
+  private static class TrainingSequence {
+
+    final Sequence sequence;
+
+    int[] predicates;
+    int[] outcomes;
+    float[] values;
+
+    TrainingSequence(Sequence sequence) {
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * The non-zero feature count differences of one decoded sequence.
+   */
+  private static class SequenceUpdate {
+
+    final int numCorrect;
+    final int[] predicates;
+    final int[] outcomes;
+    final float[] counts;
+
+    SequenceUpdate(int numCorrect, FeatureCounts featureCounts) {
+      this.numCorrect = numCorrect;
+
+      int size = 0;
+      for (int i = 0; i < featureCounts.size(); i++) {
+        if (featureCounts.count(i) != 0f)
+          size++;
+      }
+
+      predicates = new int[size];
+      outcomes = new int[size];
+      counts = new float[size];
+
+      int index = 0;
+      for (int i = 0; i < featureCounts.size(); i++) {
+        if (featureCounts.count(i) != 0f) {
+          predicates[index] = featureCounts.predicate(i);
+          outcomes[index] = featureCounts.outcome(i);
+          counts[index] = featureCounts.count(i);
+          index++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Accumulates the difference between the feature counts of the training and the
+   * tagged sequence in an open addressing hash table keyed by predicate and outcome.
+   * Clearing the table only resets the used slots.
+   */
+  private static class FeatureCounts {
+    
+    private long[] keys = new long[64];
+    private float[] counts = new float[64];
+    private int[] usedSlots = new int[32];
+    private int size;
+    
+    FeatureCounts() {
+      Arrays.fill(keys, -1);
+    }
+    
+    void add(int pi, int oi, float value) {
+      long key = ((long) pi << 32) | oi;
+      
+      int mask = keys.length - 1;
+      int slot = hash(key) & mask;
+      
+      while (keys[slot] != -1) {
+        if (keys[slot] == key) {
+          counts[slot] += value;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      
+      if ((size + 1) * 2 > keys.length) {
+        rehash();
+        add(pi, oi, value);
+        return;
+      }
+      
+      keys[slot] = key;
+      counts[slot] = value;
+      usedSlots[size++] = slot;
+    }
+    
+    private static int hash(long key) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+    
+    private void rehash() {
+      long[] oldKeys = keys;
+      float[] oldCounts = counts;
+      int[] oldUsedSlots = usedSlots;
+      int oldSize = size;
+      
+      keys = new long[oldKeys.length * 2];
+      Arrays.fill(keys, -1);
+      counts = new float[keys.length];
+      usedSlots = new int[keys.length / 2];
+      size = 0;
+      
+      for (int i = 0; i < oldSize; i++) {
+        long key = oldKeys[oldUsedSlots[i]];
+        add((int) (key >>> 32), (int) key, oldCounts[oldUsedSlots[i]]);
+      }
+    }
+    
+    int size() {
+      return size;
+    }
+    
+    int predicate(int i) {
+      return (int) (keys[usedSlots[i]] >>> 32);
+    }
+    
+    int outcome(int i) {
+      return (int) keys[usedSlots[i]];
+    }
+    
+    float count(int i) {
+      return counts[usedSlots[i]];
+    }
+    
+    void clear() {
+      for (int i = 0; i < size; i++) {
+        keys[usedSlots[i]] = -1;
+      }
+      size = 0;
+    }
+  }
+  
+  /**
+   * Sets the number of threads which decode the training sequences.
+   * With more than one thread the sequences are decoded in mini-batches.
+   *
+   * @param threads the number of threads, the default is one
+   */
+  public void setThreads(int threads) {
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be at least 1: " + threads);
+
+    this.threads = threads;
+  }
+
+  /**
+   * Sets the number of sequences which are decoded against the same parameters
+   * when multiple threads are used.
+   *
+   * @param batchSize the number of sequences per batch
+   */
+  public void setBatchSize(int batchSize) {
+    if (batchSize < 1)
+      throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Enables caching of the training sequences and the indexes of their features
+   * between the iterations. The sequences are then read only once from the
+   * sequence stream at the cost of keeping them in memory. The features of the
+   * decoded sequences depend on the current parameters and are still generated
+   * in every iteration.
+   *
+   * @param cacheFeatures true to cache the training features
+   */
+  public void setCacheFeatures(boolean cacheFeatures) {
+    this.cacheFeatures = cacheFeatures;
+  }
+
   public AbstractModel trainModel(int iterations, SequenceStream sequenceStream, int cutoff, boolean useAverage) throws IOException {
     this.iterations = iterations;
     this.sequenceStream = sequenceStream;
     DataIndexer di = new OnePassDataIndexer(new SequenceStreamEventStream(sequenceStream),cutoff,false);
     numSequences = 0;
+    List<Sequence> sequences = cacheFeatures ? new ArrayList<Sequence>() : null;
     for (Sequence s : sequenceStream) {
+      if (sequences != null)
+        sequences.add(s);
       numSequences++;
     }
     outcomeList  = di.getOutcomeList();
@@ -108,9 +320,6 @@ public class SimplePerceptronSequenceTrainer {
 
     numPreds = predLabels.length;
     numOutcomes = outcomeLabels.length;
-    if (useAverage) {
-      updates = new int[numPreds][numOutcomes][3];
-    }
     
     display("done.\n");
     
@@ -119,45 +328,45 @@ public class SimplePerceptronSequenceTrainer {
     display("\t  Number of Predicates: " + numPreds + "\n");
     
 
-    params = new MutableContext[numPreds];
-    if (useAverage) averageParams = new MutableContext[numPreds];
-    
-    allOutcomesPattern= new int[numOutcomes];
-    for (int oi = 0; oi < numOutcomes; oi++) {
-      allOutcomesPattern[oi] = oi;
+    params = new AveragedContext[numPreds];
+    for (int pi = 0; pi < numPreds; pi++) {
+      params[pi] = new AveragedContext();
     }
     
-    for (int pi = 0; pi < numPreds; pi++) {
-      params[pi]=new MutableContext(allOutcomesPattern,new double[numOutcomes]);
-      if (useAverage) averageParams[pi] = new MutableContext(allOutcomesPattern,new double[numOutcomes]);
-      for (int aoi=0;aoi<numOutcomes;aoi++) {
-        params[pi].setParameter(aoi, 0.0);
-        if (useAverage) averageParams[pi].setParameter(aoi, 0.0);
+    // the model evaluates the parameters directly and sees all updates
+    model = new PerceptronModel(params,predLabels,pmap,outcomeLabels);
+    featureCounts = new FeatureCounts();
+
+    if (sequences != null) {
+      cachedSequences = new TrainingSequence[sequences.size()];
+      for (int si = 0; si < cachedSequences.length; si++) {
+        cachedSequences[si] = cacheFeatures(sequences.get(si));
       }
     }
-    modelDistribution = new double[numOutcomes];
+    else {
+      cachedSequences = null;
+    }
 
     display("Computing model parameters...\n");
-    findParameters(iterations);
+    Context[] finalParams;
+    executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+    try {
+      finalParams = findParameters(iterations);
+    }
+    finally {
+      if (executor != null) {
+        executor.shutdown();
+        executor = null;
+      }
+      cachedSequences = null;
+    }
     display("...done.\n");
 
     /*************** Create and return the model ******************/
-    String[] updatedPredLabels = predLabels;
-    /*
-    String[] updatedPredLabels = new String[pmap.size()];
-    for (String pred : pmap.keySet()) {
-      updatedPredLabels[pmap.get(pred)]=pred;
-    }
-    */
-    if (useAverage) {
-      return new PerceptronModel(averageParams, updatedPredLabels, outcomeLabels);
-    }
-    else {
-      return new PerceptronModel(params, updatedPredLabels, outcomeLabels);
-    }
+    return new PerceptronModel(finalParams, predLabels, outcomeLabels);
   }
 
-  private void findParameters(int iterations) {
+  private Context[] findParameters(int iterations) {
     display("Performing " + iterations + " iterations.\n");
     for (int i = 1; i <= iterations; i++) {
       if (i < 10)
@@ -168,12 +377,25 @@ public class SimplePerceptronSequenceTrainer {
         display(i + ":  ");
       nextIteration(i);
     }
+    
+    Context[] finalParams;
+    
     if (useAverage) {
-      trainingStats(averageParams);
+      // every sequence of every iteration is one step
+      int numSteps = iterations * numSequences;
+      
+      finalParams = new Context[numPreds];
+      for (int pi = 0; pi < numPreds; pi++) {
+        finalParams[pi] = params[pi].getAveragedContext(numSteps);
+      }
     }
     else {
-      trainingStats(params);
+      finalParams = params;
     }
+    
+    trainingStats(finalParams);
+    
+    return finalParams;
   }
 
   private void display(String s) {
@@ -181,128 +403,223 @@ public class SimplePerceptronSequenceTrainer {
       System.out.print(s);
   }
 
+  private TrainingSequence cacheFeatures(Sequence sequence) {
+    TrainingSequence trainingSequence = new TrainingSequence(sequence);
+
+    Event[] events = sequence.getEvents();
+
+    int numFeatures = 0;
+    for (int ei = 0; ei < events.length; ei++) {
+      String[] contextStrings = events[ei].getContext();
+      for (int ci = 0; ci < contextStrings.length; ci++) {
+        if (pmap.get(contextStrings[ci]) != -1)
+          numFeatures++;
+      }
+    }
+
+    trainingSequence.predicates = new int[numFeatures];
+    trainingSequence.outcomes = new int[numFeatures];
+    trainingSequence.values = new float[numFeatures];
+
+    int fi = 0;
+    for (int ei = 0; ei < events.length; ei++) {
+      String[] contextStrings = events[ei].getContext();
+      float values[] = events[ei].getValues();
+      int oi = omap.get(events[ei].getOutcome());
+      for (int ci = 0; ci < contextStrings.length; ci++) {
+        int pi = pmap.get(contextStrings[ci]);
+        if (pi != -1) {
+          trainingSequence.predicates[fi] = pi;
+          trainingSequence.outcomes[fi] = oi;
+          trainingSequence.values[fi] = values != null ? values[ci] : 1;
+          fi++;
+        }
+      }
+    }
+
+    return trainingSequence;
+  }
+
+  /**
+   * Iterates over the cached training sequences or over the sequences of the stream.
+   */
+  private Iterator<TrainingSequence> trainingSequences() {
+    if (cachedSequences != null)
+      return Arrays.asList(cachedSequences).iterator();
+
+    final Iterator<Sequence> sequences = sequenceStream.iterator();
+
+    return new Iterator<TrainingSequence>() {
+      public boolean hasNext() {
+        return sequences.hasNext();
+      }
+
+      public TrainingSequence next() {
+        return new TrainingSequence(sequences.next());
+      }
+
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
   public void nextIteration(int iteration) {
     iteration--; //move to 0-based index
     int numCorrect = 0;
-    int oei=0;
     int si=0;
-    Map<String,Float>[] featureCounts = new Map[numOutcomes];
-    for (int oi=0;oi<numOutcomes;oi++) {
-      featureCounts[oi] = new HashMap<String,Float>();
-    }
-    PerceptronModel model = new PerceptronModel(params,predLabels,pmap,outcomeLabels);
-    for (Sequence sequence : sequenceStream) {
-      Event[] taggerEvents = sequenceStream.updateContext(sequence, model);
-      Event[] events = sequence.getEvents();
-      boolean update = false;
-      for (int ei=0;ei<events.length;ei++,oei++) {
-        if (!taggerEvents[ei].getOutcome().equals(events[ei].getOutcome())) {
-          update = true;
-          //break;
-        }
-        else {
-          numCorrect++;
+
+    Iterator<TrainingSequence> sequences = trainingSequences();
+
+    if (executor == null) {
+      while (sequences.hasNext()) {
+        numCorrect += decode(sequences.next(), featureCounts);
+
+        int step = iteration * numSequences + si;
+
+        for (int i = 0; i < featureCounts.size(); i++) {
+          float count = featureCounts.count(i);
+
+          if (count != 0f) {
+            params[featureCounts.predicate(i)].updateParameter(featureCounts.outcome(i), count, step);
+          }
         }
+        si++;
       }
-      if (update) {
-        for (int oi=0;oi<numOutcomes;oi++) {
-          featureCounts[oi].clear();
+    }
+    else {
+      List<TrainingSequence> batch = new ArrayList<TrainingSequence>(batchSize);
+
+      while (sequences.hasNext()) {
+        batch.clear();
+        while (batch.size() < batchSize && sequences.hasNext()) {
+          batch.add(sequences.next());
         }
-        //System.err.print("train:");for (int ei=0;ei<events.length;ei++) {System.err.print(" "+events[ei].getOutcome());} System.err.println();
-        //training feature count computation
-        for (int ei=0;ei<events.length;ei++,oei++) {
-          String[] contextStrings = events[ei].getContext();
-          float values[] = events[ei].getValues();
-          int oi = omap.get(events[ei].getOutcome());
-          for (int ci=0;ci<contextStrings.length;ci++) {
-            float value = 1;
-            if (values != null) {
-              value = values[ci];
-            }
-            Float c = featureCounts[oi].get(contextStrings[ci]);
-            if (c == null) {
-              c = value;
-            }
-            else {
-              c+=value;
-            }
-            featureCounts[oi].put(contextStrings[ci], c);
+
+        // the parameters are not changed until the whole batch is decoded
+        for (SequenceUpdate update : decode(batch)) {
+          numCorrect += update.numCorrect;
+
+          int step = iteration * numSequences + si;
+
+          for (int i = 0; i < update.predicates.length; i++) {
+            params[update.predicates[i]].updateParameter(update.outcomes[i], update.counts[i], step);
           }
+          si++;
         }
-        //evaluation feature count computation
-        //System.err.print("test: ");for (int ei=0;ei<taggerEvents.length;ei++) {System.err.print(" "+taggerEvents[ei].getOutcome());} System.err.println();
-        for (int ei=0;ei<taggerEvents.length;ei++) {
-          String[] contextStrings = taggerEvents[ei].getContext();
-          float values[] =taggerEvents[ei].getValues();
-          int oi = omap.get(taggerEvents[ei].getOutcome());
-          for (int ci=0;ci<contextStrings.length;ci++) {
-            float value = 1;
-            if (values != null) {
-              value = values[ci];
-            }
-            Float c = featureCounts[oi].get(contextStrings[ci]);
-            if (c == null) {
-              c = -1*value;
-            }
-            else {
-              c-=value;
-            }
-            if (c == 0f) {
-              featureCounts[oi].remove(contextStrings[ci]);
-            }
-            else {
-              featureCounts[oi].put(contextStrings[ci], c);
-            }
+      }
+    }
+    display(". ("+numCorrect+"/"+numEvents+") "+((double) numCorrect / numEvents) + "\n");
+  }
+
+  /**
+   * Decodes the sequences of the batch with multiple threads, each thread
+   * decodes a contiguous part of the batch.
+   *
+   * @return the updates in the order of the sequences
+   */
+  private List<SequenceUpdate> decode(final List<TrainingSequence> batch) {
+    List<Callable<List<SequenceUpdate>>> tasks = new ArrayList<Callable<List<SequenceUpdate>>>();
+
+    int numParts = Math.min(threads, batch.size());
+    for (int p = 0; p < numParts; p++) {
+      final int start = batch.size() * p / numParts;
+      final int end = batch.size() * (p + 1) / numParts;
+
+      tasks.add(new Callable<List<SequenceUpdate>>() {
+        public List<SequenceUpdate> call() {
+          FeatureCounts counts = new FeatureCounts();
+          List<SequenceUpdate> updates = new ArrayList<SequenceUpdate>(end - start);
+
+          for (int i = start; i < end; i++) {
+            int numCorrect = decode(batch.get(i), counts);
+            updates.add(new SequenceUpdate(numCorrect, counts));
           }
+
+          return updates;
         }
-        for (int oi=0;oi<numOutcomes;oi++) {
-          for (String feature : featureCounts[oi].keySet()) {
-            int pi = pmap.get(feature);
-            if (pi != -1) {
-              //System.err.println(si+" "+outcomeLabels[oi]+" "+feature+" "+featureCounts[oi].get(feature));
-              params[pi].updateParameter(oi, featureCounts[oi].get(feature));
-              if (useAverage) {
-                if (updates[pi][oi][VALUE] != 0) {
-                  averageParams[pi].updateParameter(oi,updates[pi][oi][VALUE]*(numSequences*(iteration-updates[pi][oi][ITER])+(si-updates[pi][oi][EVENT])));
-                  //System.err.println("p avp["+pi+"]."+oi+"="+averageParams[pi].getParameters()[oi]);
-                }
-                //System.err.println("p updates["+pi+"]["+oi+"]=("+updates[pi][oi][ITER]+","+updates[pi][oi][EVENT]+","+updates[pi][oi][VALUE]+") + ("+iteration+","+oei+","+params[pi].getParameters()[oi]+") -> "+averageParams[pi].getParameters()[oi]);
-                updates[pi][oi][VALUE] = (int) params[pi].getParameters()[oi];
-                updates[pi][oi][ITER] = iteration;
-                updates[pi][oi][EVENT] = si;
-              }
-            }
-          }
+      });
+    }
+
+    List<SequenceUpdate> updates = new ArrayList<SequenceUpdate>(batch.size());
+
+    try {
+      for (Future<List<SequenceUpdate>> future : executor.invokeAll(tasks)) {
+        updates.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    } catch (ExecutionException e) {
+      // only runtime exceptions are thrown by the tasks
+      throw new RuntimeException(e.getCause());
+    }
+
+    return updates;
+  }
+
+  /**
+   * Decodes the sequence with the current parameters and computes the
+   * difference between the feature counts of the training and the tagged sequence.
+   * The counts stay empty if the sequence was tagged correctly.
+   *
+   * @return the number of correctly tagged events
+   */
+  private int decode(TrainingSequence trainingSequence, FeatureCounts counts) {
+    Sequence sequence = trainingSequence.sequence;
+    Event[] taggerEvents = sequenceStream.updateContext(sequence, model);
+    Event[] events = sequence.getEvents();
+    int numCorrect = 0;
+    boolean update = false;
+    for (int ei=0;ei<events.length;ei++) {
+      if (!taggerEvents[ei].getOutcome().equals(events[ei].getOutcome())) {
+        update = true;
+      }
+      else {
+        numCorrect++;
+      }
+    }
+    counts.clear();
+    if (update) {
+      //training feature count computation
+      if (trainingSequence.predicates != null) {
+        for (int fi = 0; fi < trainingSequence.predicates.length; fi++) {
+          counts.add(trainingSequence.predicates[fi], trainingSequence.outcomes[fi],
+              trainingSequence.values[fi]);
         }
-        model = new PerceptronModel(params,predLabels,pmap,outcomeLabels);
       }
-      si++;
+      else {
+        addFeatureCounts(events, 1, counts);
+      }
+      //evaluation feature count computation
+      addFeatureCounts(taggerEvents, -1, counts);
     }
-    //finish average computation
-    double totIterations = (double) iterations*si;
-    if (useAverage && iteration == iterations-1) {
-      for (int pi = 0; pi < numPreds; pi++) {
-        double[] predParams = averageParams[pi].getParameters();
-        for (int oi = 0;oi<numOutcomes;oi++) {
-          if (updates[pi][oi][VALUE] != 0) {
-            predParams[oi] +=  updates[pi][oi][VALUE]*(numSequences*(iterations-updates[pi][oi][ITER])-updates[pi][oi][EVENT]);
-          }
-          if (predParams[oi] != 0) {
-            predParams[oi] /=totIterations;  
-            averageParams[pi].setParameter(oi, predParams[oi]);
-            //System.err.println("updates["+pi+"]["+oi+"]=("+updates[pi][oi][ITER]+","+updates[pi][oi][EVENT]+","+updates[pi][oi][VALUE]+") + ("+iterations+","+0+","+params[pi].getParameters()[oi]+") -> "+averageParams[pi].getParameters()[oi]);
+    return numCorrect;
+  }
+
+  private void addFeatureCounts(Event[] events, int sign, FeatureCounts counts) {
+    for (int ei=0;ei<events.length;ei++) {
+      String[] contextStrings = events[ei].getContext();
+      float values[] = events[ei].getValues();
+      int oi = omap.get(events[ei].getOutcome());
+      for (int ci=0;ci<contextStrings.length;ci++) {
+        int pi = pmap.get(contextStrings[ci]);
+        if (pi != -1) {
+          float value = 1;
+          if (values != null) {
+            value = values[ci];
           }
+          counts.add(pi, oi, sign * value);
         }
       }
     }
-    display(". ("+numCorrect+"/"+numEvents+") "+((double) numCorrect / numEvents) + "\n");
   }
   
-  private void trainingStats(MutableContext[] params) {
+  private void trainingStats(Context[] params) {
     int numCorrect = 0;
     int oei=0;
-    for (Sequence sequence : sequenceStream) {
-      Event[] taggerEvents = sequenceStream.updateContext(sequence, new PerceptronModel(params,predLabels,pmap,outcomeLabels));
+    PerceptronModel statsModel = new PerceptronModel(params,predLabels,pmap,outcomeLabels);
+    for (Iterator<TrainingSequence> sequences = trainingSequences(); sequences.hasNext();) {
+      Event[] taggerEvents = sequenceStream.updateContext(sequences.next().sequence, statsModel);
       for (int ei=0;ei<taggerEvents.length;ei++,oei++) {
         int max = omap.get(taggerEvents[ei].getOutcome());
         if (max == outcomeList[oei]) {
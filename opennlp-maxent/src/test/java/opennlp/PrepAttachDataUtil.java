@@ -68,6 +68,10 @@ public class PrepAttachDataUtil {
   }
   
   public static void testModel(AbstractModel model, double expecedAccuracy) throws IOException {
+    assertEquals(expecedAccuracy, computeAccuracy(model), .00001);
+  }
+
+  public static double computeAccuracy(AbstractModel model) throws IOException {
 
     List<Event> devEvents = readPpaFile("devset");
 
@@ -92,6 +96,6 @@ public class PrepAttachDataUtil {
     double accuracy = correct/(double)total;
     System.out.println("Accuracy on PPA devset: (" + correct + "/" + total + ") " + accuracy);
 
-    assertEquals(expecedAccuracy, accuracy, .00001);
+    return accuracy;
   }
 }
@@ -19,12 +19,16 @@ package opennlp.maxent;
 
 import static opennlp.PrepAttachDataUtil.createTrainingStream;
 import static opennlp.PrepAttachDataUtil.testModel;
+import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import opennlp.model.AbstractModel;
+import opennlp.model.EventStream;
 import opennlp.model.TrainUtil;
 import opennlp.model.TwoPassDataIndexer;
 import opennlp.model.UniformPrior;
@@ -52,6 +56,86 @@ public class MaxentPrepAttachTest {
     testModel(model, 0.7997028967566229);
   }
   
+  @Test
+  public void testMaxentOnPrepAttachData4ThreadsStaticScheduling() throws IOException {
+    
+    Map<String, String> trainParams = new HashMap<String, String>();
+    trainParams.put(TrainUtil.ALGORITHM_PARAM, TrainUtil.MAXENT_VALUE);
+    trainParams.put(TrainUtil.DATA_INDEXER_PARAM,
+        TrainUtil.DATA_INDEXER_TWO_PASS_VALUE);
+    trainParams.put(TrainUtil.CUTOFF_PARAM, Integer.toString(1));
+    trainParams.put(TrainUtil.THREADS_PARAM, Integer.toString(4));
+    trainParams.put(TrainUtil.THREAD_SCHEDULING_PARAM,
+        TrainUtil.THREAD_SCHEDULING_STATIC_VALUE);
+    
+    AbstractModel model = TrainUtil.train(createTrainingStream(), trainParams, null);
+    
+    testModel(model, 0.7997028967566229);
+  }
+  
+  @Test
+  public void testMaxentOnPrepAttachData4ThreadsBalancedScheduling() throws IOException {
+    
+    Map<String, String> trainParams = new HashMap<String, String>();
+    trainParams.put(TrainUtil.ALGORITHM_PARAM, TrainUtil.MAXENT_VALUE);
+    trainParams.put(TrainUtil.DATA_INDEXER_PARAM,
+        TrainUtil.DATA_INDEXER_TWO_PASS_VALUE);
+    trainParams.put(TrainUtil.CUTOFF_PARAM, Integer.toString(1));
+    trainParams.put(TrainUtil.THREADS_PARAM, Integer.toString(4));
+    trainParams.put(TrainUtil.THREAD_SCHEDULING_PARAM,
+        TrainUtil.THREAD_SCHEDULING_BALANCED_VALUE);
+    
+    AbstractModel model = TrainUtil.train(createTrainingStream(), trainParams, null);
+    
+    testModel(model, 0.7997028967566229);
+  }
+  
+  @Test
+  public void testMaxentOnPrepAttachData4ThreadsDynamicScheduling() throws IOException {
+    
+    Map<String, String> trainParams = new HashMap<String, String>();
+    trainParams.put(TrainUtil.ALGORITHM_PARAM, TrainUtil.MAXENT_VALUE);
+    trainParams.put(TrainUtil.DATA_INDEXER_PARAM,
+        TrainUtil.DATA_INDEXER_TWO_PASS_VALUE);
+    trainParams.put(TrainUtil.CUTOFF_PARAM, Integer.toString(1));
+    trainParams.put(TrainUtil.THREADS_PARAM, Integer.toString(4));
+    trainParams.put(TrainUtil.THREAD_SCHEDULING_PARAM,
+        TrainUtil.THREAD_SCHEDULING_DYNAMIC_VALUE);
+    
+    AbstractModel model = TrainUtil.train(createTrainingStream(), trainParams, null);
+    
+    testModel(model, 0.7997028967566229);
+  }
+  
+  @Test
+  public void testBatchEval() throws IOException {
+    AbstractModel model = 
+        new GISTrainer(false).trainModel(10, 
+        new TwoPassDataIndexer(createTrainingStream(), 1), 1);
+    
+    List<String[]> contextList = new ArrayList<String[]>();
+    
+    EventStream events = createTrainingStream();
+    while (events.hasNext()) {
+      contextList.add(events.next().getContext());
+    }
+    
+    String[][] contexts = contextList.toArray(new String[contextList.size()][]);
+    
+    int numOutcomes = model.getNumOutcomes();
+    double[][] probs = model.eval(contexts, new double[contexts.length][numOutcomes]);
+    double[] flatProbs = model.eval(contexts, new double[contexts.length * numOutcomes]);
+    
+    for (int i = 0; i < contexts.length; i++) {
+      double[] expectedProbs = model.eval(contexts[i]);
+      
+      for (int oi = 0; oi < numOutcomes; oi++) {
+        assertEquals(expectedProbs[oi], probs[i][oi], 0d);
+        assertEquals(expectedProbs[oi], flatProbs[i * numOutcomes + oi], 0d);
+      }
+    }
+  }
+  
   @Test
   public void testMaxentOnPrepAttachDataWithParams() throws IOException {
     
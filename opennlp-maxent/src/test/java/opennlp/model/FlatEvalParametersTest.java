@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import opennlp.maxent.GISModel;
+import opennlp.perceptron.PerceptronModel;
+
+import org.junit.Test;
+
+public class FlatEvalParametersTest {
+
+  private static Context[] createParams() {
+    return new Context[] {
+        new Context(new int[] {0, 2}, new double[] {0.5, -1.5}),
+        new Context(new int[] {}, new double[] {}),
+        new Context(new int[] {0, 1, 2}, new double[] {1, 2, 3}),
+        new Context(new int[] {1}, new double[] {-0.25})
+    };
+  }
+  
+  @Test
+  public void testGetParams() {
+    Context[] params = createParams();
+    
+    Context[] flatParams = new FlatEvalParameters(params, 3).getParams();
+    
+    assertEquals(params.length, flatParams.length);
+    
+    for (int pi = 0; pi < params.length; pi++) {
+      assertArrayEquals(params[pi].getOutcomes(), flatParams[pi].getOutcomes());
+      assertArrayEquals(params[pi].getParameters(), flatParams[pi].getParameters(), 0d);
+    }
+  }
+  
+  @Test
+  public void testGISEval() {
+    int[] context = new int[] {3, 0, -1, 2, 1};
+    float[] values = new float[] {1f, 0.5f, 1f, 2f, 1f};
+    
+    EvalParameters params = new EvalParameters(createParams(), 0.1, 4, 3);
+    EvalParameters flatParams = new FlatEvalParameters(createParams(), 0.1, 4, 3);
+    
+    assertArrayEquals(GISModel.eval(context, values, new double[3], params),
+        GISModel.eval(context, values, new double[3], flatParams), 0d);
+  }
+  
+  @Test
+  public void testPerceptronEval() {
+    int[] context = new int[] {3, 0, -1, 2, 1};
+    
+    EvalParameters params = new EvalParameters(createParams(), 3);
+    EvalParameters flatParams = new FlatEvalParameters(createParams(), 3);
+    
+    assertArrayEquals(PerceptronModel.eval(context, new double[3], params),
+        PerceptronModel.eval(context, new double[3], flatParams), 0d);
+  }
+}
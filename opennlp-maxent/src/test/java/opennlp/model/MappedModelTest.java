@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import opennlp.PrepAttachDataUtil;
+import opennlp.maxent.GIS;
+import opennlp.maxent.GISModel;
+import opennlp.perceptron.PerceptronTrainer;
+
+import org.junit.Test;
+
+public class MappedModelTest {
+
+  private static void testModel(AbstractModel model) throws IOException {
+    
+    File modelFile = File.createTempFile("mapped-model", ".bin");
+    modelFile.deleteOnExit();
+    
+    new MappedModelWriter(model, modelFile).persist();
+    
+    assertTrue(MappedModelReader.isMappedModel(modelFile));
+    
+    AbstractModel mappedModel = new MappedModelReader(modelFile).getModel();
+    
+    // the generic reader detects the format
+    AbstractModel genericModel = new GenericModelReader(modelFile).getModel();
+    
+    // a stream is read onto the heap
+    InputStream in = new BufferedInputStream(new FileInputStream(modelFile));
+    AbstractModel streamModel;
+    try {
+      assertTrue(MappedModelReader.isMappedModel(in));
+      streamModel = new MappedModelReader(in).getModel();
+    }
+    finally {
+      in.close();
+    }
+    
+    assertEquals(model.getModelType(), mappedModel.getModelType());
+    assertEquals(model.getNumOutcomes(), mappedModel.getNumOutcomes());
+    
+    for (int i = 0; i < model.getNumOutcomes(); i++) {
+      assertEquals(model.getOutcome(i), mappedModel.getOutcome(i));
+    }
+    
+    EventStream events = PrepAttachDataUtil.createTrainingStream();
+    
+    while (events.hasNext()) {
+      String[] context = events.next().getContext();
+      assertArrayEquals(model.eval(context), mappedModel.eval(context), 0d);
+      assertArrayEquals(model.eval(context), genericModel.eval(context), 0d);
+      assertArrayEquals(model.eval(context), streamModel.eval(context), 0d);
+    }
+  }
+  
+  @Test
+  public void testGISModel() throws IOException {
+    testModel(GIS.trainModel(10, new TwoPassDataIndexer(
+        PrepAttachDataUtil.createTrainingStream(), 1)));
+  }
+  
+  /**
+   * Prefers the first outcome.
+   */
+  private static class FirstOutcomePrior implements Prior {
+    
+    public void logPrior(double[] dist, int[] context, float[] values) {
+      for (int i = 0; i < dist.length; i++) {
+        dist[i] = i == 0 ? 0 : -1;
+      }
+    }
+    
+    public void logPrior(double[] dist, int[] context) {
+      logPrior(dist, context, null);
+    }
+    
+    public void setLabels(String[] outcomeLabels, String[] contextLabels) {
+    }
+  }
+  
+  @Test
+  public void testGISModelWithPrior() throws IOException {
+    GISModel model = (GISModel) GIS.trainModel(10, new TwoPassDataIndexer(
+        PrepAttachDataUtil.createTrainingStream(), 1));
+    
+    File modelFile = File.createTempFile("mapped-model", ".bin");
+    modelFile.deleteOnExit();
+    
+    new MappedModelWriter(model, modelFile).persist();
+    
+    Object[] data = model.getDataStructures();
+    
+    @SuppressWarnings("unchecked")
+    IndexHashTable<String> pmap = (IndexHashTable<String>) data[1];
+    String[] predLabels = new String[pmap.size()];
+    pmap.toArray(predLabels);
+    
+    GISModel priorModel = new GISModel((Context[]) data[0], predLabels, (String[]) data[2],
+        (Integer) data[3], (Double) data[4], new FirstOutcomePrior());
+    
+    AbstractModel mappedModel = new MappedModelReader(modelFile).getModel(new FirstOutcomePrior());
+    AbstractModel uniformModel = new MappedModelReader(modelFile).getModel();
+    
+    String[] context = PrepAttachDataUtil.createTrainingStream().next().getContext();
+    
+    assertArrayEquals(priorModel.eval(context), mappedModel.eval(context), 0d);
+    assertFalse(Arrays.equals(priorModel.eval(context), uniformModel.eval(context)));
+  }
+  
+  @Test
+  public void testPerceptronModel() throws IOException {
+    testModel(new PerceptronTrainer().trainModel(10, new TwoPassDataIndexer(
+        PrepAttachDataUtil.createTrainingStream(), 1, false), 1));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import opennlp.PrepAttachDataUtil;
+
+import org.junit.Test;
+
+public class ParallelDataIndexerTest {
+
+  /**
+   * Maps each unique event, written with its labels, to its count.
+   */
+  private static Map<String, Integer> uniqueEvents(DataIndexer indexer) {
+    Map<String, Integer> events = new HashMap<String, Integer>();
+
+    int[][] contexts = indexer.getContexts();
+    for (int i = 0; i < contexts.length; i++) {
+      String[] preds = new String[contexts[i].length];
+      for (int j = 0; j < preds.length; j++) {
+        preds[j] = indexer.getPredLabels()[contexts[i][j]];
+      }
+      Arrays.sort(preds);
+
+      events.put(indexer.getOutcomeLabels()[indexer.getOutcomeList()[i]] + " " +
+          Arrays.asList(preds), indexer.getNumTimesEventsSeen()[i]);
+    }
+
+    return events;
+  }
+
+  @Test
+  public void testNumberingDoesNotDependOnThreads() throws IOException {
+    DataIndexer single = new ParallelDataIndexer(PrepAttachDataUtil.createTrainingStream(), 3, true, 1);
+    DataIndexer multi = new ParallelDataIndexer(PrepAttachDataUtil.createTrainingStream(), 3, true, 3);
+
+    assertArrayEquals(single.getPredLabels(), multi.getPredLabels());
+    assertArrayEquals(single.getPredCounts(), multi.getPredCounts());
+    assertArrayEquals(single.getOutcomeLabels(), multi.getOutcomeLabels());
+    assertArrayEquals(single.getOutcomeList(), multi.getOutcomeList());
+    assertArrayEquals(single.getNumTimesEventsSeen(), multi.getNumTimesEventsSeen());
+    assertEquals(single.getNumEvents(), multi.getNumEvents());
+
+    for (int i = 0; i < single.getContexts().length; i++) {
+      assertArrayEquals(single.getContexts()[i], multi.getContexts()[i]);
+    }
+  }
+
+  @Test
+  public void testSameEventsAsOnePass() throws IOException {
+    DataIndexer onePass = new OnePassDataIndexer(PrepAttachDataUtil.createTrainingStream(), 3);
+    DataIndexer parallel = new ParallelDataIndexer(PrepAttachDataUtil.createTrainingStream(), 3, true, 4);
+
+    assertEquals(onePass.getNumEvents(), parallel.getNumEvents());
+    assertEquals(onePass.getPredLabels().length, parallel.getPredLabels().length);
+    assertEquals(uniqueEvents(onePass), uniqueEvents(parallel));
+  }
+
+  @Test
+  public void testFirstOccurrenceNumbering() throws IOException {
+    List<Event> events = new ArrayList<Event>();
+    events.add(new Event("b", new String[] {"z", "rare"}));
+    events.add(new Event("a", new String[] {"y", "z"}));
+    events.add(new Event("b", new String[] {"x", "y"}));
+    events.add(new Event("a", new String[] {"x"}));
+    events.add(new Event("a", new String[] {"rare2"}));
+
+    DataIndexer indexer = new ParallelDataIndexer(new ListEventStream(events), 2, false, 2);
+
+    assertArrayEquals(new String[] {"z", "y", "x"}, indexer.getPredLabels());
+    assertArrayEquals(new int[] {2, 2, 2}, indexer.getPredCounts());
+    assertArrayEquals(new String[] {"b", "a"}, indexer.getOutcomeLabels());
+
+    // the last event is dropped
+    assertEquals(4, indexer.getNumEvents());
+    assertArrayEquals(new int[] {0, 1, 0, 1}, indexer.getOutcomeList());
+    assertArrayEquals(new int[] {0}, indexer.getContexts()[0]);
+  }
+}
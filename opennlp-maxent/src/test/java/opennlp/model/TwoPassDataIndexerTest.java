@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import opennlp.PrepAttachDataUtil;
+
+import org.junit.Test;
+
+public class TwoPassDataIndexerTest {
+
+  private static void assertSameIndex(DataIndexer expected, DataIndexer actual) {
+    assertArrayEquals(expected.getPredLabels(), actual.getPredLabels());
+    assertArrayEquals(expected.getPredCounts(), actual.getPredCounts());
+    assertArrayEquals(expected.getOutcomeLabels(), actual.getOutcomeLabels());
+    assertArrayEquals(expected.getOutcomeList(), actual.getOutcomeList());
+    assertArrayEquals(expected.getNumTimesEventsSeen(), actual.getNumTimesEventsSeen());
+    assertEquals(expected.getNumEvents(), actual.getNumEvents());
+
+    int[][] expectedContexts = expected.getContexts();
+    int[][] actualContexts = actual.getContexts();
+
+    assertEquals(expectedContexts.length, actualContexts.length);
+    for (int i = 0; i < expectedContexts.length; i++) {
+      assertArrayEquals(expectedContexts[i], actualContexts[i]);
+    }
+  }
+
+  /**
+   * Tests that the result does not depend on the number of sorted runs.
+   */
+  @Test
+  public void testSmallSortBuffer() throws IOException {
+    assertSameIndex(new TwoPassDataIndexer(PrepAttachDataUtil.createTrainingStream(), 3),
+        new TwoPassDataIndexer(PrepAttachDataUtil.createTrainingStream(), 3, true, 64));
+  }
+
+  @Test
+  public void testMergeAndCutoff() throws IOException {
+    List<Event> events = new ArrayList<Event>();
+    events.add(new Event("a", new String[] {"x", "y"}));
+    events.add(new Event("b", new String[] {"y"}));
+    events.add(new Event("a", new String[] {"y", "x", "once"}));
+    events.add(new Event("a", new String[] {"rare"}));
+    events.add(new Event("b", new String[] {"y", "x"}));
+
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer(new ListEventStream(events), 2, true, 4);
+
+    // the event with only the rare predicate is dropped, "once" is cut off too
+    assertEquals(4, indexer.getNumEvents());
+    assertEquals(2, indexer.getPredLabels().length);
+    assertArrayEquals(new String[] {"a", "b"}, indexer.getOutcomeLabels());
+
+    assertArrayEquals(new int[] {0, 1, 1}, indexer.getOutcomeList());
+    assertArrayEquals(new int[] {2, 1, 1}, indexer.getNumTimesEventsSeen());
+
+    int[][] contexts = indexer.getContexts();
+    assertEquals(3, contexts.length);
+    assertEquals(2, contexts[0].length);
+
+    // the order of the two b events depends on the predicate indexes
+    int single = contexts[1].length == 1 ? 1 : 2;
+    assertEquals(1, contexts[single].length);
+    assertEquals("y", indexer.getPredLabels()[contexts[single][0]]);
+    assertEquals(2, contexts[3 - single].length);
+  }
+
+  @Test
+  public void testUnsorted() throws IOException {
+    List<Event> events = new ArrayList<Event>();
+    events.add(new Event("b", new String[] {"y", "x"}));
+    events.add(new Event("a", new String[] {"x"}));
+    events.add(new Event("b", new String[] {"y", "x"}));
+
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer(new ListEventStream(events), 0, false);
+
+    assertEquals(3, indexer.getNumEvents());
+    assertArrayEquals(new int[] {0, 1, 0}, indexer.getOutcomeList());
+    assertArrayEquals(new int[] {1, 1, 1}, indexer.getNumTimesEventsSeen());
+    assertEquals(2, indexer.getContexts()[0].length);
+  }
+}
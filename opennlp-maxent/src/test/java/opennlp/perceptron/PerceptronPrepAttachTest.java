@@ -17,8 +17,10 @@
 
 package opennlp.perceptron;
 
+import static opennlp.PrepAttachDataUtil.computeAccuracy;
 import static opennlp.PrepAttachDataUtil.createTrainingStream;
 import static opennlp.PrepAttachDataUtil.testModel;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -84,4 +86,32 @@ public class PerceptronPrepAttachTest {
     
     testModel(model, 0.7756870512503095);
   }
+
+  @Test
+  public void testPerceptronOnPrepAttachDataWithParameterMixing() throws IOException {
+    
+    Map<String, String> trainParams = new HashMap<String, String>();
+    trainParams.put(TrainUtil.ALGORITHM_PARAM, TrainUtil.PERCEPTRON_VALUE);
+    trainParams.put(TrainUtil.CUTOFF_PARAM, Integer.toString(1));
+    trainParams.put(TrainUtil.THREADS_PARAM, Integer.toString(4));
+    
+    AbstractModel model = TrainUtil.train(createTrainingStream(), trainParams, null);
+    
+    testModel(model, 0.7969794503589998);
+  }
+  
+  @Test
+  public void testPerceptronOnPrepAttachDataWithHogwild() throws IOException {
+    
+    Map<String, String> trainParams = new HashMap<String, String>();
+    trainParams.put(TrainUtil.ALGORITHM_PARAM, TrainUtil.PERCEPTRON_VALUE);
+    trainParams.put(TrainUtil.CUTOFF_PARAM, Integer.toString(1));
+    trainParams.put(TrainUtil.THREADS_PARAM, Integer.toString(4));
+    trainParams.put(TrainUtil.PARALLEL_MODE_PARAM, TrainUtil.PARALLEL_MODE_HOGWILD_VALUE);
+    
+    AbstractModel model = TrainUtil.train(createTrainingStream(), trainParams, null);
+    
+    // the result depends on the scheduling of the threads
+    assertTrue(computeAccuracy(model) > 0.75);
+  }
 }
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package opennlp.perceptron;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import opennlp.model.AbstractModel;
+import opennlp.model.Context;
+import opennlp.model.Event;
+import opennlp.model.IndexHashTable;
+import opennlp.model.Sequence;
+import opennlp.model.SequenceStream;
+
+import org.junit.Test;
+
+public class SimplePerceptronSequenceTrainerTest {
+
+  /**
+   * Tags random sentences, the tag of a word depends on the word and the previous tag.
+   * The tagger tags greedily from left to right.
+   */
+  static class TagSequenceStream implements SequenceStream {
+
+    private final List<String[]> sentences = new ArrayList<String[]>();
+
+    TagSequenceStream(int numSentences, long seed) {
+      Random random = new Random(seed);
+      String[] words = {"a", "b", "c", "d", "e"};
+
+      for (int i = 0; i < numSentences; i++) {
+        String[] sentence = new String[2 + random.nextInt(8)];
+        for (int j = 0; j < sentence.length; j++) {
+          sentence[j] = words[random.nextInt(words.length)];
+        }
+        sentences.add(sentence);
+      }
+    }
+
+    static String tag(String word, String prevTag) {
+      if ("a".equals(word) || "b".equals(word))
+        return "X";
+      else if ("c".equals(word))
+        return "X".equals(prevTag) ? "Y" : "Z";
+      else if ("d".equals(word))
+        return "Y";
+      else
+        return "Y".equals(prevTag) ? "X" : "Z";
+    }
+
+    static String[] context(String word, String prevTag) {
+      return new String[] {"w=" + word, "p=" + prevTag, "wp=" + word + "," + prevTag};
+    }
+
+    public Iterator<Sequence> iterator() {
+      final Iterator<String[]> it = sentences.iterator();
+
+      return new Iterator<Sequence>() {
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        public Sequence next() {
+          String[] sentence = it.next();
+          Event[] events = new Event[sentence.length];
+
+          String prevTag = "S";
+          for (int i = 0; i < sentence.length; i++) {
+            String tag = tag(sentence[i], prevTag);
+            events[i] = new Event(tag, context(sentence[i], prevTag));
+            prevTag = tag;
+          }
+
+          return new Sequence<String[]>(events, sentence);
+        }
+
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    public Event[] updateContext(Sequence sequence, AbstractModel model) {
+      String[] sentence = (String[]) sequence.getSource();
+      Event[] events = new Event[sentence.length];
+
+      String prevTag = "S";
+      for (int i = 0; i < sentence.length; i++) {
+        String[] context = context(sentence[i], prevTag);
+        String tag = model.getBestOutcome(model.eval(context));
+        events[i] = new Event(tag, context);
+        prevTag = tag;
+      }
+
+      return events;
+    }
+  }
+
+  static double accuracy(AbstractModel model, TagSequenceStream stream) {
+    int correct = 0;
+    int total = 0;
+
+    for (Sequence sequence : stream) {
+      Event[] tagged = stream.updateContext(sequence, model);
+      Event[] events = sequence.getEvents();
+
+      for (int i = 0; i < events.length; i++) {
+        if (events[i].getOutcome().equals(tagged[i].getOutcome()))
+          correct++;
+        total++;
+      }
+    }
+
+    return (double) correct / total;
+  }
+
+  /**
+   * Asserts that both models assign the same scores to the events of the stream.
+   */
+  static void assertSameModel(AbstractModel expected, AbstractModel actual,
+      TagSequenceStream stream) {
+    for (Sequence sequence : stream) {
+      for (Event event : sequence.getEvents()) {
+        assertArrayEquals(expected.eval(event.getContext()),
+            actual.eval(event.getContext()), 0d);
+      }
+    }
+  }
+
+  private static AbstractModel train(int threads, boolean cacheFeatures) throws IOException {
+    SimplePerceptronSequenceTrainer trainer = new SimplePerceptronSequenceTrainer();
+    trainer.setThreads(threads);
+    trainer.setBatchSize(8);
+    trainer.setCacheFeatures(cacheFeatures);
+    return trainer.trainModel(10, new TagSequenceStream(200, 1), 1, true);
+  }
+
+  @Test
+  public void testAveragedTraining() throws IOException {
+    TagSequenceStream stream = new TagSequenceStream(200, 1);
+
+    AbstractModel model = new SimplePerceptronSequenceTrainer().trainModel(10, stream, 1, true);
+
+    assertEquals(1d, accuracy(model, new TagSequenceStream(100, 2)), 0d);
+  }
+
+  @Test
+  public void testTraining() throws IOException {
+    TagSequenceStream stream = new TagSequenceStream(200, 1);
+
+    AbstractModel model = new SimplePerceptronSequenceTrainer().trainModel(10, stream, 1, false);
+
+    assertTrue(accuracy(model, new TagSequenceStream(100, 2)) > 0.95);
+  }
+
+  @Test
+  public void testCachedFeatures() throws IOException {
+    assertSameModel(train(1, false), train(1, true), new TagSequenceStream(100, 2));
+  }
+
+  @Test
+  public void testParallelTraining() throws IOException {
+    AbstractModel model = train(3, true);
+
+    assertTrue(accuracy(model, new TagSequenceStream(100, 2)) > 0.95);
+
+    // the batches are decoded against the same parameters by any number of threads
+    assertSameModel(model, train(2, false), new TagSequenceStream(100, 2));
+  }
+
+  /**
+   * The averaged parameters of 3 iterations over the 6 sentences of the stream
+   * with seed 3, as they were trained by the implementation with dense
+   * parameter and update arrays. Each line contains the predicate and the
+   * non zero parameters of its outcomes.
+   */
+  private static final String[] DENSE_AVERAGED_PARAMETERS = {
+      "p=S",
+      "p=X X=-1.2777777777777777 Y=1.0",
+      "p=Y Y=0.3888888888888889 Z=0.3888888888888889",
+      "p=Z X=0.8888888888888888 Y=-0.4444444444444444 Z=-0.9444444444444444",
+      "w=a X=1.3888888888888888 Y=-0.9444444444444444 Z=-0.4444444444444444",
+      "w=b X=4.444444444444445 Z=-4.444444444444445",
+      "w=c X=-2.4444444444444446 Y=0.6666666666666666 Z=1.7777777777777777",
+      "w=d X=-1.7777777777777777 Y=1.7777777777777777",
+      "w=e X=-2.0 Y=-0.5555555555555556 Z=2.5555555555555554",
+      "wp=a,S",
+      "wp=a,X X=0.9444444444444444 Y=-0.9444444444444444",
+      "wp=a,Y X=0.4444444444444444 Z=-0.4444444444444444",
+      "wp=b,S",
+      "wp=b,X X=1.7777777777777777",
+      "wp=b,Y X=0.3333333333333333",
+      "wp=b,Z X=2.3333333333333335 Z=-4.444444444444445",
+      "wp=c,X X=-1.0 Y=1.5",
+      "wp=c,Y Y=-0.8333333333333334 Z=1.6666666666666667",
+      "wp=c,Z X=-1.4444444444444444 Z=0.1111111111111111",
+      "wp=d,S",
+      "wp=d,X X=-1.0 Y=1.0",
+      "wp=d,Y X=-0.7777777777777778 Y=1.2222222222222223",
+      "wp=d,Z Y=-0.4444444444444444",
+      "wp=e,S",
+      "wp=e,X X=-2.0 Y=-0.5555555555555556",
+      "wp=e,Z Z=3.388888888888889"
+  };
+
+  @Test
+  public void testAveragedParameters() throws IOException {
+    AbstractModel model = new SimplePerceptronSequenceTrainer().trainModel(
+        3, new TagSequenceStream(6, 3), 1, true);
+
+    Object[] data = model.getDataStructures();
+    Context[] params = (Context[]) data[0];
+    @SuppressWarnings("unchecked")
+    IndexHashTable<String> pmap = (IndexHashTable<String>) data[1];
+    String[] outcomeNames = (String[]) data[2];
+
+    assertEquals(DENSE_AVERAGED_PARAMETERS.length, pmap.size());
+
+    for (String line : DENSE_AVERAGED_PARAMETERS) {
+      String[] parts = line.split(" ");
+
+      int pi = pmap.get(parts[0]);
+      assertTrue(pi != -1);
+
+      for (int oi = 0; oi < outcomeNames.length; oi++) {
+        double expected = 0;
+        for (int i = 1; i < parts.length; i++) {
+          if (parts[i].startsWith(outcomeNames[oi] + "="))
+            expected = Double.parseDouble(parts[i].substring(outcomeNames[oi].length() + 1));
+        }
+
+        double actual = 0;
+        int[] outcomes = params[pi].getOutcomes();
+        for (int i = 0; i < outcomes.length; i++) {
+          if (outcomes[i] == oi)
+            actual = params[pi].getParameters()[i];
+        }
+
+        assertEquals(parts[0] + " " + outcomeNames[oi], expected, actual, 0d);
+      }
+    }
+  }
+}
@@ -18,12 +18,14 @@
 package opennlp.tools.chunker;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldExecutor;
 import opennlp.tools.util.model.ModelUtil;
 
 public class ChunkerCrossValidator {
@@ -56,7 +58,8 @@ public class ChunkerCrossValidator {
   }
 
   /**
-   * Starts the evaluation.
+   * Starts the evaluation. The folds are evaluated in parallel if the
+   * {@link TrainingParameters#FOLD_THREADS_PARAM} parameter is set.
    * 
    * @param samples
    *          the data to train and test
@@ -68,24 +71,35 @@ public class ChunkerCrossValidator {
   public void evaluate(ObjectStream<ChunkSample> samples, int nFolds)
       throws IOException, InvalidFormatException, IOException {
     CrossValidationPartitioner<ChunkSample> partitioner = new CrossValidationPartitioner<ChunkSample>(
-        samples, nFolds);
+        samples, nFolds, true);
 
-    while (partitioner.hasNext()) {
+    FoldExecutor foldExecutor = FoldExecutor.create(params);
 
-      CrossValidationPartitioner.TrainingSampleStream<ChunkSample> trainingSampleStream = partitioner
-          .next();
+    final ChunkerEvaluationMonitor[] foldListeners =
+        foldExecutor.synchronizeMonitors(ChunkerEvaluationMonitor.class, listeners);
 
-      ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
-          new DefaultChunkerContextGenerator(), params);
+    List<FMeasure> results = foldExecutor.evaluate(partitioner,
+        new FoldExecutor.Fold<ChunkSample, FMeasure>() {
+      public FMeasure evaluate(
+          CrossValidationPartitioner.TrainingSampleStream<ChunkSample> trainingSampleStream)
+          throws IOException {
 
-      // do testing
-      ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model,
-          ChunkerME.DEFAULT_BEAM_SIZE, new DefaultChunkerSequenceValidator()),
-          listeners);
+        ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
+            new DefaultChunkerContextGenerator(), params);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+        // do testing
+        ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model,
+            ChunkerME.DEFAULT_BEAM_SIZE, new DefaultChunkerSequenceValidator()),
+            foldListeners);
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+        evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+
+        return evaluator.getFMeasure();
+      }
+    });
+
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
 
@@ -30,9 +30,12 @@ import opennlp.model.TrainUtil;
 import opennlp.tools.util.BeamSearch;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceDecoder;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.ViterbiDecoder;
+import opennlp.tools.util.model.BaseModel;
 import opennlp.tools.util.model.ModelUtil;
 
 /**
@@ -48,6 +51,12 @@ public class ChunkerME implements Chunker {
    */
   protected BeamSearch<String> beam;
 
+  /**
+   * The decoder used to find the best sequences of chunk tags, either the beam
+   * or a decoder selected by the model.
+   */
+  protected SequenceDecoder<String> decoder;
+
   private Sequence bestSequence;
 
   /**
@@ -67,8 +76,29 @@ public class ChunkerME implements Chunker {
    */
   public ChunkerME(ChunkerModel model, int beamSize, SequenceValidator<String> sequenceValidator,
       ChunkerContextGenerator contextGenerator) {
+    this(model, beamSize, 0, sequenceValidator, contextGenerator);
+  }
+
+  /**
+   * Initializes the current instance with the specified model,
+   * the specified beam size and a cache for the scores of the contexts.
+   *
+   * @param model The model for this chunker.
+   * @param beamSize The size of the beam that should be used when decoding sequences.
+   * @param cacheSize The number of contexts for which the scores are cached, 0 disables the cache.
+   * @param sequenceValidator  The {@link SequenceValidator} to determines whether the outcome 
+   *        is valid for the preceding sequence. This can be used to implement constraints 
+   *        on what sequences are valid.
+   */
+  public ChunkerME(ChunkerModel model, int beamSize, int cacheSize,
+      SequenceValidator<String> sequenceValidator, ChunkerContextGenerator contextGenerator) {
     this.model = model.getChunkerModel();
-    beam = new BeamSearch<String>(beamSize, contextGenerator, this.model, sequenceValidator, 0);
+    beam = new BeamSearch<String>(beamSize, contextGenerator, this.model, sequenceValidator, cacheSize);
+
+    if (model.useViterbiDecoder())
+      decoder = new ViterbiDecoder<String>(contextGenerator, this.model, sequenceValidator);
+    else
+      decoder = beam;
   }
   
   /**
@@ -140,21 +170,35 @@ public class ChunkerME implements Chunker {
   @Deprecated
   public ChunkerME(MaxentModel mod, ChunkerContextGenerator cg, int beamSize) {
     beam = new BeamSearch<String>(beamSize, cg, mod);
+    decoder = beam;
     this.model = mod;
   }
 
   @Deprecated
   public List<String> chunk(List<String> toks, List<String> tags) {
     bestSequence =
-        beam.bestSequence(toks.toArray(new String[toks.size()]), new Object[] { tags.toArray(new String[tags.size()]) });
+        decoder.bestSequence(toks.toArray(new String[toks.size()]), new Object[] { tags.toArray(new String[tags.size()]) });
     return bestSequence.getOutcomes();
   }
 
   public String[] chunk(String[] toks, String[] tags) {
-    bestSequence = beam.bestSequence(toks, new Object[] {tags});
-    List<String> c = bestSequence.getOutcomes();
+    List<String> c = bestSequence(toks, tags).getOutcomes();
     return c.toArray(new String[c.size()]);
   }
+
+  /**
+   * Returns the best chunk tag sequence for the specified tokens and pos tags,
+   * which contains the chunk tags and their probabilities.
+   *
+   * @param toks the tokens of a sentence
+   * @param tags the pos tags of the tokens
+   *
+   * @return the best chunk tag sequence
+   */
+  public Sequence bestSequence(String[] toks, String[] tags) {
+    bestSequence = decoder.bestSequence(toks, new Object[] {tags});
+    return bestSequence;
+  }
   
   public Span[] chunkAsSpans(String[] toks, String[] tags) {
     String[] preds = chunk(toks, tags);
@@ -168,12 +212,12 @@ public class ChunkerME implements Chunker {
   }
   
   public Sequence[] topKSequences(String[] sentence, String[] tags) {
-    return beam.bestSequences(DEFAULT_BEAM_SIZE, sentence,
+    return decoder.bestSequences(DEFAULT_BEAM_SIZE, sentence,
         new Object[] { tags });
   }
 
   public Sequence[] topKSequences(String[] sentence, String[] tags, double minSequenceScore) {
-    return beam.bestSequences(DEFAULT_BEAM_SIZE, sentence, new Object[] { tags },minSequenceScore);
+    return decoder.bestSequences(DEFAULT_BEAM_SIZE, sentence, new Object[] { tags },minSequenceScore);
   }
 
   /**
@@ -203,6 +247,10 @@ public class ChunkerME implements Chunker {
     
     Map<String, String> manifestInfoEntries = new HashMap<String, String>();
     
+    String decoder = mlParams.getSettings().get(TrainingParameters.SEQUENCE_DECODER_PARAM);
+    if (decoder != null)
+      manifestInfoEntries.put(BaseModel.SEQUENCE_DECODER_PROPERTY, decoder);
+    
     EventStream es = new ChunkerEventStream(in, contextGenerator);
     
     AbstractModel maxentModel = TrainUtil.train(es, mlParams.getSettings(), manifestInfoEntries);
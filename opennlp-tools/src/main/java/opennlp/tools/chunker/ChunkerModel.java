@@ -18,6 +18,7 @@
 
 package opennlp.tools.chunker;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -59,6 +60,10 @@ public class ChunkerModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public ChunkerModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
+
   @Override
   protected void validateArtifactMap() throws InvalidFormatException {
     super.validateArtifactMap();
@@ -68,6 +73,15 @@ public class ChunkerModel extends BaseModel {
     }
   }
 
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(CHUNKER_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Chunker model is incomplete!");
+    }
+  }
+
   public AbstractModel getChunkerModel() {
     return (AbstractModel) artifactMap.get(CHUNKER_MODEL_ENTRY_NAME);
   }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.chunker;
+
+import java.util.List;
+
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.Span;
+
+/**
+ * A thread safe chunker which can be shared by all threads.
+ * <p>
+ * The model and the context generator, which has no state, are shared, each thread
+ * chunks with its own {@link ChunkerME}, which only holds the beam search state of
+ * that thread. The chunker of a thread is created on its first call. {@link #chunkAsSpans(String[], String[])}
+ * returns spans with the mean probability of their chunk tags and
+ * {@link #bestSequence(String[], String[])} returns the chunk tags with their probabilities.
+ *
+ * @see ChunkerME
+ */
+public class ThreadSafeChunkerME implements Chunker {
+
+  private final ThreadLocal<ChunkerME> chunker;
+
+  /**
+   * Initializes the chunker with the specified model and beam size.
+   *
+   * @param model the model which is shared by the threads
+   * @param beamSize the size of the beam
+   */
+  public ThreadSafeChunkerME(final ChunkerModel model, final int beamSize) {
+    final ChunkerContextGenerator contextGenerator = new DefaultChunkerContextGenerator();
+
+    chunker = new ThreadLocal<ChunkerME>() {
+      @Override
+      protected ChunkerME initialValue() {
+        return new ChunkerME(model, beamSize, null, contextGenerator);
+      }
+    };
+  }
+
+  /**
+   * Initializes the chunker with the specified model and the default beam size.
+   *
+   * @param model the model which is shared by the threads
+   */
+  public ThreadSafeChunkerME(ChunkerModel model) {
+    this(model, ChunkerME.DEFAULT_BEAM_SIZE);
+  }
+
+  @Deprecated
+  public List<String> chunk(List<String> toks, List<String> tags) {
+    return chunker.get().chunk(toks, tags);
+  }
+
+  public String[] chunk(String[] toks, String[] tags) {
+    return chunker.get().chunk(toks, tags);
+  }
+
+  /**
+   * Returns the best chunk tag sequence for the specified tokens and pos tags,
+   * which contains the chunk tags and their probabilities.
+   *
+   * @param toks the tokens of a sentence
+   * @param tags the pos tags of the tokens
+   *
+   * @return the best chunk tag sequence
+   */
+  public Sequence bestSequence(String[] toks, String[] tags) {
+    return chunker.get().bestSequence(toks, tags);
+  }
+
+  public Span[] chunkAsSpans(String[] toks, String[] tags) {
+    Sequence sequence = bestSequence(toks, tags);
+
+    List<String> c = sequence.getOutcomes();
+    String[] preds = c.toArray(new String[c.size()]);
+    double[] probs = sequence.getProbs();
+
+    Span[] chunks = ChunkSample.phrasesAsSpanList(toks, tags, preds);
+    for (int ci = 0; ci < chunks.length; ci++) {
+      Span chunk = chunks[ci];
+
+      double p = 0;
+      for (int ti = chunk.getStart(); ti < chunk.getEnd(); ti++) {
+        p += probs[ti];
+      }
+
+      chunks[ci] = new Span(chunk.getStart(), chunk.getEnd(), chunk.getType(), p / chunk.length());
+    }
+
+    return chunks;
+  }
+
+  @Deprecated
+  public Sequence[] topKSequences(List<String> sentence, List<String> tags) {
+    return chunker.get().topKSequences(sentence, tags);
+  }
+
+  public Sequence[] topKSequences(String[] sentence, String[] tags) {
+    return chunker.get().topKSequences(sentence, tags);
+  }
+
+  public Sequence[] topKSequences(String[] sentence, String[] tags, double minSequenceScore) {
+    return chunker.get().topKSequences(sentence, tags, minSequenceScore);
+  }
+}
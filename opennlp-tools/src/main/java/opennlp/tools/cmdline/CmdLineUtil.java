@@ -275,6 +275,46 @@ public final class CmdLineUtil {
     return null;
   }
   
+  /**
+   * Checks that the arguments start with options of the specified names, each
+   * followed by its value, and end with the specified number of other arguments.
+   *
+   * @param args the arguments of the tool
+   * @param options the names of the allowed options
+   * @param minArguments the minimum number of arguments after the options
+   * @param maxArguments the maximum number of arguments after the options
+   *
+   * @return the index of the first argument after the options,
+   *     or -1 if the arguments are invalid
+   */
+  public static int validateArguments(String args[], String options[],
+      int minArguments, int maxArguments) {
+    
+    int index = 0;
+    
+    while (index < args.length && args[index].startsWith("-")) {
+      if (!Arrays.asList(options).contains(args[index]) || index + 1 >= args.length) {
+        return -1;
+      }
+      
+      index += 2;
+    }
+    
+    int arguments = args.length - index;
+    
+    if (arguments < minArguments || arguments > maxArguments) {
+      return -1;
+    }
+    
+    for (int i = index; i < args.length; i++) {
+      if (args[i].startsWith("-")) {
+        return -1;
+      }
+    }
+    
+    return index;
+  }
+  
   /**
    * Retrieves the "-encoding" parameter.
    *
@@ -46,6 +46,29 @@ public abstract class ModelLoader<T> {
   protected abstract T loadModel(InputStream modelIn) throws
       IOException, InvalidFormatException;
   
+  /**
+   * Loads the model from the model file. By default the model is read
+   * from a stream with {@link #loadModel(InputStream)}, override this
+   * method to load the model directly from the file.
+   */
+  protected T loadModel(File modelFile) throws IOException, InvalidFormatException {
+    
+    InputStream modelIn = new BufferedInputStream(CmdLineUtil.openInFile(modelFile), CmdLineUtil.IO_BUFFER_SIZE);
+    
+    try {
+      return loadModel(modelIn);
+    }
+    finally {
+      // will not be null because openInFile would 
+      // terminate in this case
+      try {
+        modelIn.close();
+      } catch (IOException e) {
+        // sorry that this can fail
+      }
+    }
+  }
+  
   public T load(File modelFile) {
     
     long beginModelLoadingTime = System.currentTimeMillis();
@@ -54,12 +77,10 @@ public abstract class ModelLoader<T> {
 
     System.err.print("Loading " + modelName + " model ... ");
     
-    InputStream modelIn = new BufferedInputStream(CmdLineUtil.openInFile(modelFile), CmdLineUtil.IO_BUFFER_SIZE);
-    
     T model;
     
     try {
-      model = loadModel(modelIn);
+      model = loadModel(modelFile);
     }
     catch (InvalidFormatException e) {
       System.err.println("failed");
@@ -71,15 +92,6 @@ public abstract class ModelLoader<T> {
       System.err.println("IO error while loading model: " + e.getMessage());
       throw new TerminateToolException(-1);
     }
-    finally {
-      // will not be null because openInFile would 
-      // terminate in this case
-      try {
-        modelIn.close();
-      } catch (IOException e) {
-        // sorry that this can fail
-      }
-    }
     
     long modelLoadingDuration = System.currentTimeMillis() - beginModelLoadingTime;
     
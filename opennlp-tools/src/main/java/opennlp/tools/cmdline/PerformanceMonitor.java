@@ -19,10 +19,13 @@
 package opennlp.tools.cmdline;
 
 import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The {@link PerformanceMonitor} measures increments to a counter.
@@ -30,8 +33,10 @@ import java.util.concurrent.TimeUnit;
  * per second. After the computation is done it prints a final performance
  * report.
  * <p>
+ * The counter can be incremented by multiple threads, the final report
+ * then also contains the throughput of each thread.
+ * <p>
  * <b>Note:</b>
- * This class is not thread safe. <br>
  * Do not use this class, internal use only!
  */
 public class PerformanceMonitor {
@@ -45,7 +50,32 @@ public class PerformanceMonitor {
     
   private volatile long startTime = -1;
   
-  private volatile int counter;
+  private final AtomicInteger counter = new AtomicInteger();
+  
+  /**
+   * The counter of a thread which incremented the counter.
+   */
+  private static class ThreadCounter {
+    private final String threadName;
+    private final AtomicInteger counter = new AtomicInteger();
+    
+    ThreadCounter(String threadName) {
+      this.threadName = threadName;
+    }
+  }
+  
+  private final List<ThreadCounter> threadCounters = 
+      new CopyOnWriteArrayList<ThreadCounter>();
+  
+  private final ThreadLocal<ThreadCounter> currentThreadCounter = 
+      new ThreadLocal<ThreadCounter>() {
+    @Override
+    protected ThreadCounter initialValue() {
+      ThreadCounter threadCounter = new ThreadCounter(Thread.currentThread().getName());
+      threadCounters.add(threadCounter);
+      return threadCounter;
+    }
+  };
   
   private final PrintStream out;
   
@@ -70,7 +100,8 @@ public class PerformanceMonitor {
     if (increment < 0) 
       throw new IllegalArgumentException("increment must be zero or positive!");
     
-    counter += increment;
+    counter.addAndGet(increment);
+    currentThreadCounter.get().counter.addAndGet(increment);
   }
   
   public void incrementCounter() {
@@ -93,11 +124,13 @@ public class PerformanceMonitor {
     final Runnable beeper = new Runnable() {
       
       private long lastTimeStamp = startTime;
-      private int lastCount = counter;
+      private int lastCount = counter.get();
       
       public void run() {
 
-        int deltaCount = counter - lastCount;
+        int count = counter.get();
+        
+        int deltaCount = count - lastCount;
 
         long timePassedSinceLastCount = System.currentTimeMillis()
             - lastTimeStamp;
@@ -114,23 +147,32 @@ public class PerformanceMonitor {
         
         double averageThroughput;
         if (totalTimePassed > 0) {
-          averageThroughput = counter / (((double) totalTimePassed) / 1000);
+          averageThroughput = count / (((double) totalTimePassed) / 1000);
         }
         else {
           averageThroughput = 0;
         }
         
         out.printf("current: %.1f " + unit + "/s avg: %.1f " + unit + "/s total: %d " + unit + "%n", currentThroughput,
-            averageThroughput, counter);
+            averageThroughput, count);
 
         lastTimeStamp = System.currentTimeMillis();
-        lastCount = counter;
+        lastCount = count;
       }
     }; 
     
    beeperHandle = scheduler.scheduleAtFixedRate(beeper, 1, 1, TimeUnit.SECONDS);
   }
   
+  private static double average(int count, long timePassed) {
+    if (timePassed > 0) {
+      return count / (timePassed / 1000d);
+    }
+    else {
+      return 0;
+    }
+  }
+  
   public void stopAndPrintFinalResult() {
     
     if (!isStarted())
@@ -146,19 +188,23 @@ public class PerformanceMonitor {
     
     long timePassed = System.currentTimeMillis() - startTime;
     
-    double average;
-    if (timePassed > 0) {
-      average = counter / (timePassed / 1000d);
-    }
-    else {
-      average = 0;
-    }
-    
     out.println();
     out.println();
     
-    out.printf("Average: %.1f " + unit +"/s %n", average);
-    out.println("Total: " + counter + " " + unit);
+    if (threadCounters.size() > 1) {
+      for (ThreadCounter threadCounter : threadCounters) {
+        int count = threadCounter.counter.get();
+        out.printf("%s: average: %.1f " + unit + "/s total: %d " + unit + "%n",
+            threadCounter.threadName, average(count, timePassed), count);
+      }
+      
+      out.println();
+    }
+    
+    int count = counter.get();
+    
+    out.printf("Average: %.1f " + unit +"/s %n", average(count, timePassed));
+    out.println("Total: " + count + " " + unit);
     out.println("Runtime: " + timePassed / 1000d + "s");
   }
 }
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * The {@link StreamProcessor} processes the inputs of a command line tool,
+ * for example the lines or paragraphs read from stdin, and prints the results.
+ * <p>
+ * With more than one thread the inputs are processed by a pool of threads,
+ * each thread has its own {@link Worker}. The results are buffered and printed
+ * in the order of the inputs, the number of buffered results is limited, and
+ * reading the input waits when the buffer is full.
+ * <p>
+ * Do not use this class, internal use only!
+ */
+public class StreamProcessor {
+
+  /**
+   * Processes the inputs of one thread, a worker usually holds the
+   * component and its state.
+   */
+  public interface Worker {
+
+    /**
+     * Processes one input.
+     *
+     * @param input the input
+     * @param out the writer the result is printed to
+     *
+     * @return the number of units which are counted by the performance monitor
+     */
+    int process(String input, PrintWriter out);
+  }
+
+  /**
+   * Creates the worker of each thread.
+   */
+  public interface WorkerFactory {
+    Worker createWorker();
+  }
+
+  /**
+   * The number of results which can be buffered for each thread.
+   */
+  private static final int BUFFERED_RESULTS_PER_THREAD = 64;
+
+  private final WorkerFactory factory;
+
+  private final int threads;
+
+  /**
+   * Initializes the current instance.
+   *
+   * @param factory the factory which creates the worker of each thread
+   * @param threads the number of threads, one processes the inputs on the calling thread
+   */
+  public StreamProcessor(WorkerFactory factory, int threads) {
+
+    if (factory == null)
+      throw new IllegalArgumentException("factory must not be null!");
+
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+
+    this.factory = factory;
+    this.threads = threads;
+  }
+
+  /**
+   * Retrieves the "-threads" parameter.
+   *
+   * @param args
+   *
+   * @return the number of threads, one if the parameter is not specified
+   */
+  public static int getThreadsParameter(String args[]) {
+    Integer threads = CmdLineUtil.getIntParameter("-threads", args);
+
+    if (threads == null) {
+      if (CmdLineUtil.getParameter("-threads", args) != null) {
+        System.err.println("Error: -threads must be a number.");
+        throw new TerminateToolException(1);
+      }
+      return 1;
+    }
+
+    if (threads < 1) {
+      System.err.println("Error: -threads must be positive.");
+      throw new TerminateToolException(1);
+    }
+
+    return threads;
+  }
+
+  /**
+   * Processes all inputs and prints the results.
+   *
+   * @param inputs the inputs
+   * @param out the stream the results are printed to
+   * @param perfMon the started performance monitor, it is incremented by the
+   *     threads which process the inputs
+   *
+   * @throws IOException if the inputs cannot be read
+   */
+  public void process(ObjectStream<String> inputs, PrintStream out,
+      PerformanceMonitor perfMon) throws IOException {
+
+    if (threads == 1) {
+      Worker worker = factory.createWorker();
+      PrintWriter writer = new PrintWriter(out);
+
+      String input;
+      while ((input = inputs.read()) != null) {
+        perfMon.incrementCounter(worker.process(input, writer));
+        writer.flush();
+      }
+    }
+    else {
+      processParallel(inputs, out, perfMon);
+    }
+  }
+
+  private void processParallel(ObjectStream<String> inputs, PrintStream out,
+      final PerformanceMonitor perfMon) throws IOException {
+
+    final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+      @Override
+      protected Worker initialValue() {
+        return factory.createWorker();
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // the results in the order of the inputs
+    Queue<Future<String>> results = new LinkedList<Future<String>>();
+
+    try {
+      String input;
+      while ((input = inputs.read()) != null) {
+        final String currentInput = input;
+
+        results.add(executor.submit(new Callable<String>() {
+          public String call() {
+            StringWriter result = new StringWriter();
+            PrintWriter writer = new PrintWriter(result);
+
+            perfMon.incrementCounter(workers.get().process(currentInput, writer));
+
+            writer.flush();
+            return result.toString();
+          }
+        }));
+
+        // print the results which are done, and wait for the
+        // oldest result if the buffer is full
+        while (!results.isEmpty() && (results.peek().isDone() ||
+            results.size() > threads * BUFFERED_RESULTS_PER_THREAD)) {
+          out.print(getResult(results.remove()));
+        }
+      }
+
+      while (!results.isEmpty()) {
+        out.print(getResult(results.remove()));
+      }
+
+      out.flush();
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static String getResult(Future<String> result) {
+    try {
+      return result.get();
+    }
+    catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+}
@@ -20,6 +20,7 @@ package opennlp.tools.cmdline.chunker;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 
 import opennlp.tools.chunker.ChunkSample;
 import opennlp.tools.chunker.ChunkerME;
@@ -29,6 +30,7 @@ import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineTool;
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.cmdline.TerminateToolException;
 import opennlp.tools.postag.POSSample;
 import opennlp.tools.util.InvalidFormatException;
@@ -46,19 +48,49 @@ public class ChunkerMETool implements CmdLineTool {
   }
   
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n" +
+        "-threads n: Chunk the sentences with n threads.";
   }
 
   public void run(String[] args) {
-    if (args.length != 1) {
+    if (CmdLineUtil.validateArguments(args, new String[] {"-threads"}, 1, 1) == -1) {
       System.out.println(getHelp());
       throw new TerminateToolException(1);
     }
     
-    ChunkerModel model = new ChunkerModelLoader().load(new File(args[0]));
+    final ChunkerModel model = new ChunkerModelLoader().load(new File(args[args.length - 1]));
     
-    ChunkerME chunker = new ChunkerME(model, ChunkerME.DEFAULT_BEAM_SIZE,
-        new DefaultChunkerSequenceValidator());
+    int threads = StreamProcessor.getThreadsParameter(args);
+    
+    StreamProcessor processor = new StreamProcessor(new StreamProcessor.WorkerFactory() {
+      public StreamProcessor.Worker createWorker() {
+        
+        final ChunkerME chunker = new ChunkerME(model, ChunkerME.DEFAULT_BEAM_SIZE,
+            new DefaultChunkerSequenceValidator());
+        
+        return new StreamProcessor.Worker() {
+          public int process(String line, PrintWriter out) {
+            
+            POSSample posSample;
+            try {
+              posSample = POSSample.parse(line);
+            } catch (InvalidFormatException e) {
+              System.err.println("Invalid format:");
+              System.err.println(line);
+              return 0;
+            }
+            
+            String[] chunks = chunker.chunk(posSample.getSentence(),
+                posSample.getTags());
+            
+            out.println(new ChunkSample(posSample.getSentence(),
+                posSample.getTags(), chunks).nicePrint());
+            
+            return 1;
+          }
+        };
+      }
+    }, threads);
     
     ObjectStream<String> lineStream =
       new PlainTextByLineStream(new InputStreamReader(System.in));
@@ -67,26 +99,7 @@ public class ChunkerMETool implements CmdLineTool {
     perfMon.start();
     
     try {
-      String line;
-      while ((line = lineStream.read()) != null) {
-        
-        POSSample posSample;
-        try {
-          posSample = POSSample.parse(line);
-        } catch (InvalidFormatException e) {
-          System.err.println("Invalid format:");
-          System.err.println(line);
-          continue;
-        }
-        
-        String[] chunks = chunker.chunk(posSample.getSentence(),
-            posSample.getTags());
-        
-        System.out.println(new ChunkSample(posSample.getSentence(),
-            posSample.getTags(), chunks).nicePrint());
-        
-        perfMon.incrementCounter();
-      }
+      processor.process(lineStream, System.out, perfMon);
     } 
     catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
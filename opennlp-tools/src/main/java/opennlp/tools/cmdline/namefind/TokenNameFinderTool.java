@@ -20,20 +20,24 @@ package opennlp.tools.cmdline.namefind;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineTool;
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.cmdline.TerminateToolException;
 import opennlp.tools.namefind.NameFinderME;
 import opennlp.tools.namefind.NameSample;
 import opennlp.tools.namefind.TokenNameFinder;
 import opennlp.tools.namefind.TokenNameFinderModel;
 import opennlp.tools.tokenize.WhitespaceTokenizer;
+import opennlp.tools.util.FilterObjectStream;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.Span;
@@ -48,61 +52,161 @@ public final class TokenNameFinderTool implements CmdLineTool {
     return "learnable name finder";
   }
   
+  /**
+   * The maximum number of sentences of a document if the documents are processed
+   * with multiple threads, the adaptive data is then cleared after this number of
+   * sentences even without an empty line.
+   */
+  private static final int MAX_DOCUMENT_SENTENCES = 1000;
+  
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model1 model2 ... modelN < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model1 model2 ... modelN < sentences\n" +
+        "-threads n: Process the documents with n threads, a document ends with an empty line\n" +
+        "            or after " + MAX_DOCUMENT_SENTENCES + " sentences.";
+  }
+  
+  /**
+   * Merges the lines of a document, the lines of a document must be processed
+   * by the same name finders because they use the adaptive data of the
+   * previous lines. The empty line which ends a document belongs to it.
+   * A document without an empty line ends after {@link #MAX_DOCUMENT_SENTENCES}
+   * sentences, like the adaptive data is cleared then, so the whole input
+   * is never buffered.
+   */
+  private static class DocumentStream extends FilterObjectStream<String, String> {
+    
+    DocumentStream(ObjectStream<String> lineStream) {
+      super(lineStream);
+    }
+    
+    public String read() throws IOException {
+      
+      StringBuilder document = null;
+      int sentences = 0;
+      
+      String line;
+      while ((line = samples.read()) != null) {
+        if (document == null) {
+          document = new StringBuilder();
+        }
+        else {
+          document.append('\n');
+        }
+        
+        document.append(line);
+        
+        if (WhitespaceTokenizer.INSTANCE.tokenize(line).length == 0 ||
+            ++sentences == MAX_DOCUMENT_SENTENCES)
+          break;
+      }
+      
+      return document != null ? document.toString() : null;
+    }
   }
   
   public void run(String[] args) {
     
-    if (args.length == 0) {
+    int firstModel = CmdLineUtil.validateArguments(args, new String[] {"-threads"},
+        1, Integer.MAX_VALUE);
+    
+    if (firstModel == -1) {
       System.out.println(getHelp());
       throw new TerminateToolException(1);
     }
     
-    NameFinderME nameFinders[] = new NameFinderME[args.length];
+    final List<TokenNameFinderModel> models = new ArrayList<TokenNameFinderModel>();
     
-    for (int i = 0; i < nameFinders.length; i++) {
-      TokenNameFinderModel model = new TokenNameFinderModelLoader().load(new File(args[i]));
-      nameFinders[i] = new NameFinderME(model);
+    for (int i = firstModel; i < args.length; i++) {
+      models.add(new TokenNameFinderModelLoader().load(new File(args[i])));
     }
     
-    ObjectStream<String> untokenizedLineStream =
-        new PlainTextByLineStream(new InputStreamReader(System.in));
+    final AtomicBoolean documentSplitWarned = new AtomicBoolean();
     
-    PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent");
-    perfMon.start();
+    final int threads = StreamProcessor.getThreadsParameter(args);
     
-    try {
-      String line;
-      while((line = untokenizedLineStream.read()) != null) {
-        String whitespaceTokenizerLine[] = WhitespaceTokenizer.INSTANCE.tokenize(line);
-        
-        // A new line indicates a new document,
-        // adaptive data must be cleared for a new document
-        
-        if (whitespaceTokenizerLine.length == 0) {
-          for (int i = 0; i < nameFinders.length; i++)  
-            nameFinders[i].clearAdaptiveData();
-        }
+    StreamProcessor processor = new StreamProcessor(new StreamProcessor.WorkerFactory() {
+      public StreamProcessor.Worker createWorker() {
         
-        List<Span> names = new ArrayList<Span>();
+        final NameFinderME nameFinders[] = new NameFinderME[models.size()];
         
-        for (TokenNameFinder nameFinder : nameFinders) {
-          Collections.addAll(names, nameFinder.find(whitespaceTokenizerLine));
+        for (int i = 0; i < nameFinders.length; i++) {
+          nameFinders[i] = new NameFinderME(models.get(i));
         }
         
-        // Simple way to drop intersecting spans, otherwise the
-        // NameSample is invalid
-        Span reducedNames[] = NameFinderME.dropOverlappingSpans(
-            names.toArray(new Span[names.size()]));
-        
-        NameSample nameSample = new NameSample(whitespaceTokenizerLine,
-            reducedNames, false);
-        
-        System.out.println(nameSample.toString());
-        
-        perfMon.incrementCounter();
+        return new StreamProcessor.Worker() {
+          
+          private int sentences;
+          
+          public int process(String input, PrintWriter out) {
+            
+            String lines[] = input.split("\n", -1);
+            
+            for (String line : lines) {
+              String whitespaceTokenizerLine[] = WhitespaceTokenizer.INSTANCE.tokenize(line);
+              
+              // A new line indicates a new document,
+              // adaptive data must be cleared for a new document
+              
+              if (whitespaceTokenizerLine.length == 0) {
+                for (int i = 0; i < nameFinders.length; i++)  
+                  nameFinders[i].clearAdaptiveData();
+                
+                sentences = 0;
+              }
+              
+              List<Span> names = new ArrayList<Span>();
+              
+              for (TokenNameFinder nameFinder : nameFinders) {
+                Collections.addAll(names, nameFinder.find(whitespaceTokenizerLine));
+              }
+              
+              // Simple way to drop intersecting spans, otherwise the
+              // NameSample is invalid
+              Span reducedNames[] = NameFinderME.dropOverlappingSpans(
+                  names.toArray(new Span[names.size()]));
+              
+              NameSample nameSample = new NameSample(whitespaceTokenizerLine,
+                  reducedNames, false);
+              
+              out.println(nameSample.toString());
+              
+              // with multiple threads a long document is split into documents
+              // of the same length, see DocumentStream
+              if (threads > 1 && whitespaceTokenizerLine.length != 0 &&
+                  ++sentences == MAX_DOCUMENT_SENTENCES) {
+                for (int i = 0; i < nameFinders.length; i++)  
+                  nameFinders[i].clearAdaptiveData();
+                
+                sentences = 0;
+                
+                if (documentSplitWarned.compareAndSet(false, true)) {
+                  System.err.println("Warning: A document is longer than " + MAX_DOCUMENT_SENTENCES +
+                      " sentences, the adaptive data is cleared after every " +
+                      MAX_DOCUMENT_SENTENCES + " sentences.");
+                }
+              }
+            }
+            
+            return lines.length;
+          }
+        };
       }
+    }, threads);
+    
+    ObjectStream<String> untokenizedLineStream =
+        new PlainTextByLineStream(new InputStreamReader(System.in));
+    
+    // with multiple threads the documents are distributed to the
+    // threads, because the name finders depend on the previous lines
+    if (threads > 1) {
+      untokenizedLineStream = new DocumentStream(untokenizedLineStream);
+    }
+    
+    PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent");
+    perfMon.start();
+    
+    try {
+      processor.process(untokenizedLineStream, System.out, perfMon);
     }
     catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
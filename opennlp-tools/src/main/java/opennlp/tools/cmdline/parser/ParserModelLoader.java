@@ -17,6 +17,7 @@
 
 package opennlp.tools.cmdline.parser;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -41,4 +42,15 @@ final class ParserModelLoader extends ModelLoader<ParserModel> {
     return new ParserModel(modelIn);
   }
 
+  /**
+   * Opens the model package with random access, the sub models are only
+   * deserialized when they are used. This way the tools which replace
+   * a sub model do not need to load the replaced model.
+   */
+  @Override
+  protected ParserModel loadModel(File modelFile) throws IOException,
+      InvalidFormatException {
+    return new ParserModel(modelFile);
+  }
+
 }
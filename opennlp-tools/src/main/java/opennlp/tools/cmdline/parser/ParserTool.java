@@ -20,6 +20,7 @@ package opennlp.tools.cmdline.parser;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -30,6 +31,7 @@ import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineTool;
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.cmdline.TerminateToolException;
 import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.Parse;
@@ -50,10 +52,11 @@ public final class ParserTool implements CmdLineTool {
   }
   
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " [-bs n -ap n -k n] model < sentences \n" +
+    return "Usage: " + CLI.CMD + " " + getName() + " [-bs n -ap n -k n -threads n] model < sentences \n" +
         "-bs n: Use a beam size of n.\n" +
         "-ap f: Advance outcomes in with at least f% of the probability mass.\n" + 
-        "-k n: Show the top n parses.  This will also display their log-probablities.";
+        "-k n: Show the top n parses.  This will also display their log-probablities.\n" +
+        "-threads n: Parse the sentences with n threads.";
   }
 
   private static Pattern untokenizedParenPattern1 = Pattern.compile("([^ ])([({)}])");
@@ -91,24 +94,27 @@ public final class ParserTool implements CmdLineTool {
   
   public void run(String[] args) {
     
-    if (args.length < 1) {
+    if (CmdLineUtil.validateArguments(args,
+        new String[] {"-bs", "-ap", "-k", "-threads"}, 1, 1) == -1) {
       System.out.println(getHelp());
       throw new TerminateToolException(1);
     }
     
-    ParserModel model = new ParserModelLoader().load(new File(args[args.length - 1]));
+    final ParserModel model = new ParserModelLoader().load(new File(args[args.length - 1]));
     
     Integer beamSize = CmdLineUtil.getIntParameter("-bs", args);
     if (beamSize == null)
         beamSize = AbstractBottomUpParser.defaultBeamSize;
     
-    Integer numParses = CmdLineUtil.getIntParameter("-k", args);
-    boolean showTopK;
-    if (numParses == null) {
+    Integer numParsesParameter = CmdLineUtil.getIntParameter("-k", args);
+    final int numParses;
+    final boolean showTopK;
+    if (numParsesParameter == null) {
       numParses = 1;
       showTopK = false;
     }
     else {
+      numParses = numParsesParameter;
       showTopK = true;
     }
     
@@ -116,9 +122,42 @@ public final class ParserTool implements CmdLineTool {
     
     if (advancePercentage == null)
       advancePercentage = AbstractBottomUpParser.defaultAdvancePercentage;
-      
-    opennlp.tools.parser.Parser parser = 
-        ParserFactory.create(model, beamSize, advancePercentage); 
+    
+    final int parserBeamSize = beamSize;
+    final double parserAdvancePercentage = advancePercentage;
+    
+    int threads = StreamProcessor.getThreadsParameter(args);
+    
+    StreamProcessor processor = new StreamProcessor(new StreamProcessor.WorkerFactory() {
+      public StreamProcessor.Worker createWorker() {
+        
+        final opennlp.tools.parser.Parser parser = 
+            ParserFactory.create(model, parserBeamSize, parserAdvancePercentage); 
+        
+        return new StreamProcessor.Worker() {
+          public int process(String line, PrintWriter out) {
+            if (line.length() == 0) {
+              out.println();
+              return 0;
+            }
+            
+            Parse[] parses = parseLine(line, parser, numParses);
+            
+            for (int pi=0,pn=parses.length;pi<pn;pi++) {
+              if (showTopK) {
+                out.print(pi+" "+parses[pi].getProb()+" ");
+              }
+              
+              StringBuffer sb = new StringBuffer();
+              parses[pi].show(sb);
+              out.println(sb);
+            }
+            
+            return parses.length;
+          }
+        };
+      }
+    }, threads);
 
     ObjectStream<String> lineStream =
       new PlainTextByLineStream(new InputStreamReader(System.in));
@@ -127,25 +166,7 @@ public final class ParserTool implements CmdLineTool {
     perfMon.start();
     
     try {
-      String line;
-      while ((line = lineStream.read()) != null) {
-        if (line.length() == 0) {
-          System.out.println();
-        }
-        else {
-          Parse[] parses = parseLine(line, parser, numParses);
-          
-          for (int pi=0,pn=parses.length;pi<pn;pi++) {
-            if (showTopK) {
-              System.out.print(pi+" "+parses[pi].getProb()+" ");
-            }
-            
-            parses[pi].show();
-            
-            perfMon.incrementCounter();
-          }
-        }
-      }
+      processor.process(lineStream, System.out, perfMon);
     } 
     catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
@@ -20,11 +20,13 @@ package opennlp.tools.cmdline.postag;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineTool;
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.cmdline.TerminateToolException;
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.postag.POSSample;
@@ -44,19 +46,40 @@ public final class POSTaggerTool implements CmdLineTool {
   }
   
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n" +
+        "-threads n: Tag the sentences with n threads.";
   }
 
   public void run(String[] args) {
     
-    if (args.length != 1) {
+    if (CmdLineUtil.validateArguments(args, new String[] {"-threads"}, 1, 1) == -1) {
       System.out.println(getHelp());
       throw new TerminateToolException(1);
     }
     
-    POSModel model = new POSModelLoader().load(new File(args[0]));
+    final POSModel model = new POSModelLoader().load(new File(args[args.length - 1]));
     
-    POSTaggerME tagger = new POSTaggerME(model);
+    int threads = StreamProcessor.getThreadsParameter(args);
+    
+    StreamProcessor processor = new StreamProcessor(new StreamProcessor.WorkerFactory() {
+      public StreamProcessor.Worker createWorker() {
+        
+        final POSTaggerME tagger = new POSTaggerME(model);
+        
+        return new StreamProcessor.Worker() {
+          public int process(String line, PrintWriter out) {
+            
+            String whitespaceTokenizerLine[] = WhitespaceTokenizer.INSTANCE.tokenize(line);
+            String[] tags = tagger.tag(whitespaceTokenizerLine);
+            
+            POSSample sample = new POSSample(whitespaceTokenizerLine, tags);
+            out.println(sample.toString());
+            
+            return 1;
+          }
+        };
+      }
+    }, threads);
     
     ObjectStream<String> lineStream =
       new PlainTextByLineStream(new InputStreamReader(System.in));
@@ -65,17 +88,7 @@ public final class POSTaggerTool implements CmdLineTool {
     perfMon.start();
     
     try {
-      String line;
-      while ((line = lineStream.read()) != null) {
-        
-        String whitespaceTokenizerLine[] = WhitespaceTokenizer.INSTANCE.tokenize(line);
-        String[] tags = tagger.tag(whitespaceTokenizerLine);
-        
-        POSSample sample = new POSSample(whitespaceTokenizerLine, tags);
-        System.out.println(sample.toString());
-        
-        perfMon.incrementCounter();
-      }
+      processor.process(lineStream, System.out, perfMon);
     } 
     catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
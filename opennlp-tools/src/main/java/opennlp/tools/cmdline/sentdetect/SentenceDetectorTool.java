@@ -20,11 +20,13 @@ package opennlp.tools.cmdline.sentdetect;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineTool;
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.cmdline.TerminateToolException;
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
@@ -46,7 +48,8 @@ public final class SentenceDetectorTool implements CmdLineTool {
   }
   
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n" +
+        "-threads n: Detect the sentences of the paragraphs with n threads.";
   }
 
   /**
@@ -56,14 +59,35 @@ public final class SentenceDetectorTool implements CmdLineTool {
    */
   public void run(String[] args) {
     
-    if (args.length != 1) {
+    if (CmdLineUtil.validateArguments(args, new String[] {"-threads"}, 1, 1) == -1) {
       System.out.println(getHelp());
       throw new TerminateToolException(1);
     }
 
-    SentenceModel model = new SentenceModelLoader().load(new File(args[0]));
+    final SentenceModel model = new SentenceModelLoader().load(new File(args[args.length - 1]));
     
-    SentenceDetectorME sdetector = new SentenceDetectorME(model);
+    int threads = StreamProcessor.getThreadsParameter(args);
+    
+    StreamProcessor processor = new StreamProcessor(new StreamProcessor.WorkerFactory() {
+      public StreamProcessor.Worker createWorker() {
+        
+        final SentenceDetectorME sdetector = new SentenceDetectorME(model);
+        
+        return new StreamProcessor.Worker() {
+          public int process(String para, PrintWriter out) {
+            
+            String[] sents = sdetector.sentDetect(para);
+            for (String sentence : sents) {
+              out.println(sentence);
+            }
+            
+            out.println();
+            
+            return sents.length;
+          }
+        };
+      }
+    }, threads);
 
     ObjectStream<String> paraStream =
       new ParagraphStream(new PlainTextByLineStream(new InputStreamReader(System.in)));
@@ -72,18 +96,7 @@ public final class SentenceDetectorTool implements CmdLineTool {
     perfMon.start();
     
     try {
-      String para;
-      while ((para = paraStream.read()) != null) {
-        
-        String[] sents = sdetector.sentDetect(para);
-        for (String sentence : sents) {
-          System.out.println(sentence);
-        }
-        
-        perfMon.incrementCounter(sents.length);
-                
-        System.out.println();
-      }
+      processor.process(paraStream, System.out, perfMon);
     } 
     catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
@@ -19,40 +19,78 @@ package opennlp.tools.cmdline.tokenizer;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.tokenize.Tokenizer;
-import opennlp.tools.tokenize.TokenizerStream;
-import opennlp.tools.tokenize.WhitespaceTokenStream;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
 
 final class CommandLineTokenizer {
 
-  private final Tokenizer tokenizer;
+  /**
+   * Creates the tokenizer of each thread.
+   */
+  interface TokenizerFactory {
+    Tokenizer createTokenizer();
+  }
+  
+  private final TokenizerFactory factory;
+  
+  private final int threads;
+  
+  CommandLineTokenizer(final Tokenizer tokenizer) {
+    this(new TokenizerFactory() {
+      public Tokenizer createTokenizer() {
+        return tokenizer;
+      }
+    }, 1);
+  }
   
-  CommandLineTokenizer(Tokenizer tokenizer) {
-    this.tokenizer = tokenizer;
+  CommandLineTokenizer(TokenizerFactory factory, int threads) {
+    this.factory = factory;
+    this.threads = threads;
   }
   
   void process() {
     
+    StreamProcessor processor = new StreamProcessor(new StreamProcessor.WorkerFactory() {
+      public StreamProcessor.Worker createWorker() {
+        
+        final Tokenizer tokenizer = factory.createTokenizer();
+        
+        return new StreamProcessor.Worker() {
+          public int process(String line, PrintWriter out) {
+            
+            Span tokens[] = tokenizer.tokenizePos(line);
+            
+            StringBuilder tokenizedLine = new StringBuilder();
+            for (int i = 0; i < tokens.length; i++) {
+              if (i > 0) {
+                tokenizedLine.append(' ');
+              }
+              tokenizedLine.append(tokens[i].getCoveredText(line));
+            }
+            
+            out.println(tokenizedLine);
+            
+            return 1;
+          }
+        };
+      }
+    }, threads);
+    
     ObjectStream<String> untokenizedLineStream =
         new PlainTextByLineStream(new InputStreamReader(System.in));
     
-    ObjectStream<String> tokenizedLineStream = new WhitespaceTokenStream(
-        new TokenizerStream(tokenizer, untokenizedLineStream));
-    
     PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent");
     perfMon.start();
     
     try {
-      String tokenizedLine;
-      while ((tokenizedLine = tokenizedLineStream.read()) != null) {
-        System.out.println(tokenizedLine);
-        perfMon.incrementCounter();
-      }
+      processor.process(untokenizedLineStream, System.out, perfMon);
     }
     catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
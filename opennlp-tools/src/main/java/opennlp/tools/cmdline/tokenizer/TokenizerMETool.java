@@ -21,7 +21,11 @@ import java.io.File;
 
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineTool;
+import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.StreamProcessor;
 import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 
 public final class TokenizerMETool implements CmdLineTool {
@@ -35,19 +39,24 @@ public final class TokenizerMETool implements CmdLineTool {
   }
   
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n" +
+        "-threads n: Tokenize the sentences with n threads.";
   }
   
   public void run(String[] args) {
-    if (args.length != 1) {
+    if (CmdLineUtil.validateArguments(args, new String[] {"-threads"}, 1, 1) == -1) {
       System.out.println(getHelp());
       throw new TerminateToolException(1);
     }
     
-    TokenizerModel model = new TokenizerModelLoader().load(new File(args[0]));
+    final TokenizerModel model = new TokenizerModelLoader().load(new File(args[args.length - 1]));
     
-    CommandLineTokenizer tokenizer = 
-      new CommandLineTokenizer(new opennlp.tools.tokenize.TokenizerME(model));
+    CommandLineTokenizer tokenizer = new CommandLineTokenizer(
+        new CommandLineTokenizer.TokenizerFactory() {
+          public Tokenizer createTokenizer() {
+            return new TokenizerME(model);
+          }
+        }, StreamProcessor.getThreadsParameter(args));
     
     tokenizer.process();
   }
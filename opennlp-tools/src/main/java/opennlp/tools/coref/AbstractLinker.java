@@ -18,6 +18,12 @@
 package opennlp.tools.coref;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import opennlp.tools.coref.mention.HeadFinder;
 import opennlp.tools.coref.mention.Mention;
@@ -31,6 +37,12 @@ import opennlp.tools.coref.sim.Number;
 /**
  * Provides a default implementation of many of the methods in {@link Linker} that
  * most implementations of {@link Linker} will want to extend.
+ * <p>
+ * In {@link LinkerMode#TEST} mode a linker only reads its models, every call to
+ * {@link #getEntities(Mention[])} works on its own {@link DiscourseModel}. One linker,
+ * and therefore one copy of the models, can resolve many documents concurrently,
+ * see {@link #getEntities(Mention[][], ExecutorService)}. In the other modes the
+ * resolvers collect training events and a linker must only be used by one thread.
  */
 public abstract class AbstractLinker implements Linker {
 
@@ -51,7 +63,13 @@ public abstract class AbstractLinker implements Linker {
   /** The names of the resolvers used by this Linker. */
   protected String[] resolverNames;
 
-  /** Array used to store the results of each call made to the linker. */
+  /**
+   * Array used to store the results of each call made to the linker.
+   *
+   * @deprecated the results are no longer stored in the linker, because
+   *             documents can be resolved concurrently
+   */
+  @Deprecated
   protected DiscourseEntity[] entities;
 
   /** The index of resolver which is used for singular pronouns. */
@@ -105,6 +123,7 @@ public abstract class AbstractLinker implements Linker {
     //System.err.println("AbstractLinker.resolve: "+mode+"("+econtext.id+") "+econtext.toText());
     boolean validEntity = true; // true if we should add this entity to the dm
     boolean canResolve = false;
+    DiscourseEntity[] entities = new DiscourseEntity[resolvers.length];
 
     for (int ri = 0; ri < resolvers.length; ri++) {
       if (resolvers[ri].canResolve(mention)) {
@@ -220,6 +239,54 @@ public abstract class AbstractLinker implements Linker {
     return (dm.getEntities());
   }
 
+  /**
+   * Returns the entities of each of the specified documents. In {@link LinkerMode#TEST}
+   * mode the documents are resolved concurrently with the specified executor, in the
+   * other modes they are resolved one after another in the calling thread.
+   * The executor can be shared and is not shut down by the linker.
+   *
+   * @param documents the mentions of each document
+   * @param executor the executor which resolves the documents
+   *
+   * @return the entities of each document, in the order of the documents
+   */
+  public DiscourseEntity[][] getEntities(Mention[][] documents, ExecutorService executor) {
+    DiscourseEntity[][] documentEntities = new DiscourseEntity[documents.length][];
+
+    if (mode != LinkerMode.TEST) {
+      for (int di = 0; di < documents.length; di++) {
+        documentEntities[di] = getEntities(documents[di]);
+      }
+      return documentEntities;
+    }
+
+    List<Callable<DiscourseEntity[]>> tasks =
+        new ArrayList<Callable<DiscourseEntity[]>>(documents.length);
+
+    for (int di = 0; di < documents.length; di++) {
+      final Mention[] document = documents[di];
+      tasks.add(new Callable<DiscourseEntity[]>() {
+        public DiscourseEntity[] call() {
+          return getEntities(document);
+        }
+      });
+    }
+
+    try {
+      List<Future<DiscourseEntity[]>> futures = executor.invokeAll(tasks);
+      for (int di = 0; di < futures.size(); di++) {
+        documentEntities[di] = futures.get(di).get();
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    } catch (ExecutionException e) {
+      // only runtime exceptions are thrown by the tasks
+      throw new RuntimeException(e.getCause());
+    }
+
+    return documentEntities;
+  }
+
   public void setEntities(Mention[] mentions) {
     getEntities(mentions);
   }
@@ -91,7 +91,6 @@ public class DefaultLinker extends AbstractLinker {
     initMentionFinder();
     if (mode != LinkerMode.SIM) {
       initResolvers(mode, fixedNonReferentialProbability);
-      entities = new DiscourseEntity[resolvers.length];
     }
   }
 
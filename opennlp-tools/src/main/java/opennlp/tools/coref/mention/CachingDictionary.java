@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref.mention;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import opennlp.tools.util.Cache;
+
+/**
+ * A {@link Dictionary} which caches the lookups of another dictionary.
+ * <p>
+ * Each kind of lookup has its own least recently used cache of a fixed size.
+ * The caches are locked individually and the underlying dictionary is called
+ * outside of the locks, the dictionary can be used by multiple threads if the
+ * underlying dictionary can. The returned arrays are copies and can be modified
+ * by the caller.
+ */
+public class CachingDictionary implements Dictionary {
+
+  /** Marks a cached null result. */
+  private static final Object NULL = new Object();
+
+  private final Dictionary dictionary;
+
+  private final Cache lemmaCache;
+  private final Cache senseKeyCache;
+  private final Cache numSensesCache;
+  private final Cache parentSenseKeyCache;
+
+  private final AtomicLong numberOfCacheHits = new AtomicLong();
+  private final AtomicLong numberOfCacheMisses = new AtomicLong();
+
+  /**
+   * Creates a new caching dictionary.
+   *
+   * @param dictionary the dictionary which is asked on a cache miss
+   * @param size the number of results kept for each kind of lookup
+   */
+  public CachingDictionary(Dictionary dictionary, int size) {
+
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be positive: " + size);
+    }
+
+    this.dictionary = dictionary;
+
+    lemmaCache = new Cache(size);
+    senseKeyCache = new Cache(size);
+    numSensesCache = new Cache(size);
+    parentSenseKeyCache = new Cache(size);
+  }
+
+  private static String key(String word, String pos) {
+    return pos + '\t' + word;
+  }
+
+  private static String key(String lemma, String pos, int senseNumber) {
+    return pos + '\t' + senseNumber + '\t' + lemma;
+  }
+
+  private Object get(Cache cache, String key) {
+    Object value;
+    synchronized (cache) {
+      value = cache.get(key);
+    }
+    if (value != null) {
+      numberOfCacheHits.incrementAndGet();
+    }
+    else {
+      numberOfCacheMisses.incrementAndGet();
+    }
+    return value;
+  }
+
+  private static void put(Cache cache, String key, Object value) {
+    synchronized (cache) {
+      cache.put(key, value == null ? NULL : value);
+    }
+  }
+
+  private static String[] copy(Object value) {
+    return value == NULL ? null : ((String[]) value).clone();
+  }
+
+  public String[] getLemmas(String word, String pos) {
+    String key = key(word, pos);
+    Object value = get(lemmaCache, key);
+    if (value == null) {
+      String[] lemmas = dictionary.getLemmas(word, pos);
+      put(lemmaCache, key, lemmas);
+      value = lemmas == null ? NULL : lemmas;
+    }
+    return copy(value);
+  }
+
+  public String getSenseKey(String lemma, String pos, int senseNumber) {
+    String key = key(lemma, pos, senseNumber);
+    Object value = get(senseKeyCache, key);
+    if (value == null) {
+      String senseKey = dictionary.getSenseKey(lemma, pos, senseNumber);
+      put(senseKeyCache, key, senseKey);
+      return senseKey;
+    }
+    return value == NULL ? null : (String) value;
+  }
+
+  public int getNumSenses(String lemma, String pos) {
+    String key = key(lemma, pos);
+    Object value = get(numSensesCache, key);
+    if (value == null) {
+      int numSenses = dictionary.getNumSenses(lemma, pos);
+      put(numSensesCache, key, numSenses);
+      return numSenses;
+    }
+    return (Integer) value;
+  }
+
+  public String[] getParentSenseKeys(String lemma, String pos, int senseNumber) {
+    String key = key(lemma, pos, senseNumber);
+    Object value = get(parentSenseKeyCache, key);
+    if (value == null) {
+      String[] parents = dictionary.getParentSenseKeys(lemma, pos, senseNumber);
+      put(parentSenseKeyCache, key, parents);
+      value = parents == null ? NULL : parents;
+    }
+    return copy(value);
+  }
+
+  /**
+   * Returns the number of lookups which were answered from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getNumberOfCacheHits() {
+    return numberOfCacheHits.get();
+  }
+
+  /**
+   * Returns the number of lookups which were passed to the underlying dictionary.
+   *
+   * @return the number of cache misses
+   */
+  public long getNumberOfCacheMisses() {
+    return numberOfCacheMisses.get();
+  }
+}
@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref.mention;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only {@link Dictionary} which answers the noun lookups of the coreference
+ * component from a compiled index.
+ * <p>
+ * The index is created with {@link #compile(Dictionary, Iterable, OutputStream)}
+ * from a list of words, usually the lower-cased head words of the data the
+ * coreference models are used on. It contains the noun lemmas of each word and
+ * the sense keys and parent sense keys of every sense of these lemmas. The index
+ * is read completely into memory, lookups do no I/O and do not initialize JWNL.
+ * <p>
+ * Words and lemmas which are not in the index, and lemma lookups for other parts
+ * of speech, are passed to the fallback dictionary if one is given, otherwise
+ * they are treated as unknown to the dictionary. The dictionary can be used by
+ * multiple threads if the fallback dictionary can.
+ */
+public class CompiledDictionary implements Dictionary {
+
+  static final int MAGIC_NUMBER = 0x4F4E5749;
+
+  private static final String NOUN = "NN";
+
+  private static final String[] EMPTY = new String[0];
+
+  /** The noun lemmas of each compiled word. */
+  private final Map<String, String[]> lemmas;
+
+  /**
+   * The senses of each compiled lemma, for each sense the first element is
+   * the sense key followed by the parent sense keys.
+   */
+  private final Map<String, String[][]> senses;
+
+  private final Dictionary fallback;
+
+  /**
+   * Reads a compiled index.
+   *
+   * @param in the index, the stream is not closed
+   * @param fallback the dictionary for lookups which are not in the index, or null
+   *
+   * @throws IOException if the index can not be read
+   */
+  public CompiledDictionary(InputStream in, Dictionary fallback) throws IOException {
+    this.fallback = fallback;
+
+    DataInputStream input = new DataInputStream(new BufferedInputStream(in));
+
+    if (input.readInt() != MAGIC_NUMBER) {
+      throw new IOException("The data is not a compiled dictionary!");
+    }
+
+    String[] strings = new String[input.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = input.readUTF();
+    }
+
+    int numWords = input.readInt();
+    lemmas = new HashMap<String, String[]>(numWords * 2);
+    for (int wi = 0; wi < numWords; wi++) {
+      String word = strings[input.readInt()];
+      lemmas.put(word, readStrings(input, strings));
+    }
+
+    int numLemmas = input.readInt();
+    senses = new HashMap<String, String[][]>(numLemmas * 2);
+    for (int li = 0; li < numLemmas; li++) {
+      String lemma = strings[input.readInt()];
+      String[][] lemmaSenses = new String[input.readInt()][];
+      for (int si = 0; si < lemmaSenses.length; si++) {
+        lemmaSenses[si] = readStrings(input, strings);
+      }
+      senses.put(lemma, lemmaSenses);
+    }
+  }
+
+  /**
+   * Reads a compiled index without a fallback dictionary.
+   *
+   * @param in the index, the stream is not closed
+   *
+   * @throws IOException if the index can not be read
+   */
+  public CompiledDictionary(InputStream in) throws IOException {
+    this(in, null);
+  }
+
+  private static String[] readStrings(DataInputStream input, String[] strings)
+      throws IOException {
+    String[] values = new String[input.readInt()];
+    for (int i = 0; i < values.length; i++) {
+      int index = input.readInt();
+      values[i] = index == -1 ? null : strings[index];
+    }
+    return values;
+  }
+
+  /**
+   * Mirrors the part-of-speech mapping of {@link JWNLDictionary#getLemmas(String, String)}.
+   */
+  private static boolean isNoun(String pos) {
+    return !(pos.startsWith("v") || pos.startsWith("J") || pos.startsWith("a")
+        || pos.startsWith("R") || pos.startsWith("r"));
+  }
+
+  public String[] getLemmas(String word, String pos) {
+    if (isNoun(pos)) {
+      String[] wordLemmas = lemmas.get(word);
+      if (wordLemmas != null) {
+        return wordLemmas.clone();
+      }
+    }
+    if (fallback != null) {
+      return fallback.getLemmas(word, pos);
+    }
+    return EMPTY;
+  }
+
+  public String getSenseKey(String lemma, String pos, int senseNumber) {
+    String[][] lemmaSenses = senses.get(lemma);
+    if (lemmaSenses != null) {
+      return senseNumber < lemmaSenses.length ? lemmaSenses[senseNumber][0] : null;
+    }
+    if (fallback != null) {
+      return fallback.getSenseKey(lemma, pos, senseNumber);
+    }
+    return null;
+  }
+
+  public int getNumSenses(String lemma, String pos) {
+    String[][] lemmaSenses = senses.get(lemma);
+    if (lemmaSenses != null) {
+      return lemmaSenses.length;
+    }
+    if (fallback != null) {
+      return fallback.getNumSenses(lemma, pos);
+    }
+    return 0;
+  }
+
+  public String[] getParentSenseKeys(String lemma, String pos, int senseNumber) {
+    String[][] lemmaSenses = senses.get(lemma);
+    if (lemmaSenses != null) {
+      if (senseNumber < lemmaSenses.length) {
+        String[] sense = lemmaSenses[senseNumber];
+        String[] parents = new String[sense.length - 1];
+        System.arraycopy(sense, 1, parents, 0, parents.length);
+        return parents;
+      }
+      return EMPTY;
+    }
+    if (fallback != null) {
+      return fallback.getParentSenseKeys(lemma, pos, senseNumber);
+    }
+    return EMPTY;
+  }
+
+  /**
+   * Compiles the noun lookups of the specified words into an index.
+   * Words for which the dictionary returns no lemmas are not compiled.
+   *
+   * @param dictionary the dictionary the lookups are taken from, usually a {@link JWNLDictionary}
+   * @param words the words to compile
+   * @param out the stream the index is written to, the stream is not closed
+   *
+   * @throws IOException if the index can not be written
+   */
+  public static void compile(Dictionary dictionary, Iterable<String> words, OutputStream out)
+      throws IOException {
+
+    Map<String, String[]> wordLemmas = new LinkedHashMap<String, String[]>();
+    Map<String, String[][]> lemmaSenses = new LinkedHashMap<String, String[][]>();
+
+    for (String word : words) {
+      if (wordLemmas.containsKey(word)) {
+        continue;
+      }
+
+      String[] lemmas = dictionary.getLemmas(word, NOUN);
+      if (lemmas == null) {
+        continue;
+      }
+      wordLemmas.put(word, lemmas);
+
+      for (String lemma : lemmas) {
+        if (lemmaSenses.containsKey(lemma)) {
+          continue;
+        }
+
+        String[][] senses = new String[dictionary.getNumSenses(lemma, NOUN)][];
+        for (int si = 0; si < senses.length; si++) {
+          String[] parents = dictionary.getParentSenseKeys(lemma, NOUN, si);
+          if (parents == null) {
+            parents = EMPTY;
+          }
+          senses[si] = new String[parents.length + 1];
+          senses[si][0] = dictionary.getSenseKey(lemma, NOUN, si);
+          System.arraycopy(parents, 0, senses[si], 1, parents.length);
+        }
+        lemmaSenses.put(lemma, senses);
+      }
+    }
+
+    // every distinct string is written once, the tables refer to it by index
+    Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+    List<String> strings = new ArrayList<String>();
+    for (Map.Entry<String, String[]> entry : wordLemmas.entrySet()) {
+      addString(entry.getKey(), stringIndex, strings);
+      for (String lemma : entry.getValue()) {
+        addString(lemma, stringIndex, strings);
+      }
+    }
+    for (String[][] senses : lemmaSenses.values()) {
+      for (String[] sense : senses) {
+        for (String key : sense) {
+          addString(key, stringIndex, strings);
+        }
+      }
+    }
+
+    DataOutputStream output = new DataOutputStream(new BufferedOutputStream(out));
+
+    output.writeInt(MAGIC_NUMBER);
+
+    output.writeInt(strings.size());
+    for (String string : strings) {
+      output.writeUTF(string);
+    }
+
+    output.writeInt(wordLemmas.size());
+    for (Map.Entry<String, String[]> entry : wordLemmas.entrySet()) {
+      output.writeInt(stringIndex.get(entry.getKey()));
+      writeStrings(output, entry.getValue(), stringIndex);
+    }
+
+    output.writeInt(lemmaSenses.size());
+    for (Map.Entry<String, String[][]> entry : lemmaSenses.entrySet()) {
+      output.writeInt(stringIndex.get(entry.getKey()));
+      output.writeInt(entry.getValue().length);
+      for (String[] sense : entry.getValue()) {
+        writeStrings(output, sense, stringIndex);
+      }
+    }
+
+    output.flush();
+  }
+
+  private static void addString(String string, Map<String, Integer> stringIndex,
+      List<String> strings) {
+    if (string != null && !stringIndex.containsKey(string)) {
+      stringIndex.put(string, strings.size());
+      strings.add(string);
+    }
+  }
+
+  private static void writeStrings(DataOutputStream output, String[] values,
+      Map<String, Integer> stringIndex) throws IOException {
+    output.writeInt(values.length);
+    for (String value : values) {
+      output.writeInt(value == null ? -1 : stringIndex.get(value));
+    }
+  }
+
+  /**
+   * Reads a compiled index from a file.
+   *
+   * @param file the index file
+   * @param fallback the dictionary for lookups which are not in the index, or null
+   *
+   * @return the dictionary
+   *
+   * @throws IOException if the index can not be read
+   */
+  public static CompiledDictionary read(File file, Dictionary fallback) throws IOException {
+    InputStream in = new FileInputStream(file);
+    try {
+      return new CompiledDictionary(in, fallback);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Compiles the words of a file, one word per line, with the WordNet
+   * dictionary in the directory specified by the WNSEARCHDIR property.
+   * The words are lower-cased, as the coreference component looks them up.
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2) {
+      System.err.println("Usage: CompiledDictionary words_file index_file");
+      System.exit(1);
+    }
+
+    List<String> words = new ArrayList<String>();
+    BufferedReader in = new BufferedReader(new FileReader(args[0]));
+    try {
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        line = line.trim();
+        if (line.length() > 0) {
+          words.add(line.toLowerCase());
+        }
+      }
+    }
+    finally {
+      in.close();
+    }
+
+    Dictionary dictionary = new JWNLDictionary(System.getProperty("WNSEARCHDIR"));
+
+    OutputStream out = new FileOutputStream(new File(args[1]));
+    try {
+      compile(dictionary, words, out);
+    }
+    finally {
+      out.close();
+    }
+  }
+}
@@ -17,6 +17,7 @@
 
 package opennlp.tools.coref.mention;
 
+import java.io.File;
 import java.io.IOException;
 
 import net.didion.jwnl.JWNLException;
@@ -26,16 +27,28 @@ import net.didion.jwnl.JWNLException;
  * */
 public class DictionaryFactory {
 
+  /** The number of results the default dictionary caches for each kind of lookup. */
+  private static final int CACHE_SIZE = 10000;
+
   private static Dictionary dictionary;
 
   /**
    * Returns the default implementation of the Dictionary interface.
+   * If the WNINDEX property specifies an index created by {@link CompiledDictionary}
+   * the dictionary is read from that index, otherwise the WordNet dictionary in the
+   * directory specified by the WNSEARCHDIR property is used through a {@link CachingDictionary}.
    * @return the default implementation of the Dictionary interface.
    */
-  public static Dictionary getDictionary() {
+  public static synchronized Dictionary getDictionary() {
     if (dictionary == null) {
       try {
-        dictionary = new JWNLDictionary(System.getProperty("WNSEARCHDIR"));
+        String index = System.getProperty("WNINDEX");
+        if (index != null) {
+          dictionary = CompiledDictionary.read(new File(index), null);
+        }
+        else {
+          dictionary = new CachingDictionary(new JWNLDictionary(System.getProperty("WNSEARCHDIR")), CACHE_SIZE);
+        }
       }
       catch(IOException e) {
         System.err.println(e);
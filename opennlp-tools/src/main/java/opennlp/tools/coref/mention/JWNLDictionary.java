@@ -47,6 +47,8 @@ import net.didion.jwnl.princeton.file.PrincetonRandomAccessDictionaryFile;
 
 /**
  * An implementation of the Dictionary interface using the JWNL library.
+ * JWNL reads the dictionary files through shared file handles, the lookups
+ * are therefore synchronized.
  */
 public class JWNLDictionary implements Dictionary {
 
@@ -78,7 +80,7 @@ public class JWNLDictionary implements Dictionary {
   }
 
   @SuppressWarnings("unchecked")
-  public String[] getLemmas(String word, String tag) {
+  public synchronized String[] getLemmas(String word, String tag) {
     try {
       POS pos;
       if (tag.startsWith("N") || tag.startsWith("n")) {
@@ -105,7 +107,7 @@ public class JWNLDictionary implements Dictionary {
     }
   }
 
-  public String getSenseKey(String lemma, String pos,int sense) {
+  public synchronized String getSenseKey(String lemma, String pos,int sense) {
     try {
       IndexWord iw = dict.getIndexWord(POS.NOUN,lemma);
       if (iw == null) {
@@ -120,7 +122,7 @@ public class JWNLDictionary implements Dictionary {
 
   }
 
-  public int getNumSenses(String lemma, String pos) {
+  public synchronized int getNumSenses(String lemma, String pos) {
     try {
       IndexWord iw = dict.getIndexWord(POS.NOUN,lemma);
       if (iw == null){
@@ -144,7 +146,7 @@ public class JWNLDictionary implements Dictionary {
     }
   }
 
-  public String[] getParentSenseKeys(String lemma, String pos, int sense) {
+  public synchronized String[] getParentSenseKeys(String lemma, String pos, int sense) {
     //System.err.println("JWNLDictionary.getParentSenseKeys: lemma="+lemma);
     try {
       IndexWord iw = dict.getIndexWord(POS.NOUN,lemma);
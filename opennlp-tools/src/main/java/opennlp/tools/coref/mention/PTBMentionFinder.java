@@ -40,7 +40,7 @@ public class PTBMentionFinder extends AbstractMentionFinder {
    * @param hf
    * @return the one and only existing instance
    */
-  public static PTBMentionFinder getInstance(HeadFinder hf) {
+  public static synchronized PTBMentionFinder getInstance(HeadFinder hf) {
     if (instance == null) {
       instance = new PTBMentionFinder(hf);
     }
@@ -52,7 +52,6 @@ public abstract class MaxentResolver extends AbstractResolver {
 
   private String modelName;
   private MaxentModel model;
-  private double[] candProbs;
   private int sameIndex;
   private ResolverMode mode;
   private List<Event> events;
@@ -72,7 +71,7 @@ public abstract class MaxentResolver extends AbstractResolver {
    */
   protected boolean useSameModelForNonRef;
 
-  private static TestSimilarityModel simModel = null;
+  private static volatile TestSimilarityModel simModel = null;
   
   /** The model for computing non-referential probabilities. */
   protected NonReferentialResolver nonReferentialResolver;
@@ -121,8 +120,6 @@ public abstract class MaxentResolver extends AbstractResolver {
     else {
       System.err.println("Unknown mode: " + this.mode);
     }
-    //add one for non-referent possibility
-    candProbs = new double[getNumEntities() + 1];
   }
 
   /**
@@ -156,6 +153,8 @@ public abstract class MaxentResolver extends AbstractResolver {
   public DiscourseEntity resolve(MentionContext ec, DiscourseModel dm) {
     DiscourseEntity de;
     int ei = 0;
+    //add one for non-referent possibility
+    double[] candProbs = new double[getNumEntities(dm) + 1];
     double nonReferentialProbability = nonReferentialResolver.getNonReferentialProbability(ec);
     if (debugOn) {
       System.err.println(this +".resolve: " + ec.toText() + " -> " +  "null "+nonReferentialProbability);
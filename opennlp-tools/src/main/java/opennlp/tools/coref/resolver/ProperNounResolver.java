@@ -38,24 +38,18 @@ import opennlp.tools.coref.mention.MentionContext;
  */
 public class ProperNounResolver extends MaxentResolver {
 
-  private static Map<String, Set<String>> acroMap;
+  private static volatile Map<String, Set<String>> acroMap;
   private static boolean acroMapLoaded = false;
 
   public ProperNounResolver(String projectName, ResolverMode m) throws IOException {
     super(projectName,"pnmodel", m, 500);
-    if (!acroMapLoaded) {
-      initAcronyms(projectName + "/acronyms");
-      acroMapLoaded = true;
-    }
+    loadAcronyms(projectName);
     showExclusions = false;
   }
 
   public ProperNounResolver(String projectName, ResolverMode m,NonReferentialResolver nonRefResolver) throws IOException {
     super(projectName,"pnmodel", m, 500,nonRefResolver);
-    if (!acroMapLoaded) {
-      initAcronyms(projectName + "/acronyms");
-      acroMapLoaded = true;
-    }
+    loadAcronyms(projectName);
     showExclusions = false;
   }
 
@@ -63,8 +57,15 @@ public class ProperNounResolver extends MaxentResolver {
     return (mention.getHeadTokenTag().startsWith("NNP") || mention.getHeadTokenTag().startsWith("CD"));
   }
 
-  private void initAcronyms(String name) {
-    acroMap = new HashMap<String, Set<String>>(15000);
+  private static synchronized void loadAcronyms(String projectName) {
+    if (!acroMapLoaded) {
+      initAcronyms(projectName + "/acronyms");
+      acroMapLoaded = true;
+    }
+  }
+
+  private static void initAcronyms(String name) {
+    Map<String, Set<String>> acronyms = new HashMap<String, Set<String>>(15000);
     try {
       BufferedReader str;
       str = new BufferedReader(new FileReader(name));
@@ -74,16 +75,16 @@ public class ProperNounResolver extends MaxentResolver {
         StringTokenizer st = new StringTokenizer(line, "\t");
         String acro = st.nextToken();
         String full = st.nextToken();
-        Set<String> exSet = acroMap.get(acro);
+        Set<String> exSet = acronyms.get(acro);
         if (exSet == null) {
           exSet = new HashSet<String>();
-          acroMap.put(acro, exSet);
+          acronyms.put(acro, exSet);
         }
         exSet.add(full);
-        exSet = acroMap.get(full);
+        exSet = acronyms.get(full);
         if (exSet == null) {
           exSet = new HashSet<String>();
-          acroMap.put(full, exSet);
+          acronyms.put(full, exSet);
         }
         exSet.add(acro);
       }
@@ -91,6 +92,8 @@ public class ProperNounResolver extends MaxentResolver {
     catch (IOException e) {
       System.err.println("ProperNounResolver.initAcronyms: Acronym Database not found: " + e);
     }
+    // published only when complete, resolvers in other threads read it without locking
+    acroMap = acronyms;
   }
 
   private boolean isAcronym(String ecStrip, String xecStrip) {
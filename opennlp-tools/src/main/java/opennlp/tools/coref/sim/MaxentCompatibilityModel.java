@@ -21,14 +21,15 @@ import java.io.IOException;
 
 /**
  * Model of mention compatibiltiy using a maxent model.
+ * The models are only read, an instance can be used by multiple threads.
  */
 public class MaxentCompatibilityModel {
 
   private final double minGenderProb = 0.66;
   private final double minNumberProb = 0.66;
 
-  private static TestGenderModel genModel;
-  private static TestNumberModel numModel;
+  private final TestGenderModel genModel;
+  private final TestNumberModel numModel;
 
   private boolean debugOn = false;
 
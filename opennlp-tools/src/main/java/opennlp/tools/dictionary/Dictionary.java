@@ -168,6 +168,15 @@ public class Dictionary implements Iterable<StringList> {
       entrySet.remove(new StringListWrapper(tokens));
   }
 
+  /**
+   * Indicates if the entries of this dictionary are compared case sensitive.
+   *
+   * @return true if the dictionary is case sensitive
+   */
+  public boolean isCaseSensitive() {
+    return isCaseSensitive;
+  }
+
   /**
    * Retrieves an Iterator over all tokens.
    *
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import opennlp.tools.util.Span;
+import opennlp.tools.util.StringList;
+
+/**
+ * Finds the entries of a {@link Dictionary} in a token sequence.
+ * <p>
+ * The entries are compiled into an Aho-Corasick automaton over tokens: a trie of
+ * the entries where every node has a failure link to the node of its longest proper
+ * suffix which is also in the trie. All occurrences of all entries are found in one
+ * pass over the tokens, the tokens are only hashed once and nothing is allocated
+ * per token.
+ * <p>
+ * The matcher is a snapshot of the dictionary, later changes to the dictionary
+ * are not visible. It is immutable and can be used by multiple threads.
+ */
+public class DictionaryMatcher {
+
+  private static final int ROOT = 0;
+
+  private final boolean caseSensitive;
+
+  // token to token id hash table, open addressing with linear probing
+  private String[] tokens;
+  private int[] tokenIds;
+  private int tokenMask;
+  private int numTokens;
+
+  // (node, token id) to child node hash table, open addressing with linear probing
+  private long[] transitionKeys;
+  private int[] transitionTargets;
+  private int transitionMask;
+  private int numTransitions;
+
+  // the nodes of the trie
+  private int numNodes;
+  private int[] depth;
+  private int[] fail;
+  private int[] output;
+  private boolean[] terminal;
+
+  /**
+   * Compiles the entries of the dictionary, the case sensitivity of the
+   * dictionary is preserved.
+   *
+   * @param dictionary the dictionary to match
+   */
+  public DictionaryMatcher(Dictionary dictionary) {
+    caseSensitive = dictionary.isCaseSensitive();
+
+    tokens = new String[16];
+    tokenIds = new int[16];
+    tokenMask = 15;
+
+    transitionKeys = new long[16];
+    Arrays.fill(transitionKeys, -1);
+    transitionTargets = new int[16];
+    transitionMask = 15;
+
+    depth = new int[16];
+    terminal = new boolean[16];
+
+    // the children of each node are only needed to build the failure links
+    int[] firstChild = new int[16];
+    int[] nextSibling = new int[16];
+    int[] edgeToken = new int[16];
+
+    numNodes = 1;
+    firstChild[ROOT] = -1;
+
+    for (StringList entry : dictionary) {
+      if (entry.size() == 0)
+        continue;
+
+      int node = ROOT;
+
+      for (int i = 0; i < entry.size(); i++) {
+        int tokenId = addToken(entry.getToken(i));
+        int child = transition(node, tokenId);
+
+        if (child == -1) {
+          child = numNodes++;
+
+          if (child == depth.length) {
+            int capacity = depth.length * 2;
+            depth = copyOf(depth, capacity);
+            terminal = copyOf(terminal, capacity);
+            firstChild = copyOf(firstChild, capacity);
+            nextSibling = copyOf(nextSibling, capacity);
+            edgeToken = copyOf(edgeToken, capacity);
+          }
+
+          depth[child] = depth[node] + 1;
+          firstChild[child] = -1;
+          nextSibling[child] = firstChild[node];
+          firstChild[node] = child;
+          edgeToken[child] = tokenId;
+
+          addTransition(node, tokenId, child);
+        }
+
+        node = child;
+      }
+
+      terminal[node] = true;
+    }
+
+    // compute the failure and output links in breadth first order,
+    // the links of a node only depend on nodes with a smaller depth
+    fail = new int[numNodes];
+    output = new int[numNodes];
+    output[ROOT] = -1;
+
+    int[] queue = new int[numNodes];
+    int head = 0;
+    int tail = 0;
+
+    for (int child = firstChild[ROOT]; child != -1; child = nextSibling[child]) {
+      fail[child] = ROOT;
+      output[child] = -1;
+      queue[tail++] = child;
+    }
+
+    while (head < tail) {
+      int node = queue[head++];
+
+      for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+        int suffix = next(fail[node], edgeToken[child]);
+
+        fail[child] = suffix;
+        output[child] = terminal[suffix] ? suffix : output[suffix];
+        queue[tail++] = child;
+      }
+    }
+  }
+
+  private static int[] copyOf(int[] array, int length) {
+    int[] copy = new int[length];
+    System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+    return copy;
+  }
+
+  private static boolean[] copyOf(boolean[] array, int length) {
+    boolean[] copy = new boolean[length];
+    System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+    return copy;
+  }
+
+  private int hash(String token) {
+    int h;
+
+    if (caseSensitive) {
+      h = token.hashCode();
+    }
+    else {
+      // consistent with String.equalsIgnoreCase
+      h = 0;
+      for (int i = 0; i < token.length(); i++) {
+        h = 31 * h + Character.toLowerCase(Character.toUpperCase(token.charAt(i)));
+      }
+    }
+
+    return h ^ (h >>> 16);
+  }
+
+  private boolean tokenEquals(String a, String b) {
+    return caseSensitive ? a.equals(b) : a.equalsIgnoreCase(b);
+  }
+
+  /**
+   * Retrieves the id of the token.
+   *
+   * @return the id or -1 if no entry contains the token
+   */
+  private int tokenId(String token) {
+    for (int slot = hash(token) & tokenMask; tokens[slot] != null; slot = (slot + 1) & tokenMask) {
+      if (tokenEquals(tokens[slot], token)) {
+        return tokenIds[slot];
+      }
+    }
+
+    return -1;
+  }
+
+  private int addToken(String token) {
+    int id = tokenId(token);
+
+    if (id == -1) {
+      if ((numTokens + 1) * 2 > tokens.length) {
+        String[] oldTokens = tokens;
+        int[] oldIds = tokenIds;
+
+        tokens = new String[oldTokens.length * 2];
+        tokenIds = new int[oldTokens.length * 2];
+        tokenMask = tokens.length - 1;
+
+        for (int i = 0; i < oldTokens.length; i++) {
+          if (oldTokens[i] != null) {
+            putToken(oldTokens[i], oldIds[i]);
+          }
+        }
+      }
+
+      id = numTokens++;
+      putToken(token, id);
+    }
+
+    return id;
+  }
+
+  private void putToken(String token, int id) {
+    int slot = hash(token) & tokenMask;
+    while (tokens[slot] != null) {
+      slot = (slot + 1) & tokenMask;
+    }
+    tokens[slot] = token;
+    tokenIds[slot] = id;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Retrieves the child of the node for the token.
+   *
+   * @return the child node or -1 if there is none
+   */
+  private int transition(int node, int tokenId) {
+    long key = ((long) node << 32) | tokenId;
+
+    for (int slot = hash(key) & transitionMask; transitionKeys[slot] != -1;
+        slot = (slot + 1) & transitionMask) {
+      if (transitionKeys[slot] == key) {
+        return transitionTargets[slot];
+      }
+    }
+
+    return -1;
+  }
+
+  private void addTransition(int node, int tokenId, int child) {
+    if ((numTransitions + 1) * 2 > transitionKeys.length) {
+      long[] oldKeys = transitionKeys;
+      int[] oldTargets = transitionTargets;
+
+      transitionKeys = new long[oldKeys.length * 2];
+      Arrays.fill(transitionKeys, -1);
+      transitionTargets = new int[oldKeys.length * 2];
+      transitionMask = transitionKeys.length - 1;
+
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != -1) {
+          putTransition(oldKeys[i], oldTargets[i]);
+        }
+      }
+    }
+
+    numTransitions++;
+    putTransition(((long) node << 32) | tokenId, child);
+  }
+
+  private void putTransition(long key, int child) {
+    int slot = hash(key) & transitionMask;
+    while (transitionKeys[slot] != -1) {
+      slot = (slot + 1) & transitionMask;
+    }
+    transitionKeys[slot] = key;
+    transitionTargets[slot] = child;
+  }
+
+  /**
+   * Follows the failure links from the node until it can be extended with the token.
+   *
+   * @return the longest node which is a suffix of the node extended by the token,
+   * or the root if there is none
+   */
+  private int next(int node, int tokenId) {
+    while (true) {
+      int child = transition(node, tokenId);
+
+      if (child != -1)
+        return child;
+
+      if (node == ROOT)
+        return ROOT;
+
+      node = fail[node];
+    }
+  }
+
+  /**
+   * Finds the entries in the token sequence.
+   *
+   * @param tokenStrings the tokens to search
+   * @param allMatches if true every occurrence of every entry is returned,
+   *        including entries which overlap or are contained in other entries,
+   *        otherwise only the longest entry starting at a token is returned
+   *
+   * @return the spans of the entries in their natural order, see {@link Span#compareTo(Span)}
+   */
+  public Span[] find(String[] tokenStrings, boolean allMatches) {
+    List<Span> spans = new ArrayList<Span>();
+
+    // the end of the longest entry starting at each token, 0 if none
+    int[] longestEnd = allMatches ? null : new int[tokenStrings.length];
+
+    int node = ROOT;
+
+    for (int i = 0; i < tokenStrings.length; i++) {
+      int tokenId = tokenId(tokenStrings[i]);
+
+      if (tokenId == -1) {
+        // no entry contains the token, no match can span it
+        node = ROOT;
+        continue;
+      }
+
+      node = next(node, tokenId);
+
+      for (int match = terminal[node] ? node : output[node]; match != -1; match = output[match]) {
+        int start = i + 1 - depth[match];
+
+        if (allMatches) {
+          spans.add(new Span(start, i + 1));
+        }
+        else {
+          // the matches are found in the order of their end, a later match is longer
+          longestEnd[start] = i + 1;
+        }
+      }
+    }
+
+    if (allMatches) {
+      Collections.sort(spans);
+    }
+    else {
+      for (int start = 0; start < longestEnd.length; start++) {
+        if (longestEnd[start] != 0) {
+          spans.add(new Span(start, longestEnd[start]));
+        }
+      }
+    }
+
+    return spans.toArray(new Span[spans.size()]);
+  }
+}
@@ -17,6 +17,7 @@
 
 package opennlp.tools.doccat;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
@@ -47,6 +48,10 @@ public class DoccatModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public DoccatModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
+
   @Override
   protected void validateArtifactMap() throws InvalidFormatException {
     super.validateArtifactMap();
@@ -56,6 +61,15 @@ public class DoccatModel extends BaseModel {
     }
   }
 
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(DOCCAT_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Doccat model is incomplete!");
+    }
+  }
+
   public AbstractModel getChunkerModel() {
     return (AbstractModel) artifactMap.get(DOCCAT_MODEL_ENTRY_NAME);
   }
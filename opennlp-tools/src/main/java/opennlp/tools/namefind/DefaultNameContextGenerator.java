@@ -20,6 +20,9 @@ package opennlp.tools.namefind;
 import java.util.ArrayList;
 import java.util.List;
 
+import opennlp.model.MaxentModel;
+import opennlp.tools.util.ContextIdCache;
+import opennlp.tools.util.IndexedBeamSearchContextGenerator;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.BigramNameFeatureGenerator;
 import opennlp.tools.util.featuregen.CachedFeatureGenerator;
@@ -34,10 +37,17 @@ import opennlp.tools.util.featuregen.WindowFeatureGenerator;
  * Class for determining contextual features for a tag/chunk style
  * named-entity recognizer.
  */
-public class DefaultNameContextGenerator implements NameContextGenerator {
+public class DefaultNameContextGenerator implements NameContextGenerator,
+    IndexedBeamSearchContextGenerator<String> {
 
   private AdaptiveFeatureGenerator featureGenerators[];
 
+  /**
+   * The id caches for the {@link CachedFeatureGenerator}s, the array is parallel
+   * to the feature generators array and contains null for all other generators.
+   */
+  private ContextIdCache idCaches[];
+
   @Deprecated
   private static AdaptiveFeatureGenerator windowFeatures = new CachedFeatureGenerator(
       new AdaptiveFeatureGenerator[]{
@@ -94,12 +104,16 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
     for (int i = 0; i < featureGenerators.length; i++) {
       featureGenerators[i].updateAdaptiveData(tokens, outcomes);
     }
+
+    idCaches = null;
   }
 
   public void clearAdaptiveData() {
     for (int i = 0; i < featureGenerators.length; i++) {
       featureGenerators[i].clearAdaptiveData();
     }
+
+    idCaches = null;
   }
 
   /**
@@ -136,4 +150,81 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
 
     return features.toArray(new String[features.size()]);
   }
+
+  /**
+   * Return the context for finding names at the specified index as predicate ids.
+   * The features of the {@link CachedFeatureGenerator}s do not depend on the
+   * previous decisions, their ids are only looked up once per token.
+   * The ids are in the same order as the features returned by
+   * {@link #getContext(int, String[], String[], Object[])}. A subclass which
+   * overrides that method gets the ids of its contexts.
+   */
+  public int[] getContextIds(int index, String[] tokens, String[] preds,
+      Object[] additionalContext, MaxentModel model) {
+
+    if (getClass() != DefaultNameContextGenerator.class) {
+      return ContextIdCache.toIds(model, getContext(index, tokens, preds, additionalContext));
+    }
+
+    if (idCaches == null || idCaches.length != featureGenerators.length) {
+      idCaches = new ContextIdCache[featureGenerators.length];
+
+      for (int i = 0; i < featureGenerators.length; i++) {
+        if (featureGenerators[i] instanceof CachedFeatureGenerator) {
+          idCaches[i] = new ContextIdCache();
+        }
+      }
+    }
+
+    int[][] generatorIds = new int[featureGenerators.length][];
+    int numIds = 4;
+
+    List<String> features = new ArrayList<String>();
+
+    for (int i = 0; i < featureGenerators.length; i++) {
+      if (idCaches[i] != null) {
+        generatorIds[i] = idCaches[i].get(model, tokens, index);
+
+        if (generatorIds[i] == null) {
+          featureGenerators[i].createFeatures(features, tokens, index, preds);
+          generatorIds[i] = ContextIdCache.toIds(model, features);
+          idCaches[i].put(index, generatorIds[i]);
+          features.clear();
+        }
+      }
+      else {
+        featureGenerators[i].createFeatures(features, tokens, index, preds);
+        generatorIds[i] = ContextIdCache.toIds(model, features);
+        features.clear();
+      }
+
+      numIds += generatorIds[i].length;
+    }
+
+    int[] ids = new int[numIds];
+    int offset = 0;
+
+    for (int i = 0; i < generatorIds.length; i++) {
+      System.arraycopy(generatorIds[i], 0, ids, offset, generatorIds[i].length);
+      offset += generatorIds[i].length;
+    }
+
+    //previous outcome features
+    String po = NameFinderME.OTHER;
+    String ppo = NameFinderME.OTHER;
+
+    if (index > 1){
+      ppo = preds[index-2];
+    }
+
+    if (index > 0) {
+      po = preds[index-1];
+    }
+    ids[offset++] = model.getPredicateIndex("po=" + po);
+    ids[offset++] = model.getPredicateIndex("pow=" + po + "," + tokens[index]);
+    ids[offset++] = model.getPredicateIndex("powf=" + po + "," + FeatureGeneratorUtil.tokenFeature(tokens[index]));
+    ids[offset] = model.getPredicateIndex("ppo=" + ppo);
+
+    return ids;
+  }
 }
\ No newline at end of file
@@ -18,72 +18,48 @@
 
 package opennlp.tools.namefind;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import opennlp.tools.dictionary.Dictionary;
-import opennlp.tools.dictionary.Index;
+import opennlp.tools.dictionary.DictionaryMatcher;
 import opennlp.tools.util.Span;
-import opennlp.tools.util.StringList;
 
 /**
  * This is a dictionary based name finder, it scans text
  * for names inside a dictionary.
+ * <p>
+ * The dictionary is compiled into a {@link DictionaryMatcher} when the name finder
+ * is created, later changes to the dictionary are not visible to the name finder.
  */
 public class DictionaryNameFinder implements TokenNameFinder {
 
-  private Dictionary mDictionary;
+  private final DictionaryMatcher matcher;
 
-  private Index mMetaDictionary;
+  private final boolean allMatches;
 
   /**
    * Initializes the current instance.
    *
    * @param dictionary
+   * @param allMatches if true all occurrences of all entries are found, including
+   *        overlapping and nested entries, otherwise only the longest entry which
+   *        starts at a token is found
+   */
+  public DictionaryNameFinder(Dictionary dictionary, boolean allMatches) {
+    matcher = new DictionaryMatcher(dictionary);
+    this.allMatches = allMatches;
+  }
+
+  /**
+   * Initializes the current instance, only the longest entry which starts
+   * at a token is found.
+   *
+   * @param dictionary
    */
   public DictionaryNameFinder(Dictionary dictionary) {
-    mDictionary = dictionary;
-    mMetaDictionary = new Index(dictionary.iterator());
+    this(dictionary, false);
   }
 
   public Span[] find(String[] tokenStrings) {
-    List<Span> foundNames = new LinkedList<Span>();
-
-    for (int startToken = 0; startToken < tokenStrings.length; startToken++) {
-
-      Span foundName = null;
-
-      String  tokens[] = new String[]{};
-
-      for (int endToken = startToken; endToken < tokenStrings.length; endToken++) {
-
-        String token = tokenStrings[endToken];
-
-        // TODO: improve performance here
-        String newTokens[] = new String[tokens.length + 1];
-        System.arraycopy(tokens, 0, newTokens, 0, tokens.length);
-        newTokens[newTokens.length - 1] = token;
-        tokens = newTokens;
-
-        if (mMetaDictionary.contains(token)) {
-
-          StringList tokenList = new StringList(tokens);
-
-          if (mDictionary.contains(tokenList)) {
-            foundName = new Span(startToken, endToken + 1);
-          }
-        }
-        else {
-          break;
-        }
-      }
-
-      if (foundName != null) {
-        foundNames.add(foundName);
-      }
-    }
-
-    return foundNames.toArray(new Span[foundNames.size()]);
+    return matcher.find(tokenStrings, allMatches);
   }
   
   public void clearAdaptiveData() {
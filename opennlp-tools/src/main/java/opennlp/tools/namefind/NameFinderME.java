@@ -40,9 +40,11 @@ import opennlp.model.TwoPassDataIndexer;
 import opennlp.tools.util.BeamSearch;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceDecoder;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.ViterbiDecoder;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.AdditionalContextFeatureGenerator;
 import opennlp.tools.util.featuregen.BigramNameFeatureGenerator;
@@ -55,6 +57,7 @@ import opennlp.tools.util.featuregen.SentenceFeatureGenerator;
 import opennlp.tools.util.featuregen.TokenClassFeatureGenerator;
 import opennlp.tools.util.featuregen.TokenFeatureGenerator;
 import opennlp.tools.util.featuregen.WindowFeatureGenerator;
+import opennlp.tools.util.model.BaseModel;
 import opennlp.tools.util.model.ModelUtil;
 
 /**
@@ -75,7 +78,7 @@ public class NameFinderME implements TokenNameFinder {
   protected MaxentModel model;
   protected NameContextGenerator contextGenerator;
   private Sequence bestSequence;
-  private BeamSearch<String> beam;
+  private SequenceDecoder<String> beam;
 
   private AdditionalContextFeatureGenerator additionalContextFeatureGenerator =
       new AdditionalContextFeatureGenerator();
@@ -114,8 +117,11 @@ public class NameFinderME implements TokenNameFinder {
     if (sequenceValidator == null)
       sequenceValidator = new NameFinderSequenceValidator();
     
-    beam = new BeamSearch<String>(beamSize, contextGenerator, this.model,
-        sequenceValidator, beamSize);
+    if (model.useViterbiDecoder())
+      beam = new ViterbiDecoder<String>(contextGenerator, this.model, sequenceValidator);
+    else
+      beam = new BeamSearch<String>(beamSize, contextGenerator, this.model,
+          sequenceValidator, beamSize);
   }
 
   public NameFinderME(TokenNameFinderModel model, AdaptiveFeatureGenerator generator, int beamSize) {
@@ -344,6 +350,10 @@ public class NameFinderME implements TokenNameFinder {
      
      Map<String, String> manifestInfoEntries = new HashMap<String, String>();
      
+     String decoder = trainParams.getSettings().get(TrainingParameters.SEQUENCE_DECODER_PARAM);
+     if (decoder != null)
+       manifestInfoEntries.put(BaseModel.SEQUENCE_DECODER_PROPERTY, decoder);
+     
      AdaptiveFeatureGenerator featureGenerator;
      
      if (generator != null)
@@ -362,7 +372,17 @@ public class NameFinderME implements TokenNameFinder {
      else {
        NameSampleSequenceStream ss = new NameSampleSequenceStream(samples, featureGenerator);
 
-       nameFinderModel = TrainUtil.train(ss, trainParams.getSettings(), manifestInfoEntries);
+       // the adaptive features of a sequence depend on the sequences which were
+       // decoded before it, so the sequences must be decoded one after another
+       Map<String, String> settings = new HashMap<String, String>(trainParams.getSettings());
+       String threads = settings.put(TrainingParameters.THREADS_PARAM, "1");
+
+       if (threads != null && !"1".equals(threads)) {
+         System.err.println("Warning: The name finder sequence training ignores the " +
+             TrainingParameters.THREADS_PARAM + " parameter and uses one thread.");
+       }
+
+       nameFinderModel = TrainUtil.train(ss, settings, manifestInfoEntries);
      }
      
      return new TokenNameFinderModel(languageCode, nameFinderModel,
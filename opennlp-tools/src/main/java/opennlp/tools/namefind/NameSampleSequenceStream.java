@@ -67,7 +67,11 @@ public class NameSampleSequenceStream implements SequenceStream {
     String[] tags = NameFinderEventStream.generateOutcomes(tagger.find(sentence), null, sentence.length);
     Event[] events = new Event[sentence.length];
     
-    NameFinderEventStream.generateEvents(sentence,tags,pcg).toArray(events);
+    // the context generator is shared by all calls, which can be concurrent,
+    // its adaptive data then depends on the order of the calls
+    synchronized (pcg) {
+      NameFinderEventStream.generateEvents(sentence,tags,pcg).toArray(events);
+    }
     
     return events;
   }
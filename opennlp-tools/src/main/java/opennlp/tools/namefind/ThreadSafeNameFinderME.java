@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.namefind;
+
+import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.Span;
+
+/**
+ * A thread safe name finder which can be shared by all threads.
+ * <p>
+ * The model and the sequence validator are shared, each thread finds names with its
+ * own {@link NameFinderME}, which holds the feature generators and the beam search
+ * state of that thread. The feature generators cannot be shared because they keep
+ * the adaptive data and the feature cache of the thread. The name finder of a thread is created on its first call.
+ * The returned spans contain the mean probability of the outcomes of each name.
+ * <p>
+ * The adaptive data belongs to the calling thread, all sentences of a document
+ * must be processed by the same thread and {@link #clearAdaptiveData()} must be
+ * called by that thread at the end of the document.
+ *
+ * @see NameFinderME
+ */
+public class ThreadSafeNameFinderME implements TokenNameFinder {
+
+  private final ThreadLocal<NameFinderME> nameFinder;
+
+  /**
+   * Initializes the name finder with the specified model and beam size.
+   *
+   * @param model the model which is shared by the threads
+   * @param beamSize the size of the beam
+   */
+  public ThreadSafeNameFinderME(final TokenNameFinderModel model, final int beamSize) {
+    final SequenceValidator<String> sequenceValidator = new NameFinderSequenceValidator();
+
+    nameFinder = new ThreadLocal<NameFinderME>() {
+      @Override
+      protected NameFinderME initialValue() {
+        return new NameFinderME(model, null, beamSize, sequenceValidator);
+      }
+    };
+  }
+
+  /**
+   * Initializes the name finder with the specified model and the default beam size.
+   *
+   * @param model the model which is shared by the threads
+   */
+  public ThreadSafeNameFinderME(TokenNameFinderModel model) {
+    this(model, NameFinderME.DEFAULT_BEAM_SIZE);
+  }
+
+  public Span[] find(String[] tokens) {
+    return find(tokens, null);
+  }
+
+  /**
+   * Generates name tags for the given sequence, typically a sentence,
+   * returning token spans for any identified names.
+   *
+   * @param tokens an array of the tokens or words of the sequence,
+   *     typically a sentence.
+   * @param additionalContext features which are based on context outside
+   *     of the sentence but which should also be used, or null.
+   *
+   * @return an array of spans with their probabilities for each of the names identified.
+   */
+  public Span[] find(String[] tokens, String[][] additionalContext) {
+    NameFinderME finder = nameFinder.get();
+
+    Span[] names = additionalContext != null ? finder.find(tokens, additionalContext)
+        : finder.find(tokens);
+    double[] probs = finder.probs(names);
+
+    for (int ni = 0; ni < names.length; ni++) {
+      names[ni] = new Span(names[ni].getStart(), names[ni].getEnd(), names[ni].getType(), probs[ni]);
+    }
+
+    return names;
+  }
+
+  /**
+   * Forgets the adaptive data which the calling thread collected during previous
+   * calls to one of the find methods.
+   */
+  public void clearAdaptiveData() {
+    nameFinder.get().clearAdaptiveData();
+  }
+}
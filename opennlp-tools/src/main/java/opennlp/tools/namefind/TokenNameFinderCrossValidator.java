@@ -19,12 +19,14 @@ package opennlp.tools.namefind;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldExecutor;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.model.ModelUtil;
 
@@ -146,7 +148,8 @@ public class TokenNameFinderCrossValidator {
   }
 
   /**
-   * Starts the evaluation.
+   * Starts the evaluation. The folds are evaluated in parallel if the
+   * {@link TrainingParameters#FOLD_THREADS_PARAM} parameter is set.
    * 
    * @param samples
    *          the data to train and test
@@ -157,23 +160,34 @@ public class TokenNameFinderCrossValidator {
   public void evaluate(ObjectStream<NameSample> samples, int nFolds)
       throws IOException {
     CrossValidationPartitioner<NameSample> partitioner = new CrossValidationPartitioner<NameSample>(
-        samples, nFolds);
+        samples, nFolds, true);
 
-    while (partitioner.hasNext()) {
+    FoldExecutor foldExecutor = FoldExecutor.create(params);
 
-      CrossValidationPartitioner.TrainingSampleStream<NameSample> trainingSampleStream = partitioner
-          .next();
+    final TokenNameFinderEvaluationMonitor[] foldListeners =
+        foldExecutor.synchronizeMonitors(TokenNameFinderEvaluationMonitor.class, listeners);
 
-      TokenNameFinderModel model  = opennlp.tools.namefind.NameFinderME.train(languageCode, type,
-            trainingSampleStream, params, featureGeneratorBytes, resources);
+    List<FMeasure> results = foldExecutor.evaluate(partitioner,
+        new FoldExecutor.Fold<NameSample, FMeasure>() {
+      public FMeasure evaluate(
+          CrossValidationPartitioner.TrainingSampleStream<NameSample> trainingSampleStream)
+          throws IOException {
 
-      // do testing
-      TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
-          new NameFinderME(model), listeners);
+        TokenNameFinderModel model  = opennlp.tools.namefind.NameFinderME.train(languageCode, type,
+              trainingSampleStream, params, featureGeneratorBytes, resources);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+        // do testing
+        TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
+            new NameFinderME(model), foldListeners);
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+        evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+
+        return evaluator.getFMeasure();
+      }
+    });
+
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
 
@@ -19,6 +19,7 @@
 package opennlp.tools.namefind;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -107,6 +108,10 @@ public class TokenNameFinderModel extends BaseModel {
   public TokenNameFinderModel(InputStream in) throws IOException, InvalidFormatException {
     super(COMPONENT_NAME, in);
   }
+
+  public TokenNameFinderModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
   
   /**
    * Retrieves the {@link TokenNameFinder} model.
@@ -250,4 +255,13 @@ public class TokenNameFinderModel extends BaseModel {
       throw new InvalidFormatException("Token Name Finder model is incomplete!");
     }
   }
+
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(MAXENT_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Token Name Finder model is incomplete!");
+    }
+  }
 }
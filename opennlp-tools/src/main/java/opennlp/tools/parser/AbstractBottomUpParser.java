@@ -21,8 +21,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import opennlp.model.AbstractModel;
+import opennlp.model.TrainUtil;
 import opennlp.tools.chunker.Chunker;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ngram.NGramModel;
@@ -31,6 +38,7 @@ import opennlp.tools.postag.POSTagger;
 import opennlp.tools.util.Heap;
 import opennlp.tools.util.ListHeap;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.StringList;
@@ -45,6 +53,17 @@ import opennlp.tools.util.TrainingParameters;
  * with their child node reference.  {@link #setParents setParents} can be used to make the parents consistent
  * with a particular parse, but subsequent calls to <code>setParents</code> can invalidate the results of earlier
  * calls.<br>
+ * <p>
+ * If an executor is set, the derivations of a stage after tagging and chunking are
+ * advanced concurrently. Implementations of {@link #advanceParses(Parse, double)}
+ * must then be thread safe; the results are combined in the order of the
+ * derivations, so the returned parses are the same as without an executor.
+ * <p>
+ * By default every derivation in the beam is advanced (exact mode). The search can be
+ * pruned with {@link #setBoundPruning(boolean)} and {@link #setBeamThreshold(double)},
+ * and limited with {@link #setMaxDerivations(int)} and {@link #setTimeBudget(long)}.
+ * The number of derivations which were not advanced is reported by
+ * {@link #getSkippedDerivations()}.
  */
 public abstract class AbstractBottomUpParser implements Parser {
 
@@ -172,6 +191,39 @@ public abstract class AbstractBottomUpParser implements Parser {
    */
   protected boolean debugOn = false;
 
+  /**
+   * The executor which advances the derivations of a stage, or null
+   * if they are advanced by the calling thread.
+   */
+  private ExecutorService executor;
+
+  /**
+   * Specifies whether derivations which cannot result in a better parse than the
+   * best complete parse are not advanced.
+   */
+  private boolean boundPruning;
+
+  /**
+   * The maximum difference in log probability between a derivation and the best
+   * derivation of its stage.
+   */
+  private double beamThreshold = Double.POSITIVE_INFINITY;
+
+  /**
+   * The maximum number of derivations advanced for one sentence.
+   */
+  private int maxDerivations = Integer.MAX_VALUE;
+
+  /**
+   * The maximum time in milliseconds spent to parse one sentence, or zero.
+   */
+  private long timeBudget;
+
+  /**
+   * The number of derivations which were not advanced during the last parse.
+   */
+  private int skippedDerivations;
+
   public AbstractBottomUpParser(POSTagger tagger, Chunker chunker, HeadRules headRules, int beamSize, double advancePercentage) {
     this.tagger = tagger;
     this.chunker = chunker;
@@ -195,6 +247,83 @@ public abstract class AbstractBottomUpParser implements Parser {
     this.reportFailedParse = errorReporting;
   }
 
+  /**
+   * Specifies an executor which advances the derivations of a parse concurrently.
+   * The executor can be shared with other parsers and is not shut down by the parser.
+   * <p>
+   * The parser instance itself must still only be used by one thread at a time.
+   *
+   * @param executor the executor, or null to advance all derivations in the calling thread
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Specifies whether derivations whose probability is already lower than the
+   * probability of the best complete parse are not advanced. Advancing a derivation
+   * never increases its probability, so such a derivation cannot result in a better
+   * parse. Once the best derivation of a stage is lower, the parse is finished early.
+   * <p>
+   * The bound is only used if a single parse is requested.
+   *
+   * @param boundPruning true to enable the bound-based pruning, false by default
+   */
+  public void setBoundPruning(boolean boundPruning) {
+    this.boundPruning = boundPruning;
+  }
+
+  /**
+   * Specifies the beam width of each stage relative to its best derivation. Derivations
+   * whose log probability is lower than the log probability of the best derivation
+   * of the stage minus the threshold are not advanced.
+   *
+   * @param beamThreshold the threshold in the log domain, infinite by default
+   */
+  public void setBeamThreshold(double beamThreshold) {
+    if (!(beamThreshold >= 0))
+      throw new IllegalArgumentException("beamThreshold must not be negative: " + beamThreshold);
+
+    this.beamThreshold = beamThreshold;
+  }
+
+  /**
+   * Limits the number of derivations advanced for one sentence. If the limit is reached
+   * the best complete parse found so far is returned.
+   *
+   * @param maxDerivations the maximum number of derivations, unlimited by default
+   */
+  public void setMaxDerivations(int maxDerivations) {
+    if (maxDerivations < 1)
+      throw new IllegalArgumentException("maxDerivations must be at least 1: " + maxDerivations);
+
+    this.maxDerivations = maxDerivations;
+  }
+
+  /**
+   * Limits the time spent to parse one sentence. If the time is exceeded
+   * the best complete parse found so far is returned. If an executor is set, the time is
+   * checked before the derivations of a stage are advanced concurrently.
+   *
+   * @param milliseconds the maximum time, or zero for no limit which is the default
+   */
+  public void setTimeBudget(long milliseconds) {
+    if (milliseconds < 0)
+      throw new IllegalArgumentException("milliseconds must not be negative: " + milliseconds);
+
+    this.timeBudget = milliseconds;
+  }
+
+  /**
+   * Retrieves the number of derivations which were pruned or not advanced
+   * because the budget was exhausted during the last parse.
+   *
+   * @return the number of skipped derivations
+   */
+  public int getSkippedDerivations() {
+    return skippedDerivations;
+  }
+
   /**
    * Assigns parent references for the specified parse so that they
    * are consistent with the children references.
@@ -273,28 +402,73 @@ public abstract class AbstractBottomUpParser implements Parser {
     Parse guess = null;
     double minComplete = 2;
     double bestComplete = -100000; //approximating -infinity/0 in ln domain
-    while (odh.size() > 0 && (completeParses.size() < M || (odh.first()).getProb() < minComplete) && derivationStage < maxDerivationLength) {
-      ndh = new ListHeap<Parse>(K);
-
-      int derivationRank = 0;
-      for (Iterator<Parse> pi = odh.iterator(); pi.hasNext() && derivationRank < K; derivationRank++) { // forearch derivation
-        Parse tp = pi.next();
-        //TODO: Need to look at this for K-best parsing cases
-        /*
-         if (tp.getProb() < bestComplete) { //this parse and the ones which follow will never win, stop advancing.
-         break;
-         }
-         */
+    skippedDerivations = 0;
+    int numAdvanced = 0;
+    long deadline = timeBudget > 0 ? System.nanoTime() + timeBudget * 1000000L : 0;
+    boolean budgetExhausted = false;
+    while (!budgetExhausted && odh.size() > 0 && (completeParses.size() < M || (odh.first()).getProb() < minComplete) && derivationStage < maxDerivationLength) {
+      ndh.clear();
+
+      List<Parse> derivations = new ArrayList<Parse>(K);
+      for (Iterator<Parse> pi = odh.iterator(); pi.hasNext() && derivations.size() < K;) {
+        derivations.add(pi.next());
+      }
+
+      double stageBest = odh.first().getProb();
+      if (boundPruning && numParses == 1 && stageBest < bestComplete) {
+        // none of the derivations can result in a better parse
+        skippedDerivations += derivations.size();
+        break;
+      }
+
+      Parse[][] advanced = null;
+      if (executor != null && derivationStage > 1 && !debugOn
+          && numAdvanced < maxDerivations && (deadline == 0 || System.nanoTime() <= deadline)) {
+        // the budget is applied before the stage is advanced, all advanced derivations are used
+        int stageEnd = 0;
+        for (int remaining = maxDerivations - numAdvanced; stageEnd < derivations.size() && remaining > 0; stageEnd++) {
+          if (!isPruned(derivations.get(stageEnd), stageBest, bestComplete, numParses)) {
+            remaining--;
+          }
+        }
+        if (stageEnd < derivations.size()) {
+          budgetExhausted = true;
+          skippedDerivations += derivations.size() - stageEnd;
+          derivations = derivations.subList(0, stageEnd);
+        }
+
+        // chunking depends on the preceding derivations of the stage, only the later stages are independent
+        advanced = advanceParses(derivations, stageBest, bestComplete, numParses);
+      }
+
+      for (int derivationRank = 0; derivationRank < derivations.size(); derivationRank++) { // forearch derivation
+        Parse tp = derivations.get(derivationRank);
+        if (advanced == null && (numAdvanced >= maxDerivations || (deadline != 0 && System.nanoTime() > deadline))) {
+          budgetExhausted = true;
+          skippedDerivations += derivations.size() - derivationRank;
+          if (guess == null) {
+            guess = derivations.get(0);
+          }
+          break;
+        }
         if (guess == null && derivationStage == 2) {
           guess = tp;
         }
+        if (isPruned(tp, stageBest, bestComplete, numParses)) {
+          skippedDerivations++;
+          continue;
+        }
+        numAdvanced++;
         if (debugOn) {
           System.out.print(derivationStage + " " + derivationRank + " "+tp.getProb());
           tp.show();
           System.out.println();
         }
         Parse[] nd;
-        if (0 == derivationStage) {
+        if (advanced != null) {
+          nd = advanced[derivationRank];
+        }
+        else if (0 == derivationStage) {
           nd = advanceTags(tp);
         }
         else if (1 == derivationStage) {
@@ -336,7 +510,10 @@ public abstract class AbstractBottomUpParser implements Parser {
         }
       }
       derivationStage++;
+      // the heaps are swapped and reused for the next stage
+      Heap<Parse> advancedHeap = odh;
       odh = ndh;
+      ndh = advancedHeap;
     }
     if (completeParses.size() == 0) {
       if (reportFailedParse) System.err.println("Couldn't find parse for: " + tokens);
@@ -359,6 +536,64 @@ public abstract class AbstractBottomUpParser implements Parser {
     }
   }
 
+  /**
+   * Determines whether the derivation is not advanced.
+   *
+   * @param tp the derivation
+   * @param stageBest the probability of the best derivation of the stage
+   * @param bestComplete the probability of the best complete parse
+   * @param numParses the number of requested parses
+   */
+  private boolean isPruned(Parse tp, double stageBest, double bestComplete, int numParses) {
+    if (tp.getProb() < stageBest - beamThreshold) {
+      return true;
+    }
+    return boundPruning && numParses == 1 && tp.getProb() < bestComplete;
+  }
+
+  /**
+   * Advances the derivations concurrently with the executor. The derivations which
+   * are already pruned are not advanced, the pruning can only become stricter
+   * while the results are combined.
+   *
+   * @return the advanced parses of each derivation in the order of the derivations,
+   *         null for the pruned derivations
+   */
+  private Parse[][] advanceParses(List<Parse> derivations, double stageBest,
+      double bestComplete, int numParses) {
+    List<Callable<Parse[]>> tasks = new ArrayList<Callable<Parse[]>>(derivations.size());
+    List<Integer> ranks = new ArrayList<Integer>(derivations.size());
+
+    for (int derivationRank = 0; derivationRank < derivations.size(); derivationRank++) {
+      final Parse tp = derivations.get(derivationRank);
+
+      if (!isPruned(tp, stageBest, bestComplete, numParses)) {
+        ranks.add(derivationRank);
+        tasks.add(new Callable<Parse[]>() {
+          public Parse[] call() {
+            return advanceParses(tp, Q);
+          }
+        });
+      }
+    }
+
+    Parse[][] advanced = new Parse[derivations.size()][];
+
+    try {
+      List<Future<Parse[]>> futures = executor.invokeAll(tasks);
+      for (int i = 0; i < futures.size(); i++) {
+        advanced[ranks.get(i)] = futures.get(i).get();
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    } catch (ExecutionException e) {
+      // only runtime exceptions are thrown by the tasks
+      throw new RuntimeException(e.getCause());
+    }
+
+    return advanced;
+  }
+
   public Parse parse(Parse tokens) {
     Parse p = parse(tokens,1)[0];
     setParents(p);
@@ -600,4 +835,69 @@ public abstract class AbstractBottomUpParser implements Parser {
     
     return buildDictionary(data, rules, params);
   }
+
+  /**
+   * Creates the event streams of one parser event type for the training of a model.
+   */
+  protected interface ParserEventStreamFactory {
+
+    /**
+     * Creates an event stream for the specified samples.
+     *
+     * @param parseSamples the samples, null if only the events of single samples are created
+     */
+    AbstractParserEventStream createEventStream(ObjectStream<Parse> parseSamples);
+  }
+
+  /**
+   * Trains a model with the events of the specified factory. If the settings
+   * specify more than one thread with {@link TrainingParameters#THREADS_PARAM},
+   * the events are created by that number of threads.
+   *
+   * @param parseSamples the samples
+   * @param factory creates the event streams
+   * @param settings the training settings of the model
+   * @param reportMap the map which receives the training report
+   *
+   * @return the trained model
+   */
+  protected static AbstractModel train(ObjectStream<Parse> parseSamples,
+      ParserEventStreamFactory factory, Map<String, String> settings,
+      Map<String, String> reportMap) throws IOException {
+
+    int threads = 1;
+
+    String threadsString = settings.get(TrainingParameters.THREADS_PARAM);
+    if (threadsString != null) {
+      try {
+        threads = Integer.parseInt(threadsString);
+      }
+      catch (NumberFormatException e) {
+        threads = 0;
+      }
+
+      if (threads < 1) {
+        throw new IllegalArgumentException(TrainingParameters.THREADS_PARAM +
+            " must be a positive integer: " + threadsString);
+      }
+    }
+
+    if (threads > 1) {
+      List<AbstractParserEventStream> generators = new ArrayList<AbstractParserEventStream>(threads);
+      for (int i = 0; i < threads; i++) {
+        generators.add(factory.createEventStream(null));
+      }
+
+      ParallelEventStream<Parse> events = new ParallelEventStream<Parse>(parseSamples, generators);
+      try {
+        return TrainUtil.train(events, settings, reportMap);
+      }
+      finally {
+        events.close();
+      }
+    }
+    else {
+      return TrainUtil.train(factory.createEventStream(parseSamples), settings, reportMap);
+    }
+  }
 }
@@ -19,6 +19,7 @@
 package opennlp.tools.parser;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -64,6 +65,12 @@ public class Parse implements Cloneable, Comparable<Parse> {
    */
   private List<Parse> parts;
 
+  /**
+   * Specifies whether the list of sub-constituents is shared with a clone
+   * and must be copied before it is changed.
+   */
+  private boolean sharedParts;
+
   /**
    * The head parse of this parse. A parse can be its own head.
    */
@@ -151,7 +158,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
     this.prob = p;
     this.head = this;
     this.headIndex = index;
-    this.parts = new LinkedList<Parse>();
+    this.parts = new ArrayList<Parse>();
     this.label = null;
     this.parent = null;
   }
@@ -174,11 +181,28 @@ public class Parse implements Cloneable, Comparable<Parse> {
     }
   }
 
+  /**
+   * Returns the sub-constituents of this parse for modification.
+   * The list is copied first if it is shared with a clone.
+   */
+  private List<Parse> mutableParts() {
+    if (sharedParts) {
+      parts = new ArrayList<Parse>(parts);
+      sharedParts = false;
+    }
+    return parts;
+  }
+
+  /**
+   * Creates a copy of this node which shares the sub-constituents with this node.
+   * The list of sub-constituents is shared until either node changes it.
+   */
   @Override
   public Object clone() {
     Parse p = new Parse(this.text, this.span, this.type, this.prob, this.head);
-    p.parts = new LinkedList<Parse>();
-    p.parts.addAll(this.parts);
+    p.parts = this.parts;
+    p.sharedParts = true;
+    this.sharedParts = true;
 
     if (derivation != null) {
       p.derivation = new StringBuffer(100);
@@ -201,7 +225,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
     else {
       Parse c = (Parse) this.clone();
       Parse lc = c.parts.get(parts.size()-1);
-      c.parts.set(parts.size()-1,lc.clone(node));
+      c.mutableParts().set(parts.size()-1,lc.clone(node));
       return c;
     }
   }
@@ -215,7 +239,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
   public Parse cloneRoot(Parse node, int parseIndex) {
     Parse c = (Parse) this.clone();
     Parse fc = c.parts.get(parseIndex);
-    c.parts.set(parseIndex,fc.clone(node));
+    c.mutableParts().set(parseIndex,fc.clone(node));
     return c;
   }
 
@@ -329,9 +353,9 @@ public class Parse implements Cloneable, Comparable<Parse> {
         // constituent contains subPart
         else if (ic.contains(sp)) {
           //System.err.println("Parse.insert:con contains subPart");
-          parts.remove(pi);
+          mutableParts().remove(pi);
           pi--;
-          constituent.parts.add(subPart);
+          constituent.mutableParts().add(subPart);
           subPart.setParent(constituent);
           //System.err.println("Parse.insert: "+subPart.hashCode()+" -> "+subPart.getParent().hashCode());
           pn = parts.size();
@@ -343,7 +367,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
         }
       }
       //System.err.println("Parse.insert:adding con="+constituent+" to "+this);
-      parts.add(pi, constituent);
+      mutableParts().add(pi, constituent);
       constituent.setParent(this);
       //System.err.println("Parse.insert: "+constituent.hashCode()+" -> "+constituent.getParent().hashCode());
     }
@@ -487,14 +511,14 @@ public class Parse implements Cloneable, Comparable<Parse> {
   public void setChild(int index, String label) {
     Parse newChild = (Parse) (parts.get(index)).clone();
     newChild.setLabel(label);
-    parts.set(index,newChild);
+    mutableParts().set(index,newChild);
   }
 
   public void add(Parse daughter, HeadRules rules) {
     if (daughter.prevPunctSet != null) {
-      parts.addAll(daughter.prevPunctSet);
+      mutableParts().addAll(daughter.prevPunctSet);
     }
-    parts.add(daughter);
+    mutableParts().add(daughter);
     this.span = new Span(span.getStart(),daughter.getSpan().getEnd());
     this.head = rules.getHead(getChildren(),type);
     if (head == null) {
@@ -504,7 +528,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
   }
 
   public void remove(int index) {
-    parts.remove(index);
+    mutableParts().remove(index);
     if (index == 0 || index == parts.size()) { //size is orig last element
       span = new Span((parts.get(0)).span.getStart(),(parts.get(parts.size()-1)).span.getEnd());
     }
@@ -518,7 +542,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
       adjNode.parts.addAll(node.prevPunctSet);
     }
     adjNode.parts.add(node);
-    parts.set(parseIndex,adjNode);
+    mutableParts().set(parseIndex,adjNode);
     return adjNode;
   }
 
@@ -538,7 +562,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
       adjNode.parts.addAll(sister.prevPunctSet);
     }
     adjNode.parts.add(sister);
-    parts.set(parts.size()-1,adjNode);
+    mutableParts().set(parts.size()-1,adjNode);
     this.span = new Span(span.getStart(),sister.getSpan().getEnd());
     this.head = rules.getHead(getChildren(),type);
     this.headIndex = head.headIndex;
@@ -554,13 +578,13 @@ public class Parse implements Cloneable, Comparable<Parse> {
         beforeRoot = false;
       }
       else if (beforeRoot) {
-        root.parts.add(ai,node);
-        parts.remove(pi);
+        root.mutableParts().add(ai,node);
+        mutableParts().remove(pi);
         pi--;
       }
       else {
-        root.parts.add(node);
-        parts.remove(pi);
+        root.mutableParts().add(node);
+        mutableParts().remove(pi);
         pi--;
       }
     }
@@ -752,7 +776,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
       if (children.length == 1 && node.getType().equals(children[0].getType())) {
         int index = node.getParent().parts.indexOf(node);
         children[0].setParent(node.getParent());
-        node.getParent().parts.set(index,children[0]);
+        node.getParent().mutableParts().set(index,children[0]);
         node.parent = null;
         node.parts = null;
       }
@@ -19,6 +19,7 @@
 package opennlp.tools.parser;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -150,6 +151,10 @@ public class ParserModel extends BaseModel {
   public ParserModel(InputStream in) throws IOException, InvalidFormatException {
     super(COMPONENT_NAME, in);
   }
+
+  public ParserModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
   
   @Override
   protected void createArtifactSerializers(
@@ -258,4 +263,48 @@ public class ParserModel extends BaseModel {
       throw new InvalidFormatException("Missing the head rules!");
     }
   }
+
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(BUILD_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Missing the build model!");
+    }
+
+    ParserType modelType = getParserType();
+
+    if (modelType != null) {
+      if (ParserType.CHUNKING.equals(modelType)) {
+        if (artifactMap.containsKey(ATTACH_MODEL_ENTRY_NAME))
+            throw new InvalidFormatException("attachModel must be null for chunking parser!");
+      }
+      else if (ParserType.TREEINSERT.equals(modelType)) {
+        if (!artifactMap.containsKey(ATTACH_MODEL_ENTRY_NAME))
+          throw new InvalidFormatException("attachModel must not be null!");
+      }
+      else {
+        throw new InvalidFormatException("Unkown ParserType!");
+      }
+    }
+    else {
+      throw new InvalidFormatException("Missing the parser type property!");
+    }
+
+    if (!artifactMap.containsKey(CHECK_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Missing the check model!");
+    }
+
+    if (!artifactMap.containsKey(PARSER_TAGGER_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Missing the tagger model!");
+    }
+
+    if (!artifactMap.containsKey(CHUNKER_TAGGER_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Missing the chunker model!");
+    }
+
+    if (!artifactMap.containsKey(HEAD_RULES_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Missing the head rules!");
+    }
+  }
 }
\ No newline at end of file
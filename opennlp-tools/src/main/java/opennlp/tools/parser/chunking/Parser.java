@@ -34,6 +34,7 @@ import opennlp.tools.chunker.ChunkerModel;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.namefind.TokenNameFinderEvaluationMonitor;
 import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.AbstractParserEventStream;
 import opennlp.tools.parser.ChunkContextGenerator;
 import opennlp.tools.parser.ChunkSampleStream;
 import opennlp.tools.parser.HeadRules;
@@ -61,9 +62,6 @@ public class Parser extends AbstractBottomUpParser {
   private BuildContextGenerator buildContextGenerator;
   private CheckContextGenerator checkContextGenerator;
 
-  private double[] bprobs;
-  private double[] cprobs;
-
   private static final String TOP_START = START + TOP_NODE;
   private int topStartIndex;
   private Map<String, String> startTypeMap;
@@ -115,8 +113,6 @@ public class Parser extends AbstractBottomUpParser {
     super(tagger, chunker, headRules, beamSize, advancePercentage);
     this.buildModel = buildModel;
     this.checkModel = checkModel;
-    bprobs = new double[buildModel.getNumOutcomes()];
-    cprobs = new double[checkModel.getNumOutcomes()];
     this.buildContextGenerator = new BuildContextGenerator();
     this.checkContextGenerator = new CheckContextGenerator();
     startTypeMap = new HashMap<String, String>();
@@ -139,6 +135,8 @@ public class Parser extends AbstractBottomUpParser {
 
   @Override
   protected void advanceTop(Parse p) {
+    double[] bprobs = new double[buildModel.getNumOutcomes()];
+    double[] cprobs = new double[checkModel.getNumOutcomes()];
     buildModel.eval(buildContextGenerator.getContext(p.getChildren(), 0), bprobs);
     p.addProb(Math.log(bprobs[topStartIndex]));
     checkModel.eval(checkContextGenerator.getContext(p.getChildren(), TOP_NODE, 0, 0), cprobs);
@@ -180,6 +178,9 @@ public class Parser extends AbstractBottomUpParser {
     }
     int originalAdvanceIndex = mapParseIndex(advanceNodeIndex,children,originalChildren);
     List<Parse> newParsesList = new ArrayList<Parse>(buildModel.getNumOutcomes());
+    // the probabilities are local since parses can be advanced concurrently
+    double[] bprobs = new double[buildModel.getNumOutcomes()];
+    double[] cprobs = new double[checkModel.getNumOutcomes()];
     //call build
     buildModel.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
     double bprobSum = 0;
@@ -280,6 +281,26 @@ public class Parser extends AbstractBottomUpParser {
     }
   }
   
+  /**
+   * Creates the parser event streams of one event type.
+   */
+  private static class EventStreamFactory implements ParserEventStreamFactory {
+
+    private final HeadRules rules;
+    private final ParserEventTypeEnum etype;
+    private final Dictionary dict;
+
+    EventStreamFactory(HeadRules rules, ParserEventTypeEnum etype, Dictionary dict) {
+      this.rules = rules;
+      this.etype = etype;
+      this.dict = dict;
+    }
+
+    public AbstractParserEventStream createEventStream(ObjectStream<Parse> parseSamples) {
+      return new ParserEventStream(parseSamples, rules, etype, dict);
+    }
+  }
+
   public static ParserModel train(String languageCode, ObjectStream<Parse> parseSamples, HeadRules rules, TrainingParameters mlParams)
           throws IOException {
     
@@ -293,9 +314,10 @@ public class Parser extends AbstractBottomUpParser {
     
     // build
     System.err.println("Training builder");
-    opennlp.model.EventStream bes = new ParserEventStream(parseSamples, rules, ParserEventTypeEnum.BUILD, mdict);
     Map<String, String> buildReportMap = new HashMap<String, String>();
-    AbstractModel buildModel = TrainUtil.train(bes, mlParams.getSettings("build"), buildReportMap);
+    AbstractModel buildModel = train(parseSamples,
+        new EventStreamFactory(rules, ParserEventTypeEnum.BUILD, mdict),
+        mlParams.getSettings("build"), buildReportMap);
     mergeReportIntoManifest(manifestInfoEntries, buildReportMap, "build");
     
     parseSamples.reset();
@@ -315,9 +337,10 @@ public class Parser extends AbstractBottomUpParser {
     
     // check
     System.err.println("Training checker");
-    opennlp.model.EventStream kes = new ParserEventStream(parseSamples, rules, ParserEventTypeEnum.CHECK);
     Map<String, String> checkReportMap = new HashMap<String, String>();
-    AbstractModel checkModel = TrainUtil.train(kes, mlParams.getSettings("check"), checkReportMap);
+    AbstractModel checkModel = train(parseSamples,
+        new EventStreamFactory(rules, ParserEventTypeEnum.CHECK, null),
+        mlParams.getSettings("check"), checkReportMap);
     mergeReportIntoManifest(manifestInfoEntries, checkReportMap, "check");
 
     // TODO: Remove cast for HeadRules
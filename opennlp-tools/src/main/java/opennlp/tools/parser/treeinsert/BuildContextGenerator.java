@@ -35,11 +35,8 @@ import opennlp.tools.parser.Parse;
  */
 public class BuildContextGenerator extends AbstractContextGenerator {
 
-  private Parse[] leftNodes;
-
   public BuildContextGenerator() {
     super();
-    leftNodes = new Parse[2];
   }
 
   public String[] getContext(Object o) {
@@ -91,6 +88,7 @@ public class BuildContextGenerator extends AbstractContextGenerator {
       Set<String> emptyPunctSet = Collections.emptySet();
       rf = Parser.getRightFrontier(constituents[0], emptyPunctSet);
     }
+    Parse[] leftNodes = new Parse[2];
     getFrontierNodes(rf,leftNodes);
     p_1 = leftNodes[0];
     p_2 = leftNodes[1];
@@ -29,11 +29,8 @@ import opennlp.tools.parser.Parse;
 
 public class CheckContextGenerator extends AbstractContextGenerator {
 
-  private Parse[] leftNodes;
-
   public CheckContextGenerator(Set<String> punctSet) {
     this.punctSet = punctSet;
-    leftNodes = new Parse[2];
   }
 
   public String[] getContext(Object arg0) {
@@ -85,6 +82,7 @@ public class CheckContextGenerator extends AbstractContextGenerator {
       }
     }
 
+    Parse[] leftNodes = new Parse[2];
     getFrontierNodes(rf,leftNodes);
     p_1 = leftNodes[0];
     p_2 = leftNodes[1];
@@ -34,6 +34,7 @@ import opennlp.tools.chunker.ChunkerME;
 import opennlp.tools.chunker.ChunkerModel;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.parser.AbstractBottomUpParser;
+import opennlp.tools.parser.AbstractParserEventStream;
 import opennlp.tools.parser.ChunkContextGenerator;
 import opennlp.tools.parser.ChunkSampleStream;
 import opennlp.tools.parser.HeadRules;
@@ -85,10 +86,6 @@ public class Parser extends AbstractBottomUpParser {
   private AttachContextGenerator attachContextGenerator;
   private CheckContextGenerator checkContextGenerator;
 
-  private double[] bprobs;
-  private double[] aprobs;
-  private double[] cprobs;
-
   private int doneIndex;
   private int sisterAttachIndex;
   private int daughterAttachIndex;
@@ -123,10 +120,6 @@ public class Parser extends AbstractBottomUpParser {
     this.attachContextGenerator = new AttachContextGenerator(punctSet);
     this.checkContextGenerator = new CheckContextGenerator(punctSet);
 
-    this.bprobs = new double[buildModel.getNumOutcomes()];
-    this.aprobs = new double[attachModel.getNumOutcomes()];
-    this.cprobs = new double[checkModel.getNumOutcomes()];
-
     this.doneIndex = buildModel.getIndex(DONE);
     this.sisterAttachIndex = attachModel.getIndex(ATTACH_SISTER);
     this.daughterAttachIndex = attachModel.getIndex(ATTACH_DAUGHTER);
@@ -262,6 +255,10 @@ public class Parser extends AbstractBottomUpParser {
     int originalZeroIndex = mapParseIndex(0,children,originalChildren);
     int originalAdvanceIndex = mapParseIndex(advanceNodeIndex,children,originalChildren);
     List<Parse> newParsesList = new ArrayList<Parse>();
+    // the probabilities are local since parses can be advanced concurrently
+    double[] bprobs = new double[buildModel.getNumOutcomes()];
+    double[] aprobs = new double[attachModel.getNumOutcomes()];
+    double[] cprobs;
     //call build model
     buildModel.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
     double doneProb = bprobs[doneIndex];
@@ -437,6 +434,26 @@ public class Parser extends AbstractBottomUpParser {
     p.setType(TOP_NODE);
   }
 
+  /**
+   * Creates the parser event streams of one event type.
+   */
+  private static class EventStreamFactory implements ParserEventStreamFactory {
+
+    private final HeadRules rules;
+    private final ParserEventTypeEnum etype;
+    private final Dictionary dict;
+
+    EventStreamFactory(HeadRules rules, ParserEventTypeEnum etype, Dictionary dict) {
+      this.rules = rules;
+      this.etype = etype;
+      this.dict = dict;
+    }
+
+    public AbstractParserEventStream createEventStream(ObjectStream<Parse> parseSamples) {
+      return new ParserEventStream(parseSamples, rules, etype, dict);
+    }
+  }
+
   public static ParserModel train(String languageCode,
       ObjectStream<Parse> parseSamples, HeadRules rules, TrainingParameters mlParams)
   throws IOException {
@@ -462,30 +479,30 @@ public class Parser extends AbstractBottomUpParser {
     
     // build
     System.err.println("Training builder");
-    opennlp.model.EventStream bes = new ParserEventStream(parseSamples, rules,
-        ParserEventTypeEnum.BUILD, mdict);
     Map<String, String> buildReportMap = new HashMap<String, String>();
-    AbstractModel buildModel = TrainUtil.train(bes, mlParams.getSettings("build"), buildReportMap);
+    AbstractModel buildModel = train(parseSamples,
+        new EventStreamFactory(rules, ParserEventTypeEnum.BUILD, mdict),
+        mlParams.getSettings("build"), buildReportMap);
     opennlp.tools.parser.chunking.Parser.mergeReportIntoManifest(manifestInfoEntries, buildReportMap, "build");
     
     parseSamples.reset();
     
     // check
     System.err.println("Training checker");
-    opennlp.model.EventStream kes = new ParserEventStream(parseSamples, rules,
-        ParserEventTypeEnum.CHECK);
     Map<String, String> checkReportMap = new HashMap<String, String>();
-    AbstractModel checkModel = TrainUtil.train(kes, mlParams.getSettings("check"), checkReportMap);
+    AbstractModel checkModel = train(parseSamples,
+        new EventStreamFactory(rules, ParserEventTypeEnum.CHECK, null),
+        mlParams.getSettings("check"), checkReportMap);
     opennlp.tools.parser.chunking.Parser.mergeReportIntoManifest(manifestInfoEntries, checkReportMap, "check");
     
     parseSamples.reset();
     
     // attach 
     System.err.println("Training attacher");
-    opennlp.model.EventStream attachEvents = new ParserEventStream(parseSamples, rules,
-        ParserEventTypeEnum.ATTACH);
     Map<String, String> attachReportMap = new HashMap<String, String>();
-    AbstractModel attachModel = TrainUtil.train(attachEvents, mlParams.getSettings("attach"), attachReportMap);
+    AbstractModel attachModel = train(parseSamples,
+        new EventStreamFactory(rules, ParserEventTypeEnum.ATTACH, null),
+        mlParams.getSettings("attach"), attachReportMap);
     opennlp.tools.parser.chunking.Parser.mergeReportIntoManifest(manifestInfoEntries, attachReportMap, "attach");
     
     // TODO: Remove cast for HeadRules
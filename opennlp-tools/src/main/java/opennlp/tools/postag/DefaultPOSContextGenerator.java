@@ -22,14 +22,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import opennlp.model.MaxentModel;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.Cache;
+import opennlp.tools.util.ContextIdCache;
+import opennlp.tools.util.IndexedBeamSearchContextGenerator;
 import opennlp.tools.util.StringList;
 
 /**
  * A context generator for the POS Tagger.
  */
-public class DefaultPOSContextGenerator implements POSContextGenerator {
+public class DefaultPOSContextGenerator implements POSContextGenerator,
+    IndexedBeamSearchContextGenerator<String> {
 
   protected final String SE = "*SE*";
   protected final String SB = "*SB*";
@@ -45,6 +49,8 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
   private Dictionary dict;
   private String[] dictGram;
 
+  private final ContextIdCache idCache = new ContextIdCache();
+
   /**
    * Initializes the current instance.
    *
@@ -87,6 +93,55 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
     return getContext(index,sequence,priorDecisions);
   }
 
+  /**
+   * Returns the context as predicate ids, in the same order as the features
+   * returned by {@link #getContext(int, Object[], String[])}.
+   * <p>
+   * The word features do not depend on the previous tags and are only mapped once
+   * per token. The tag features are spliced into them at their positions in the
+   * context, that only works for the feature layout of this class. A subclass
+   * which overrides {@link #getContext(int, Object[], String[])} gets the ids of
+   * its contexts.
+   */
+  public int[] getContextIds(int index, String[] sequence, String[] priorDecisions,
+      Object[] additionalContext, MaxentModel model) {
+
+    if (getClass() != DefaultPOSContextGenerator.class) {
+      return ContextIdCache.toIds(model,
+          getContext(index, sequence, priorDecisions, additionalContext));
+    }
+
+    int[] wordIds = idCache.get(model, sequence, index);
+    if (wordIds == null) {
+      wordIds = ContextIdCache.toIds(model, createContext(index, sequence, null));
+      idCache.put(index, wordIds);
+    }
+
+    if (index == 0) {
+      return wordIds;
+    }
+
+    String tagprev = priorDecisions[index - 1];
+
+    // keep the feature order of getContext, t= follows p= and t2= follows pp=,
+    // only the n= and nn= features are behind them
+    int tailLength = index + 1 < sequence.length ? 2 : 1;
+    int ppIndex = wordIds.length - tailLength - 1;
+
+    int[] ids = new int[wordIds.length + (index > 1 ? 2 : 1)];
+    System.arraycopy(wordIds, 0, ids, 0, ppIndex);
+    ids[ppIndex] = model.getPredicateIndex("t=" + tagprev);
+    ids[ppIndex + 1] = wordIds[ppIndex];
+
+    int offset = ppIndex + 2;
+    if (index > 1) {
+      ids[offset++] = model.getPredicateIndex("t2=" + priorDecisions[index - 2] + "," + tagprev);
+    }
+    System.arraycopy(wordIds, ppIndex + 1, ids, offset, tailLength);
+
+    return ids;
+  }
+
   /**
    * Returns the context for making a pos tag decision at the specified token index given the specified tokens and previous tags.
    * @param index The index of the token for which the context is provided.
@@ -95,6 +150,43 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
    * @return The context for making a pos tag decision at the specified token index given the specified tokens and previous tags.
    */
   public String[] getContext(int index, Object[] tokens, String[] tags) {
+    String tagprev = null;
+    String tagprevprev = null;
+
+    if (tags != null && index - 1 >= 0) {
+      tagprev = tags[index - 1];
+
+      if (index - 2 >= 0)
+        tagprevprev = tags[index - 2];
+    }
+
+    String cacheKey = index+tagprev+tagprevprev;
+    if (contextsCache != null) {
+      if (wordsKey == tokens){
+        String[] cachedContexts = (String[]) contextsCache.get(cacheKey);
+        if (cachedContexts != null) {
+          return cachedContexts;
+        }
+      }
+      else {
+        contextsCache.clear();
+        wordsKey = tokens;
+      }
+    }
+
+    String[] contexts = createContext(index, tokens, tags);
+
+    if (contextsCache != null) {
+      contextsCache.put(cacheKey,contexts);
+    }
+    return contexts;
+  }
+
+  /**
+   * Creates the context without the cache, without tags it contains only
+   * the features which do not depend on the previous tags.
+   */
+  private String[] createContext(int index, Object[] tokens, String[] tags) {
     String next, nextnext, lex, prev, prevprev;
     String tagprev, tagprevprev;
     tagprev = tagprevprev = null;
@@ -115,11 +207,13 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
 
     if (index - 1 >= 0) {
       prev =  tokens[index - 1].toString();
-      tagprev =  tags[index - 1];
+      if (tags != null)
+        tagprev =  tags[index - 1];
 
       if (index - 2 >= 0) {
         prevprev = tokens[index - 2].toString();
-        tagprevprev = tags[index - 2];
+        if (tags != null)
+          tagprevprev = tags[index - 2];
       }
       else {
         prevprev = SB; // Sentence Beginning
@@ -128,19 +222,6 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
     else {
       prev = SB; // Sentence Beginning
     }
-    String cacheKey = index+tagprev+tagprevprev;
-    if (contextsCache != null) {
-      if (wordsKey == tokens){
-        String[] cachedContexts = (String[]) contextsCache.get(cacheKey);
-        if (cachedContexts != null) {
-          return cachedContexts;
-        }
-      }
-      else {
-        contextsCache.clear();
-        wordsKey = tokens;
-      }
-    }
     List<String> e = new ArrayList<String>();
     e.add("default");
     // add the word itself
@@ -190,11 +271,7 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
         e.add("nn=" + nextnext);
       }
     }
-    String[] contexts = e.toArray(new String[e.size()]);
-    if (contextsCache != null) {
-      contextsCache.put(cacheKey,contexts);
-    }
-    return contexts;
+    return e.toArray(new String[e.size()]);
   }
 
 }
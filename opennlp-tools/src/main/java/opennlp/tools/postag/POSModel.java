@@ -18,6 +18,7 @@
 
 package opennlp.tools.postag;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -93,6 +94,10 @@ public final class POSModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public POSModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   protected void createArtifactSerializers(
@@ -149,6 +154,15 @@ public final class POSModel extends BaseModel {
     }
   }
 
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(POS_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("POS model is incomplete!");
+    }
+  }
+
   public AbstractModel getPosModel() {
     return (AbstractModel) artifactMap.get(POS_MODEL_ENTRY_NAME);
   }
@@ -57,7 +57,10 @@ public class POSSampleSequenceStream implements SequenceStream {
     String[] sentence = pss.getSource().getSentence();
     String[] tags = tagger.tag(pss.getSource().getSentence());
     Event[] events = new Event[sentence.length];
-    POSSampleEventStream.generateEvents(sentence,tags,pcg).toArray(events);
+    // the context generator is shared by all calls, which can be concurrent
+    synchronized (pcg) {
+      POSSampleEventStream.generateEvents(sentence,tags,pcg).toArray(events);
+    }
     return events;
   }
   
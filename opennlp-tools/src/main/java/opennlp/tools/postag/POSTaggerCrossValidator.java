@@ -18,6 +18,7 @@
 package opennlp.tools.postag;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.TerminateToolException;
@@ -25,6 +26,7 @@ import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
+import opennlp.tools.util.eval.FoldExecutor;
 import opennlp.tools.util.eval.Mean;
 import opennlp.tools.util.model.ModelType;
 import opennlp.tools.util.model.ModelUtil;
@@ -95,7 +97,8 @@ public class POSTaggerCrossValidator {
   }
   
   /**
-   * Starts the evaluation.
+   * Starts the evaluation. The folds are evaluated in parallel if the
+   * {@link TrainingParameters#FOLD_THREADS_PARAM} parameter is set.
    * 
    * @param samples
    *          the data to train and test
@@ -107,38 +110,49 @@ public class POSTaggerCrossValidator {
   public void evaluate(ObjectStream<POSSample> samples, int nFolds) throws IOException, IOException {
     
     CrossValidationPartitioner<POSSample> partitioner = new CrossValidationPartitioner<POSSample>(
-        samples, nFolds);
+        samples, nFolds, true);
 
-    while (partitioner.hasNext()) {
+    FoldExecutor foldExecutor = FoldExecutor.create(params);
 
-      CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream = partitioner
-          .next();
+    final POSTaggerEvaluationMonitor[] foldListeners =
+        foldExecutor.synchronizeMonitors(POSTaggerEvaluationMonitor.class, listeners);
+
+    List<POSEvaluator> results = foldExecutor.evaluate(partitioner,
+        new FoldExecutor.Fold<POSSample, POSEvaluator>() {
+      public POSEvaluator evaluate(
+          CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream)
+          throws IOException {
       
-      Dictionary ngramDict = null;
-      if (this.ngramDictionary == null) {
-        if(this.ngramCutoff != null) {
-          System.err.print("Building ngram dictionary ... ");
-          try {
-            ngramDict = POSTaggerME.buildNGramDictionary(trainingSampleStream,
-                this.ngramCutoff);
-            trainingSampleStream.reset();
-          } catch (IOException e) {
-            CmdLineUtil.printTrainingIoError(e);
-            throw new TerminateToolException(-1);
+        Dictionary ngramDict = null;
+        if (ngramDictionary == null) {
+          if(ngramCutoff != null) {
+            System.err.print("Building ngram dictionary ... ");
+            try {
+              ngramDict = POSTaggerME.buildNGramDictionary(trainingSampleStream,
+                  ngramCutoff);
+              trainingSampleStream.reset();
+            } catch (IOException e) {
+              CmdLineUtil.printTrainingIoError(e);
+              throw new TerminateToolException(-1);
+            }
+            System.err.println("done");
           }
-          System.err.println("done");
+        } else {
+          ngramDict = ngramDictionary;
         }
-      } else {
-        ngramDict = this.ngramDictionary;
+  
+        POSModel model = POSTaggerME.train(languageCode, trainingSampleStream, params,
+              tagDictionary, ngramDict);
+  
+        POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model), foldListeners);
+        
+        evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+  
+        return evaluator;
       }
+    });
 
-      POSModel model = POSTaggerME.train(languageCode, trainingSampleStream, params,
-            this.tagDictionary, ngramDict);
-
-      POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model), listeners);
-      
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
-
+    for (POSEvaluator evaluator : results) {
       wordAccuracy.add(evaluator.getWordAccuracy(), evaluator.getWordCount());
     }
   }
@@ -35,9 +35,12 @@ import opennlp.tools.ngram.NGramModel;
 import opennlp.tools.util.BeamSearch;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceDecoder;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.StringList;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.ViterbiDecoder;
+import opennlp.tools.util.model.BaseModel;
 import opennlp.tools.util.model.ModelType;
 
 /**
@@ -48,7 +51,7 @@ import opennlp.tools.util.model.ModelType;
  */
 public class POSTaggerME implements POSTagger {
   
-  private static class PosSequenceValidator implements SequenceValidator<String> {
+  static class PosSequenceValidator implements SequenceValidator<String> {
     
     private POSDictionary tagDictionary;
     
@@ -110,12 +113,23 @@ public class POSTaggerME implements POSTagger {
    */
   protected BeamSearch<String> beam;
 
+  /**
+   * The decoder used to find the best sequences of tags, either the beam
+   * or a decoder selected by the model.
+   */
+  protected SequenceDecoder<String> decoder;
+
   public POSTaggerME(POSModel model, int beamSize, int cacheSize, SequenceValidator<String> sequenceValidator) {
     posModel = model.getPosModel();
     contextGen = new DefaultPOSContextGenerator(beamSize, model.getNgramDictionary());
     tagDictionary = model.getTagDictionary();
     size = beamSize;
     beam = new BeamSearch<String>(size, contextGen, posModel, sequenceValidator, cacheSize);
+
+    if (model.useViterbiDecoder())
+      decoder = new ViterbiDecoder<String>(contextGen, posModel, sequenceValidator);
+    else
+      decoder = beam;
   }
   
   /**
@@ -210,6 +224,7 @@ public class POSTaggerME implements POSTagger {
     posModel = model;
     contextGen = cg;
     beam = new BeamSearch<String>(size, cg, model);
+    decoder = beam;
     tagDictionary = tagdict;
   }
 
@@ -224,16 +239,28 @@ public class POSTaggerME implements POSTagger {
 
   @Deprecated
   public List<String> tag(List<String> sentence) {
-    bestSequence = beam.bestSequence(sentence.toArray(new String[sentence.size()]), null);
+    bestSequence = decoder.bestSequence(sentence.toArray(new String[sentence.size()]), null);
     return bestSequence.getOutcomes();
   }
 
   public String[] tag(String[] sentence) {
-    bestSequence = beam.bestSequence(sentence, null);
-    List<String> t = bestSequence.getOutcomes();
+    List<String> t = bestSequence(sentence).getOutcomes();
     return t.toArray(new String[t.size()]);
   }
 
+  /**
+   * Returns the best tag sequence for the specified sentence, which
+   * contains the tags and their probabilities.
+   *
+   * @param sentence An array of tokens which make up a sentence.
+   *
+   * @return the best tag sequence
+   */
+  public Sequence bestSequence(String[] sentence) {
+    bestSequence = decoder.bestSequence(sentence, null);
+    return bestSequence;
+  }
+
   /**
    * Returns at most the specified number of taggings for the specified sentence.
    *
@@ -243,7 +270,7 @@ public class POSTaggerME implements POSTagger {
    * @return At most the specified number of taggings for the specified sentence.
    */
   public String[][] tag(int numTaggings, String[] sentence) {
-    Sequence[] bestSequences = beam.bestSequences(numTaggings, sentence,null);
+    Sequence[] bestSequences = decoder.bestSequences(numTaggings, sentence,null);
     String[][] tags = new String[bestSequences.length][];
     for (int si=0;si<tags.length;si++) {
       List<String> t = bestSequences[si].getOutcomes();
@@ -254,11 +281,11 @@ public class POSTaggerME implements POSTagger {
 
   @Deprecated
   public Sequence[] topKSequences(List<String> sentence) {
-    return beam.bestSequences(size, sentence.toArray(new String[sentence.size()]), null);
+    return decoder.bestSequences(size, sentence.toArray(new String[sentence.size()]), null);
   }
 
   public Sequence[] topKSequences(String[] sentence) {
-    return beam.bestSequences(size, sentence, null);
+    return decoder.bestSequences(size, sentence, null);
   }
 
   /**
@@ -327,6 +354,10 @@ public class POSTaggerME implements POSTagger {
     
     Map<String, String> manifestInfoEntries = new HashMap<String, String>();
     
+    String decoder = trainParams.getSettings().get(TrainingParameters.SEQUENCE_DECODER_PARAM);
+    if (decoder != null)
+      manifestInfoEntries.put(BaseModel.SEQUENCE_DECODER_PROPERTY, decoder);
+    
     AbstractModel posModel;
     
     if (!TrainUtil.isSequenceTraining(trainParams.getSettings())) {
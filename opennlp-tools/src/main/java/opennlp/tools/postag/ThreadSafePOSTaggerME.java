@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.postag;
+
+import java.util.List;
+
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * A thread safe part-of-speech tagger which can be shared by all threads.
+ * <p>
+ * The model, its dictionaries and the sequence validator are shared, each thread
+ * tags with its own {@link POSTaggerME}, which holds the context generator with its
+ * cache and the beam search state of that thread. The
+ * tagger of a thread is created on its first call. Use {@link #bestSequence(String[])}
+ * to get the probabilities of the tags together with the tags.
+ *
+ * @see POSTaggerME
+ */
+public class ThreadSafePOSTaggerME implements POSTagger {
+
+  private final ThreadLocal<POSTaggerME> tagger;
+
+  /**
+   * Initializes the tagger with the specified model, beam size and cache size.
+   *
+   * @param model the model which is shared by the threads
+   * @param beamSize the size of the beam
+   * @param cacheSize the number of contexts for which each thread caches the scores, 0 disables the cache
+   */
+  public ThreadSafePOSTaggerME(final POSModel model, final int beamSize, final int cacheSize) {
+    final SequenceValidator<String> sequenceValidator =
+        new POSTaggerME.PosSequenceValidator(model.getTagDictionary());
+
+    tagger = new ThreadLocal<POSTaggerME>() {
+      @Override
+      protected POSTaggerME initialValue() {
+        return new POSTaggerME(model, beamSize, cacheSize, sequenceValidator);
+      }
+    };
+  }
+
+  /**
+   * Initializes the tagger with the specified model and the default beam size.
+   *
+   * @param model the model which is shared by the threads
+   */
+  public ThreadSafePOSTaggerME(POSModel model) {
+    this(model, POSTaggerME.DEFAULT_BEAM_SIZE, 0);
+  }
+
+  @Deprecated
+  public List<String> tag(List<String> sentence) {
+    return tagger.get().tag(sentence);
+  }
+
+  public String[] tag(String[] sentence) {
+    return tagger.get().tag(sentence);
+  }
+
+  /**
+   * Returns at most the specified number of taggings for the specified sentence.
+   *
+   * @param numTaggings The number of tagging to be returned.
+   * @param sentence An array of tokens which make up a sentence.
+   *
+   * @return At most the specified number of taggings for the specified sentence.
+   */
+  public String[][] tag(int numTaggings, String[] sentence) {
+    return tagger.get().tag(numTaggings, sentence);
+  }
+
+  /**
+   * Returns the best tag sequence for the specified sentence, which
+   * contains the tags and their probabilities.
+   *
+   * @param sentence An array of tokens which make up a sentence.
+   *
+   * @return the best tag sequence
+   */
+  public Sequence bestSequence(String[] sentence) {
+    return tagger.get().bestSequence(sentence);
+  }
+
+  @Deprecated
+  public String tag(String sentence) {
+    return tagger.get().tag(sentence);
+  }
+
+  @Deprecated
+  public Sequence[] topKSequences(List<String> sentence) {
+    return tagger.get().topKSequences(sentence);
+  }
+
+  public Sequence[] topKSequences(String[] sentence) {
+    return tagger.get().topKSequences(sentence);
+  }
+}
@@ -18,12 +18,14 @@
 package opennlp.tools.sentdetect;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldExecutor;
 import opennlp.tools.util.model.ModelUtil;
 
 /**
@@ -80,7 +82,8 @@ public class SDCrossValidator {
   }
 
   /**
-   * Starts the evaluation.
+   * Starts the evaluation. The folds are evaluated in parallel if the
+   * {@link TrainingParameters#FOLD_THREADS_PARAM} parameter is set.
    * 
    * @param samples
    *          the data to train and test
@@ -92,25 +95,36 @@ public class SDCrossValidator {
   public void evaluate(ObjectStream<SentenceSample> samples, int nFolds) throws IOException {
 
     CrossValidationPartitioner<SentenceSample> partitioner = 
-        new CrossValidationPartitioner<SentenceSample>(samples, nFolds);
+        new CrossValidationPartitioner<SentenceSample>(samples, nFolds, true);
     
-   while (partitioner.hasNext()) {
-     
-     CrossValidationPartitioner.TrainingSampleStream<SentenceSample> trainingSampleStream =
-         partitioner.next();
-     
-      SentenceModel model; 
-      
-      model = SentenceDetectorME.train(languageCode, trainingSampleStream,
-          true, abbreviations, params);
-      
-      // do testing
-      SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
-          new SentenceDetectorME(model), listeners);
+    FoldExecutor foldExecutor = FoldExecutor.create(params);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
-      
-      fmeasure.mergeInto(evaluator.getFMeasure());
+    final SentenceDetectorEvaluationMonitor[] foldListeners =
+        foldExecutor.synchronizeMonitors(SentenceDetectorEvaluationMonitor.class, listeners);
+
+    List<FMeasure> results = foldExecutor.evaluate(partitioner,
+        new FoldExecutor.Fold<SentenceSample, FMeasure>() {
+      public FMeasure evaluate(
+          CrossValidationPartitioner.TrainingSampleStream<SentenceSample> trainingSampleStream)
+          throws IOException {
+        
+        SentenceModel model; 
+        
+        model = SentenceDetectorME.train(languageCode, trainingSampleStream,
+            true, abbreviations, params);
+        
+        // do testing
+        SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
+            new SentenceDetectorME(model), foldListeners);
+  
+        evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+        
+        return evaluator.getFMeasure();
+      }
+    });
+    
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
   
@@ -90,13 +90,23 @@ public class SentenceDetectorME implements SentenceDetector {
   }
 
   public SentenceDetectorME(SentenceModel model, Factory factory) {
+    this(model, factory.createSentenceContextGenerator(model.getLanguage(),
+        getAbbreviations(model.getAbbreviations())),
+        factory.createEndOfSentenceScanner(model.getLanguage()));
+  }
+
+  /**
+   * Initializes the sentence detector with an already created context generator
+   * and end of sentence scanner.
+   */
+  SentenceDetectorME(SentenceModel model, SDContextGenerator cgen, EndOfSentenceScanner scanner) {
     this.model = model.getMaxentModel();
-    cgen = factory.createSentenceContextGenerator(model.getLanguage(), getAbbreviations(model.getAbbreviations()));
-    scanner = factory.createEndOfSentenceScanner(model.getLanguage());
+    this.cgen = cgen;
+    this.scanner = scanner;
     useTokenEnd = model.useTokenEnd();
   }
 
-  private static Set<String> getAbbreviations(Dictionary abbreviations) {
+  static Set<String> getAbbreviations(Dictionary abbreviations) {
     if(abbreviations == null) {
       return Collections.<String>emptySet();
     }
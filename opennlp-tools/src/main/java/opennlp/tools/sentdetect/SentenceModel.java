@@ -73,6 +73,10 @@ public class SentenceModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public SentenceModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
+
   @Override
   protected void validateArtifactMap() throws InvalidFormatException {
     super.validateArtifactMap();
@@ -98,6 +102,19 @@ public class SentenceModel extends BaseModel {
     }
   }
 
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(MAXENT_MODEL_ENTRY_NAME)) {
+      throw new InvalidFormatException("Unable to find " + MAXENT_MODEL_ENTRY_NAME +
+          " maxent model!");
+    }
+
+    if (getManifestProperty(TOKEN_END_PROPERTY) == null)
+      throw new InvalidFormatException(TOKEN_END_PROPERTY + " is a mandatory property!");
+  }
+
   public AbstractModel getMaxentModel() {
     return (AbstractModel) artifactMap.get(MAXENT_MODEL_ENTRY_NAME);
   }
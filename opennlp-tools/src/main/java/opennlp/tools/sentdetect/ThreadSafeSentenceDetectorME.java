@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.sentdetect;
+
+import java.util.Set;
+
+import opennlp.tools.sentdetect.lang.Factory;
+import opennlp.tools.util.Span;
+
+/**
+ * A thread safe sentence detector which can be shared by all threads.
+ * <p>
+ * The model, the abbreviations and the end of sentence scanner are shared, each
+ * thread detects sentences with its own {@link SentenceDetectorME}, which holds
+ * the context generator and the buffers of that thread. The sentence detector of
+ * a thread is created on its first call. The spans returned by
+ * {@link #sentPosDetect(String)} contain the probability of each sentence.
+ *
+ * @see SentenceDetectorME
+ */
+public class ThreadSafeSentenceDetectorME implements SentenceDetector {
+
+  private final ThreadLocal<SentenceDetectorME> sentenceDetector;
+
+  /**
+   * Initializes the sentence detector with the specified model and factory.
+   *
+   * @param model the model which is shared by the threads
+   * @param factory the factory which creates the shared end of sentence scanner
+   *     and the context generator of each thread
+   */
+  public ThreadSafeSentenceDetectorME(final SentenceModel model, final Factory factory) {
+    final Set<String> abbreviations =
+        SentenceDetectorME.getAbbreviations(model.getAbbreviations());
+    final EndOfSentenceScanner scanner = factory.createEndOfSentenceScanner(model.getLanguage());
+
+    sentenceDetector = new ThreadLocal<SentenceDetectorME>() {
+      @Override
+      protected SentenceDetectorME initialValue() {
+        return new SentenceDetectorME(model,
+            factory.createSentenceContextGenerator(model.getLanguage(), abbreviations), scanner);
+      }
+    };
+  }
+
+  /**
+   * Initializes the sentence detector with the specified model.
+   *
+   * @param model the model which is shared by the threads
+   */
+  public ThreadSafeSentenceDetectorME(SentenceModel model) {
+    this(model, new Factory());
+  }
+
+  public String[] sentDetect(String s) {
+    return Span.spansToStrings(sentPosDetect(s), s);
+  }
+
+  public Span[] sentPosDetect(String s) {
+    SentenceDetectorME detector = sentenceDetector.get();
+
+    Span[] sentences = detector.sentPosDetect(s);
+    double[] probs = detector.getSentenceProbabilities();
+
+    for (int si = 0; si < sentences.length; si++) {
+      sentences[si] = new Span(sentences[si].getStart(), sentences[si].getEnd(),
+          sentences[si].getType(), probs[si]);
+    }
+
+    return sentences;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.tokenize;
+
+import java.util.regex.Pattern;
+
+import opennlp.tools.tokenize.lang.Factory;
+import opennlp.tools.util.Span;
+
+/**
+ * A thread safe tokenizer which can be shared by all threads.
+ * <p>
+ * The model, the context generator and the alpha numeric pattern are created once
+ * and shared, each thread tokenizes with its own {@link TokenizerME}, which only
+ * holds the token and probability buffers of that thread. The tokenizer of a thread
+ * is created on its first call. The spans returned by {@link #tokenizePos(String)}
+ * contain the probability of each token.
+ *
+ * @see TokenizerME
+ */
+public class ThreadSafeTokenizerME extends AbstractTokenizer {
+
+  private final ThreadLocal<TokenizerME> tokenizer;
+
+  /**
+   * Initializes the tokenizer with the specified model and factory.
+   *
+   * @param model the model which is shared by the threads
+   * @param factory the factory which creates the shared context generator,
+   *     the context generator must not have any state
+   */
+  public ThreadSafeTokenizerME(final TokenizerModel model, Factory factory) {
+    final TokenContextGenerator cg = factory.createTokenContextGenerator(model.getLanguage(),
+        TokenizerME.getAbbreviations(model.getAbbreviations()));
+    final Pattern alphanumeric = factory.getAlphanumeric(model.getLanguage());
+
+    tokenizer = new ThreadLocal<TokenizerME>() {
+      @Override
+      protected TokenizerME initialValue() {
+        return new TokenizerME(model, cg, alphanumeric);
+      }
+    };
+  }
+
+  /**
+   * Initializes the tokenizer with the specified model.
+   *
+   * @param model the model which is shared by the threads
+   */
+  public ThreadSafeTokenizerME(TokenizerModel model) {
+    this(model, new Factory());
+  }
+
+  public Span[] tokenizePos(String s) {
+    TokenizerME tokenizerME = tokenizer.get();
+
+    Span[] tokens = tokenizerME.tokenizePos(s);
+    double[] probs = tokenizerME.getTokenProbabilities();
+
+    for (int ti = 0; ti < tokens.length; ti++) {
+      tokens[ti] = new Span(tokens[ti].getStart(), tokens[ti].getEnd(), tokens[ti].getType(), probs[ti]);
+    }
+
+    return tokens;
+  }
+}
@@ -18,12 +18,14 @@
 package opennlp.tools.tokenize;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldExecutor;
 import opennlp.tools.util.model.ModelUtil;
 
 public class TokenizerCrossValidator {
@@ -68,7 +70,8 @@ public class TokenizerCrossValidator {
 
 
   /**
-   * Starts the evaluation.
+   * Starts the evaluation. The folds are evaluated in parallel if the
+   * {@link TrainingParameters#FOLD_THREADS_PARAM} parameter is set.
    * 
    * @param samples
    *          the data to train and test
@@ -80,24 +83,35 @@ public class TokenizerCrossValidator {
   public void evaluate(ObjectStream<TokenSample> samples, int nFolds) throws IOException {
     
     CrossValidationPartitioner<TokenSample> partitioner = 
-      new CrossValidationPartitioner<TokenSample>(samples, nFolds);
+      new CrossValidationPartitioner<TokenSample>(samples, nFolds, true);
   
-     while (partitioner.hasNext()) {
-       
-       CrossValidationPartitioner.TrainingSampleStream<TokenSample> trainingSampleStream =
-         partitioner.next();
-       
-       // Maybe throws IOException if temporary file handling fails ...
-       TokenizerModel model;
-       
-      model = TokenizerME.train(language, trainingSampleStream, abbreviations,
-          alphaNumericOptimization, params);
-       
-       TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), listeners);
-       
-       evaluator.evaluate(trainingSampleStream.getTestSampleStream());
-       fmeasure.mergeInto(evaluator.getFMeasure());
-     }
+    FoldExecutor foldExecutor = FoldExecutor.create(params);
+
+    final TokenizerEvaluationMonitor[] foldListeners =
+        foldExecutor.synchronizeMonitors(TokenizerEvaluationMonitor.class, listeners);
+
+    List<FMeasure> results = foldExecutor.evaluate(partitioner,
+        new FoldExecutor.Fold<TokenSample, FMeasure>() {
+      public FMeasure evaluate(
+          CrossValidationPartitioner.TrainingSampleStream<TokenSample> trainingSampleStream)
+          throws IOException {
+        
+        // Maybe throws IOException if temporary file handling fails ...
+        TokenizerModel model;
+        
+        model = TokenizerME.train(language, trainingSampleStream, abbreviations,
+            alphaNumericOptimization, params);
+        
+        TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), foldListeners);
+        
+        evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+        return evaluator.getFMeasure();
+      }
+    });
+    
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
+    }
   }
   
   public FMeasure getFMeasure() {
@@ -120,25 +120,43 @@ public class TokenizerME extends AbstractTokenizer {
 
   private List<Span> newTokens;
 
+  /**
+   * The outcome index of the split outcome.
+   */
+  private final int splitIndex;
+
+  /**
+   * Buffer for the probabilities of the split candidates within a token.
+   */
+  private double[] probs = new double[0];
+
   public TokenizerME(TokenizerModel model) {
     this(model, new Factory());
   }
   
   public TokenizerME(TokenizerModel model, Factory factory) {
-    String languageCode = model.getLanguage();
+    this(model, factory.createTokenContextGenerator(model.getLanguage(),
+        getAbbreviations(model.getAbbreviations())),
+        factory.getAlphanumeric(model.getLanguage()));
+  }
 
-    this.alphanumeric = factory.getAlphanumeric(languageCode);
-    this.cg = factory.createTokenContextGenerator(languageCode,
-        getAbbreviations(model.getAbbreviations()));
+  /**
+   * Initializes the tokenizer with an already created context generator and
+   * alpha numeric pattern, which can be shared with other tokenizers of the model.
+   */
+  TokenizerME(TokenizerModel model, TokenContextGenerator cg, Pattern alphanumeric) {
+    this.alphanumeric = alphanumeric;
+    this.cg = cg;
 
     this.model = model.getMaxentModel();
+    splitIndex = this.model.getIndex(SPLIT);
     useAlphaNumericOptimization = model.useAlphaNumericOptimization();
 
     newTokens = new ArrayList<Span>();
     tokProbs = new ArrayList<Double>(50);
   }
   
-  private static Set<String> getAbbreviations(Dictionary abbreviations) {
+  static Set<String> getAbbreviations(Dictionary abbreviations) {
     if(abbreviations == null) {
       return Collections.<String>emptySet();
     }
@@ -189,12 +207,29 @@ public class TokenizerME extends AbstractTokenizer {
         int end = s.getEnd();
         final int origStart = s.getStart();
         double tokenProb = 1.0;
+        
+        // the contexts do not depend on the previous decisions,
+        // therefore all split candidates are evaluated at once
+        String[][] contexts = new String[end - origStart - 1][];
+        for (int j = origStart + 1; j < end; j++) {
+          contexts[j - origStart - 1] = cg.getContext(tok, j - origStart);
+        }
+        
+        int numOutcomes = model.getNumOutcomes();
+        if (probs.length < contexts.length * numOutcomes) {
+          probs = new double[contexts.length * numOutcomes];
+        }
+        model.eval(contexts, probs);
+        
         for (int j = origStart + 1; j < end; j++) {
-          double[] probs =
-            model.eval(cg.getContext(tok, j - origStart));
-          String best = model.getBestOutcome(probs);
-          tokenProb *= probs[model.getIndex(best)];
-          if (best.equals(TokenizerME.SPLIT)) {
+          int offset = (j - origStart - 1) * numOutcomes;
+          int best = 0;
+          for (int oi = 1; oi < numOutcomes; oi++) {
+            if (probs[offset + oi] > probs[offset + best])
+              best = oi;
+          }
+          tokenProb *= probs[offset + best];
+          if (best == splitIndex) {
             newTokens.add(new Span(start, j));
             tokProbs.add(tokenProb);
             start = j;
@@ -19,6 +19,7 @@
 package opennlp.tools.tokenize;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -110,6 +111,10 @@ public final class TokenizerModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public TokenizerModel(File modelFile) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile);
+  }
+
   /**
    * Checks if the tokenizer model has the right outcomes.
    *
@@ -144,6 +149,20 @@ public final class TokenizerModel extends BaseModel {
     }
   }
 
+  @Override
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    super.validateArtifactEntries();
+
+    if (!artifactMap.containsKey(TOKENIZER_MODEL_ENTRY)) {
+      throw new InvalidFormatException("Token model is incomplete!");
+    }
+
+    if (getManifestProperty(USE_ALPHA_NUMERIC_OPTIMIZATION) == null) {
+      throw new InvalidFormatException("The " + USE_ALPHA_NUMERIC_OPTIMIZATION + " parameter " +
+          "cannot be found!");
+    }
+  }
+
   public AbstractModel getMaxentModel() {
     return (AbstractModel) artifactMap.get(TOKENIZER_MODEL_ENTRY);
   }
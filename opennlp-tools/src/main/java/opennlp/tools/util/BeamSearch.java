@@ -18,7 +18,6 @@
 package opennlp.tools.util;
 
 import java.util.Arrays;
-import java.util.List;
 
 import opennlp.model.MaxentModel;
 
@@ -29,8 +28,16 @@ import opennlp.model.MaxentModel;
  * @see Sequence
  * @see SequenceValidator
  * @see BeamSearchContextGenerator
+ * @see ViterbiDecoder
  */
-public class BeamSearch<T> {
+public class BeamSearch<T> implements SequenceDecoder<T> {
+
+  /**
+   * The name of this decoder for the
+   * {@link opennlp.tools.util.model.BaseModel#SEQUENCE_DECODER_PROPERTY} manifest property.
+   */
+  public static final String DECODER_NAME = "BeamSearch";
+
 
   private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
 
@@ -40,7 +47,26 @@ public class BeamSearch<T> {
   private SequenceValidator<T> validator;
 
   private double[] probs;
-  private Cache contextsCache;
+  private ContextScoreCache contextsCache;
+
+  /*
+   * The hypotheses of all steps are stored in flat arrays, the hypothesis
+   * in slot k of step i is at index i * capacity + k. Each hypothesis only
+   * stores its last outcome and the slot of its parent in the previous step,
+   * so hypotheses share the storage of their common prefix.
+   */
+  private int[] parents;
+  private int[] outcomeIds;
+  private double[] outcomeProbs;
+
+  private int[] heap;
+  private int[] prevOrder;
+  private double[] prevScores;
+  private double[] nextScores;
+  private int prevCount;
+  private int nextCount;
+
+  private final double[] topScores;
   private static final int zeroLog = -100000;
 
   /**
@@ -68,10 +94,11 @@ public class BeamSearch<T> {
     this.validator = validator;
 
     if (cacheSize > 0) {
-      contextsCache = new Cache(cacheSize);
+      contextsCache = new ContextScoreCache(cacheSize, model.getNumOutcomes());
     }
 
     this.probs = new double[model.getNumOutcomes()];
+    this.topScores = new double[size];
   }
 
   /**
@@ -97,6 +124,11 @@ public class BeamSearch<T> {
 
   /**
    * Returns the best sequence of outcomes based on model for this object.
+   * <p>
+   * If more sequences than the beam size are requested, the last step keeps
+   * that many of the best expanded hypotheses. Earlier versions kept a
+   * varying number of them and could return fewer sequences, the first
+   * beam size sequences are the same.
    *
    * @param numSequences The maximum number of sequences to be returned.
    * @param sequence The input sequence.
@@ -106,86 +138,275 @@ public class BeamSearch<T> {
    */
   public Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext, double minSequenceScore) {
 
-    Heap<Sequence> prev = new ListHeap<Sequence>(size);
-    Heap<Sequence> next = new ListHeap<Sequence>(size);
-    Heap<Sequence> tmp;
-    prev.add(new Sequence());
-
     if (additionalContext == null) {
       additionalContext = EMPTY_ADDITIONAL_CONTEXT;
     }
 
+    if (sequence.length == 0) {
+      return numSequences > 0 ? new Sequence[] {new Sequence()} : new Sequence[0];
+    }
+
+    // the last step keeps enough hypotheses to return the requested number of sequences
+    int capacity = Math.max(size, numSequences);
+    ensureCapacity(sequence.length, capacity);
+
+    // the root hypothesis, the empty sequence
+    prevCount = 1;
+    prevScores[0] = 0d;
+    prevOrder[0] = 0;
+
     for (int i = 0; i < sequence.length; i++) {
-      int sz = Math.min(size, prev.size());
-
-      for (int sc = 0; prev.size() > 0 && sc < sz; sc++) {
-        Sequence top = prev.extract();
-        List<String> tmpOutcomes = top.getOutcomes();
-        String[] outcomes = tmpOutcomes.toArray(new String[tmpOutcomes.size()]);
-        String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
-        double[] scores;
-        if (contextsCache != null) {
-          scores = (double[]) contextsCache.get(contexts);
-          if (scores == null) {
-            scores = model.eval(contexts, probs);
-            contextsCache.put(contexts,scores);
-          }
-        }
-        else {
-          scores = model.eval(contexts, probs);
-        }
+      int limit = i + 1 < sequence.length ? size : capacity;
+      int base = i * capacity;
+      nextCount = 0;
 
-        double[] temp_scores = new double[scores.length];
-        for (int c = 0; c < scores.length; c++) {
-          temp_scores[c] = scores[c];
+      String[] outcomes = new String[i];
+
+      int sz = Math.min(size, prevCount);
+
+      for (int sc = 0; sc < sz; sc++) {
+        int top = prevOrder[sc];
+        double topScore = prevScores[top];
+
+        // restore the outcome history of the hypothesis from the shared prefixes
+        for (int j = i - 1, slot = top; j >= 0; j--) {
+          outcomes[j] = model.getOutcome(outcomeIds[j * capacity + slot]);
+          slot = parents[j * capacity + slot];
         }
 
-        Arrays.sort(temp_scores);
+        double[] scores = score(i, sequence, outcomes, additionalContext);
 
-        double min = temp_scores[Math.max(0,scores.length-size)];
+        double min = selectMin(scores, size);
 
         for (int p = 0; p < scores.length; p++) {
           if (scores[p] < min)
             continue; //only advance first "size" outcomes
           String out = model.getOutcome(p);
           if (validSequence(i, sequence, outcomes, out)) {
-            Sequence ns = new Sequence(top, out, scores[p]);
-            if (ns.getScore() > minSequenceScore) {
-              next.add(ns);
+            double score = topScore + Math.log(scores[p]);
+            if (score > minSequenceScore) {
+              offer(base, limit, top, p, scores[p], score);
             }
           }
         }
 
-        if (next.size() == 0) {//if no advanced sequences, advance all valid
+        if (nextCount == 0) {//if no advanced sequences, advance all valid
           for (int p = 0; p < scores.length; p++) {
             String out = model.getOutcome(p);
             if (validSequence(i, sequence, outcomes, out)) {
-              Sequence ns = new Sequence(top, out, scores[p]);
-              if (ns.getScore() > minSequenceScore) {
-                next.add(ns);
+              double score = topScore + Math.log(scores[p]);
+              if (score > minSequenceScore) {
+                offer(base, limit, top, p, scores[p], score);
               }
             }
           }
         }
       }
 
-      //    make prev = next; and re-init next (we reuse existing prev set once we clear it)
-      prev.clear();
-      tmp = prev;
-      prev = next;
-      next = tmp;
+      // the next hypotheses become the previous ones, the arrays are swapped and reused
+      double[] tmpScores = prevScores;
+      prevScores = nextScores;
+      nextScores = tmpScores;
+      prevCount = nextCount;
+
+      // order the hypotheses by score, the best one first
+      System.arraycopy(heap, 0, prevOrder, 0, prevCount);
+      for (int a = 1; a < prevCount; a++) {
+        int slot = prevOrder[a];
+        int b = a - 1;
+        while (b >= 0 && prevScores[prevOrder[b]] < prevScores[slot]) {
+          prevOrder[b + 1] = prevOrder[b];
+          b--;
+        }
+        prevOrder[b + 1] = slot;
+      }
     }
 
-    int numSeq = Math.min(numSequences, prev.size());
+    int numSeq = Math.min(numSequences, prevCount);
     Sequence[] topSequences = new Sequence[numSeq];
 
     for (int seqIndex = 0; seqIndex < numSeq; seqIndex++) {
-      topSequences[seqIndex] = prev.extract();
+      int slot = prevOrder[seqIndex];
+
+      String[] outcomes = new String[sequence.length];
+      Double[] probs = new Double[sequence.length];
+
+      for (int j = sequence.length - 1; j >= 0; j--) {
+        outcomes[j] = model.getOutcome(outcomeIds[j * capacity + slot]);
+        probs[j] = outcomeProbs[j * capacity + slot];
+        slot = parents[j * capacity + slot];
+      }
+
+      topSequences[seqIndex] = new Sequence(Arrays.asList(outcomes), Arrays.asList(probs),
+          prevScores[prevOrder[seqIndex]]);
     }
 
     return topSequences;
   }
 
+  /**
+   * Computes the outcome scores for the hypothesis with the specified prior decisions.
+   * The returned array is reused by the next call.
+   */
+  private double[] score(int i, T[] sequence, String[] outcomes, Object[] additionalContext) {
+    double[] scores;
+    if (cg instanceof IndexedBeamSearchContextGenerator) {
+      int[] contextIds = ((IndexedBeamSearchContextGenerator<T>) cg).getContextIds(
+          i, sequence, outcomes, additionalContext, model);
+      if (contextsCache != null) {
+        scores = probs;
+        if (!contextsCache.get(contextIds, scores)) {
+          scores = model.eval(contextIds, probs);
+          contextsCache.put(contextIds, scores);
+        }
+      }
+      else {
+        scores = model.eval(contextIds, probs);
+      }
+    }
+    else {
+      String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
+      if (contextsCache != null) {
+        scores = probs;
+        if (!contextsCache.get(contexts, scores)) {
+          scores = model.eval(contexts, probs);
+          contextsCache.put(contexts, scores);
+        }
+      }
+      else {
+        scores = model.eval(contexts, probs);
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * Retrieves the k-th largest score, or the smallest score if there are
+   * less than k scores. Only the k largest scores are kept in a small
+   * sorted buffer, the scores array is not sorted.
+   */
+  private double selectMin(double[] scores, int k) {
+    int n = Math.min(k, scores.length);
+
+    // topScores is in ascending order, topScores[0] is the current k-th largest score
+    for (int p = 0; p < n; p++) {
+      double score = scores[p];
+      int b = p - 1;
+      while (b >= 0 && topScores[b] > score) {
+        topScores[b + 1] = topScores[b];
+        b--;
+      }
+      topScores[b + 1] = score;
+    }
+
+    for (int p = n; p < scores.length; p++) {
+      double score = scores[p];
+      if (score > topScores[0]) {
+        int b = 1;
+        while (b < n && topScores[b] < score) {
+          topScores[b - 1] = topScores[b];
+          b++;
+        }
+        topScores[b - 1] = score;
+      }
+    }
+
+    return topScores[0];
+  }
+
+  /**
+   * Adds a hypothesis for the current step if it is among the best limit ones
+   * seen so far. The hypotheses are kept in a min heap of slots, the worst one
+   * is at the root and replaced when a better one is offered.
+   */
+  private void offer(int base, int limit, int parent, int outcome, double prob, double score) {
+    int slot;
+    int i;
+
+    if (nextCount < limit) {
+      slot = nextCount;
+      i = nextCount++;
+
+      // percolate the new slot up
+      while (i > 0 && nextScores[heap[(i - 1) / 2]] > score) {
+        heap[i] = heap[(i - 1) / 2];
+        i = (i - 1) / 2;
+      }
+    }
+    else if (score > nextScores[heap[0]]) {
+      slot = heap[0];
+      i = 0;
+
+      // percolate the replaced root down
+      while (true) {
+        int l = 2 * i + 1;
+        int r = l + 1;
+        int smallest = i;
+        double smallestScore = score;
+
+        if (l < nextCount && nextScores[heap[l]] < smallestScore) {
+          smallest = l;
+          smallestScore = nextScores[heap[l]];
+        }
+        if (r < nextCount && nextScores[heap[r]] < smallestScore) {
+          smallest = r;
+        }
+        if (smallest == i)
+          break;
+
+        heap[i] = heap[smallest];
+        i = smallest;
+      }
+    }
+    else {
+      return;
+    }
+
+    heap[i] = slot;
+    nextScores[slot] = score;
+    parents[base + slot] = parent;
+    outcomeIds[base + slot] = outcome;
+    outcomeProbs[base + slot] = prob;
+  }
+
+  /**
+   * Grows the arrays which hold the hypotheses, they are kept and reused
+   * by the following calls.
+   */
+  private void ensureCapacity(int length, int capacity) {
+    if (heap == null || heap.length < capacity) {
+      heap = new int[capacity];
+      prevOrder = new int[capacity];
+      prevScores = new double[capacity];
+      nextScores = new double[capacity];
+    }
+
+    if (parents == null || parents.length < length * capacity) {
+      parents = new int[length * capacity];
+      outcomeIds = new int[length * capacity];
+      outcomeProbs = new double[length * capacity];
+    }
+  }
+
+  /**
+   * Retrieves the number of times the scores of a context were found in the cache.
+   *
+   * @return number of cache hits, 0 if the cache is disabled
+   */
+  public long getNumberOfCacheHits() {
+    return contextsCache != null ? contextsCache.getNumberOfCacheHits() : 0;
+  }
+
+  /**
+   * Retrieves the number of times the scores of a context had to be computed
+   * by the model because they were not in the cache.
+   *
+   * @return number of cache misses, 0 if the cache is disabled
+   */
+  public long getNumberOfCacheMisses() {
+    return contextsCache != null ? contextsCache.getNumberOfCacheMisses() : 0;
+  }
+
   /**
    * Returns the best sequence of outcomes based on model for this object.
    *
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.List;
+
+import opennlp.model.MaxentModel;
+
+/**
+ * Caches the predicate ids of context features which only depend on the input
+ * sequence and the position in it, but not on the prior decisions. Those
+ * features are generated and mapped to ids once per position, instead of
+ * once per position and beam entry.
+ * <p>
+ * The cache is bound to one model and one input sequence, it is cleared
+ * automatically when a different model or sequence is passed in.
+ * The sequence is compared by identity.
+ */
+public class ContextIdCache {
+
+  private MaxentModel model;
+  private Object[] sequence;
+  private int[][] ids;
+
+  /**
+   * Retrieves the cached ids for the specified position.
+   * 
+   * @return the ids or null if they are not cached
+   */
+  public int[] get(MaxentModel model, Object[] sequence, int index) {
+
+    if (this.model != model || this.sequence != sequence) {
+      this.model = model;
+      this.sequence = sequence;
+      ids = new int[sequence.length][];
+    }
+
+    return ids[index];
+  }
+
+  /**
+   * Caches the ids for the specified position of the sequence which
+   * was passed to the last {@link #get(MaxentModel, Object[], int)} call.
+   */
+  public void put(int index, int[] contextIds) {
+    ids[index] = contextIds;
+  }
+
+  public void clear() {
+    model = null;
+    sequence = null;
+    ids = null;
+  }
+
+  /**
+   * Maps the features to the predicate ids of the model.
+   * 
+   * @return the ids, unknown features are mapped to -1
+   */
+  public static int[] toIds(MaxentModel model, String[] features) {
+    int[] contextIds = new int[features.length];
+
+    for (int i = 0; i < contextIds.length; i++) {
+      contextIds[i] = model.getPredicateIndex(features[i]);
+    }
+
+    return contextIds;
+  }
+
+  /**
+   * Maps the features to the predicate ids of the model.
+   * 
+   * @return the ids, unknown features are mapped to -1
+   */
+  public static int[] toIds(MaxentModel model, List<String> features) {
+    int[] contextIds = new int[features.size()];
+
+    for (int i = 0; i < contextIds.length; i++) {
+      contextIds[i] = model.getPredicateIndex(features.get(i));
+    }
+
+    return contextIds;
+  }
+}
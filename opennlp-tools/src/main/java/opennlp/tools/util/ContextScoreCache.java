@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size cache which maps a context to the outcome scores of a model.
+ * <p>
+ * The contexts are compared by content, a context can either be given
+ * as predicate strings or as predicate ids. The keys are held in an open
+ * addressing hash table with linear probing, the scores of all entries are
+ * copied into one pre-allocated array. When the cache is full an entry is
+ * replaced with the CLOCK algorithm, an approximation of least recently used
+ * replacement which does not need to reorder anything on a hit.
+ * <p>
+ * The cache is not thread safe.
+ */
+public class ContextScoreCache {
+
+  private final int capacity;
+  private final int numOutcomes;
+
+  /** The entry index + 1 for each hash table slot, 0 marks a free slot. */
+  private final int[] table;
+  private final int mask;
+
+  /** The key of each entry, either a String[] or an int[]. */
+  private final Object[] keys;
+  private final int[] hashes;
+  private final boolean[] referenced;
+
+  /** The scores of entry i start at i * numOutcomes. */
+  private final double[] scores;
+
+  private int size;
+  private int hand;
+
+  private long numberOfCacheHits;
+  private long numberOfCacheMisses;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param capacity the maximum number of contexts in the cache
+   * @param numOutcomes the number of outcomes of the model
+   */
+  public ContextScoreCache(int capacity, int numOutcomes) {
+
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+
+    this.capacity = capacity;
+    this.numOutcomes = numOutcomes;
+
+    // keep the load factor at or below 0.5
+    int tableSize = 2;
+    while (tableSize < capacity * 2) {
+      tableSize <<= 1;
+    }
+
+    table = new int[tableSize];
+    mask = tableSize - 1;
+
+    keys = new Object[capacity];
+    hashes = new int[capacity];
+    referenced = new boolean[capacity];
+    scores = new double[capacity * numOutcomes];
+  }
+
+  /**
+   * Copies the cached scores of the context into the specified array.
+   *
+   * @param context the predicates of the context
+   * @param probs the array to copy the scores to
+   *
+   * @return true if the context was found, otherwise false
+   */
+  public boolean get(String[] context, double[] probs) {
+    return get(context, Arrays.hashCode(context), probs);
+  }
+
+  /**
+   * Copies the cached scores of the context into the specified array.
+   *
+   * @param context the predicate ids of the context
+   * @param probs the array to copy the scores to
+   *
+   * @return true if the context was found, otherwise false
+   */
+  public boolean get(int[] context, double[] probs) {
+    return get(context, Arrays.hashCode(context), probs);
+  }
+
+  /**
+   * Puts the scores of the context into the cache. The context array is
+   * referenced by the cache and must not be modified afterwards,
+   * the scores are copied.
+   */
+  public void put(String[] context, double[] probs) {
+    put(context, Arrays.hashCode(context), probs);
+  }
+
+  /**
+   * Puts the scores of the context into the cache. The context array is
+   * referenced by the cache and must not be modified afterwards,
+   * the scores are copied.
+   */
+  public void put(int[] context, double[] probs) {
+    put(context, Arrays.hashCode(context), probs);
+  }
+
+  private boolean get(Object context, int hash, double[] probs) {
+    int entry = find(context, hash);
+
+    if (entry != -1) {
+      numberOfCacheHits++;
+      referenced[entry] = true;
+      System.arraycopy(scores, entry * numOutcomes, probs, 0, numOutcomes);
+      return true;
+    }
+
+    numberOfCacheMisses++;
+    return false;
+  }
+
+  private void put(Object context, int hash, double[] probs) {
+    int entry = find(context, hash);
+
+    if (entry == -1) {
+      if (size < capacity) {
+        entry = size++;
+      }
+      else {
+        entry = evict();
+      }
+
+      keys[entry] = context;
+      hashes[entry] = hash;
+
+      int slot = hash & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = entry + 1;
+    }
+
+    referenced[entry] = true;
+    System.arraycopy(probs, 0, scores, entry * numOutcomes, numOutcomes);
+  }
+
+  /**
+   * Retrieves the entry index of the context.
+   *
+   * @return the entry index or -1 if the context is not cached
+   */
+  private int find(Object context, int hash) {
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = table[slot] - 1;
+
+      if (hashes[entry] == hash && keyEquals(keys[entry], context)) {
+        return entry;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Advances the clock hand to the first entry which was not referenced
+   * since the last sweep and removes it.
+   *
+   * @return the index of the removed entry
+   */
+  private int evict() {
+    while (referenced[hand]) {
+      referenced[hand] = false;
+      hand = (hand + 1) % capacity;
+    }
+
+    int entry = hand;
+    hand = (hand + 1) % capacity;
+
+    removeFromTable(entry);
+    keys[entry] = null;
+
+    return entry;
+  }
+
+  /**
+   * Removes the entry from the hash table and shifts the following
+   * entries of the probe sequence back, so that no tombstones are needed.
+   */
+  private void removeFromTable(int entry) {
+    int slot = hashes[entry] & mask;
+    while (table[slot] != entry + 1) {
+      slot = (slot + 1) & mask;
+    }
+
+    int free = slot;
+    for (slot = (slot + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int home = hashes[table[slot] - 1] & mask;
+
+      // move the entry if its home slot is not within (free, slot]
+      if (((slot - home) & mask) >= ((slot - free) & mask)) {
+        table[free] = table[slot];
+        free = slot;
+      }
+    }
+
+    table[free] = 0;
+  }
+
+  private static boolean keyEquals(Object key, Object context) {
+    if (key instanceof String[] && context instanceof String[]) {
+      return Arrays.equals((String[]) key, (String[]) context);
+    }
+    else if (key instanceof int[] && context instanceof int[]) {
+      return Arrays.equals((int[]) key, (int[]) context);
+    }
+
+    return false;
+  }
+
+  /**
+   * Removes all contexts from the cache, the hit and miss counts are kept.
+   */
+  public void clear() {
+    Arrays.fill(table, 0);
+    Arrays.fill(keys, null);
+    Arrays.fill(referenced, false);
+    size = 0;
+    hand = 0;
+  }
+
+  /**
+   * Retrieves the number of contexts in the cache.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Retrieves the number of times a cache hit occurred.
+   *
+   * @return number of cache hits
+   */
+  public long getNumberOfCacheHits() {
+    return numberOfCacheHits;
+  }
+
+  /**
+   * Retrieves the number of times a cache miss occurred.
+   *
+   * @return number of cache misses
+   */
+  public long getNumberOfCacheMisses() {
+    return numberOfCacheMisses;
+  }
+
+  @Override
+  public String toString() {
+    return super.toString()+": hits=" + numberOfCacheHits+" misses="+ numberOfCacheMisses+" hit%"+ (numberOfCacheHits > 0 ?
+        (double) numberOfCacheHits/(numberOfCacheMisses+numberOfCacheHits) : 0);
+  }
+}
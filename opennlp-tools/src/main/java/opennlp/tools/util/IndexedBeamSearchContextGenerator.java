@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import opennlp.model.MaxentModel;
+
+/**
+ * A {@link BeamSearchContextGenerator} which can produce the context directly
+ * as predicate ids of a model. The {@link BeamSearch} uses this to skip building
+ * and hashing the predicate strings for features which have already been
+ * mapped to ids.
+ */
+public interface IndexedBeamSearchContextGenerator<T> extends BeamSearchContextGenerator<T> {
+
+  /**
+   * Returns the context for the specified position in the specified sequence
+   * as predicate ids of the specified model.
+   * 
+   * @param index The index of the sequence.
+   * @param sequence  The sequence of items over which the beam search is performed.
+   * @param priorDecisions The sequence of decisions made prior to the context for which this decision is being made.
+   * @param additionalContext Any addition context specific to a class implementing this interface.
+   * @param model The model which maps the predicates to ids, see {@link MaxentModel#getPredicateIndex(String)}.
+   * 
+   * @return the predicate ids of the context, unknown predicates might be included as -1.
+   */
+  public int[] getContextIds(int index, T[] sequence, String[] priorDecisions,
+      Object[] additionalContext, MaxentModel model);
+}
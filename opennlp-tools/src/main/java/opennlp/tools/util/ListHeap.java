@@ -182,6 +182,7 @@ public class ListHeap<E extends Comparable<E>> implements Heap<E> {
 
   public void clear() {
     list.clear();
+    max = null;
   }
 
   public Iterator<E> iterator() {
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import opennlp.model.Event;
+
+/**
+ * An event stream which creates the events of the samples with multiple threads.
+ * <p>
+ * The samples are read in batches by the thread which consumes the events. Each
+ * batch is split into one contiguous part per thread and every thread creates
+ * the events of its part with its own event stream, only the
+ * {@link AbstractEventStream#createEvents(Object)} method of these streams is used.
+ * While the events of one batch are consumed the events of the next batch are created.
+ * <p>
+ * The events are returned in the order of the samples, the same order in which
+ * a single event stream returns them. The event streams must create the events
+ * of a sample independently of the samples they have seen before.
+ * <p>
+ * The threads are started by the first call to {@link #hasNext()} and stopped
+ * when all events were returned. A stream which is not consumed to the end
+ * must be closed.
+ */
+public class ParallelEventStream<T> extends opennlp.model.AbstractEventStream {
+
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  private final ObjectStream<T> samples;
+
+  private final List<? extends AbstractEventStream<T>> generators;
+
+  private final int batchSize;
+
+  private ExecutorService executor;
+
+  private boolean closed;
+
+  /** The events of the next batch, one future per thread. */
+  private List<Future<List<Event>>> nextBatch;
+
+  private Iterator<Event> events = Collections.<Event>emptyList().iterator();
+
+  /**
+   * Initializes the stream.
+   *
+   * @param samples the samples
+   * @param generators one event stream per thread which creates the events
+   * @param batchSize the number of samples each thread processes at once
+   */
+  public ParallelEventStream(ObjectStream<T> samples,
+      List<? extends AbstractEventStream<T>> generators, int batchSize) {
+
+    if (generators.isEmpty())
+      throw new IllegalArgumentException("At least one event stream is required!");
+
+    if (batchSize < 1)
+      throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+
+    this.samples = samples;
+    this.generators = new ArrayList<AbstractEventStream<T>>(generators);
+    this.batchSize = batchSize;
+  }
+
+  public ParallelEventStream(ObjectStream<T> samples,
+      List<? extends AbstractEventStream<T>> generators) {
+    this(samples, generators, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Reads the next batch of samples and submits the event creation.
+   *
+   * @return the futures of the events, or null if there are no more samples
+   */
+  private List<Future<List<Event>>> submitBatch() throws IOException {
+    List<T> batch = new ArrayList<T>(batchSize * generators.size());
+
+    T sample;
+    while (batch.size() < batchSize * generators.size() && (sample = samples.read()) != null) {
+      batch.add(sample);
+    }
+
+    if (batch.isEmpty())
+      return null;
+
+    List<Future<List<Event>>> futures = new ArrayList<Future<List<Event>>>(generators.size());
+
+    int partSize = (batch.size() + generators.size() - 1) / generators.size();
+
+    for (int i = 0; i * partSize < batch.size(); i++) {
+      final AbstractEventStream<T> generator = generators.get(i);
+      final List<T> part = batch.subList(i * partSize, Math.min(batch.size(), (i + 1) * partSize));
+
+      futures.add(executor.submit(new Callable<List<Event>>() {
+        public List<Event> call() {
+          List<Event> partEvents = new ArrayList<Event>();
+
+          for (T partSample : part) {
+            for (Iterator<Event> it = generator.createEvents(partSample); it.hasNext(); ) {
+              partEvents.add(it.next());
+            }
+          }
+
+          return partEvents;
+        }
+      }));
+    }
+
+    return futures;
+  }
+
+  private static List<Event> collect(List<Future<List<Event>>> futures) throws IOException {
+    List<Event> batchEvents = new ArrayList<Event>();
+
+    for (Future<List<Event>> future : futures) {
+      try {
+        batchEvents.addAll(future.get());
+      } catch (InterruptedException e) {
+        throw new IllegalStateException("Interruption is not supported!", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException)
+          throw (RuntimeException) e.getCause();
+
+        throw new RuntimeException(e.getCause());
+      }
+    }
+
+    return batchEvents;
+  }
+
+  public boolean hasNext() throws IOException {
+
+    if (executor == null && !closed) {
+      executor = Executors.newFixedThreadPool(generators.size(), new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "event-stream");
+          // an event stream which is not closed must not block the exit
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+
+    while (!events.hasNext() && executor != null) {
+      try {
+        if (nextBatch == null)
+          nextBatch = submitBatch();
+
+        if (nextBatch == null) {
+          close();
+          break;
+        }
+
+        List<Event> batchEvents = collect(nextBatch);
+
+        // the threads are idle now, create the events of the next batch
+        // while the current batch is consumed
+        nextBatch = submitBatch();
+
+        events = batchEvents.iterator();
+      }
+      catch (IOException e) {
+        close();
+        throw e;
+      }
+      catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+    }
+
+    return events.hasNext();
+  }
+
+  public Event next() {
+    return events.next();
+  }
+
+  /**
+   * Stops the threads, the remaining events of the current batch can still
+   * be retrieved. The samples stream is not closed.
+   */
+  public void close() {
+    closed = true;
+
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+
+    nextBatch = null;
+  }
+}
@@ -53,6 +53,17 @@ public class Sequence implements Comparable<Sequence> {
       score = s.score+Math.log(p);
     }
 
+  /**
+   * Creates a sequence from the specified outcomes and probabilities,
+   * the lists are copied. The score must be the sum of the logs of the
+   * probabilities.
+   */
+  Sequence(List<String> outcomes, List<Double> probs, double score) {
+    this.outcomes = new ArrayList<String>(outcomes);
+    this.probs = new ArrayList<Double>(probs);
+    this.score = score;
+  }
+
   public Sequence(List<String> outcomes) {
     this.outcomes = outcomes;
     this.probs = Collections.nCopies(outcomes.size(),ONE);
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+/**
+ * Interface for decoders which find the most likely sequences of outcomes
+ * for an input sequence.
+ * <p>
+ * The decoder which is used by a component can be selected per model with the
+ * {@link opennlp.tools.util.model.BaseModel#SEQUENCE_DECODER_PROPERTY} manifest property.
+ *
+ * @see BeamSearch
+ * @see ViterbiDecoder
+ */
+public interface SequenceDecoder<T> {
+
+  /**
+   * Returns the best sequences of outcomes.
+   *
+   * @param numSequences The maximum number of sequences to be returned.
+   * @param sequence The input sequence.
+   * @param additionalContext An Object[] of additional context.  This is passed to the context generator blindly with the assumption that the context are appropiate.
+   * @param minSequenceScore A lower bound on the score of a returned sequence.
+   * @return An array of the top ranked sequences of outcomes.
+   */
+  Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext,
+      double minSequenceScore);
+
+  /**
+   * Returns the best sequences of outcomes.
+   *
+   * @param numSequences The maximum number of sequences to be returned.
+   * @param sequence The input sequence.
+   * @param additionalContext An Object[] of additional context.
+   * @return An array of the top ranked sequences of outcomes.
+   */
+  Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext);
+
+  /**
+   * Returns the best sequence of outcomes.
+   *
+   * @param sequence The input sequence.
+   * @param additionalContext An Object[] of additional context.
+   *
+   * @return The top ranked sequence of outcomes or null if no sequence could be found
+   */
+  Sequence bestSequence(T[] sequence, Object[] additionalContext);
+}
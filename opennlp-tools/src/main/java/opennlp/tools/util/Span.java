@@ -28,14 +28,18 @@ public class Span implements Comparable<Span> {
   
   private final String type;
 
+  private final double prob;
+
   /**
-   * Initializes a new Span Object.
+   * Initializes a new Span Object with a probability.
+   * The probability is not considered by {@link #equals(Object)}.
    *
    * @param s start of span.
    * @param e end of span, which is +1 more than the last element in the span.
    * @param type the type of the span
+   * @param prob the probability of the span
    */
-  public Span(int s, int e, String type) {
+  public Span(int s, int e, String type, double prob) {
     
     if (s < 0 || e <0)
       throw new IllegalArgumentException("start and end index must be zero or greater!");
@@ -46,6 +50,18 @@ public class Span implements Comparable<Span> {
     start = s;
     end = e;
     this.type = type;
+    this.prob = prob;
+  }
+
+  /**
+   * Initializes a new Span Object.
+   *
+   * @param s start of span.
+   * @param e end of span, which is +1 more than the last element in the span.
+   * @param type the type of the span
+   */
+  public Span(int s, int e, String type) {
+    this(s, e, type, 0d);
   }
   
   /**
@@ -66,7 +82,7 @@ public class Span implements Comparable<Span> {
    * @param offset
    */
   public Span(Span span, int offset) {
-    this(span.start + offset, span.end + offset, span.getType());
+    this(span.start + offset, span.end + offset, span.getType(), span.getProb());
   }
   
   /**
@@ -99,6 +115,15 @@ public class Span implements Comparable<Span> {
   public String getType() {
     return type; 
   }
+
+  /**
+   * Retrieves the probability of the span.
+   *
+   * @return the probability, or 0 if it was not set
+   */
+  public double getProb() {
+    return prob;
+  }
   
   /**
    * Returns the length of this span.
@@ -31,6 +31,31 @@ public class TrainingParameters {
   
   public static final String ITERATIONS_PARAM = "Iterations";
   public static final String CUTOFF_PARAM = "Cutoff";
+
+  /**
+   * The number of threads used for training, some components also
+   * generate their training events with this number of threads.
+   */
+  public static final String THREADS_PARAM = "Threads";
+
+  /**
+   * The number of cross validation folds which are trained and evaluated
+   * at the same time.
+   */
+  public static final String FOLD_THREADS_PARAM = "FoldThreads";
+
+  /**
+   * The heap memory in megabytes which one cross validation fold needs, a fold
+   * is only started next to other folds if this much heap memory is available.
+   */
+  public static final String FOLD_MEMORY_PARAM = "FoldMemory";
+
+  /**
+   * The sequence decoder which should be used with the trained model,
+   * it is written to the {@link opennlp.tools.util.model.BaseModel#SEQUENCE_DECODER_PROPERTY}
+   * manifest property.
+   */
+  public static final String SEQUENCE_DECODER_PARAM = "SequenceDecoder";
   
   private Map<String, String> parameters = new HashMap<String, String>();
   
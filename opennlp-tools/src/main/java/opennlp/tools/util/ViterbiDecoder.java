@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import opennlp.model.MaxentModel;
+
+/**
+ * Performs a Viterbi search over the lattice of outcome histories.
+ * <p>
+ * A state of the lattice is the sequence of the last <code>order</code> outcomes.
+ * The model is evaluated once for every state which is reachable at a position,
+ * and only the best path into each state is kept. If the context generator and the
+ * sequence validator do not look further back than <code>order</code> outcomes,
+ * the returned best sequence is the most likely sequence of the model. The default
+ * context generators of the name finder, the pos tagger and the chunker only look at
+ * the last two outcomes.
+ * <p>
+ * Only the states which are reachable at a position are stored, the memory
+ * does not grow with the number of possible states.
+ * <p>
+ * The prior decisions passed to the context generator always contain the complete
+ * best path into the state.
+ * <p>
+ * The n-best list is approximate. If more than one sequence is requested, the best
+ * paths into the best final states are returned. These are distinct sequences, but
+ * a sequence which is not the best path into its final state is never returned,
+ * even if it scores higher than the best path into another final state.
+ *
+ * @see BeamSearch
+ */
+public class ViterbiDecoder<T> implements SequenceDecoder<T> {
+
+  /**
+   * The name of this decoder for the
+   * {@link opennlp.tools.util.model.BaseModel#SEQUENCE_DECODER_PROPERTY} manifest property.
+   */
+  public static final String DECODER_NAME = "Viterbi";
+
+  public static final int DEFAULT_ORDER = 2;
+
+  private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
+
+  private static final double zeroLog = -100000;
+
+  private final BeamSearchContextGenerator<T> cg;
+  private final MaxentModel model;
+  private final SequenceValidator<T> validator;
+
+  private final int numOutcomes;
+
+  /** The base of the state codes, the last digit marks the position before the sequence. */
+  private final int base;
+  private final int numStates;
+
+  private final double[] probs;
+
+  /*
+   * Open addressing hash table from the code of a state to its active index
+   * at the current position. A slot is only used if its stamp matches, the
+   * table is cleared for the next position by incrementing the stamp.
+   */
+  private int[] slotCodes = new int[64];
+  private int[] slotIndex = new int[64];
+  private int[] slotStamp = new int[64];
+  private int stamp;
+
+  /*
+   * The active states of all positions are appended to these arrays,
+   * each state refers to its best predecessor by index.
+   */
+  private int[] codes = new int[64];
+  private int[] backPointers = new int[64];
+  private int[] outcomeIds = new int[64];
+  private double[] outcomeProbs = new double[64];
+  private double[] scores = new double[64];
+
+  /**
+   * Creates a decoder which assumes that the contexts depend on the last
+   * {@link #DEFAULT_ORDER} outcomes.
+   *
+   * @param cg the context generator for the model.
+   * @param model the model for assigning probabilities to the sequence outcomes.
+   * @param validator the sequence validator or null.
+   */
+  public ViterbiDecoder(BeamSearchContextGenerator<T> cg, MaxentModel model,
+      SequenceValidator<T> validator) {
+    this(cg, model, validator, DEFAULT_ORDER);
+  }
+
+  /**
+   * Creates a decoder.
+   *
+   * @param cg the context generator for the model.
+   * @param model the model for assigning probabilities to the sequence outcomes.
+   * @param validator the sequence validator or null.
+   * @param order the number of previous outcomes the contexts depend on.
+   */
+  public ViterbiDecoder(BeamSearchContextGenerator<T> cg, MaxentModel model,
+      SequenceValidator<T> validator, int order) {
+
+    if (order < 1) {
+      throw new IllegalArgumentException("order must be at least 1: " + order);
+    }
+
+    this.cg = cg;
+    this.model = model;
+    this.validator = validator;
+
+    numOutcomes = model.getNumOutcomes();
+    base = numOutcomes + 1;
+
+    long states = 1;
+    for (int i = 0; i < order; i++) {
+      states *= base;
+
+      if (states > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Too many states for " + numOutcomes +
+            " outcomes and order " + order + "!");
+      }
+    }
+    numStates = (int) states;
+
+    probs = new double[numOutcomes];
+  }
+
+  private boolean validSequence(int i, T[] inputSequence, String[] outcomesSequence, String outcome) {
+
+    if (validator != null) {
+      return validator.validSequence(i, inputSequence, outcomesSequence, outcome);
+    }
+    else {
+      return true;
+    }
+  }
+
+  public Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext) {
+    return bestSequences(numSequences, sequence, additionalContext, zeroLog);
+  }
+
+  public Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext,
+      double minSequenceScore) {
+
+    if (additionalContext == null) {
+      additionalContext = EMPTY_ADDITIONAL_CONTEXT;
+    }
+
+    // the start state, no outcome at any history position
+    codes[0] = numStates - 1;
+    backPointers[0] = -1;
+    scores[0] = 0d;
+
+    int prevStart = 0;
+    int prevEnd = 1;
+
+    for (int i = 0; i < sequence.length; i++) {
+      int curEnd = prevEnd;
+
+      nextStamp();
+
+      String[] outcomes = new String[i];
+
+      for (int a = prevStart; a < prevEnd; a++) {
+
+        // restore the best path into the state
+        for (int j = i - 1, s = a; j >= 0; j--) {
+          outcomes[j] = model.getOutcome(outcomeIds[s]);
+          s = backPointers[s];
+        }
+
+        double[] outcomeScores = score(i, sequence, outcomes, additionalContext);
+
+        int shiftedCode = (int) (((long) codes[a] * base) % numStates);
+
+        for (int o = 0; o < outcomeScores.length; o++) {
+          if (!validSequence(i, sequence, outcomes, model.getOutcome(o)))
+            continue;
+
+          double score = scores[a] + Math.log(outcomeScores[o]);
+
+          if (score <= minSequenceScore)
+            continue;
+
+          int code = shiftedCode + o;
+          int slot = findSlot(code);
+          int index;
+
+          if (slotStamp[slot] != stamp) {
+            index = curEnd++;
+            ensureCapacity(curEnd);
+
+            slotStamp[slot] = stamp;
+            slotCodes[slot] = code;
+            slotIndex[slot] = index;
+            codes[index] = code;
+
+            // keep the table at most half full
+            if (2 * (curEnd - prevEnd) > slotCodes.length) {
+              rehash(prevEnd, curEnd);
+            }
+          }
+          else {
+            index = slotIndex[slot];
+
+            if (score <= scores[index])
+              continue;
+          }
+
+          scores[index] = score;
+          backPointers[index] = a;
+          outcomeIds[index] = o;
+          outcomeProbs[index] = outcomeScores[o];
+        }
+      }
+
+      prevStart = prevEnd;
+      prevEnd = curEnd;
+    }
+
+    // order the final states by score, the best one first
+    Integer[] finalStates = new Integer[prevEnd - prevStart];
+    for (int a = prevStart; a < prevEnd; a++) {
+      finalStates[a - prevStart] = a;
+    }
+
+    Arrays.sort(finalStates, new Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        return Double.compare(scores[b], scores[a]);
+      }
+    });
+
+    int numSeq = Math.min(numSequences, finalStates.length);
+    Sequence[] topSequences = new Sequence[numSeq];
+
+    for (int seqIndex = 0; seqIndex < numSeq; seqIndex++) {
+      String[] outcomes = new String[sequence.length];
+      Double[] outcomeProbabilities = new Double[sequence.length];
+
+      for (int j = sequence.length - 1, s = finalStates[seqIndex]; j >= 0; j--) {
+        outcomes[j] = model.getOutcome(outcomeIds[s]);
+        outcomeProbabilities[j] = outcomeProbs[s];
+        s = backPointers[s];
+      }
+
+      topSequences[seqIndex] = new Sequence(Arrays.asList(outcomes),
+          Arrays.asList(outcomeProbabilities), scores[finalStates[seqIndex]]);
+    }
+
+    return topSequences;
+  }
+
+  public Sequence bestSequence(T[] sequence, Object[] additionalContext) {
+    Sequence sequences[] = bestSequences(1, sequence, additionalContext, zeroLog);
+
+    if (sequences.length > 0)
+      return sequences[0];
+    else
+      return null;
+  }
+
+  private double[] score(int i, T[] sequence, String[] outcomes, Object[] additionalContext) {
+    if (cg instanceof IndexedBeamSearchContextGenerator) {
+      return model.eval(((IndexedBeamSearchContextGenerator<T>) cg).getContextIds(
+          i, sequence, outcomes, additionalContext, model), probs);
+    }
+    else {
+      return model.eval(cg.getContext(i, sequence, outcomes, additionalContext), probs);
+    }
+  }
+
+  private void nextStamp() {
+    if (++stamp == 0) {
+      Arrays.fill(slotStamp, 0);
+      stamp = 1;
+    }
+  }
+
+  /**
+   * Retrieves the slot of the state code in the current position, or the
+   * free slot where it has to be inserted.
+   */
+  private int findSlot(int code) {
+    int mask = slotCodes.length - 1;
+    int hash = code * 0x9E3779B9;
+    int slot = (hash ^ hash >>> 16) & mask;
+
+    while (slotStamp[slot] == stamp && slotCodes[slot] != code) {
+      slot = (slot + 1) & mask;
+    }
+
+    return slot;
+  }
+
+  /**
+   * Doubles the hash table and inserts the states of the current position again.
+   */
+  private void rehash(int start, int end) {
+    int capacity = slotCodes.length * 2;
+    slotCodes = new int[capacity];
+    slotIndex = new int[capacity];
+    slotStamp = new int[capacity];
+    stamp = 1;
+
+    for (int index = start; index < end; index++) {
+      int slot = findSlot(codes[index]);
+      slotStamp[slot] = stamp;
+      slotCodes[slot] = codes[index];
+      slotIndex[slot] = index;
+    }
+  }
+
+  private void ensureCapacity(int length) {
+    if (codes.length < length) {
+      int capacity = Math.max(length, codes.length * 2);
+
+      int[] newCodes = new int[capacity];
+      System.arraycopy(codes, 0, newCodes, 0, codes.length);
+      codes = newCodes;
+
+      int[] newBackPointers = new int[capacity];
+      System.arraycopy(backPointers, 0, newBackPointers, 0, backPointers.length);
+      backPointers = newBackPointers;
+
+      int[] newOutcomeIds = new int[capacity];
+      System.arraycopy(outcomeIds, 0, newOutcomeIds, 0, outcomeIds.length);
+      outcomeIds = newOutcomeIds;
+
+      double[] newOutcomeProbs = new double[capacity];
+      System.arraycopy(outcomeProbs, 0, newOutcomeProbs, 0, outcomeProbs.length);
+      outcomeProbs = newOutcomeProbs;
+
+      double[] newScores = new double[capacity];
+      System.arraycopy(scores, 0, newScores, 0, scores.length);
+      scores = newScores;
+    }
+  }
+}
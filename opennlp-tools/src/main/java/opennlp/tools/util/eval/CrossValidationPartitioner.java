@@ -19,7 +19,9 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import opennlp.tools.util.CollectionObjectStream;
@@ -38,6 +40,10 @@ import opennlp.tools.util.ObjectStream;
  * one partition and is used first for training and afterwards for testing.
  * The <code>TestSampleStream</code> can be obtained from the <code>TrainingSampleStream</code>
  * with the <code>getTestSampleStream</code> method.
+ * <p>
+ * If the partitioner caches the samples, the samples are read once into memory
+ * and the partitions do not share a stream. Then all partitions can be used at
+ * the same time, for example to train and evaluate them in parallel.
  */
 public class CrossValidationPartitioner<E> {
 
@@ -153,10 +159,16 @@ public class CrossValidationPartitioner<E> {
     }
     
     /**
-     * Throws <code>UnsupportedOperationException</code>
+     * Moves back to the first training element.
      */
-    public void reset() {
-      throw new UnsupportedOperationException();
+    public void reset() throws IOException {
+      
+      if (testSampleStream != null || isPoisened) {
+        throw new IllegalStateException();
+      }
+      
+      sampleStream.reset();
+      index = 0;
     }
     
     public void close() throws IOException {
@@ -200,6 +212,16 @@ public class CrossValidationPartitioner<E> {
    */
   private ObjectStream<E> sampleStream;
   
+  /**
+   * Indicates that the samples are read into memory.
+   */
+  private final boolean cacheSamples;
+  
+  /**
+   * The cached samples, they are read on the first call to {@link #next()}.
+   */
+  private List<E> samples;
+  
   /**
    * The number of parts the data is divided into.
    */
@@ -224,8 +246,22 @@ public class CrossValidationPartitioner<E> {
    * @param numberOfPartitions
    */
   public CrossValidationPartitioner(ObjectStream<E> inElements, int numberOfPartitions) {
+    this(inElements, numberOfPartitions, false);
+  }
+  
+  /**
+   * Initializes the current instance.
+   * 
+   * @param inElements
+   * @param numberOfPartitions
+   * @param cacheSamples if true the elements are read once into memory, and
+   *     the partitions can be used at the same time
+   */
+  public CrossValidationPartitioner(ObjectStream<E> inElements, int numberOfPartitions,
+      boolean cacheSamples) {
     this.sampleStream = inElements;
     this.numberOfPartitions = numberOfPartitions;
+    this.cacheSamples = cacheSamples;
   }
   
   /**
@@ -238,6 +274,14 @@ public class CrossValidationPartitioner<E> {
     this(new CollectionObjectStream<E>(elements), numberOfPartitions);
   }
 
+  /**
+   * Checks if the samples are read into memory, the partitions can
+   * then be used at the same time.
+   */
+  public boolean isCachingSamples() {
+    return cacheSamples;
+  }
+  
   /**
    * Checks if there are more partitions available.
    */
@@ -250,13 +294,32 @@ public class CrossValidationPartitioner<E> {
    */
   public TrainingSampleStream<E> next() throws IOException {
     if (hasNext()) {
-      if (lastTrainingSampleStream != null)
-        lastTrainingSampleStream.poison();
       
-      sampleStream.reset();
+      TrainingSampleStream<E> trainingSampleStream;
       
-      TrainingSampleStream<E> trainingSampleStream = new TrainingSampleStream<E>(sampleStream,
-          numberOfPartitions, testIndex);
+      if (cacheSamples) {
+        if (samples == null) {
+          samples = new ArrayList<E>();
+          
+          E sample;
+          while ((sample = sampleStream.read()) != null) {
+            samples.add(sample);
+          }
+        }
+        
+        // every partition has its own stream
+        trainingSampleStream = new TrainingSampleStream<E>(
+            new CollectionObjectStream<E>(samples), numberOfPartitions, testIndex);
+      }
+      else {
+        if (lastTrainingSampleStream != null)
+          lastTrainingSampleStream.poison();
+        
+        sampleStream.reset();
+        
+        trainingSampleStream = new TrainingSampleStream<E>(sampleStream,
+            numberOfPartitions, testIndex);
+      }
       
       testIndex++;
       
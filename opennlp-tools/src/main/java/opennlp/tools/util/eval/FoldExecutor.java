@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.eval;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Trains and evaluates the folds of a cross validation, one after another
+ * or in parallel.
+ * <p>
+ * Folds can only be evaluated in parallel if the {@link CrossValidationPartitioner}
+ * caches the samples. The results are returned in the order of the folds, and the
+ * cross validators merge them in this order, independent of the number of threads.
+ * The folds of the cross validators share their evaluation monitors, the
+ * monitors are wrapped with {@link #synchronizeMonitors(Class, EvaluationMonitor[])}
+ * so a monitor is only called by one thread at a time.
+ * <p>
+ * Each fold holds its own model and training data in memory. If the fold memory
+ * is set, a fold is only started next to the running folds if the free heap
+ * memory is at least the fold memory, otherwise it waits until a running fold
+ * is done.
+ */
+public class FoldExecutor {
+
+  /**
+   * Trains and evaluates one fold.
+   *
+   * @param <E> the type of the samples
+   * @param <R> the type of the evaluation result
+   */
+  public interface Fold<E, R> {
+    R evaluate(CrossValidationPartitioner.TrainingSampleStream<E> trainingSampleStream)
+        throws IOException;
+  }
+
+  /**
+   * Forwards the calls to a monitor, the calls are synchronized on the monitor.
+   */
+  private static class SynchronizedMonitorHandler implements InvocationHandler {
+
+    private final Object monitor;
+
+    SynchronizedMonitorHandler(Object monitor) {
+      this.monitor = monitor;
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      synchronized (monitor) {
+        try {
+          return method.invoke(monitor, args);
+        }
+        catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+      }
+    }
+  }
+
+  private final int parallelism;
+
+  private final long foldMemory;
+
+  /** Guarded by this. */
+  private int runningFolds;
+
+  /**
+   * Initializes the current instance.
+   *
+   * @param parallelism the number of folds which are evaluated at the same time
+   * @param foldMemory the heap memory in bytes a fold needs, or zero
+   */
+  public FoldExecutor(int parallelism, long foldMemory) {
+
+    if (parallelism < 1)
+      throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+
+    if (foldMemory < 0)
+      throw new IllegalArgumentException("foldMemory must be zero or positive: " + foldMemory);
+
+    this.parallelism = parallelism;
+    this.foldMemory = foldMemory;
+  }
+
+  /**
+   * Creates a fold executor which is configured by the
+   * {@link TrainingParameters#FOLD_THREADS_PARAM} and
+   * {@link TrainingParameters#FOLD_MEMORY_PARAM} training parameters.
+   *
+   * @param params the training parameters or null
+   *
+   * @return the fold executor, it evaluates one fold after another
+   *     if the parameters are not set
+   */
+  public static FoldExecutor create(TrainingParameters params) {
+    int parallelism = 1;
+    long foldMemory = 0;
+
+    if (params != null) {
+      String threadsString = params.getSettings().get(TrainingParameters.FOLD_THREADS_PARAM);
+      if (threadsString != null) {
+        try {
+          parallelism = Integer.parseInt(threadsString);
+        }
+        catch (NumberFormatException e) {
+          parallelism = 0;
+        }
+
+        if (parallelism < 1) {
+          throw new IllegalArgumentException(TrainingParameters.FOLD_THREADS_PARAM +
+              " must be a positive integer: " + threadsString);
+        }
+      }
+
+      String memoryString = params.getSettings().get(TrainingParameters.FOLD_MEMORY_PARAM);
+      if (memoryString != null) {
+        long memory;
+        try {
+          memory = Long.parseLong(memoryString);
+        }
+        catch (NumberFormatException e) {
+          memory = -1;
+        }
+
+        if (memory < 0 || memory > Long.MAX_VALUE / (1024 * 1024)) {
+          throw new IllegalArgumentException(TrainingParameters.FOLD_MEMORY_PARAM +
+              " must be a non-negative integer: " + memoryString);
+        }
+
+        foldMemory = memory * 1024 * 1024;
+      }
+    }
+
+    return new FoldExecutor(parallelism, foldMemory);
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Wraps the evaluation monitors which are shared by the folds, if the folds
+   * are evaluated in parallel. A wrapped monitor is only called by one thread
+   * at a time, the calls are synchronized on the monitor, so a monitor can
+   * also be shared by multiple cross validators.
+   *
+   * @param monitorType the monitor interface of the component
+   * @param monitors the monitors, the array and its elements may be null
+   *
+   * @return the wrapped monitors, or the monitors if the folds
+   *     are evaluated one after another
+   */
+  @SuppressWarnings("unchecked")
+  public <M extends EvaluationMonitor<?>> M[] synchronizeMonitors(Class<M> monitorType,
+      M[] monitors) {
+
+    if (parallelism == 1 || monitors == null)
+      return monitors;
+
+    M[] synchronizedMonitors = (M[]) Array.newInstance(monitorType, monitors.length);
+
+    for (int i = 0; i < monitors.length; i++) {
+      if (monitors[i] != null) {
+        synchronizedMonitors[i] = monitorType.cast(Proxy.newProxyInstance(
+            monitorType.getClassLoader(), new Class<?>[] {monitorType},
+            new SynchronizedMonitorHandler(monitors[i])));
+      }
+    }
+
+    return synchronizedMonitors;
+  }
+
+  private static long availableMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+  }
+
+  private synchronized void startFold() {
+    try {
+      while (runningFolds > 0 && availableMemory() < foldMemory) {
+        wait();
+      }
+    }
+    catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    }
+
+    runningFolds++;
+  }
+
+  private synchronized void finishFold() {
+    runningFolds--;
+    notifyAll();
+  }
+
+  /**
+   * Evaluates all remaining folds of the partitioner.
+   *
+   * @param partitioner the partitioner, it must cache the samples to evaluate
+   *     the folds in parallel
+   * @param fold trains and evaluates a fold, it is called by multiple
+   *     threads if the folds are evaluated in parallel
+   *
+   * @return the results in the order of the folds
+   *
+   * @throws IOException
+   */
+  public <E, R> List<R> evaluate(CrossValidationPartitioner<E> partitioner,
+      final Fold<E, R> fold) throws IOException {
+
+    List<R> results = new ArrayList<R>();
+
+    if (parallelism == 1) {
+      while (partitioner.hasNext()) {
+        results.add(fold.evaluate(partitioner.next()));
+      }
+      return results;
+    }
+
+    if (!partitioner.isCachingSamples())
+      throw new IllegalArgumentException("The partitioner must cache the samples " +
+          "to evaluate the folds in parallel!");
+
+    List<Callable<R>> tasks = new ArrayList<Callable<R>>();
+    while (partitioner.hasNext()) {
+      final CrossValidationPartitioner.TrainingSampleStream<E> trainingSampleStream =
+          partitioner.next();
+
+      tasks.add(new Callable<R>() {
+        public R call() throws IOException {
+          startFold();
+          try {
+            return fold.evaluate(trainingSampleStream);
+          }
+          finally {
+            finishFold();
+          }
+        }
+      });
+    }
+
+    if (tasks.isEmpty()) {
+      return results;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()));
+
+    try {
+      for (Future<R> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+    }
+    catch (InterruptedException e) {
+      throw new IllegalStateException("Interruption is not supported!", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    return results;
+  }
+}
@@ -18,6 +18,7 @@
 
 package opennlp.tools.util.model;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -29,8 +30,11 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import opennlp.tools.util.BeamSearch;
 import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.SequenceDecoder;
 import opennlp.tools.util.Version;
+import opennlp.tools.util.ViterbiDecoder;
 
 /**
  * This model is a common based which can be used by the components
@@ -52,6 +56,13 @@ public abstract class BaseModel {
   public static final String TRAINING_CUTOFF_PROPERTY = "Training-Cutoff";
   public static final String TRAINING_ITERATIONS_PROPERTY = "Training-Iterations";
   public static final String TRAINING_EVENTHASH_PROPERTY = "Training-Eventhash";
+
+  /**
+   * The name of the {@link SequenceDecoder} which is used with a sequence model,
+   * either {@link BeamSearch#DECODER_NAME} or {@link ViterbiDecoder#DECODER_NAME}.
+   * If it is not set the {@link BeamSearch} is used.
+   */
+  public static final String SEQUENCE_DECODER_PROPERTY = "Sequence-Decoder";
   
   private Map<String, ArtifactSerializer> artifactSerializers =
       new HashMap<String, ArtifactSerializer>();
@@ -142,6 +153,52 @@ public abstract class BaseModel {
     validateArtifactMap();
   }
 
+  /**
+   * Initializes the current instance from a model package file.
+   * <p>
+   * The package is opened with random access and only the manifest is read,
+   * every other artifact is deserialized when it is requested the first time.
+   * Tools which only need the manifest or a few artifacts of a large model load
+   * much faster. The artifacts can be requested by multiple threads.
+   * <p>
+   * Because validating the artifacts would load them, only the manifest and the
+   * artifact entries are validated, see {@link #validateArtifactEntries()}.
+   * An artifact which cannot be deserialized causes an
+   * {@link IllegalStateException} when it is requested. Artifacts which are
+   * never requested are copied without deserializing them when the model is
+   * serialized. The file must not be modified while the model is used and
+   * {@link #close()} should be called when the model is not needed anymore.
+   *
+   * @param componentName
+   * @param modelFile the model package
+   *
+   * @throws IOException
+   * @throws InvalidFormatException
+   */
+  protected BaseModel(String componentName, File modelFile) throws IOException, InvalidFormatException {
+
+    if (componentName == null)
+      throw new IllegalArgumentException("componentName must not be null!");
+
+    if (modelFile == null)
+        throw new IllegalArgumentException("modelFile must not be null!");
+
+    this.componentName = componentName;
+
+    createArtifactSerializers(artifactSerializers);
+
+    LazyArtifactMap artifactMap = new LazyArtifactMap(modelFile, artifactSerializers);
+    this.artifactMap = artifactMap;
+
+    try {
+      validateArtifactEntries();
+    }
+    catch (InvalidFormatException e) {
+      artifactMap.close();
+      throw e;
+    }
+  }
+
   /**
    * Extracts the "." extension from an entry name.
    *
@@ -151,7 +208,7 @@ public abstract class BaseModel {
    *
    * @throws InvalidFormatException if no extension can be extracted
    */
-  private String getEntryExtension(String entry) throws InvalidFormatException {
+  static String getEntryExtension(String entry) throws InvalidFormatException {
     int extensionIndex = entry.lastIndexOf('.') + 1;
 
     if (extensionIndex == -1 || extensionIndex >= entry.length())
@@ -213,6 +270,30 @@ public abstract class BaseModel {
    * @throws InvalidFormatException
    */
   protected void validateArtifactMap() throws InvalidFormatException {
+    validateManifest();
+  }
+
+  /**
+   * Validates the artifacts of a model which is loaded from a file without
+   * deserializing them. If something is not valid subclasses should throw
+   * an {@link InvalidFormatException}.
+   * <p>
+   * The type of an artifact is defined by the extension of its entry name,
+   * subclasses should check that the entries and manifest properties which
+   * are required by {@link #validateArtifactMap()} exist. The remaining checks
+   * are done when the artifacts are used.
+   *
+   * Note:
+   * Subclasses should generally invoke super.validateArtifactEntries at the beginning
+   * of this method.
+   *
+   * @throws InvalidFormatException
+   */
+  protected void validateArtifactEntries() throws InvalidFormatException {
+    validateManifest();
+  }
+
+  private void validateManifest() throws InvalidFormatException {
     if (!(artifactMap.get(MANIFEST_ENTRY) instanceof Properties))
       throw new InvalidFormatException("Missing the " + MANIFEST_ENTRY + "!");
 
@@ -258,6 +339,22 @@ public abstract class BaseModel {
     if (getManifestProperty(LANGUAGE_PROPERTY) == null)
       throw new InvalidFormatException("Missing " + LANGUAGE_PROPERTY + " property in " +
       		MANIFEST_ENTRY + "!");
+
+    String decoder = getManifestProperty(SEQUENCE_DECODER_PROPERTY);
+
+    if (decoder != null && !(BeamSearch.DECODER_NAME.equals(decoder) ||
+        ViterbiDecoder.DECODER_NAME.equals(decoder)))
+      throw new InvalidFormatException("Unknown " + SEQUENCE_DECODER_PROPERTY + ": " + decoder + "!");
+  }
+
+  /**
+   * Indicates if the {@link ViterbiDecoder} should be used with this model
+   * instead of the {@link BeamSearch}.
+   *
+   * @return true if the manifest selects the {@link ViterbiDecoder}
+   */
+  public boolean useViterbiDecoder() {
+    return ViterbiDecoder.DECODER_NAME.equals(getManifestProperty(SEQUENCE_DECODER_PROPERTY));
   }
 
   /**
@@ -344,7 +441,14 @@ public abstract class BaseModel {
         throw new IllegalStateException("Missing serializer for " + name);
       }
       
-      serializer.serialize(artifactMap.get(name), zip);
+      if (artifactMap instanceof LazyArtifactMap &&
+          !((LazyArtifactMap) artifactMap).isLoaded(name)) {
+        // the content is copied, there is no need to deserialize the artifact
+        ((LazyArtifactMap) artifactMap).copy(name, zip);
+      }
+      else {
+        serializer.serialize(artifactMap.get(name), zip);
+      }
 
       zip.closeEntry();
     }
@@ -352,4 +456,18 @@ public abstract class BaseModel {
     zip.finish();
     zip.flush();
   }
+
+  /**
+   * Releases the model package file of a model which was loaded from a file.
+   * Artifacts which were already requested can still be used, requesting or
+   * serializing any other artifact fails afterwards with an
+   * {@link IllegalStateException}.
+   * <p>
+   * The method does nothing if the model was not loaded from a file.
+   */
+  public void close() {
+    if (artifactMap instanceof LazyArtifactMap) {
+      ((LazyArtifactMap) artifactMap).close();
+    }
+  }
 }
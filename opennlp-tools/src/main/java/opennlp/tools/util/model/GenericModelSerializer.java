@@ -18,6 +18,7 @@
 
 package opennlp.tools.util.model;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -26,13 +27,20 @@ import java.util.Map;
 import opennlp.model.AbstractModel;
 import opennlp.model.BinaryFileDataReader;
 import opennlp.model.GenericModelReader;
+import opennlp.model.MappedModelReader;
 import opennlp.tools.util.InvalidFormatException;
 
 public class GenericModelSerializer implements ArtifactSerializer<AbstractModel> {
 
   public AbstractModel create(InputStream in) throws IOException,
       InvalidFormatException {
-    return new GenericModelReader(new BinaryFileDataReader(in)).getModel();
+    InputStream input = new BufferedInputStream(in);
+    
+    if (MappedModelReader.isMappedModel(input)) {
+      return new MappedModelReader(input).getModel();
+    }
+    
+    return new GenericModelReader(new BinaryFileDataReader(input)).getModel();
   }
 
   public void serialize(AbstractModel artifact, OutputStream out) throws IOException {
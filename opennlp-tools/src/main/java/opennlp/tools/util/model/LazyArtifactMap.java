@@ -0,0 +1,511 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.util.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A read-only artifact map which is backed by a model package file and
+ * deserializes every artifact on first use.
+ * <p>
+ * The package file is memory mapped and its central directory is read when
+ * the map is created. An artifact is read from the mapped file when it is
+ * requested the first time, stored entries directly and compressed entries
+ * through an {@link Inflater}. The artifacts can be requested by multiple
+ * threads, each artifact is deserialized only once.
+ * <p>
+ * {@link #close()} unmaps the package file, afterwards only the artifacts which
+ * were already deserialized can be requested. The package file must not be
+ * modified while the map is used.
+ * ZIP64 packages and packages larger than 2 GB are not supported.
+ */
+final class LazyArtifactMap extends AbstractMap<String, Object> {
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_HEADER_SIGNATURE = 0x06054b50;
+
+  private static final int LOCAL_HEADER_LENGTH = 30;
+  private static final int CENTRAL_HEADER_LENGTH = 46;
+  private static final int END_HEADER_LENGTH = 22;
+
+  private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+  private static final int ZIP64_MAGIC = 0xFFFFFFFF;
+
+  /**
+   * An entry of the package.
+   */
+  private static class Artifact implements Map.Entry<String, Object> {
+
+    private final LazyArtifactMap map;
+    private final String name;
+    private final ArtifactSerializer serializer;
+    private final int method;
+    private final int localHeaderOffset;
+    private final int compressedSize;
+
+    private volatile Object value;
+
+    Artifact(LazyArtifactMap map, String name, ArtifactSerializer serializer, int method,
+        int localHeaderOffset, int compressedSize) {
+      this.map = map;
+      this.name = name;
+      this.serializer = serializer;
+      this.method = method;
+      this.localHeaderOffset = localHeaderOffset;
+      this.compressedSize = compressedSize;
+    }
+
+    public String getKey() {
+      return name;
+    }
+
+    public Object getValue() {
+      return map.load(this);
+    }
+
+    public Object setValue(Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Map.Entry<?, ?>) {
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+        Object value = getValue();
+        return name.equals(entry.getKey())
+            && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      Object value = getValue();
+      return name.hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+  }
+
+  /**
+   * Reads the bytes of a buffer, optionally followed by one zero byte,
+   * which the {@link Inflater} needs at the end of a raw deflate stream.
+   */
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+    private boolean pad;
+
+    ByteBufferInputStream(ByteBuffer buffer, boolean pad) {
+      this.buffer = buffer;
+      this.pad = pad;
+    }
+
+    @Override
+    public int read() {
+      if (buffer.hasRemaining()) {
+        return buffer.get() & 0xFF;
+      }
+      if (pad) {
+        pad = false;
+        return 0;
+      }
+      return -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        int value = read();
+        if (value != -1) {
+          b[off] = (byte) value;
+          return 1;
+        }
+        return -1;
+      }
+      len = Math.min(len, buffer.remaining());
+      buffer.get(b, off, len);
+      return len;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+  /**
+   * The mapped package file, null after the map was closed.
+   */
+  private ByteBuffer data;
+
+  /**
+   * Guards the mapping, the artifacts are read with the read lock and
+   * the mapping is released with the write lock.
+   */
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Artifact> artifacts;
+
+  /**
+   * Maps the package file and reads its central directory.
+   *
+   * @param file the model package
+   * @param serializers the serializers of the artifacts by file name extension
+   *
+   * @throws IOException if the file cannot be read
+   * @throws InvalidFormatException if the file is not a supported package
+   *     or contains an artifact without a serializer
+   */
+  LazyArtifactMap(File file, Map<String, ArtifactSerializer> serializers) throws IOException {
+
+    RandomAccessFile in = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = in.getChannel();
+
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new InvalidFormatException("Model packages larger than 2 GB are not supported!");
+      }
+
+      // the mapping stays valid after the channel is closed
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+    finally {
+      in.close();
+    }
+
+    try {
+      artifacts = readCentralDirectory(serializers);
+    }
+    catch (IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  private Map<String, Artifact> readCentralDirectory(Map<String, ArtifactSerializer> serializers)
+      throws IOException {
+
+    int end = findEndHeader();
+    int numEntries = data.getShort(end + 10) & 0xFFFF;
+    int centralDirectoryOffset = data.getInt(end + 16);
+
+    if (numEntries == 0xFFFF || centralDirectoryOffset == ZIP64_MAGIC) {
+      throw new InvalidFormatException("ZIP64 model packages are not supported!");
+    }
+
+    Map<String, Artifact> artifacts = new LinkedHashMap<String, Artifact>();
+
+    int offset = centralDirectoryOffset;
+    for (int i = 0; i < numEntries; i++) {
+      if (offset < 0 || offset + CENTRAL_HEADER_LENGTH > data.limit()
+          || data.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+        throw new InvalidFormatException("Corrupt central directory in model package!");
+      }
+
+      int method = data.getShort(offset + 10) & 0xFFFF;
+      int compressedSize = data.getInt(offset + 20);
+      int nameLength = data.getShort(offset + 28) & 0xFFFF;
+      int extraLength = data.getShort(offset + 30) & 0xFFFF;
+      int commentLength = data.getShort(offset + 32) & 0xFFFF;
+      int localHeaderOffset = data.getInt(offset + 42);
+
+      if (compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+        throw new InvalidFormatException("ZIP64 model packages are not supported!");
+      }
+
+      if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) {
+        throw new InvalidFormatException("Unsupported compression method: " + method);
+      }
+
+      byte[] nameBytes = new byte[nameLength];
+      ByteBuffer nameBuffer = data.duplicate();
+      nameBuffer.position(offset + CENTRAL_HEADER_LENGTH);
+      nameBuffer.get(nameBytes);
+      String name = new String(nameBytes, "UTF-8");
+
+      offset += CENTRAL_HEADER_LENGTH + nameLength + extraLength + commentLength;
+
+      if (name.endsWith("/")) {
+        // a directory has no content
+        continue;
+      }
+
+      ArtifactSerializer serializer = serializers.get(BaseModel.getEntryExtension(name));
+
+      if (serializer == null) {
+        throw new InvalidFormatException("Unkown artifact format: " +
+            BaseModel.getEntryExtension(name));
+      }
+
+      artifacts.put(name, new Artifact(this, name, serializer, method,
+          localHeaderOffset, compressedSize));
+    }
+
+    return Collections.unmodifiableMap(artifacts);
+  }
+
+  private int findEndHeader() throws InvalidFormatException {
+    int minOffset = Math.max(0, data.limit() - END_HEADER_LENGTH - MAX_COMMENT_LENGTH);
+    for (int offset = data.limit() - END_HEADER_LENGTH; offset >= minOffset; offset--) {
+      if (data.getInt(offset) == END_HEADER_SIGNATURE) {
+        return offset;
+      }
+    }
+    throw new InvalidFormatException("The file is not a model package!");
+  }
+
+  /**
+   * Opens a stream which reads the uncompressed content of the artifact.
+   * The caller must hold the read lock until the stream is closed.
+   */
+  private InputStream open(Artifact artifact) throws InvalidFormatException {
+    if (data == null) {
+      throw new IllegalStateException("The model package is closed, the " +
+          artifact.name + " artifact cannot be loaded!");
+    }
+
+    int offset = artifact.localHeaderOffset;
+
+    if (offset < 0 || offset + LOCAL_HEADER_LENGTH > data.limit()
+        || data.getInt(offset) != LOCAL_HEADER_SIGNATURE) {
+      throw new InvalidFormatException("Corrupt entry in model package: " + artifact.name);
+    }
+
+    int start = offset + LOCAL_HEADER_LENGTH + (data.getShort(offset + 26) & 0xFFFF)
+        + (data.getShort(offset + 28) & 0xFFFF);
+
+    if (artifact.compressedSize < 0 || start + artifact.compressedSize > data.limit()) {
+      throw new InvalidFormatException("Corrupt entry in model package: " + artifact.name);
+    }
+
+    ByteBuffer content = data.duplicate();
+    content.position(start);
+    content.limit(start + artifact.compressedSize);
+
+    if (artifact.method == ZipEntry.STORED) {
+      return new ByteBufferInputStream(content.slice(), false);
+    }
+    else {
+      final Inflater inflater = new Inflater(true);
+      return new InflaterInputStream(new ByteBufferInputStream(content.slice(), true), inflater) {
+        @Override
+        public void close() throws IOException {
+          super.close();
+          inflater.end();
+        }
+      };
+    }
+  }
+
+  private Object load(Artifact artifact) {
+    Object value = artifact.value;
+
+    if (value == null) {
+      synchronized (artifact) {
+        value = artifact.value;
+
+        if (value == null) {
+          lock.readLock().lock();
+          try {
+            InputStream in = open(artifact);
+            try {
+              value = artifact.serializer.create(in);
+            }
+            finally {
+              in.close();
+            }
+          }
+          catch (IOException e) {
+            throw new IllegalStateException("Failed to load the " + artifact.name +
+                " artifact!", e);
+          }
+          finally {
+            lock.readLock().unlock();
+          }
+
+          artifact.value = value;
+        }
+      }
+    }
+
+    return value;
+  }
+
+  /**
+   * Checks if the artifact was already deserialized.
+   *
+   * @param name the name of the artifact
+   *
+   * @return true if the artifact was deserialized
+   */
+  boolean isLoaded(String name) {
+    Artifact artifact = artifacts.get(name);
+    return artifact != null && artifact.value != null;
+  }
+
+  /**
+   * Copies the uncompressed content of the artifact without deserializing it.
+   *
+   * @param name the name of the artifact
+   * @param out the stream the content is written to, it remains open
+   *
+   * @throws IOException
+   */
+  void copy(String name, OutputStream out) throws IOException {
+    Artifact artifact = artifacts.get(name);
+
+    if (artifact == null) {
+      throw new IllegalArgumentException("Unknown artifact: " + name);
+    }
+
+    lock.readLock().lock();
+    try {
+      InputStream in = open(artifact);
+      try {
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = in.read(buffer)) != -1) {
+          out.write(buffer, 0, length);
+        }
+      }
+      finally {
+        in.close();
+      }
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Releases the mapping of the package file. Waits until the artifacts
+   * which are currently read are loaded.
+   */
+  void close() {
+    ByteBuffer mapping;
+
+    lock.writeLock().lock();
+    try {
+      mapping = data;
+      data = null;
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+
+    if (mapping != null) {
+      unmap(mapping);
+    }
+  }
+
+  /**
+   * Unmaps the buffer right away if the JVM allows it, otherwise the mapping is
+   * released when the buffer is garbage collected.
+   */
+  private static void unmap(ByteBuffer mapping) {
+    try {
+      Method cleanerMethod = mapping.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(mapping);
+
+      if (cleaner != null) {
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    }
+    catch (Exception e) {
+      // not supported by this JVM
+    }
+  }
+
+  @Override
+  public Object get(Object key) {
+    Artifact artifact = artifacts.get(key);
+    return artifact != null ? load(artifact) : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return artifacts.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return artifacts.size();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return artifacts.keySet();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+
+      @Override
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        final Iterator<Artifact> iterator = artifacts.values().iterator();
+
+        return new Iterator<Map.Entry<String, Object>>() {
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          public Map.Entry<String, Object> next() {
+            return iterator.next();
+          }
+
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return artifacts.size();
+      }
+    };
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A handle to a model which is shared by the {@link ModelRegistry}.
+ * <p>
+ * Every {@link ModelRegistry#acquire(Class, File)} returns a new handle, which
+ * must be released exactly once by the component which acquired it. The handles
+ * to the same model file always refer to the most recently loaded version of it.
+ * {@link #getModel()} only reads a volatile field and never blocks, a reload
+ * loads the new version while the current version is still used and then
+ * replaces it atomically. A component should call {@link #getModel()} once per
+ * request and use the returned model for the whole request, requests which are
+ * in progress during a reload complete with the previous version.
+ *
+ * @param <T> the type of the model
+ */
+public final class ModelHandle<T extends BaseModel> {
+
+  private final ModelRegistry registry;
+  private final RegisteredModel<T> model;
+
+  private final AtomicBoolean released = new AtomicBoolean();
+
+  ModelHandle(ModelRegistry registry, RegisteredModel<T> model) {
+    this.registry = registry;
+    this.model = model;
+  }
+
+  /**
+   * Retrieves the current version of the model.
+   *
+   * @return the model
+   */
+  public T getModel() {
+    return model.getModel();
+  }
+
+  /**
+   * Retrieves the checksum of the model file from which the current version
+   * of the model was loaded.
+   *
+   * @return the checksum
+   */
+  public long getChecksum() {
+    return model.getChecksum();
+  }
+
+  public File getModelFile() {
+    return model.getModelFile();
+  }
+
+  public Class<T> getModelClass() {
+    return model.getModelClass();
+  }
+
+  /**
+   * Loads the model file again if it was modified since the current
+   * version was loaded. The new version replaces the current version
+   * for all handles to the model.
+   * <p>
+   * The check only reads the length and modification time of the file,
+   * the checksum is computed when one of them changed.
+   *
+   * @return true if a new version was loaded
+   *
+   * @throws IOException
+   * @throws InvalidFormatException
+   */
+  public boolean reload() throws IOException, InvalidFormatException {
+    return model.reloadModified();
+  }
+
+  /**
+   * Releases the reference of this handle to the model, the registry forgets
+   * the model when the last handle to it is released. The handle must not
+   * be used after it was released.
+   *
+   * @throws IllegalStateException if the handle was already released
+   */
+  public void release() {
+    if (!released.compareAndSet(false, true)) {
+      throw new IllegalStateException("The handle was already released!");
+    }
+
+    registry.release(model);
+  }
+}
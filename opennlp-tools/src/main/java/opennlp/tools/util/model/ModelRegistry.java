@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A registry which shares the loaded models of a process between its components.
+ * <p>
+ * A model is identified by the model file and the model class, and its version
+ * by the checksum of the file. The first {@link #acquire(Class, File)} of a model
+ * loads it, the following ones return new handles to the same model. When a model
+ * is acquired and the file was modified, the new version is loaded and replaces
+ * the current version for all components, see {@link ModelHandle}.
+ * {@link #reloadModified()} does the same for all models in the registry.
+ * The checksum is only computed when the length or the modification time of
+ * the file changed. The handles are counted, the registry forgets a model when
+ * all handles to it are released.
+ * <p>
+ * The models are loaded with the {@link InputStream} constructor of the model
+ * class. The registry can be used by multiple threads.
+ */
+public class ModelRegistry {
+
+  private static final ModelRegistry INSTANCE = new ModelRegistry();
+
+  private static class Key {
+    private final Class<?> modelClass;
+    private final File modelFile;
+
+    Key(Class<?> modelClass, File modelFile) {
+      this.modelClass = modelClass;
+      this.modelFile = modelFile;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key key = (Key) obj;
+        return modelClass.equals(key.modelClass) && modelFile.equals(key.modelFile);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return modelClass.hashCode() * 31 + modelFile.hashCode();
+    }
+  }
+
+  private final Map<Key, RegisteredModel<?>> models = new HashMap<Key, RegisteredModel<?>>();
+
+  /**
+   * Retrieves the registry of the process.
+   *
+   * @return the registry
+   */
+  public static ModelRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Computes the checksum of a model file.
+   *
+   * @param modelFile
+   *
+   * @return the CRC32 checksum of the file content
+   *
+   * @throws IOException
+   */
+  static long computeChecksum(File modelFile) throws IOException {
+    CheckedInputStream in = new CheckedInputStream(new FileInputStream(modelFile), new CRC32());
+    try {
+      byte[] buffer = new byte[8192];
+      while (in.read(buffer) != -1) {
+        // the stream updates the checksum
+      }
+      return in.getChecksum().getValue();
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  static <T extends BaseModel> T loadModel(Class<T> modelClass, File modelFile)
+      throws IOException, InvalidFormatException {
+
+    Constructor<T> constructor;
+    try {
+      constructor = modelClass.getConstructor(InputStream.class);
+    }
+    catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException(modelClass.getName() +
+          " has no InputStream constructor!", e);
+    }
+
+    InputStream in = new BufferedInputStream(new FileInputStream(modelFile));
+    try {
+      return constructor.newInstance(in);
+    }
+    catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+    catch (InstantiationException e) {
+      throw new IllegalArgumentException(modelClass.getName() + " cannot be instantiated!", e);
+    }
+    catch (IllegalAccessException e) {
+      throw new IllegalArgumentException(modelClass.getName() + " cannot be instantiated!", e);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Acquires a new handle to the model in the specified file. The model is loaded
+   * if it is not in the registry yet, or if the file was modified since the
+   * model was loaded. The handle must be released once when it is not needed
+   * anymore.
+   *
+   * @param modelClass the class of the model, it must have a public constructor
+   *     which reads the model from an {@link InputStream}
+   * @param modelFile the model file
+   *
+   * @return the handle to the model
+   *
+   * @throws IOException if the file cannot be read
+   * @throws InvalidFormatException if the file is not a valid model
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends BaseModel> ModelHandle<T> acquire(Class<T> modelClass, File modelFile)
+      throws IOException, InvalidFormatException {
+
+    if (modelClass == null)
+      throw new IllegalArgumentException("modelClass must not be null!");
+
+    if (modelFile == null)
+      throw new IllegalArgumentException("modelFile must not be null!");
+
+    modelFile = modelFile.getCanonicalFile();
+
+    RegisteredModel<T> model;
+    synchronized (this) {
+      Key key = new Key(modelClass, modelFile);
+
+      model = (RegisteredModel<T>) models.get(key);
+
+      if (model == null) {
+        model = new RegisteredModel<T>(modelClass, modelFile);
+        models.put(key, model);
+      }
+
+      model.references++;
+    }
+
+    // the model is loaded outside of the registry lock, only the
+    // components which acquire the same model wait for it
+    try {
+      model.reloadModified();
+    }
+    catch (IOException e) {
+      release(model);
+      throw e;
+    }
+    catch (RuntimeException e) {
+      release(model);
+      throw e;
+    }
+
+    return new ModelHandle<T>(this, model);
+  }
+
+  /**
+   * Releases a reference to a model.
+   *
+   * @param model
+   */
+  synchronized void release(RegisteredModel<?> model) {
+    model.references--;
+
+    if (model.references == 0) {
+      models.remove(new Key(model.getModelClass(), model.getModelFile()));
+    }
+  }
+
+  /**
+   * Loads every model in the registry again whose file was modified since it
+   * was loaded. Components which use the models continue without waiting.
+   *
+   * @return the number of models which were replaced by a new version
+   *
+   * @throws IOException
+   * @throws InvalidFormatException
+   */
+  public int reloadModified() throws IOException, InvalidFormatException {
+    List<RegisteredModel<?>> registered;
+    synchronized (this) {
+      registered = new ArrayList<RegisteredModel<?>>(models.values());
+    }
+
+    int reloaded = 0;
+    for (RegisteredModel<?> model : registered) {
+      if (model.reloadModified()) {
+        reloaded++;
+      }
+    }
+    return reloaded;
+  }
+
+  /**
+   * Retrieves the number of models in the registry.
+   *
+   * @return the number of models
+   */
+  public synchronized int size() {
+    return models.size();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.File;
+import java.io.IOException;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A model in the {@link ModelRegistry}, which is shared by all handles to it.
+ * <p>
+ * {@link #getModel()} only reads a volatile field and never blocks, a reload
+ * loads the new version while the current version is still used and then
+ * replaces it atomically.
+ *
+ * @param <T> the type of the model
+ */
+final class RegisteredModel<T extends BaseModel> {
+
+  /**
+   * A loaded version of the model file.
+   */
+  private static class Version<T> {
+    private final T model;
+    private final long checksum;
+    private final long length;
+    private final long lastModified;
+
+    Version(T model, long checksum, long length, long lastModified) {
+      this.model = model;
+      this.checksum = checksum;
+      this.length = length;
+      this.lastModified = lastModified;
+    }
+  }
+
+  private final Class<T> modelClass;
+  private final File modelFile;
+
+  private volatile Version<T> version;
+
+  /** Guarded by the registry. */
+  int references;
+
+  RegisteredModel(Class<T> modelClass, File modelFile) {
+    this.modelClass = modelClass;
+    this.modelFile = modelFile;
+  }
+
+  T getModel() {
+    return version.model;
+  }
+
+  long getChecksum() {
+    return version.checksum;
+  }
+
+  File getModelFile() {
+    return modelFile;
+  }
+
+  Class<T> getModelClass() {
+    return modelClass;
+  }
+
+  /**
+   * Loads the model file if it was modified since the current version was
+   * loaded and replaces the current version with it.
+   * <p>
+   * The checksum of the file is only computed if its length or modification
+   * time changed, the model is only loaded if the checksum changed. The model
+   * is locked during the check, concurrent reloads wait, but {@link #getModel()}
+   * does not.
+   *
+   * @return true if a new version was loaded
+   *
+   * @throws IOException
+   * @throws InvalidFormatException
+   */
+  synchronized boolean reloadModified() throws IOException, InvalidFormatException {
+    // the file attributes are read before the content, a modification
+    // during the load is detected by the next check
+    long length = modelFile.length();
+    long lastModified = modelFile.lastModified();
+
+    Version<T> current = version;
+
+    if (current != null && current.length == length && current.lastModified == lastModified) {
+      return false;
+    }
+
+    long checksum = ModelRegistry.computeChecksum(modelFile);
+
+    if (current != null && current.checksum == checksum) {
+      // only the attributes changed, the loaded version is still current
+      version = new Version<T>(current.model, checksum, length, lastModified);
+      return false;
+    }
+
+    version = new Version<T>(ModelRegistry.loadModel(modelClass, modelFile),
+        checksum, length, lastModified);
+
+    return true;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.chunker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ThreadSafeChunkerME} class.
+ */
+public class ThreadSafeChunkerMETest {
+
+  private static final String[] TOKS = { "Rockwell", "said", "the", "agreement", "calls", "for",
+      "it", "to", "supply", "200", "additional", "so-called", "shipsets",
+      "for", "the", "planes", "." };
+
+  private static final String[] TAGS = { "NNP", "VBD", "DT", "NN", "VBZ", "IN", "PRP", "TO", "VB",
+      "CD", "JJ", "JJ", "NNS", "IN", "DT", "NNS", "." };
+
+  private static ChunkerModel trainModel() throws IOException {
+    InputStream in = ThreadSafeChunkerMETest.class.getClassLoader().getResourceAsStream(
+        "opennlp/tools/chunker/test.txt");
+
+    ObjectStream<ChunkSample> sampleStream = new ChunkSampleStream(
+        new PlainTextByLineStream(new InputStreamReader(in, "UTF-8")));
+
+    return ChunkerME.train("en", sampleStream, 1, 70);
+  }
+
+  @Test
+  public void testChunkAsSpans() throws IOException {
+    ChunkerModel model = trainModel();
+
+    ChunkerME chunkerME = new ChunkerME(model);
+    Span[] expected = chunkerME.chunkAsSpans(TOKS, TAGS);
+    double[] probs = chunkerME.probs();
+
+    Span[] chunks = new ThreadSafeChunkerME(model).chunkAsSpans(TOKS, TAGS);
+
+    assertArrayEquals(expected, chunks);
+    for (Span chunk : chunks) {
+      double p = 0;
+      for (int ti = chunk.getStart(); ti < chunk.getEnd(); ti++) {
+        p += probs[ti];
+      }
+      assertEquals(p / chunk.length(), chunk.getProb(), 0d);
+    }
+  }
+
+  @Test
+  public void testConcurrentChunk() throws Exception {
+    ChunkerModel model = trainModel();
+
+    String[] expected = new ChunkerME(model).chunk(TOKS, TAGS);
+
+    final Chunker chunker = new ThreadSafeChunkerME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<String[]>> tasks = new ArrayList<Callable<String[]>>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(new Callable<String[]>() {
+          public String[] call() {
+            return chunker.chunk(TOKS, TAGS);
+          }
+        });
+      }
+
+      for (Future<String[]> result : executor.invokeAll(tasks)) {
+        assertArrayEquals(expected, result.get());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+}
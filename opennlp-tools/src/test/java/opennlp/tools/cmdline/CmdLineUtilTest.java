@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.cmdline;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link CmdLineUtil} class.
+ */
+public class CmdLineUtilTest {
+
+  private static final String[] OPTIONS = {"-threads", "-bs"};
+
+  private static int validate(int minArguments, int maxArguments, String... args) {
+    return CmdLineUtil.validateArguments(args, OPTIONS, minArguments, maxArguments);
+  }
+
+  @Test
+  public void testValidateArguments() {
+    assertEquals(0, validate(1, 1, "model"));
+    assertEquals(2, validate(1, 1, "-threads", "2", "model"));
+    assertEquals(4, validate(1, 1, "-bs", "5", "-threads", "2", "model"));
+    assertEquals(2, validate(1, Integer.MAX_VALUE, "-threads", "2", "model1", "model2"));
+  }
+
+  @Test
+  public void testValidateInvalidArguments() {
+    // missing or additional arguments
+    assertEquals(-1, validate(1, 1));
+    assertEquals(-1, validate(1, 1, "-threads", "2"));
+    assertEquals(-1, validate(1, 1, "model1", "model2"));
+
+    // unknown option or option without a value
+    assertEquals(-1, validate(1, 1, "-k", "2", "model"));
+    assertEquals(-1, validate(1, 1, "-threads"));
+
+    // options after the arguments
+    assertEquals(-1, validate(1, 1, "model", "-threads", "2"));
+    assertEquals(-1, validate(1, Integer.MAX_VALUE, "model", "-threads", "2"));
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+
+import opennlp.tools.util.PlainTextByLineStream;
+
+import org.junit.Test;
+
+public class StreamProcessorTest {
+
+  /**
+   * Reverses each input.
+   */
+  private static class ReverseWorkerFactory implements StreamProcessor.WorkerFactory {
+    public StreamProcessor.Worker createWorker() {
+      return new StreamProcessor.Worker() {
+        public int process(String input, PrintWriter out) {
+          out.println(new StringBuilder(input).reverse());
+          return 1;
+        }
+      };
+    }
+  }
+
+  private static String process(String text, int threads) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(result, true, "UTF-8");
+
+    PerformanceMonitor perfMon = new PerformanceMonitor(
+        new PrintStream(new ByteArrayOutputStream()), "line");
+    perfMon.start();
+
+    new StreamProcessor(new ReverseWorkerFactory(), threads).process(
+        new PlainTextByLineStream(new StringReader(text)), out, perfMon);
+
+    perfMon.stopAndPrintFinalResult();
+
+    return new String(result.toByteArray(), "UTF-8");
+  }
+
+  @Test
+  public void testResultsAreInInputOrder() throws IOException {
+    StringBuilder text = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+
+    String lineSeparator = System.getProperty("line.separator");
+
+    // more lines than the results which can be buffered
+    for (int i = 0; i < 5000; i++) {
+      text.append("line ").append(i).append('\n');
+      expected.append(new StringBuilder("line " + i).reverse()).append(lineSeparator);
+    }
+
+    assertEquals(expected.toString(), process(text.toString(), 1));
+    assertEquals(expected.toString(), process(text.toString(), 4));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroThreads() {
+    new StreamProcessor(new ReverseWorkerFactory(), 0);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref.mention;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class CachingDictionaryTest {
+
+  @Test
+  public void testLookupsAreCached() {
+    CompiledDictionaryTest.TestDictionary source = new CompiledDictionaryTest.TestDictionary();
+    CachingDictionary dictionary = new CachingDictionary(source, 10);
+
+    for (int i = 0; i < 3; i++) {
+      assertArrayEquals(new String[] {"dog"}, dictionary.getLemmas("dogs", "NNS"));
+      assertEquals(2, dictionary.getNumSenses("dog", "NN"));
+      assertEquals("dog0", dictionary.getSenseKey("dog", "NN", 0));
+      assertNull(dictionary.getSenseKey("dog", "NN", 5));
+      assertArrayEquals(new String[] {"canine", "animal"},
+          dictionary.getParentSenseKeys("dog", "NN", 0));
+    }
+
+    assertEquals(5, source.numberOfLookups);
+    assertEquals(10, dictionary.getNumberOfCacheHits());
+    assertEquals(5, dictionary.getNumberOfCacheMisses());
+  }
+
+  @Test
+  public void testReturnedArraysAreCopies() {
+    CachingDictionary dictionary =
+        new CachingDictionary(new CompiledDictionaryTest.TestDictionary(), 10);
+
+    dictionary.getLemmas("dogs", "NNS")[0] = "cat";
+    assertArrayEquals(new String[] {"dog"}, dictionary.getLemmas("dogs", "NNS"));
+  }
+
+  @Test
+  public void testEviction() {
+    CompiledDictionaryTest.TestDictionary source = new CompiledDictionaryTest.TestDictionary();
+    CachingDictionary dictionary = new CachingDictionary(source, 1);
+
+    dictionary.getLemmas("dogs", "NNS");
+    dictionary.getLemmas("dog", "NN");
+    dictionary.getLemmas("dogs", "NNS");
+
+    assertEquals(3, source.numberOfLookups);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.coref.mention;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class CompiledDictionaryTest {
+
+  /**
+   * A small noun dictionary which counts its lookups.
+   */
+  static class TestDictionary implements Dictionary {
+
+    int numberOfLookups;
+
+    public String[] getLemmas(String word, String pos) {
+      numberOfLookups++;
+      if (word.equals("dogs")) {
+        return new String[] {"dog"};
+      }
+      if (word.equals("dog")) {
+        return new String[] {"dog"};
+      }
+      return new String[0];
+    }
+
+    public String getSenseKey(String lemma, String pos, int senseNumber) {
+      numberOfLookups++;
+      if (lemma.equals("dog") && senseNumber < 2) {
+        return "dog" + senseNumber;
+      }
+      return null;
+    }
+
+    public int getNumSenses(String lemma, String pos) {
+      numberOfLookups++;
+      return lemma.equals("dog") ? 2 : 0;
+    }
+
+    public String[] getParentSenseKeys(String lemma, String pos, int senseNumber) {
+      numberOfLookups++;
+      if (lemma.equals("dog") && senseNumber == 0) {
+        return new String[] {"canine", "animal"};
+      }
+      return new String[0];
+    }
+  }
+
+  private static CompiledDictionary compile(Dictionary fallback, String... words)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CompiledDictionary.compile(new TestDictionary(), Arrays.asList(words), out);
+    return new CompiledDictionary(new ByteArrayInputStream(out.toByteArray()), fallback);
+  }
+
+  @Test
+  public void testCompiledLookups() throws IOException {
+    Dictionary dictionary = compile(null, "dogs", "dog", "cat");
+
+    assertArrayEquals(new String[] {"dog"}, dictionary.getLemmas("dogs", "NNS"));
+    assertArrayEquals(new String[0], dictionary.getLemmas("cat", "NN"));
+    assertEquals(2, dictionary.getNumSenses("dog", "NN"));
+    assertEquals("dog0", dictionary.getSenseKey("dog", "NN", 0));
+    assertEquals("dog1", dictionary.getSenseKey("dog", "NN", 1));
+    assertNull(dictionary.getSenseKey("dog", "NN", 2));
+    assertArrayEquals(new String[] {"canine", "animal"},
+        dictionary.getParentSenseKeys("dog", "NN", 0));
+    assertArrayEquals(new String[0], dictionary.getParentSenseKeys("dog", "NN", 1));
+  }
+
+  @Test
+  public void testUnknownWithoutFallback() throws IOException {
+    Dictionary dictionary = compile(null, "dogs");
+
+    assertArrayEquals(new String[0], dictionary.getLemmas("horses", "NNS"));
+    assertArrayEquals(new String[0], dictionary.getLemmas("dogs", "JJ"));
+    assertEquals(0, dictionary.getNumSenses("horse", "NN"));
+    assertNull(dictionary.getSenseKey("horse", "NN", 0));
+    assertArrayEquals(new String[0], dictionary.getParentSenseKeys("horse", "NN", 0));
+  }
+
+  @Test
+  public void testFallback() throws IOException {
+    TestDictionary fallback = new TestDictionary();
+    Dictionary dictionary = compile(fallback, "dog");
+
+    assertArrayEquals(new String[] {"dog"}, dictionary.getLemmas("dog", "NN"));
+    assertEquals(0, fallback.numberOfLookups);
+
+    assertArrayEquals(new String[] {"dog"}, dictionary.getLemmas("dogs", "NNS"));
+    assertEquals(1, fallback.numberOfLookups);
+  }
+
+  @Test(expected=IOException.class)
+  public void testInvalidData() throws IOException {
+    new CompiledDictionary(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+  }
+}
@@ -18,6 +18,7 @@
 
 package opennlp.tools.namefind;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.tokenize.SimpleTokenizer;
@@ -113,4 +114,48 @@ public class DictionaryNameFinderTest{
     assertTrue(names.length == 1);
     assertTrue(names[0].getStart() == 3 && names[0].getEnd() == 5);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testAllMatches() {
+    Dictionary dictionary = new Dictionary();
+    dictionary.put(new StringList(new String[]{"Vanessa"}));
+    dictionary.put(new StringList(new String[]{"Vanessa", "Williams"}));
+    dictionary.put(new StringList(new String[]{"Williams", "and", "Max"}));
+    dictionary.put(new StringList(new String[]{"Max"}));
+
+    String sentence[] = {"Vanessa", "Williams", "and", "Max"};
+
+    Span longest[] = new DictionaryNameFinder(dictionary).find(sentence);
+
+    assertArrayEquals(new Span[] {new Span(0, 2), new Span(1, 4), new Span(3, 4)}, longest);
+
+    Span all[] = new DictionaryNameFinder(dictionary, true).find(sentence);
+
+    assertArrayEquals(new Span[] {new Span(0, 2), new Span(0, 1), new Span(1, 4),
+        new Span(3, 4)}, all);
+  }
+
+  @Test
+  public void testFailureLinks() {
+    Dictionary dictionary = new Dictionary(true);
+    dictionary.put(new StringList(new String[]{"a", "b", "c", "d"}));
+    dictionary.put(new StringList(new String[]{"b", "c"}));
+    dictionary.put(new StringList(new String[]{"c", "e"}));
+
+    // the match of "a b c d" fails at "e", "c e" must still be found
+    String sentence[] = {"a", "b", "c", "e", "A", "b", "c"};
+
+    Span names[] = new DictionaryNameFinder(dictionary, true).find(sentence);
+
+    assertArrayEquals(new Span[] {new Span(1, 3), new Span(2, 4), new Span(5, 7)}, names);
+  }
+
+  @Test
+  public void testCaseInsensitiveDictionary() {
+    String sentence[] = {"vanessa", "WILLIAMS"};
+
+    Span names[] = mNameFinder.find(sentence);
+
+    assertArrayEquals(new Span[] {new Span(0, 2)}, names);
+  }
+}
@@ -18,6 +18,7 @@
 
 package opennlp.tools.namefind;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -26,9 +27,12 @@ import java.io.InputStreamReader;
 import java.util.Collections;
 
 import opennlp.model.AbstractModel;
+import opennlp.tools.util.ContextIdCache;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 
 import org.junit.Test;
 
@@ -108,6 +112,79 @@ public class NameFinderMETest {
     assertEquals(new Span(4, 6, TYPE), names[1]);
   }
   
+  /**
+   * Checks that the predicate ids of the context generator lead to the
+   * same probabilities as the feature strings.
+   */
+  @Test
+  public void testContextIds() throws Exception {
+
+    InputStream in = getClass().getClassLoader().getResourceAsStream(
+        "opennlp/tools/namefind/AnnotatedSentences.txt");
+
+    ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+        new PlainTextByLineStream(new InputStreamReader(in, "ISO-8859-1")));
+
+    TokenNameFinderModel nameFinderModel = NameFinderME.train("en", TYPE, sampleStream,
+        Collections.<String, Object>emptyMap(), 70, 1);
+
+    AbstractModel model = nameFinderModel.getNameFinderModel();
+    DefaultNameContextGenerator cg = (DefaultNameContextGenerator)
+        new NameFinderME(nameFinderModel).contextGenerator;
+
+    String sentence[] = {"Hi", "Mike", ",", "it's", "Stefanie", "Schmidt", "."};
+    String outcomes[] = {NameFinderME.OTHER, NameFinderME.START, NameFinderME.OTHER,
+        NameFinderME.OTHER, NameFinderME.START, NameFinderME.CONTINUE, NameFinderME.OTHER};
+
+    for (int i = 0; i < sentence.length; i++) {
+      String context[] = cg.getContext(i, sentence, outcomes, null);
+      int contextIds[] = cg.getContextIds(i, sentence, outcomes, null, model);
+
+      assertArrayEquals(ContextIdCache.toIds(model, context), contextIds);
+      assertArrayEquals(model.eval(context),
+          model.eval(contextIds, new double[model.getNumOutcomes()]), 0d);
+    }
+  }
+
+  private static TokenNameFinderModel trainSequenceModel(String threads) throws Exception {
+    InputStream in = NameFinderMETest.class.getClassLoader().getResourceAsStream(
+        "opennlp/tools/namefind/AnnotatedSentences.txt");
+
+    ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+        new PlainTextByLineStream(new InputStreamReader(in, "ISO-8859-1")));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, "PERCEPTRON_SEQUENCE");
+    params.put(TrainingParameters.ITERATIONS_PARAM, "10");
+    params.put(TrainingParameters.CUTOFF_PARAM, "1");
+    params.put(TrainingParameters.THREADS_PARAM, threads);
+
+    return NameFinderME.train("en", "default", sampleStream, params,
+        (AdaptiveFeatureGenerator) null, Collections.<String, Object>emptyMap());
+  }
+
+  /**
+   * Tests that the sequence training ignores the number of threads, because
+   * the adaptive features depend on the order in which the sequences are decoded.
+   */
+  @Test
+  public void testSequenceTrainingWithThreads() throws Exception {
+    AbstractModel expected = trainSequenceModel("1").getNameFinderModel();
+    AbstractModel actual = trainSequenceModel("4").getNameFinderModel();
+
+    DefaultNameContextGenerator cg = new DefaultNameContextGenerator();
+
+    String sentence[] = {"Hi", "Mike", ",", "it's", "Stefanie", "Schmidt", "."};
+    String outcomes[] = {NameFinderME.OTHER, "default-" + NameFinderME.START, NameFinderME.OTHER,
+        NameFinderME.OTHER, "default-" + NameFinderME.START, "default-" + NameFinderME.CONTINUE,
+        NameFinderME.OTHER};
+
+    for (int i = 0; i < sentence.length; i++) {
+      String context[] = cg.getContext(i, sentence, outcomes, null);
+      assertArrayEquals(expected.eval(context), actual.eval(context), 0d);
+    }
+  }
+
   /**
    * Train NamefinderME using AnnotatedSentencesWithTypes.txt with "person"
    * nameType and try the model in a sample text.
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.namefind;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ThreadSafeNameFinderME} class.
+ */
+public class ThreadSafeNameFinderMETest {
+
+  private static final String TYPE = "default";
+
+  private static final String[][] DOCUMENT = {
+      {"Alisa", "appreciated", "the", "hint", "and", "enjoyed", "a", "delicious",
+          "traditional", "meal."},
+      {"Hi", "Mike", ",", "it's", "Stefanie", "Schmidt", "."}
+  };
+
+  private static TokenNameFinderModel trainModel() throws IOException {
+    InputStream in = ThreadSafeNameFinderMETest.class.getClassLoader().getResourceAsStream(
+        "opennlp/tools/namefind/AnnotatedSentences.txt");
+
+    ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+        new PlainTextByLineStream(new InputStreamReader(in, "ISO-8859-1")));
+
+    return NameFinderME.train("en", TYPE, sampleStream,
+        Collections.<String, Object>emptyMap(), 70, 1);
+  }
+
+  private static Span[][] find(TokenNameFinder nameFinder) {
+    Span[][] names = new Span[DOCUMENT.length][];
+    for (int si = 0; si < DOCUMENT.length; si++) {
+      names[si] = nameFinder.find(DOCUMENT[si]);
+    }
+    nameFinder.clearAdaptiveData();
+    return names;
+  }
+
+  @Test
+  public void testFind() throws IOException {
+    TokenNameFinderModel model = trainModel();
+
+    NameFinderME nameFinderME = new NameFinderME(model);
+    ThreadSafeNameFinderME nameFinder = new ThreadSafeNameFinderME(model);
+
+    for (String[] sentence : DOCUMENT) {
+      Span[] expected = nameFinderME.find(sentence);
+      double[] probs = nameFinderME.probs(expected);
+
+      Span[] names = nameFinder.find(sentence);
+
+      assertArrayEquals(expected, names);
+      for (int ni = 0; ni < names.length; ni++) {
+        assertEquals(probs[ni], names[ni].getProb(), 0d);
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentFind() throws Exception {
+    TokenNameFinderModel model = trainModel();
+
+    Span[][] expected = find(new NameFinderME(model));
+    assertEquals(1, expected[0].length);
+    assertEquals(2, expected[1].length);
+
+    final TokenNameFinder nameFinder = new ThreadSafeNameFinderME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<Span[][]>> tasks = new ArrayList<Callable<Span[][]>>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(new Callable<Span[][]>() {
+          public Span[][] call() {
+            return find(nameFinder);
+          }
+        });
+      }
+
+      for (Future<Span[][]> result : executor.invokeAll(tasks)) {
+        Span[][] names = result.get();
+        for (int si = 0; si < DOCUMENT.length; si++) {
+          assertArrayEquals(expected[si], names[si]);
+        }
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.Locale;
+
+import opennlp.tools.cmdline.namefind.TokenNameFinderDetailedFMeasureListener;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelUtil;
+
+import org.junit.Test;
+
+public class TokenNameFinderCrossValidatorTest {
+
+  private static final int FOLDS = 10;
+
+  private static ObjectStream<NameSample> createSampleStream() throws IOException {
+    InputStream in = TokenNameFinderCrossValidatorTest.class.getClassLoader().getResourceAsStream(
+        "opennlp/tools/namefind/AnnotatedSentencesWithTypes.txt");
+
+    return new NameSampleDataStream(
+        new PlainTextByLineStream(new InputStreamReader(in, "ISO-8859-1")));
+  }
+
+  private static TokenNameFinderCrossValidator crossValidate(int foldThreads,
+      TokenNameFinderDetailedFMeasureListener listener) throws IOException {
+
+    TrainingParameters params = ModelUtil.createTrainingParameters(70, 1);
+    params.put(TrainingParameters.FOLD_THREADS_PARAM, Integer.toString(foldThreads));
+
+    TokenNameFinderCrossValidator cv = new TokenNameFinderCrossValidator("en", null,
+        params, null, Collections.<String, Object>emptyMap(), listener);
+
+    ObjectStream<NameSample> samples = createSampleStream();
+    try {
+      cv.evaluate(samples, FOLDS);
+    }
+    finally {
+      samples.close();
+    }
+
+    return cv;
+  }
+
+  /**
+   * Tests that the folds which are evaluated in parallel can share
+   * a detailed listener, the results must be equal to the results
+   * of the folds which are evaluated one after another.
+   */
+  @Test
+  public void testParallelFoldsWithDetailedListener() throws IOException {
+
+    TokenNameFinderDetailedFMeasureListener expectedListener =
+        new TokenNameFinderDetailedFMeasureListener();
+    TokenNameFinderCrossValidator expected = crossValidate(1, expectedListener);
+
+    TokenNameFinderDetailedFMeasureListener listener =
+        new TokenNameFinderDetailedFMeasureListener();
+    TokenNameFinderCrossValidator cv = crossValidate(4, listener);
+
+    assertEquals(expected.getFMeasure().toString(), cv.getFMeasure().toString());
+    assertEquals(expectedListener.createReport(Locale.ENGLISH),
+        listener.createReport(Locale.ENGLISH));
+  }
+}
@@ -54,6 +54,27 @@ public class ParseTest {
     assertTrue(p1.equals(p2));
     assertTrue(p2.equals(p1));
   }
+
+  /**
+   * Verifies that a clone and the original parse do not see
+   * the changes of each other to their children.
+   */
+  @Test
+  public void testParseCloneIsIndependent() {
+    Parse p1 = Parse.parseParse(PARSE_STRING).getChildren()[0];
+    int childCount = p1.getChildCount();
+
+    Parse p2 = (Parse) p1.clone();
+    p2.remove(1);
+    assertEquals(childCount, p1.getChildCount());
+    assertEquals(childCount - 1, p2.getChildCount());
+
+    Parse p3 = (Parse) p1.clone();
+    p1.setChild(0, "label");
+    assertEquals("label", p1.getChildren()[0].getLabel());
+    assertEquals(null, p3.getChildren()[0].getLabel());
+    assertEquals(childCount, p3.getChildCount());
+  }
   
   @Test
   public void testGetText() {
@@ -17,15 +17,26 @@
 
 package opennlp.tools.parser.chunking;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import opennlp.tools.cmdline.parser.ParserTool;
 
+import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.HeadRules;
 import opennlp.tools.parser.Parse;
 import opennlp.tools.parser.ParserFactory;
 import opennlp.tools.parser.ParserModel;
 import opennlp.tools.parser.ParserTestUtil;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
 
 import org.junit.Test;
 
@@ -63,4 +74,128 @@ public class ParserTest {
     
     // TODO: compare both models
   }
+
+  /**
+   * Verify that an invalid number of event threads is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidThreads() throws Exception {
+    TrainingParameters params = new TrainingParameters();
+    params.put("dict", TrainingParameters.CUTOFF_PARAM, "0");
+    params.put("build", TrainingParameters.THREADS_PARAM, "0");
+
+    Parser.train("en", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), params);
+  }
+
+  /**
+   * Verify that advancing the derivations concurrently
+   * results in the same parses.
+   */
+  @Test
+  public void testParallelParsing() throws Exception {
+
+    ParserModel model = Parser.train("en", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), 10, 0);
+
+    String sentence = "She was just another freighter from the States and " +
+        "she seemed as commonplace as her name .";
+
+    Parse[] expected = ParserTool.parseLine(sentence, ParserFactory.create(model), 3);
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      AbstractBottomUpParser parser = (AbstractBottomUpParser) ParserFactory.create(model);
+      parser.setExecutor(executor);
+
+      Parse[] parses = ParserTool.parseLine(sentence, parser, 3);
+
+      assertEquals(expected.length, parses.length);
+      for (int i = 0; i < parses.length; i++) {
+        assertEquals(expected[i].getProb(), parses[i].getProb(), 0d);
+        assertEquals(expected[i], parses[i]);
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Verify that the bound-based pruning finds the same best parse
+   * and that the derivation budget limits the search.
+   */
+  @Test
+  public void testPruning() throws Exception {
+
+    ParserModel model = Parser.train("en", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), 10, 0);
+
+    String sentence = "She was just another freighter from the States and " +
+        "she seemed as commonplace as her name .";
+
+    AbstractBottomUpParser parser = (AbstractBottomUpParser) ParserFactory.create(model);
+    Parse expected = ParserTool.parseLine(sentence, parser, 1)[0];
+    assertEquals(0, parser.getSkippedDerivations());
+
+    parser.setBoundPruning(true);
+    Parse pruned = ParserTool.parseLine(sentence, parser, 1)[0];
+    assertEquals(expected.getProb(), pruned.getProb(), 0d);
+    assertEquals(expected, pruned);
+
+    parser.setBoundPruning(false);
+    parser.setMaxDerivations(5);
+    parser.setErrorReporting(false);
+    assertNotNull(ParserTool.parseLine(sentence, parser, 1)[0]);
+    assertTrue(parser.getSkippedDerivations() > 0);
+  }
+
+  /**
+   * Verify that the derivation budget also limits the derivations
+   * which are advanced concurrently.
+   */
+  @Test
+  public void testParallelParsingWithBudget() throws Exception {
+
+    ParserModel model = Parser.train("en", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), 10, 0);
+
+    String sentence = "She was just another freighter from the States and " +
+        "she seemed as commonplace as her name .";
+
+    final AtomicInteger advancedParses = new AtomicInteger();
+
+    Parser parser = new Parser(model) {
+      @Override
+      protected Parse[] advanceParses(Parse p, double probMass) {
+        advancedParses.incrementAndGet();
+        return super.advanceParses(p, probMass);
+      }
+    };
+    parser.setErrorReporting(false);
+    parser.setMaxDerivations(30);
+
+    Parse expected = ParserTool.parseLine(sentence, parser, 1)[0];
+    int expectedSkippedDerivations = parser.getSkippedDerivations();
+    int expectedAdvancedParses = advancedParses.getAndSet(0);
+
+    assertTrue(expectedSkippedDerivations > 0);
+    assertTrue(expectedAdvancedParses > 0);
+    assertTrue(expectedAdvancedParses < 30);
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      parser.setExecutor(executor);
+
+      Parse parse = ParserTool.parseLine(sentence, parser, 1)[0];
+
+      assertEquals(expectedAdvancedParses, advancedParses.get());
+      assertEquals(expectedSkippedDerivations, parser.getSkippedDerivations());
+      assertEquals(expected.getProb(), parse.getProb(), 0d);
+      assertEquals(expected, parse);
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
 }
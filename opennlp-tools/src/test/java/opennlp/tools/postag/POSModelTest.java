@@ -18,9 +18,22 @@
 
 package opennlp.tools.postag;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.model.ModelType;
@@ -64,4 +77,174 @@ public class POSModelTest {
     
     // TODO: add equals to pos model
   }
-}
\ No newline at end of file
+
+  private static final String[] SENTENCE = {"The", "driver", "got", "badly", "injured", "."};
+
+  private static void serialize(POSModel model, File file) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      model.serialize(out);
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Rewrites the package with uncompressed entries.
+   */
+  private static void store(File in, File out) throws IOException {
+    ZipInputStream zipIn = new ZipInputStream(new FileInputStream(in));
+    ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(out));
+    try {
+      ZipEntry entry;
+      while ((entry = zipIn.getNextEntry()) != null) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = zipIn.read(buffer)) != -1) {
+          content.write(buffer, 0, length);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(content.toByteArray());
+
+        ZipEntry storedEntry = new ZipEntry(entry.getName());
+        storedEntry.setMethod(ZipEntry.STORED);
+        storedEntry.setSize(content.size());
+        storedEntry.setCrc(crc.getValue());
+
+        zipOut.putNextEntry(storedEntry);
+        content.writeTo(zipOut);
+        zipOut.closeEntry();
+      }
+    }
+    finally {
+      zipIn.close();
+      zipOut.close();
+    }
+  }
+
+  /**
+   * Rewrites the package without the specified entry.
+   */
+  private static void remove(File in, File out, String name) throws IOException {
+    ZipInputStream zipIn = new ZipInputStream(new FileInputStream(in));
+    ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(out));
+    try {
+      ZipEntry entry;
+      while ((entry = zipIn.getNextEntry()) != null) {
+        if (!name.equals(entry.getName())) {
+          zipOut.putNextEntry(new ZipEntry(entry.getName()));
+          byte[] buffer = new byte[1024];
+          int length;
+          while ((length = zipIn.read(buffer)) != -1) {
+            zipOut.write(buffer, 0, length);
+          }
+          zipOut.closeEntry();
+        }
+      }
+    }
+    finally {
+      zipIn.close();
+      zipOut.close();
+    }
+  }
+
+  private static void assertSameTags(POSModel expected, POSModel model) {
+    assertEquals(expected.getLanguage(), model.getLanguage());
+    assertArrayEquals(new POSTaggerME(expected).tag(SENTENCE), new POSTaggerME(model).tag(SENTENCE));
+  }
+
+  @Test
+  public void testPOSModelFromFile() throws IOException, InvalidFormatException {
+    POSModel posModel = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    File deflatedFile = File.createTempFile("pos", ".bin");
+    File storedFile = File.createTempFile("pos-stored", ".bin");
+    try {
+      serialize(posModel, deflatedFile);
+      store(deflatedFile, storedFile);
+
+      assertSameTags(posModel, new POSModel(deflatedFile));
+      assertSameTags(posModel, new POSModel(storedFile));
+    }
+    finally {
+      deflatedFile.delete();
+      storedFile.delete();
+    }
+  }
+
+  @Test
+  public void testSerializeUnloadedPOSModel() throws IOException, InvalidFormatException {
+    POSModel posModel = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    File file = File.createTempFile("pos", ".bin");
+    try {
+      serialize(posModel, file);
+
+      // the tagger model was not requested, it is copied from the file
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new POSModel(file).serialize(out);
+
+      InputStream in = new ByteArrayInputStream(out.toByteArray());
+      assertSameTags(posModel, new POSModel(in));
+    }
+    finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testPOSModelFromFileWithoutTaggerModel() throws IOException {
+    POSModel posModel = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    File file = File.createTempFile("pos", ".bin");
+    File incompleteFile = File.createTempFile("pos-incomplete", ".bin");
+    try {
+      serialize(posModel, file);
+      remove(file, incompleteFile, "pos.model");
+
+      try {
+        new POSModel(incompleteFile);
+        fail("The missing tagger model must be detected when the model is opened!");
+      }
+      catch (InvalidFormatException e) {
+        // expected
+      }
+    }
+    finally {
+      file.delete();
+      incompleteFile.delete();
+    }
+  }
+
+  @Test
+  public void testClosePOSModel() throws IOException, InvalidFormatException {
+    POSModel posModel = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    File file = File.createTempFile("pos", ".bin");
+    try {
+      serialize(posModel, file);
+
+      // the requested tagger model can still be used
+      POSModel loadedModel = new POSModel(file);
+      loadedModel.getPosModel();
+      loadedModel.close();
+      assertSameTags(posModel, loadedModel);
+
+      POSModel closedModel = new POSModel(file);
+      closedModel.close();
+      try {
+        closedModel.getPosModel();
+        fail("The tagger model cannot be loaded from a closed model!");
+      }
+      catch (IllegalStateException e) {
+        // expected
+      }
+    }
+    finally {
+      file.delete();
+    }
+  }
+}
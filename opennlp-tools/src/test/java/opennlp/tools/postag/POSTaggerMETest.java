@@ -18,13 +18,19 @@
 
 package opennlp.tools.postag;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
+import opennlp.model.MaxentModel;
+import opennlp.tools.util.ContextIdCache;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.ViterbiDecoder;
 import opennlp.tools.util.model.ModelType;
 
 import org.junit.Test;
@@ -47,7 +53,7 @@ public class POSTaggerMETest {
    * @return
    * @throws IOException
    */
-  static POSModel trainPOSModel(ModelType type) throws IOException {
+  public static POSModel trainPOSModel(ModelType type) throws IOException {
     // TODO: also use tag dictionary for training
     return POSTaggerME.train("en", createSampleStream(), type, null, null, 5, 100);
   }
@@ -76,6 +82,68 @@ public class POSTaggerMETest {
     assertEquals(".", tags[5]);
   }
   
+  @Test
+  public void testPOSTaggerWithViterbiDecoder() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, "100");
+    params.put(TrainingParameters.CUTOFF_PARAM, "5");
+    params.put(TrainingParameters.SEQUENCE_DECODER_PARAM, ViterbiDecoder.DECODER_NAME);
+
+    POSModel posModel = POSTaggerME.train("en", createSampleStream(), params, null, null);
+    assertTrue(posModel.useViterbiDecoder());
+
+    POSTagger tagger = new POSTaggerME(posModel);
+
+    String tags[] = tagger.tag(new String[] {"The", "driver", "got", "badly", "injured", "."});
+
+    assertArrayEquals(new String[] {"DT", "NN", "VBD", "RB", "VBN", "."}, tags);
+  }
+
+  @Test
+  public void testContextIds() throws IOException {
+    MaxentModel model = trainPOSModel(ModelType.MAXENT).getPosModel();
+
+    DefaultPOSContextGenerator cg = new DefaultPOSContextGenerator(null);
+
+    String sentence[] = new String[] {"The", "driver", "got", "badly", "injured", "."};
+    String tags[] = new String[] {"DT", "NN", "VBD", "RB", "VBN", "."};
+
+    for (int i = 0; i < sentence.length; i++) {
+      String context[] = cg.getContext(i, sentence, tags, null);
+      int contextIds[] = cg.getContextIds(i, sentence, tags, null, model);
+
+      assertArrayEquals(ContextIdCache.toIds(model, context), contextIds);
+      assertArrayEquals(model.eval(context),
+          model.eval(contextIds, new double[model.getNumOutcomes()]), 0d);
+    }
+  }
+
+  @Test
+  public void testContextIdsOfSubclass() throws IOException {
+    MaxentModel model = trainPOSModel(ModelType.MAXENT).getPosModel();
+
+    DefaultPOSContextGenerator cg = new DefaultPOSContextGenerator(null) {
+      @Override
+      public String[] getContext(int index, Object[] tokens, String[] tags) {
+        String context[] = super.getContext(index, tokens, tags);
+        String reversed[] = new String[context.length];
+        for (int i = 0; i < context.length; i++) {
+          reversed[i] = context[context.length - 1 - i];
+        }
+        return reversed;
+      }
+    };
+
+    String sentence[] = new String[] {"The", "driver", "got", "badly", "injured", "."};
+    String tags[] = new String[] {"DT", "NN", "VBD", "RB", "VBN", "."};
+
+    for (int i = 0; i < sentence.length; i++) {
+      assertArrayEquals(ContextIdCache.toIds(model, cg.getContext(i, sentence, tags, null)),
+          cg.getContextIds(i, sentence, tags, null, model));
+    }
+  }
+
   @Test
   public void testBuildNGramDictionary() throws IOException {
     ObjectStream<POSSample> samples = createSampleStream();
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.postag;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.model.ModelType;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ThreadSafePOSTaggerME} class.
+ */
+public class ThreadSafePOSTaggerMETest {
+
+  private static final String[] SENTENCE = {"The", "driver", "got", "badly", "injured", "."};
+
+  @Test
+  public void testConcurrentTag() throws Exception {
+    POSModel model = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    String[] expected = new POSTaggerME(model).tag(SENTENCE);
+
+    final ThreadSafePOSTaggerME tagger = new ThreadSafePOSTaggerME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<Sequence>> tasks = new ArrayList<Callable<Sequence>>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(new Callable<Sequence>() {
+          public Sequence call() {
+            return tagger.bestSequence(SENTENCE);
+          }
+        });
+      }
+
+      for (Future<Sequence> result : executor.invokeAll(tasks)) {
+        Sequence sequence = result.get();
+        assertArrayEquals(expected, sequence.getOutcomes().toArray(new String[0]));
+        assertEquals(SENTENCE.length, sequence.getProbs().length);
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+}
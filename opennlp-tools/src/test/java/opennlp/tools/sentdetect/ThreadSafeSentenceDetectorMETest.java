@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.sentdetect;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ThreadSafeSentenceDetectorME} class.
+ */
+public class ThreadSafeSentenceDetectorMETest {
+
+  private static final String TEXT =
+      "This is a \"test\". I said \"This is a test.\"  Any questions?";
+
+  private static SentenceModel trainModel() throws IOException {
+    InputStream in = ThreadSafeSentenceDetectorMETest.class.getResourceAsStream(
+        "/opennlp/tools/sentdetect/Sentences.txt");
+
+    return SentenceDetectorME.train("en", new SentenceSampleStream(
+        new PlainTextByLineStream(new InputStreamReader(in))), true, null, 100, 0);
+  }
+
+  @Test
+  public void testSentPosDetect() throws IOException {
+    SentenceModel model = trainModel();
+
+    SentenceDetectorME sentenceDetectorME = new SentenceDetectorME(model);
+    Span[] expected = sentenceDetectorME.sentPosDetect(TEXT);
+    double[] probs = sentenceDetectorME.getSentenceProbabilities();
+
+    Span[] sentences = new ThreadSafeSentenceDetectorME(model).sentPosDetect(TEXT);
+
+    assertEquals(3, sentences.length);
+    assertArrayEquals(expected, sentences);
+    for (int si = 0; si < sentences.length; si++) {
+      assertEquals(probs[si], sentences[si].getProb(), 0d);
+    }
+  }
+
+  @Test
+  public void testConcurrentSentDetect() throws Exception {
+    SentenceModel model = trainModel();
+
+    String[] expected = new SentenceDetectorME(model).sentDetect(TEXT);
+
+    final SentenceDetector sentenceDetector = new ThreadSafeSentenceDetectorME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<String[]>> tasks = new ArrayList<Callable<String[]>>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(new Callable<String[]>() {
+          public String[] call() {
+            return sentenceDetector.sentDetect(TEXT);
+          }
+        });
+      }
+
+      for (Future<String[]> result : executor.invokeAll(tasks)) {
+        assertArrayEquals(expected, result.get());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.tokenize;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.Span;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ThreadSafeTokenizerME} class.
+ */
+public class ThreadSafeTokenizerMETest {
+
+  private static final String TEXT = "Sounds like it's not properly thought through!";
+
+  @Test
+  public void testTokenizePos() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    TokenizerME tokenizerME = new TokenizerME(model);
+    Span[] expected = tokenizerME.tokenizePos(TEXT);
+    double[] probs = tokenizerME.getTokenProbabilities();
+
+    Span[] tokens = new ThreadSafeTokenizerME(model).tokenizePos(TEXT);
+
+    assertArrayEquals(expected, tokens);
+    for (int i = 0; i < tokens.length; i++) {
+      assertEquals(probs[i], tokens[i].getProb(), 0d);
+      assertTrue(tokens[i].getProb() > 0);
+    }
+  }
+
+  @Test
+  public void testConcurrentTokenize() throws Exception {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    String[] expected = new TokenizerME(model).tokenize(TEXT);
+
+    final Tokenizer tokenizer = new ThreadSafeTokenizerME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<String[]>> tasks = new ArrayList<Callable<String[]>>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(new Callable<String[]>() {
+          public String[] call() {
+            return tokenizer.tokenize(TEXT);
+          }
+        });
+      }
+
+      for (Future<String[]> result : executor.invokeAll(tasks)) {
+        assertArrayEquals(expected, result.get());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -17,12 +17,18 @@
 
 package opennlp.tools.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import opennlp.model.MaxentModel;
 
@@ -88,6 +94,24 @@ public class BeamSearchTest {
       return eval(context);
     }
 
+    public double[] eval(int[] context, double[] probs) {
+      return eval(new String[] {outcomes[context[0]]});
+    }
+
+    public double[][] eval(String[][] contexts, double[][] probs) {
+      for (int i = 0; i < contexts.length; i++) {
+        probs[i] = eval(contexts[i]);
+      }
+      return probs;
+    }
+
+    public double[] eval(String[][] contexts, double[] probs) {
+      for (int i = 0; i < contexts.length; i++) {
+        System.arraycopy(eval(contexts[i]), 0, probs, i * outcomes.length, outcomes.length);
+      }
+      return probs;
+    }
+
     public String getAllOutcomes(double[] outcomes) {
       return null;
     }
@@ -104,6 +128,11 @@ public class BeamSearchTest {
       return 0;
     }
 
+    public int getPredicateIndex(String predicate) {
+      Integer index = outcomeIndexMap.get(predicate);
+      return index == null ? -1 : index;
+    }
+
     public int getNumOutcomes() {
       return outcomes.length;
     }
@@ -113,6 +142,205 @@ public class BeamSearchTest {
     }
   }
   
+  /**
+   * Assigns pseudo random probabilities which depend on the position
+   * and the previous decision.
+   */
+  static class HistoryFeatureGenerator implements BeamSearchContextGenerator<String> {
+
+    public String[] getContext(int index, String[] sequence,
+        String[] priorDecisions, Object[] additionalContext) {
+      String prev = index > 0 ? priorDecisions[index - 1] : "*";
+      return new String[] {index + "|" + prev};
+    }
+  }
+
+  static class RandomModel extends IdentityModel {
+
+    private final int numOutcomes;
+    private final long seed;
+
+    RandomModel(String outcomes[], long seed) {
+      super(outcomes);
+      this.numOutcomes = outcomes.length;
+      this.seed = seed;
+    }
+
+    @Override
+    public double[] eval(String[] context) {
+      Random random = new Random(seed * 31 + context[0].hashCode());
+
+      double probs[] = new double[numOutcomes];
+      double sum = 0;
+      for (int i = 0; i < probs.length; i++) {
+        probs[i] = random.nextDouble() + 0.01d;
+        sum += probs[i];
+      }
+
+      for (int i = 0; i < probs.length; i++) {
+        probs[i] /= sum;
+      }
+
+      return probs;
+    }
+  }
+
+  /**
+   * The search as it was implemented with a {@link ListHeap} of
+   * {@link Sequence} objects, the results are compared against it.
+   */
+  private static Sequence[] referenceBestSequences(int size, BeamSearchContextGenerator<String> cg,
+      MaxentModel model, SequenceValidator<String> validator, int numSequences,
+      String[] sequence, double minSequenceScore) {
+
+    Heap<Sequence> prev = new ListHeap<Sequence>(size);
+    Heap<Sequence> next = new ListHeap<Sequence>(size);
+    Heap<Sequence> tmp;
+    prev.add(new Sequence());
+
+    for (int i = 0; i < sequence.length; i++) {
+      int sz = Math.min(size, prev.size());
+
+      for (int sc = 0; prev.size() > 0 && sc < sz; sc++) {
+        Sequence top = prev.extract();
+        List<String> tmpOutcomes = top.getOutcomes();
+        String[] outcomes = tmpOutcomes.toArray(new String[tmpOutcomes.size()]);
+        double[] scores = model.eval(cg.getContext(i, sequence, outcomes, null));
+
+        double[] temp_scores = scores.clone();
+        Arrays.sort(temp_scores);
+        double min = temp_scores[Math.max(0, scores.length - size)];
+
+        for (int p = 0; p < scores.length; p++) {
+          if (scores[p] < min)
+            continue;
+          String out = model.getOutcome(p);
+          if (validator == null || validator.validSequence(i, sequence, outcomes, out)) {
+            Sequence ns = new Sequence(top, out, scores[p]);
+            if (ns.getScore() > minSequenceScore) {
+              next.add(ns);
+            }
+          }
+        }
+
+        if (next.size() == 0) {
+          for (int p = 0; p < scores.length; p++) {
+            String out = model.getOutcome(p);
+            if (validator == null || validator.validSequence(i, sequence, outcomes, out)) {
+              Sequence ns = new Sequence(top, out, scores[p]);
+              if (ns.getScore() > minSequenceScore) {
+                next.add(ns);
+              }
+            }
+          }
+        }
+      }
+
+      prev.clear();
+      tmp = prev;
+      prev = next;
+      next = tmp;
+    }
+
+    int numSeq = Math.min(numSequences, prev.size());
+    Sequence[] topSequences = new Sequence[numSeq];
+
+    for (int seqIndex = 0; seqIndex < numSeq; seqIndex++) {
+      topSequences[seqIndex] = prev.extract();
+    }
+
+    return topSequences;
+  }
+
+  private static void assertSequenceEquals(Sequence expected, Sequence actual) {
+    assertEquals(expected.getOutcomes(), actual.getOutcomes());
+    assertArrayEquals(expected.getProbs(), actual.getProbs(), 0d);
+    assertEquals(expected.getScore(), actual.getScore(), 0d);
+  }
+
+  /**
+   * Compares the n-best sequences against the reference search, with and
+   * without a validator and a minimum sequence score.
+   */
+  @Test
+  public void testBestSequencesAgainstReference() {
+    String outcomes[] = new String[] {"A", "B", "C", "D", "E"};
+    String sequence[] = new String[] {"1", "2", "3", "4", "5", "6"};
+
+    SequenceValidator<String> validator = new SequenceValidator<String>() {
+      public boolean validSequence(int i, String[] inputSequence,
+          String[] outcomesSequence, String outcome) {
+        // no outcome may follow itself
+        return i == 0 || !outcome.equals(outcomesSequence[i - 1]);
+      }
+    };
+
+    // without and with a validator
+    List<SequenceValidator<String>> validators = new ArrayList<SequenceValidator<String>>();
+    validators.add(null);
+    validators.add(validator);
+
+    BeamSearchContextGenerator<String> cg = new HistoryFeatureGenerator();
+
+    for (long seed = 0; seed < 20; seed++) {
+      MaxentModel model = new RandomModel(outcomes, seed);
+
+      for (int size = 1; size <= 4; size++) {
+        for (SequenceValidator<String> v : validators) {
+          for (double minScore : new double[] {-100000, -8, -6}) {
+
+            // the search object is reused to cover the reuse of its arrays
+            BeamSearch<String> bs = new BeamSearch<String>(size, cg, model, v, 0);
+
+            for (int numSequences = 1; numSequences <= size; numSequences++) {
+              Sequence expected[] = referenceBestSequences(size, cg, model, v,
+                  numSequences, sequence, minScore);
+              Sequence actual[] = bs.bestSequences(numSequences, sequence, null, minScore);
+
+              assertEquals(expected.length, actual.length);
+              for (int i = 0; i < expected.length; i++) {
+                assertSequenceEquals(expected[i], actual[i]);
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests that requesting more sequences than the beam size returns the
+   * best sequences of the last step in order, the first ones are the
+   * same as with the reference search.
+   */
+  @Test
+  public void testMoreSequencesThanBeamSize() {
+    String outcomes[] = new String[] {"A", "B", "C", "D", "E"};
+    String sequence[] = new String[] {"1", "2", "3", "4"};
+
+    BeamSearchContextGenerator<String> cg = new HistoryFeatureGenerator();
+
+    for (long seed = 0; seed < 20; seed++) {
+      MaxentModel model = new RandomModel(outcomes, seed);
+
+      BeamSearch<String> bs = new BeamSearch<String>(2, cg, model);
+
+      Sequence expected[] = referenceBestSequences(2, cg, model, null, 2, sequence, -100000);
+      Sequence actual[] = bs.bestSequences(8, sequence, null);
+
+      // the beam of size 2 expands to at most 2 * 2 candidates in the last step
+      assertEquals(4, actual.length);
+
+      for (int i = 0; i < expected.length; i++) {
+        assertSequenceEquals(expected[i], actual[i]);
+      }
+
+      for (int i = 1; i < actual.length; i++) {
+        assertTrue(actual[i - 1].getScore() >= actual[i].getScore());
+      }
+    }
+  }
+
   /**
    * Tests that beam search does not fail to detect an empty sequence.
    */
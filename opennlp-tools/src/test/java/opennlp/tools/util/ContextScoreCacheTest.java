@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ContextScoreCacheTest {
+
+  @Test
+  public void testContentKey() {
+    ContextScoreCache cache = new ContextScoreCache(10, 2);
+
+    cache.put(new String[] {"a", "b"}, new double[] {0.25, 0.75});
+
+    double probs[] = new double[2];
+    assertTrue(cache.get(new String[] {"a", "b"}, probs));
+    assertEquals(0.25, probs[0], 0d);
+    assertEquals(0.75, probs[1], 0d);
+
+    assertFalse(cache.get(new String[] {"b", "a"}, probs));
+    assertFalse(cache.get(new int[] {1, 2}, probs));
+
+    assertEquals(1, cache.getNumberOfCacheHits());
+    assertEquals(2, cache.getNumberOfCacheMisses());
+  }
+
+  @Test
+  public void testScoresAreCopied() {
+    ContextScoreCache cache = new ContextScoreCache(10, 1);
+
+    double scores[] = new double[] {1};
+    cache.put(new int[] {1}, scores);
+    scores[0] = 2;
+
+    double probs[] = new double[1];
+    assertTrue(cache.get(new int[] {1}, probs));
+    assertEquals(1, probs[0], 0d);
+  }
+
+  @Test
+  public void testEviction() {
+    int capacity = 4;
+    ContextScoreCache cache = new ContextScoreCache(capacity, 1);
+
+    double probs[] = new double[1];
+
+    for (int i = 0; i < 100; i++) {
+      cache.put(new int[] {i}, new double[] {i});
+
+      assertTrue(cache.size() <= capacity);
+      assertTrue(cache.get(new int[] {i}, probs));
+      assertEquals(i, probs[0], 0d);
+    }
+
+    // all remaining contexts must still be reachable after the evictions
+    int found = 0;
+    for (int i = 0; i < 100; i++) {
+      if (cache.get(new int[] {i}, probs)) {
+        assertEquals(i, probs[0], 0d);
+        found++;
+      }
+    }
+    assertEquals(capacity, found);
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertFalse(cache.get(new int[] {0}, probs));
+  }
+}
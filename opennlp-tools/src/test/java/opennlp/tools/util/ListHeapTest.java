@@ -56,4 +56,24 @@ public class ListHeapTest {
     assertEquals(0, heap.size());
     
   }
+
+  /**
+   * Verifies that a cleared heap behaves like a new heap.
+   */
+  @Test
+  public void testClear() {
+    Heap<Integer> heap = new ListHeap<Integer>(2);
+    heap.add(1);
+    heap.add(5);
+
+    heap.clear();
+    assertEquals(0, heap.size());
+
+    heap.add(3);
+    heap.add(2);
+    heap.add(4);
+
+    assertEquals(2, heap.size());
+    assertEquals(Integer.valueOf(3), heap.last());
+  }
 }
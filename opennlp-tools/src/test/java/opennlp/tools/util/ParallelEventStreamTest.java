@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import opennlp.model.Event;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ParallelEventStream} class.
+ */
+public class ParallelEventStreamTest {
+
+  /**
+   * Creates one event per character of the sample.
+   */
+  static class CharEventStream extends AbstractEventStream<String> {
+
+    CharEventStream(ObjectStream<String> samples) {
+      super(samples);
+    }
+
+    @Override
+    protected Iterator<Event> createEvents(String sample) {
+      List<Event> events = new ArrayList<Event>();
+
+      for (int i = 0; i < sample.length(); i++) {
+        events.add(new Event(sample.substring(i, i + 1), new String[] {sample}));
+      }
+
+      return events.iterator();
+    }
+  }
+
+  @Test
+  public void testEventOrder() throws IOException {
+    List<String> samples = new ArrayList<String>();
+    for (int i = 0; i < 1000; i++) {
+      // some samples do not have events
+      samples.add(i % 7 == 0 ? "" : Integer.toString(i));
+    }
+
+    List<CharEventStream> generators = new ArrayList<CharEventStream>();
+    for (int i = 0; i < 3; i++) {
+      generators.add(new CharEventStream(null));
+    }
+
+    ParallelEventStream<String> parallelStream = new ParallelEventStream<String>(
+        new CollectionObjectStream<String>(samples), generators, 5);
+
+    CharEventStream stream = new CharEventStream(new CollectionObjectStream<String>(samples));
+
+    while (stream.hasNext()) {
+      Event expected = stream.next();
+
+      assertTrue(parallelStream.hasNext());
+      Event actual = parallelStream.next();
+
+      assertEquals(expected.toString(), actual.toString());
+    }
+
+    assertFalse(parallelStream.hasNext());
+  }
+
+  @Test
+  public void testClose() throws IOException {
+    final int[] read = new int[1];
+
+    ObjectStream<String> samples = new FilterObjectStream<String, String>(
+        new CollectionObjectStream<String>(Collections.nCopies(1000, "abc"))) {
+      public String read() throws IOException {
+        String sample = samples.read();
+        if (sample != null)
+          read[0]++;
+        return sample;
+      }
+    };
+
+    List<CharEventStream> generators = new ArrayList<CharEventStream>();
+    generators.add(new CharEventStream(null));
+    generators.add(new CharEventStream(null));
+
+    ParallelEventStream<String> parallelStream =
+        new ParallelEventStream<String>(samples, generators, 5);
+
+    assertTrue(parallelStream.hasNext());
+    parallelStream.close();
+
+    // only the current batch is left, no more samples are read
+    int readBeforeClose = read[0];
+    int events = 0;
+    while (parallelStream.hasNext()) {
+      parallelStream.next();
+      events++;
+    }
+
+    assertEquals(readBeforeClose, read[0]);
+    assertTrue(events < 1000 * 3);
+  }
+
+  @Test
+  public void testEmptyStream() throws IOException {
+    List<CharEventStream> generators = new ArrayList<CharEventStream>();
+    generators.add(new CharEventStream(null));
+    generators.add(new CharEventStream(null));
+
+    ParallelEventStream<String> parallelStream = new ParallelEventStream<String>(
+        new CollectionObjectStream<String>(new ArrayList<String>()), generators);
+
+    assertFalse(parallelStream.hasNext());
+  }
+}
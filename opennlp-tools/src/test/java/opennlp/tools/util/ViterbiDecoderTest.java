@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+
+import opennlp.model.MaxentModel;
+import opennlp.tools.util.BeamSearchTest.HistoryFeatureGenerator;
+import opennlp.tools.util.BeamSearchTest.IdentityFeatureGenerator;
+import opennlp.tools.util.BeamSearchTest.IdentityModel;
+import opennlp.tools.util.BeamSearchTest.RandomModel;
+
+import org.junit.Test;
+
+public class ViterbiDecoderTest {
+
+  /**
+   * The outcome of the first position which looks best locally leads
+   * to a worse sequence.
+   */
+  static class PreviousOutcomeModel extends IdentityModel {
+
+    PreviousOutcomeModel() {
+      super(new String[] {"a", "b"});
+    }
+
+    @Override
+    public double[] eval(String[] context) {
+      if ("start".equals(context[0]))
+        return new double[] {0.6, 0.4};
+      else if ("a".equals(context[0]))
+        return new double[] {0.5, 0.5};
+      else
+        return new double[] {0.99, 0.01};
+    }
+  }
+
+  static class PreviousOutcomeContextGenerator implements BeamSearchContextGenerator<String> {
+
+    public String[] getContext(int index, String[] sequence,
+        String[] priorDecisions, Object[] additionalContext) {
+      return new String[] {index == 0 ? "start" : priorDecisions[index - 1]};
+    }
+  }
+
+  @Test
+  public void testBestSequenceZeroLengthInput() {
+    String sequence[] = new String[0];
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    MaxentModel model = new IdentityModel(new String[] {"1", "2", "3"});
+
+    Sequence seq = new ViterbiDecoder<String>(cg, model, null).bestSequence(sequence, null);
+    assertNotNull(seq);
+    assertEquals(0, seq.getOutcomes().size());
+  }
+
+  @Test
+  public void testBestSequence() {
+    String sequence[] = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    MaxentModel model = new IdentityModel(new String[] {"1", "2", "3"});
+
+    Sequence seq = new ViterbiDecoder<String>(cg, model, null, 1).bestSequence(sequence, null);
+    assertNotNull(seq);
+    assertEquals(Arrays.asList(sequence), seq.getOutcomes());
+    assertEquals(5 * Math.log(0.8), seq.getScore(), 0.000001);
+  }
+
+  @Test
+  public void testBestSequenceWithValidator() {
+    String sequence[] = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    MaxentModel model = new IdentityModel(new String[] {"1", "2", "3"});
+
+    SequenceDecoder<String> decoder = new ViterbiDecoder<String>(cg, model,
+        new SequenceValidator<String>() {
+      public boolean validSequence(int i, String[] inputSequence,
+          String[] outcomesSequence, String outcome) {
+        return !"2".equals(outcome);
+      }});
+
+    Sequence seq = decoder.bestSequence(sequence, null);
+    assertNotNull(seq);
+    assertEquals(sequence.length, seq.getOutcomes().size());
+    assertFalse(seq.getOutcomes().contains("2"));
+    assertEquals("1", seq.getOutcomes().get(0));
+    assertEquals("3", seq.getOutcomes().get(2));
+    assertEquals("1", seq.getOutcomes().get(4));
+  }
+
+  /**
+   * Tests that the Viterbi decoder finds the best sequence when a beam of size one does not.
+   */
+  @Test
+  public void testExactSearch() {
+    String sequence[] = {"x", "y"};
+    BeamSearchContextGenerator<String> cg = new PreviousOutcomeContextGenerator();
+    MaxentModel model = new PreviousOutcomeModel();
+
+    Sequence beamSeq = new BeamSearch<String>(1, cg, model).bestSequence(sequence, null);
+    assertEquals("a", beamSeq.getOutcomes().get(0));
+
+    Sequence[] seqs = new ViterbiDecoder<String>(cg, model, null, 1).bestSequences(2, sequence, null);
+    assertEquals(2, seqs.length);
+    assertEquals(Arrays.asList("b", "a"), seqs[0].getOutcomes());
+    assertEquals(Math.log(0.4) + Math.log(0.99), seqs[0].getScore(), 0d);
+    assertEquals(0.99, seqs[0].getProbs()[1], 0d);
+    assertEquals(Arrays.asList("a", "b"), seqs[1].getOutcomes());
+  }
+
+  /**
+   * Tests that only one sequence per final state is returned, the n-best
+   * list is not exact.
+   */
+  @Test
+  public void testOneSequencePerFinalState() {
+    String sequence[] = {"x", "y"};
+    BeamSearchContextGenerator<String> cg = new PreviousOutcomeContextGenerator();
+    MaxentModel model = new PreviousOutcomeModel();
+
+    Sequence[] seqs = new ViterbiDecoder<String>(cg, model, null, 1).bestSequences(4, sequence, null);
+    assertEquals(2, seqs.length);
+  }
+
+  /**
+   * Tests a large number of possible states, only the reachable ones are allocated.
+   */
+  @Test
+  public void testManyStates() {
+    String outcomes[] = new String[40];
+    for (int i = 0; i < outcomes.length; i++) {
+      outcomes[i] = Integer.toString(i);
+    }
+
+    String sequence[] = {"1", "2", "3"};
+    BeamSearchContextGenerator<String> cg = new HistoryFeatureGenerator();
+    MaxentModel model = new RandomModel(outcomes, 7);
+
+    // 41^5 possible states
+    Sequence seq = new ViterbiDecoder<String>(cg, model, null, 5).bestSequence(sequence, null);
+    Sequence expected = new ViterbiDecoder<String>(cg, model, null, 1).bestSequence(sequence, null);
+
+    assertEquals(expected.getOutcomes(), seq.getOutcomes());
+    assertEquals(expected.getScore(), seq.getScore(), 0d);
+  }
+}
@@ -31,6 +31,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.eval.CrossValidationPartitioner.TrainingSampleStream;
 
@@ -151,6 +152,62 @@ public class CrossValidationPartitionerTest {
     assertFalse(partitioner.hasNext());
   }
 
+  /**
+   * Test that the cached samples are read once and that
+   * the partitions can be used at the same time.
+   */
+  @Test
+  public void testCachedSamples() throws IOException {
+    List<String> data = new LinkedList<String>();
+    for (int i = 1; i <= 6; i++) {
+      data.add("0" + i);
+    }
+    
+    final int resets[] = new int[1];
+    
+    ObjectStream<String> samples = new CollectionObjectStream<String>(data) {
+      @Override
+      public void reset() {
+        resets[0]++;
+        super.reset();
+      }
+    };
+    
+    // the stream resets itself when it is created
+    resets[0] = 0;
+    
+    CrossValidationPartitioner<String> partitioner =
+        new CrossValidationPartitioner<String>(samples, 2, true);
+    
+    assertTrue(partitioner.isCachingSamples());
+    
+    TrainingSampleStream<String> firstTraining = partitioner.next();
+    TrainingSampleStream<String> secondTraining = partitioner.next();
+    
+    assertEquals("02", firstTraining.read());
+    assertEquals("01", secondTraining.read());
+    assertEquals("04", firstTraining.read());
+    assertEquals("03", secondTraining.read());
+    
+    firstTraining.reset();
+    assertEquals("02", firstTraining.read());
+    
+    ObjectStream<String> firstTest = firstTraining.getTestSampleStream();
+    
+    assertEquals("01", firstTest.read());
+    assertEquals("05", secondTraining.read());
+    assertEquals("03", firstTest.read());
+    assertEquals("05", firstTest.read());
+    assertNull(firstTest.read());
+    assertNull(secondTraining.read());
+    
+    ObjectStream<String> secondTest = secondTraining.getTestSampleStream();
+    assertEquals("02", secondTest.read());
+    
+    // the samples were read once from the underlying stream
+    assertEquals(0, resets[0]);
+  }
+  
   @Test
   public void testFailSafty() throws IOException {
     List<String> data = new LinkedList<String>();
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package opennlp.tools.util.eval;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.eval.CrossValidationPartitioner.TrainingSampleStream;
+
+import org.junit.Test;
+
+/**
+ * Test for the {@link FoldExecutor} class.
+ */
+public class FoldExecutorTest {
+
+  /**
+   * Returns the sum of the test samples of a fold.
+   */
+  private static class SumFold implements FoldExecutor.Fold<Integer, Integer> {
+    public Integer evaluate(TrainingSampleStream<Integer> trainingSampleStream)
+        throws IOException {
+      
+      // the training samples must be read before the test samples
+      while (trainingSampleStream.read() != null) {
+      }
+      
+      ObjectStream<Integer> testSamples = trainingSampleStream.getTestSampleStream();
+      
+      int sum = 0;
+      Integer sample;
+      while ((sample = testSamples.read()) != null) {
+        sum += sample;
+      }
+      return sum;
+    }
+  }
+  
+  private static List<Integer> evaluate(FoldExecutor executor, boolean cacheSamples)
+      throws IOException {
+    List<Integer> data = new ArrayList<Integer>();
+    for (int i = 0; i < 100; i++) {
+      data.add(i);
+    }
+    
+    return executor.evaluate(new CrossValidationPartitioner<Integer>(
+        new CollectionObjectStream<Integer>(data), 10, cacheSamples), new SumFold());
+  }
+  
+  @Test
+  public void testResultsAreInFoldOrder() throws IOException {
+    List<Integer> expected = evaluate(new FoldExecutor(1, 0), false);
+    
+    assertEquals(10, expected.size());
+    assertEquals(Integer.valueOf(450), expected.get(0));
+    
+    assertEquals(expected, evaluate(new FoldExecutor(1, 0), true));
+    assertEquals(expected, evaluate(new FoldExecutor(4, 0), true));
+    
+    // a fold needs more memory than available, the folds run one after another
+    assertEquals(expected, evaluate(new FoldExecutor(4, Long.MAX_VALUE), true));
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelFoldsNeedCachedSamples() throws IOException {
+    evaluate(new FoldExecutor(2, 0), false);
+  }
+  
+  @Test
+  public void testCreate() {
+    assertEquals(1, FoldExecutor.create(null).getParallelism());
+    
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.FOLD_THREADS_PARAM, "3");
+    assertEquals(3, FoldExecutor.create(params).getParallelism());
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testCreateWithMalformedFoldThreads() {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.FOLD_THREADS_PARAM, "three");
+    FoldExecutor.create(params);
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testCreateWithMalformedFoldMemory() {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.FOLD_MEMORY_PARAM, "1g");
+    FoldExecutor.create(params);
+  }
+  
+  /**
+   * Counts the calls, it is not thread safe.
+   */
+  private static class CountingMonitor implements EvaluationMonitor<Integer> {
+    
+    private int calls;
+    
+    public void correctlyClassified(Integer reference, Integer prediction) {
+      calls++;
+    }
+    
+    public void missclassified(Integer reference, Integer prediction) {
+      calls++;
+    }
+  }
+  
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSynchronizeMonitors() throws IOException {
+    CountingMonitor monitor = new CountingMonitor();
+    EvaluationMonitor<Integer> monitors[] = new EvaluationMonitor[] {monitor, null};
+    
+    assertSame(monitors, new FoldExecutor(1, 0).synchronizeMonitors(
+        EvaluationMonitor.class, monitors));
+    
+    final EvaluationMonitor<Integer> synchronizedMonitors[] = new FoldExecutor(4, 0)
+        .synchronizeMonitors(EvaluationMonitor.class, monitors);
+    assertEquals(2, synchronizedMonitors.length);
+    assertNull(synchronizedMonitors[1]);
+    
+    List<Integer> data = new ArrayList<Integer>();
+    for (int i = 0; i < 10000; i++) {
+      data.add(i);
+    }
+    
+    new FoldExecutor(4, 0).evaluate(new CrossValidationPartitioner<Integer>(
+        new CollectionObjectStream<Integer>(data), 8, true),
+        new FoldExecutor.Fold<Integer, Integer>() {
+      public Integer evaluate(TrainingSampleStream<Integer> trainingSampleStream)
+          throws IOException {
+        
+        while (trainingSampleStream.read() != null) {
+        }
+        
+        ObjectStream<Integer> testSamples = trainingSampleStream.getTestSampleStream();
+        
+        Integer sample;
+        while ((sample = testSamples.read()) != null) {
+          synchronizedMonitors[0].correctlyClassified(sample, sample);
+        }
+        return null;
+      }
+    });
+    
+    assertEquals(data.size(), monitor.calls);
+  }
+}
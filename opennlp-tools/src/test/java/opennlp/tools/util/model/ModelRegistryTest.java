@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTaggerMETest;
+
+import org.junit.Test;
+
+public class ModelRegistryTest {
+
+  private static File createModelFile(ModelType type) throws IOException {
+    File modelFile = File.createTempFile("pos-model", ".bin");
+    modelFile.deleteOnExit();
+
+    OutputStream out = new FileOutputStream(modelFile);
+    try {
+      POSTaggerMETest.trainPOSModel(type).serialize(out);
+    }
+    finally {
+      out.close();
+    }
+
+    return modelFile;
+  }
+
+  private static void copy(File source, File target) throws IOException {
+    OutputStream out = new FileOutputStream(target);
+    try {
+      InputStream in = new FileInputStream(source);
+      try {
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = in.read(buffer)) != -1) {
+          out.write(buffer, 0, length);
+        }
+      }
+      finally {
+        in.close();
+      }
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  @Test
+  public void testSharedModel() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    File modelFile = createModelFile(ModelType.MAXENT);
+
+    ModelHandle<POSModel> handle1 = registry.acquire(POSModel.class, modelFile);
+    ModelHandle<POSModel> handle2 = registry.acquire(POSModel.class, modelFile);
+
+    assertNotSame(handle1, handle2);
+    assertSame(handle1.getModel(), handle2.getModel());
+    assertEquals(1, registry.size());
+
+    handle1.release();
+    assertEquals(1, registry.size());
+
+    handle2.release();
+    assertEquals(0, registry.size());
+
+    // after the last release the model is loaded again
+    ModelHandle<POSModel> handle3 = registry.acquire(POSModel.class, modelFile);
+    assertNotSame(handle1.getModel(), handle3.getModel());
+    handle3.release();
+  }
+
+  @Test
+  public void testDoubleRelease() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    File modelFile = createModelFile(ModelType.MAXENT);
+
+    ModelHandle<POSModel> handle1 = registry.acquire(POSModel.class, modelFile);
+    ModelHandle<POSModel> handle2 = registry.acquire(POSModel.class, modelFile);
+
+    handle1.release();
+    try {
+      handle1.release();
+      fail("A handle can only be released once!");
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+
+    // the second release must not drop the reference of the other handle
+    assertEquals(1, registry.size());
+
+    handle2.release();
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  public void testReload() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    File modelFile = createModelFile(ModelType.MAXENT);
+
+    ModelHandle<POSModel> handle = registry.acquire(POSModel.class, modelFile);
+    POSModel model = handle.getModel();
+    long checksum = handle.getChecksum();
+
+    assertFalse(handle.reload());
+    assertSame(model, handle.getModel());
+
+    // a new modification time alone does not load the unchanged content again
+    assertTrue(modelFile.setLastModified(modelFile.lastModified() - 10000));
+    assertFalse(handle.reload());
+    assertSame(model, handle.getModel());
+    assertEquals(checksum, handle.getChecksum());
+
+    copy(createModelFile(ModelType.PERCEPTRON), modelFile);
+
+    assertEquals(1, registry.reloadModified());
+    assertNotSame(model, handle.getModel());
+    assertTrue(checksum != handle.getChecksum());
+
+    handle.release();
+  }
+}
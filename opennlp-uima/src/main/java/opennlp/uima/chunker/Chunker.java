@@ -77,6 +77,10 @@ public final class Chunker extends CasAnnotator_ImplBase {
 
   private Feature mPosFeature;
 
+  private ChunkerModelResource mModelResource;
+
+  private ChunkerModel mModel;
+
   private ChunkerME mChunker;
   
   private UimaContext context;
@@ -113,19 +117,15 @@ public final class Chunker extends CasAnnotator_ImplBase {
       mLogger.log(Level.INFO, "Initializing the OpenNLP Chunker annotator.");
     }    
     
-    ChunkerModel model;
-    
     try {
-      ChunkerModelResource modelResource = 
+      mModelResource = 
             (ChunkerModelResource) context.getResourceObject(UimaUtil.MODEL_PARAMETER);
-        
-        model = modelResource.getModel();
     }
     catch (ResourceAccessException e) {
         throw new ResourceInitializationException(e);
     }
     
-    mChunker = new ChunkerME(model);
+    mModelResource.acquire();
   }
 
   /**
@@ -166,6 +166,14 @@ public final class Chunker extends CasAnnotator_ImplBase {
    */
   public void process(CAS tcas) {
     
+    // the model changes when the model file was reloaded
+    ChunkerModel model = mModelResource.getModel();
+    
+    if (model != mModel) {
+      mModel = model;
+      mChunker = new ChunkerME(model);
+    }
+    
     FSIndex<AnnotationFS> tokenAnnotationIndex = tcas.getAnnotationIndex(mTokenType);
 
     String tokens[] = new String[tokenAnnotationIndex.size()];
@@ -233,5 +241,8 @@ public final class Chunker extends CasAnnotator_ImplBase {
   public void destroy() {
     // dereference model to allow garbage collection 
     mChunker = null;
+    mModel = null;
+    
+    mModelResource.release();
   }
 }
\ No newline at end of file
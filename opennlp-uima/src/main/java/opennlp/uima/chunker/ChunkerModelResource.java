@@ -18,8 +18,9 @@
 package opennlp.uima.chunker;
 
 import opennlp.tools.chunker.ChunkerModel;
+import opennlp.uima.util.ModelResource;
 
-public interface ChunkerModelResource {
+public interface ChunkerModelResource extends ModelResource {
 
   ChunkerModel getModel();
   
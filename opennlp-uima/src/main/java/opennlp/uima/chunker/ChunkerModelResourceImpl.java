@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class ChunkerModelResourceImpl extends AbstractModelResource<ChunkerModel> 
     implements ChunkerModelResource {
 
-  public ChunkerModel getModel() {
-    return model;
+  public ChunkerModelResourceImpl() {
+    super(ChunkerModel.class);
   }
 
   @Override
@@ -43,6 +43,10 @@ abstract class AbstractDocumentCategorizer extends CasAnnotator_ImplBase {
 
   private Logger mLogger;
 
+  private DoccatModelResource mModelResource;
+
+  private DoccatModel mModel;
+
   private opennlp.tools.doccat.DocumentCategorizer mCategorizer;
 
   private Type mTokenType;
@@ -60,18 +64,14 @@ abstract class AbstractDocumentCategorizer extends CasAnnotator_ImplBase {
       mLogger.log(Level.INFO, "Initializing the OpenNLP Categorizer.");
     }
 
-    DoccatModel model;
-
     try {
-      DoccatModelResource modelResource = (DoccatModelResource) context
+      mModelResource = (DoccatModelResource) context
           .getResourceObject(UimaUtil.MODEL_PARAMETER);
-
-      model = modelResource.getModel();
     } catch (ResourceAccessException e) {
       throw new ResourceInitializationException(e);
     }
 
-    mCategorizer = new DocumentCategorizerME(model);
+    mModelResource.acquire();
   }
   
   public void typeSystemInit(TypeSystem typeSystem) 
@@ -84,6 +84,14 @@ abstract class AbstractDocumentCategorizer extends CasAnnotator_ImplBase {
   
   public void process(CAS cas) {
     
+    // the model changes when the model file was reloaded
+    DoccatModel model = mModelResource.getModel();
+    
+    if (model != mModel) {
+      mModel = model;
+      mCategorizer = new DocumentCategorizerME(model);
+    }
+    
     double result[];
     
     if (mTokenType != null) {
@@ -102,4 +110,14 @@ abstract class AbstractDocumentCategorizer extends CasAnnotator_ImplBase {
     
     setBestCategory(cas, bestCategory);
   }
+  
+  /**
+   * Releases allocated resources.
+   */
+  public void destroy() {
+    mCategorizer = null;
+    mModel = null;
+    
+    mModelResource.release();
+  }
 }
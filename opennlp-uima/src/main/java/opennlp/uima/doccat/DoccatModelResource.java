@@ -18,7 +18,8 @@
 package opennlp.uima.doccat;
 
 import opennlp.tools.doccat.DoccatModel;
+import opennlp.uima.util.ModelResource;
 
-public interface DoccatModelResource {
+public interface DoccatModelResource extends ModelResource {
   DoccatModel getModel();
 }
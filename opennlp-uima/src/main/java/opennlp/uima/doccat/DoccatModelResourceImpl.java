@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class DoccatModelResourceImpl extends AbstractModelResource<DoccatModel>
     implements DoccatModelResource {
 
-  public DoccatModel getModel() {
-    return model;
+  public DoccatModelResourceImpl() {
+    super(DoccatModel.class);
   }
 
   @Override
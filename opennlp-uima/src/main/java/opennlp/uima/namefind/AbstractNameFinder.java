@@ -108,6 +108,12 @@ abstract class AbstractNameFinder extends CasAnnotator_ImplBase {
 		  AnnotationFS[] nameAnnotations) {
   }
   
+  /**
+   * Called before the current document is processed.
+   */
+  protected void documentStart(CAS cas) {
+  }
+  
   /**
    * Called if the current document is completely processed. 
    */
@@ -121,6 +127,8 @@ abstract class AbstractNameFinder extends CasAnnotator_ImplBase {
    */
   public final void process(CAS cas) {
 
+    documentStart(cas);
+
     if (isRemoveExistingAnnotations) {
       final AnnotationComboIterator sentenceNameCombo = new AnnotationComboIterator(cas,
           mSentenceType, mNameType);
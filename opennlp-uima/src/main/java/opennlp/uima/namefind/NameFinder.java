@@ -87,6 +87,12 @@ public final class NameFinder extends AbstractNameFinder {
   public static final String TOKEN_CLASS_FEATURE_NEXT_WINDOW_SIZE_PARAMETER =
       TOKEN_CLASS_FEATURE_PARAMETER + ".nextWindowSize";
   
+  private TokenNameFinderModelResource mModelResource;
+  
+  private TokenNameFinderModel mModel;
+  
+  private int mBeamSize;
+  
   private NameFinderME mNameFinder;
 
   private Feature probabilityFeature;
@@ -117,13 +123,9 @@ public final class NameFinder extends AbstractNameFinder {
 
     super.initialize();
     
-    TokenNameFinderModel model;
-    
     try {
-      TokenNameFinderModelResource modelResource = 
+      mModelResource = 
             (TokenNameFinderModelResource) context.getResourceObject(UimaUtil.MODEL_PARAMETER);
-        
-        model = modelResource.getModel();
     }
     catch (ResourceAccessException e) {
         throw new ResourceInitializationException(e);
@@ -135,7 +137,9 @@ public final class NameFinder extends AbstractNameFinder {
     if (beamSize == null)
       beamSize = NameFinderME.DEFAULT_BEAM_SIZE;
     
-    mNameFinder = new NameFinderME(model, beamSize);
+    mBeamSize = beamSize;
+    
+    mModelResource.acquire();
   }
 
   /**
@@ -159,6 +163,18 @@ public final class NameFinder extends AbstractNameFinder {
     }
   }
 
+  protected void documentStart(CAS cas) {
+    
+    // the model changes when the model file was reloaded, the adaptive
+    // data is cleared at the end of every document
+    TokenNameFinderModel model = mModelResource.getModel();
+    
+    if (model != mModel) {
+      mModel = model;
+      mNameFinder = new NameFinderME(model, mBeamSize);
+    }
+  }
+  
   protected Span[] find(CAS cas, String[] tokens) {
 
     Span names[] = mNameFinder.find(tokens);
@@ -209,5 +225,8 @@ public final class NameFinder extends AbstractNameFinder {
    */
   public void destroy() {
     mNameFinder = null;
+    mModel = null;
+    
+    mModelResource.release();
   }
 }
\ No newline at end of file
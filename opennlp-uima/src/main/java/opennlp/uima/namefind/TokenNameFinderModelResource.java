@@ -18,7 +18,8 @@
 package opennlp.uima.namefind;
 
 import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.uima.util.ModelResource;
 
-public interface TokenNameFinderModelResource {
+public interface TokenNameFinderModelResource extends ModelResource {
   TokenNameFinderModel getModel();
 }
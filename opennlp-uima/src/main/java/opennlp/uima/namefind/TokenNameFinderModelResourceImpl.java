@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class TokenNameFinderModelResourceImpl extends AbstractModelResource<TokenNameFinderModel>
     implements TokenNameFinderModelResource {
 
-  public TokenNameFinderModel getModel() {
-    return model;
+  public TokenNameFinderModelResourceImpl() {
+    super(TokenNameFinderModel.class);
   }
 
   @Override
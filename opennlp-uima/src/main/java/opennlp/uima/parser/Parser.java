@@ -197,6 +197,10 @@ public class Parser extends CasAnnotator_ImplBase {
 
   private Type mTokenType;
 
+  private ParserModelResource mModelResource;
+
+  private ParserModel mModel;
+
   protected opennlp.tools.parser.Parser mParser;
 
   private Type mParseType;
@@ -219,18 +223,14 @@ public class Parser extends CasAnnotator_ImplBase {
       mLogger.log(Level.INFO, "Initializing the OpenNLP Parser.");
     }
 
-    ParserModel model;
-
     try {
-      ParserModelResource modelResource = (ParserModelResource) context
+      mModelResource = (ParserModelResource) context
           .getResourceObject(UimaUtil.MODEL_PARAMETER);
-
-      model = modelResource.getModel();
     } catch (ResourceAccessException e) {
       throw new ResourceInitializationException(e);
     }
 
-    mParser = ParserFactory.create(model);
+    mModelResource.acquire();
   }
   
   /**
@@ -256,6 +256,15 @@ public class Parser extends CasAnnotator_ImplBase {
    * Performs parsing on the given {@link CAS} object.
    */
   public void process(CAS cas) {
+
+    // the model changes when the model file was reloaded
+    ParserModel model = mModelResource.getModel();
+
+    if (model != mModel) {
+      mModel = model;
+      mParser = ParserFactory.create(model);
+    }
+
     FSIndex<AnnotationFS> sentences = cas.getAnnotationIndex(mSentenceType);
 
     Iterator<AnnotationFS> sentencesIterator = sentences.iterator();
@@ -342,5 +351,8 @@ public class Parser extends CasAnnotator_ImplBase {
    */
   public void destroy() {
     mParser = null;
+    mModel = null;
+
+    mModelResource.release();
   }
 }
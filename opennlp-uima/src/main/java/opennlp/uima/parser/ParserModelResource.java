@@ -18,7 +18,8 @@
 package opennlp.uima.parser;
 
 import opennlp.tools.parser.ParserModel;
+import opennlp.uima.util.ModelResource;
 
-public interface ParserModelResource {
+public interface ParserModelResource extends ModelResource {
   ParserModel getModel();
 }
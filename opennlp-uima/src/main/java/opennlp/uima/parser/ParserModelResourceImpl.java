@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class ParserModelResourceImpl extends AbstractModelResource<ParserModel> implements
     ParserModelResource {
 
-  public ParserModel getModel() {
-    return model;
+  public ParserModelResourceImpl() {
+    super(ParserModel.class);
   }
 
   @Override
@@ -18,7 +18,8 @@
 package opennlp.uima.postag;
 
 import opennlp.tools.postag.POSModel;
+import opennlp.uima.util.ModelResource;
 
-public interface POSModelResource {
+public interface POSModelResource extends ModelResource {
   POSModel getModel();
 }
@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class POSModelResourceImpl extends AbstractModelResource<POSModel>
     implements POSModelResource {
 
-  public POSModel getModel() {
-    return model;
+  public POSModelResourceImpl() {
+    super(POSModel.class);
   }
 
   @Override
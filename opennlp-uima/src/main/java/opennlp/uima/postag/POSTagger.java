@@ -64,6 +64,12 @@ import org.apache.uima.util.Logger;
  */
 public final class POSTagger extends CasAnnotator_ImplBase {
 
+  private POSModelResource modelResource;
+
+  private POSModel model;
+
+  private int beamSize;
+
   private POSTaggerME posTagger;
 
   private Type sentenceType;
@@ -108,13 +114,9 @@ public final class POSTagger extends CasAnnotator_ImplBase {
           + "Part of Speech annotator.");
     }
 
-    POSModel model;
-
     try {
-      POSModelResource modelResource = (POSModelResource) context
+      modelResource = (POSModelResource) context
           .getResourceObject(UimaUtil.MODEL_PARAMETER);
-
-      model = modelResource.getModel();
     } catch (ResourceAccessException e) {
       throw new ResourceInitializationException(e);
     }
@@ -125,7 +127,9 @@ public final class POSTagger extends CasAnnotator_ImplBase {
     if (beamSize == null)
       beamSize = POSTaggerME.DEFAULT_BEAM_SIZE;
 
-    this.posTagger = new POSTaggerME(model, beamSize, 0);
+    this.beamSize = beamSize;
+
+    modelResource.acquire();
   }
 
   /**
@@ -156,6 +160,14 @@ public final class POSTagger extends CasAnnotator_ImplBase {
   @Override
   public void process(CAS tcas) {
 
+    // the model changes when the model file was reloaded
+    POSModel currentModel = modelResource.getModel();
+
+    if (currentModel != model) {
+      model = currentModel;
+      posTagger = new POSTaggerME(model, beamSize, 0);
+    }
+
     final AnnotationComboIterator comboIterator = new AnnotationComboIterator(tcas,
         this.sentenceType, this.tokenType);
 
@@ -229,5 +241,8 @@ public final class POSTagger extends CasAnnotator_ImplBase {
   @Override
   public void destroy() {
     this.posTagger = null;
+    this.model = null;
+
+    modelResource.release();
   }
 }
\ No newline at end of file
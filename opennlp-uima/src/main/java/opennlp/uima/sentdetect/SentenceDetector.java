@@ -55,6 +55,10 @@ public final class SentenceDetector extends AbstractSentenceDetector {
   /**
    * OpenNLP sentence detector.
    */
+  private SentenceModelResource modelResource;
+
+  private SentenceModel model;
+
   private SentenceDetectorME sentenceDetector;
 
   private Feature probabilityFeature;
@@ -79,18 +83,14 @@ public final class SentenceDetector extends AbstractSentenceDetector {
 
     super.initialize(context);
 
-    SentenceModel model;
-
     try {
-      SentenceModelResource modelResource = (SentenceModelResource) context
+      modelResource = (SentenceModelResource) context
           .getResourceObject(UimaUtil.MODEL_PARAMETER);
-
-      model = modelResource.getModel();
     } catch (ResourceAccessException e) {
       throw new ResourceInitializationException(e);
     }
 
-    sentenceDetector = new SentenceDetectorME(model);
+    modelResource.acquire();
   }
 
   /**
@@ -106,6 +106,20 @@ public final class SentenceDetector extends AbstractSentenceDetector {
         CAS.TYPE_NAME_DOUBLE);
   }
 
+  @Override
+  public void process(CAS cas) throws AnalysisEngineProcessException {
+
+    // the model changes when the model file was reloaded
+    SentenceModel currentModel = modelResource.getModel();
+
+    if (currentModel != model) {
+      model = currentModel;
+      sentenceDetector = new SentenceDetectorME(model);
+    }
+
+    super.process(cas);
+  }
+
   @Override
   protected Span[] detectSentences(String text) {
     return sentenceDetector.sentPosDetect(text);
@@ -129,5 +143,8 @@ public final class SentenceDetector extends AbstractSentenceDetector {
   public void destroy() {
     // dereference model to allow garbage collection 
     sentenceDetector = null;
+    model = null;
+
+    modelResource.release();
   }
 }
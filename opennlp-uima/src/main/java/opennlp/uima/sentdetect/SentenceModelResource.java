@@ -18,8 +18,9 @@
 package opennlp.uima.sentdetect;
 
 import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.uima.util.ModelResource;
 
-public interface SentenceModelResource {
+public interface SentenceModelResource extends ModelResource {
 
   SentenceModel getModel();
 }
@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class SentenceModelResourceImpl extends AbstractModelResource<SentenceModel>
     implements SentenceModelResource {
 
-  public SentenceModel getModel() {
-    return model;
+  public SentenceModelResourceImpl() {
+    super(SentenceModel.class);
   }
 
   @Override
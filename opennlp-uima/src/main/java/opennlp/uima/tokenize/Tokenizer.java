@@ -56,6 +56,10 @@ public final class Tokenizer extends AbstractTokenizer {
   /**
    * The OpenNLP tokenizer.
    */
+  private TokenizerModelResource modelResource;
+
+  private TokenizerModel model;
+
   private TokenizerME tokenizer;
   
   private Feature probabilityFeature;
@@ -82,18 +86,14 @@ public final class Tokenizer extends AbstractTokenizer {
 
     super.initialize(context);
 
-    TokenizerModel model;
-
     try {
-      TokenizerModelResource modelResource = (TokenizerModelResource) context
+      modelResource = (TokenizerModelResource) context
           .getResourceObject(UimaUtil.MODEL_PARAMETER);
-
-      model = modelResource.getModel();
     } catch (ResourceAccessException e) {
       throw new ResourceInitializationException(e);
     }
 
-    tokenizer = new TokenizerME(model);
+    modelResource.acquire();
   }
 
   /**
@@ -109,7 +109,20 @@ public final class Tokenizer extends AbstractTokenizer {
             UimaUtil.PROBABILITY_FEATURE_PARAMETER, CAS.TYPE_NAME_DOUBLE);
   }
 
-  
+  @Override
+  public void process(CAS cas) throws AnalysisEngineProcessException {
+
+    // the model changes when the model file was reloaded
+    TokenizerModel currentModel = modelResource.getModel();
+
+    if (currentModel != model) {
+      model = currentModel;
+      tokenizer = new TokenizerME(model);
+    }
+
+    super.process(cas);
+  }
+
   @Override
   protected Span[] tokenize(CAS cas, AnnotationFS sentence) {
     return tokenizer.tokenizePos(sentence.getCoveredText());
@@ -135,5 +148,8 @@ public final class Tokenizer extends AbstractTokenizer {
   public void destroy() {
     // dereference model to allow garbage collection 
     tokenizer = null;
+    model = null;
+
+    modelResource.release();
   }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@
 package opennlp.uima.tokenize;
 
 import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.uima.util.ModelResource;
 
 import org.apache.uima.analysis_engine.AnalysisEngine;
 
@@ -25,7 +26,7 @@ import org.apache.uima.analysis_engine.AnalysisEngine;
  * A {@link TokenizerModel} which can be shared between {@link AnalysisEngine}s
  * and loaded via the UIMA resource model.
  */
-public interface TokenizerModelResource {
+public interface TokenizerModelResource extends ModelResource {
 
   /**
    * Retrieves the shared model instance.
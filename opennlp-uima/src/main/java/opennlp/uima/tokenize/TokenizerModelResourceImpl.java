@@ -26,8 +26,8 @@ import opennlp.uima.util.AbstractModelResource;
 public class TokenizerModelResourceImpl extends
     AbstractModelResource<TokenizerModel> implements TokenizerModelResource {
 
-  public TokenizerModel getModel() {
-    return model;
+  public TokenizerModelResourceImpl() {
+    super(TokenizerModel.class);
   }
 
   @Override
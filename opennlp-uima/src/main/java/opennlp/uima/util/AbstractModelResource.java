@@ -17,27 +17,159 @@
 
 package opennlp.uima.util;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+
+import opennlp.tools.util.model.BaseModel;
+import opennlp.tools.util.model.ModelHandle;
+import opennlp.tools.util.model.ModelRegistry;
 
 import org.apache.uima.resource.DataResource;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.SharedResourceObject;
 
-public abstract class AbstractModelResource<T> implements SharedResourceObject {
+/**
+ * Base class of the model resources.
+ * <p>
+ * If the model class is known and the model is a local file, the model is
+ * acquired from the {@link ModelRegistry}, all resources which refer to the
+ * same file share one model. {@link #getModel()} checks at most every
+ * {@link #RELOAD_CHECK_INTERVAL} milliseconds if the file was modified and
+ * then loads the new version, which replaces the model for all resources of
+ * the file. The registry handle is released when the last annotator which
+ * acquired the resource is destroyed.
+ * <p>
+ * Otherwise the model is read from the stream of the data resource.
+ */
+public abstract class AbstractModelResource<T extends BaseModel>
+		implements SharedResourceObject, ModelResource {
+	
+	/**
+	 * The minimum time in milliseconds between two checks if the model file was modified.
+	 */
+	public static final long RELOAD_CHECK_INTERVAL = 10000;
+	
+	private final Class<T> modelClass;
+	
+	private File modelFile;
+	
+	private volatile ModelHandle<T> handle;
+	
+	private final AtomicLong nextReloadCheck = new AtomicLong();
+	
+	/** The number of annotators which acquired the resource, guarded by this. */
+	private int users;
 	
 	protected T model;
 	
+	protected AbstractModelResource() {
+		this(null);
+	}
+	
+	/**
+	 * @param modelClass the class of the model, or null if the model should
+	 *     not be shared through the {@link ModelRegistry}
+	 */
+	protected AbstractModelResource(Class<T> modelClass) {
+		this.modelClass = modelClass;
+	}
+	
 	protected abstract T loadModel(InputStream in) throws IOException;
 	
-	public void load(DataResource resource) throws ResourceInitializationException {
+	/**
+	 * Retrieves the current model. A model which was acquired from the registry
+	 * changes when its file was modified, an annotator should retrieve the model
+	 * once per process call.
+	 */
+	public T getModel() {
+		ModelHandle<T> currentHandle = handle;
+		
+		if (currentHandle != null) {
+			long now = System.currentTimeMillis();
+			long nextCheck = nextReloadCheck.get();
+			
+			// only one thread checks the file, the others continue with the current model
+			if (now >= nextCheck &&
+					nextReloadCheck.compareAndSet(nextCheck, now + RELOAD_CHECK_INTERVAL)) {
+				try {
+					currentHandle.reload();
+				} catch (IOException e) {
+					// the current model stays in use, a file which is still
+					// written is loaded at one of the next checks
+				}
+			}
+			
+			return currentHandle.getModel();
+		}
+		
+		return model;
+	}
+	
+	private static File toFile(DataResource resource) {
+		URL url = resource.getUrl();
+		if (url != null && "file".equals(url.getProtocol())) {
+			try {
+				return new File(url.toURI());
+			} catch (URISyntaxException e) {
+				// not a valid file URI, the stream is used instead
+			}
+		}
+		return null;
+	}
+	
+	private static ResourceInitializationException createException(IOException e) {
+		return new ResourceInitializationException(
+				ExceptionMessages.MESSAGE_CATALOG,
+				ExceptionMessages.IO_ERROR_MODEL_READING, new Object[] {
+					e.getMessage()}, e);
+	}
+	
+	private ModelHandle<T> acquireHandle() throws ResourceInitializationException {
 		try {
-		    model = loadModel(resource.getInputStream());
+			return ModelRegistry.getInstance().acquire(modelClass, modelFile);
 		} catch (IOException e) {
-		    throw new ResourceInitializationException(
-			    ExceptionMessages.MESSAGE_CATALOG,
-			    ExceptionMessages.IO_ERROR_MODEL_READING, new Object[] {
-				    e.getMessage()}, e);
+			throw createException(e);
+		}
+	}
+	
+	public void load(DataResource resource) throws ResourceInitializationException {
+		modelFile = modelClass != null ? toFile(resource) : null;
+		
+		if (modelFile != null) {
+			handle = acquireHandle();
+		}
+		else {
+			try {
+				model = loadModel(resource.getInputStream());
+			} catch (IOException e) {
+				throw createException(e);
+			}
+		}
+	}
+	
+	public synchronized void acquire() throws ResourceInitializationException {
+		if (handle == null && modelFile != null) {
+			// the last annotator released the model
+			handle = acquireHandle();
+		}
+		
+		users++;
+	}
+	
+	public synchronized void release() {
+		if (users <= 0) {
+			throw new IllegalStateException("The model resource was already released!");
+		}
+		
+		users--;
+		
+		if (users == 0 && handle != null) {
+			handle.release();
+			handle = null;
 		}
 	}
 }
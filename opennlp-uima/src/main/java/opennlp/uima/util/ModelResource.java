@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreemnets.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.uima.util;
+
+import org.apache.uima.resource.ResourceInitializationException;
+
+/**
+ * A model resource which can be shared by multiple annotators.
+ * <p>
+ * An annotator calls {@link #acquire()} once in its initialize method,
+ * retrieves the current model at the beginning of every process call and
+ * calls {@link #release()} once in its destroy method.
+ */
+public interface ModelResource {
+
+  /**
+   * Registers an annotator which uses the model.
+   *
+   * @throws ResourceInitializationException if the model cannot be loaded
+   */
+  void acquire() throws ResourceInitializationException;
+
+  /**
+   * Unregisters an annotator, the model is released when the last
+   * annotator which uses it is destroyed.
+   */
+  void release();
+}